@@ -129,6 +129,36 @@
         
         new JSONWriter(out).object().key("settings_set").value(settings)
         .endObject();
+    } else if(action.equals("checkmetrics")) {
+        // optional parameters: enable=true|false, allocations=true|false, reset=true
+        String enable = request.getParameter("enable");
+        if (enable != null) {
+            org.unicode.cldr.test.CheckMetrics.setEnabled(Boolean.parseBoolean(enable));
+        }
+        String allocations = request.getParameter("allocations");
+        if (allocations != null) {
+            org.unicode.cldr.test.CheckMetrics.setCountingAllocations(Boolean.parseBoolean(allocations));
+        }
+        if ("true".equals(request.getParameter("reset"))) {
+            org.unicode.cldr.test.CheckMetrics.reset();
+        }
+        new JSONWriter(out).object().key("checkmetrics").value(new JSONObject(org.unicode.cldr.test.CheckMetrics.toJson()))
+        .endObject();
+    } else if(action.equals("ajaxmetrics")) {
+        // optional parameters: slowMillis=n, reset=true
+        String slowMillis = request.getParameter("slowMillis");
+        if (slowMillis != null) {
+            AjaxMetrics.setSlowMillis(Long.parseLong(slowMillis));
+        }
+        if ("true".equals(request.getParameter("reset"))) {
+            AjaxMetrics.reset();
+        }
+        new JSONWriter(out).object().key("ajaxmetrics").value(AjaxMetrics.toJSON())
+        .endObject();
+    } else if(action.equals("dbpool")) {
+        ConnectionPool pool = DBUtils.getInstance().getPool();
+        new JSONWriter(out).object().key("dbpool").value(pool == null ? null : pool.toJSON())
+        .endObject();
 	} else {
 		response.sendError(500, "Unknown action.");
 	}%>
\ No newline at end of file
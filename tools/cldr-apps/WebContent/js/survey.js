@@ -3838,6 +3838,130 @@ function loadAdminPanel() {
 			div.appendChild(frag);
 		});
 	
+		addAdminPanel("admin_checkmetrics", function(div) {
+			div.className = "adminCheckMetrics";
+
+			function showMetrics(urlAppend) {
+				var u = createChunk("Loading...", "div", "adminCheckMetricsList");
+				removeAllChildNodes(div);
+				div.appendChild(u);
+				loadOrFail("do=checkmetrics" + (urlAppend || ""), u, function(json) {
+					var metrics = json.checkmetrics;
+					var frag2 = document.createDocumentFragment();
+
+					var toggle = createChunk(stui.str(metrics.enabled ? "adminCheckMetricsDisable" : "adminCheckMetricsEnable"), "button");
+					toggle.onclick = function() {
+						showMetrics("&enable=" + !metrics.enabled + "&allocations=" + !metrics.enabled);
+						return false;
+					};
+					frag2.appendChild(toggle);
+					var reset = createChunk(stui.str("adminCheckMetricsReset"), "button");
+					reset.onclick = function() {
+						showMetrics("&reset=true");
+						return false;
+					};
+					frag2.appendChild(reset);
+
+					if (Object.keys(metrics.checks).length == 0) {
+						frag2.appendChild(createChunk(stui.str("adminCheckMetricsNone"), "p"));
+					} else {
+						var table = createChunk(null, "table", "adminCheckMetricsTable");
+						var header = createChunk(null, "tr");
+						["Check", "Setups", "Setup ms", "Paths", "Check ms", "Mean µs", "Max ms", "Histogram", "Bytes"].forEach(function(h) {
+							header.appendChild(createChunk(h, "th"));
+						});
+						table.appendChild(header);
+						for (var name in metrics.checks) {
+							var check = metrics.checks[name];
+							var row = createChunk(null, "tr");
+							var histogram = [];
+							for (var bucket in check.check.histogram) {
+								histogram.push(bucket + ": " + check.check.histogram[bucket]);
+							}
+							[name.replace(/.*\./, ""), check.setup.count, check.setup.totalMillis.toFixed(1),
+								check.check.count, check.check.totalMillis.toFixed(1), check.check.meanMicros.toFixed(1),
+								check.check.maxMillis.toFixed(1), histogram.join(", "), check.check.allocatedBytes || ""
+							].forEach(function(cell) {
+								row.appendChild(createChunk(String(cell), "td"));
+							});
+							table.appendChild(row);
+							if (check.slowest.length > 0) {
+								var slowRow = createChunk(null, "tr");
+								var slowCell = createChunk(null, "td");
+								slowCell.colSpan = 9;
+								check.slowest.forEach(function(slow) {
+									slowCell.appendChild(createChunk(slow.millis.toFixed(1) + " ms\t" + slow.locale + "\t" + slow.path, "div", "adminCheckMetricsSlow"));
+								});
+								slowRow.appendChild(slowCell);
+								table.appendChild(slowRow);
+							}
+						}
+						frag2.appendChild(table);
+					}
+					removeAllChildNodes(u);
+					u.appendChild(frag2);
+				});
+			}
+			showMetrics();
+		});
+
+		addAdminPanel("admin_ajaxmetrics", function(div) {
+			div.className = "adminAjaxMetrics";
+
+			function showMetrics(urlAppend) {
+				var u = createChunk("Loading...", "div", "adminAjaxMetricsList");
+				removeAllChildNodes(div);
+				div.appendChild(u);
+				loadOrFail("do=ajaxmetrics" + (urlAppend || ""), u, function(json) {
+					var metrics = json.ajaxmetrics;
+					var frag2 = document.createDocumentFragment();
+
+					var reset = createChunk(stui.str("adminAjaxMetricsReset"), "button");
+					reset.onclick = function() {
+						showMetrics("&reset=true");
+						return false;
+					};
+					frag2.appendChild(reset);
+
+					var table = createChunk(null, "table", "adminAjaxMetricsTable");
+					var header = createChunk(null, "tr");
+					["Request", "Count", "In flight", "Total ms", "Mean ms", "Max ms", "DB ms", "JSON ms", "Compute ms", "Histogram"].forEach(function(h) {
+						header.appendChild(createChunk(h, "th"));
+					});
+					table.appendChild(header);
+					metrics.order.forEach(function(what) {
+						var kind = metrics.kinds[what];
+						var row = createChunk(null, "tr");
+						var histogram = [];
+						for (var bucket in kind.histogram) {
+							histogram.push(bucket + ": " + kind.histogram[bucket]);
+						}
+						[what, kind.count, kind.inFlight, kind.totalMillis.toFixed(1), kind.meanMillis.toFixed(1),
+							kind.maxMillis.toFixed(1), kind.dbMillis.toFixed(1), kind.jsonMillis.toFixed(1),
+							kind.computeMillis.toFixed(1), histogram.join(", ")
+						].forEach(function(cell) {
+							row.appendChild(createChunk(String(cell), "td"));
+						});
+						table.appendChild(row);
+					});
+					frag2.appendChild(table);
+
+					frag2.appendChild(createChunk(stui.sub("adminAjaxMetricsSlow", [metrics.slowMillis]), "h4"));
+					if (metrics.slow.length == 0) {
+						frag2.appendChild(createChunk(stui.str("adminAjaxMetricsNone"), "p"));
+					}
+					metrics.slow.forEach(function(slow) {
+						frag2.appendChild(createChunk(new Date(slow.start).toISOString() + "\t" + slow.totalMillis.toFixed(1) + " ms (DB "
+							+ slow.dbMillis.toFixed(1) + ", JSON " + slow.jsonMillis.toFixed(1) + ")\t" + slow.what + "\t"
+							+ (slow.locale || "") + "\t" + (slow.page || ""), "div", "adminAjaxMetricsSlow"));
+					});
+					removeAllChildNodes(u);
+					u.appendChild(frag2);
+				});
+			}
+			showMetrics();
+		});
+
 		addAdminPanel("admin_ops", function(div) {
 			var frag = document.createDocumentFragment();
 	
@@ -85,6 +85,19 @@ define({
 		admin_threads_desc: "All Threads",
 		adminClickToViewThreads: "Click a thread to view its call stack",
 
+		admin_checkmetrics: "Check Metrics",
+		admin_checkmetrics_desc: "Time taken by each CheckCLDR check, and its slowest paths",
+		adminCheckMetricsEnable: "Start collecting",
+		adminCheckMetricsDisable: "Stop collecting",
+		adminCheckMetricsReset: "Reset",
+		adminCheckMetricsNone: "No metrics collected.",
+
+		admin_ajaxmetrics: "Request Metrics",
+		admin_ajaxmetrics_desc: "Time taken by each kind of SurveyAjax request, and the slowest recent requests",
+		adminAjaxMetricsReset: "Reset",
+		adminAjaxMetricsSlow: "Requests slower than ${0} ms",
+		adminAjaxMetricsNone: "No slow requests.",
+
 		admin_exceptions: "Exception Log",
 		admin_exceptions_desc: "Contents of the exceptions.log",
 		adminClickToViewExceptions: "Click an exception to view its call stack",
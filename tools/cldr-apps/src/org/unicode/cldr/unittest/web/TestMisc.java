@@ -4,10 +4,22 @@ package org.unicode.cldr.unittest.web;
  * Copyright (C) 2012
  */
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.derby.jdbc.EmbeddedDataSource;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRConfigImpl;
 import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.web.AjaxMetrics;
+import org.unicode.cldr.web.ConnectionPool;
 import org.unicode.cldr.web.STFactory;
 import org.unicode.cldr.web.WebContext;
 
@@ -87,4 +99,154 @@ public class TestMisc extends TestFmwk {
         String toolsVersion = CLDRConfigImpl.getGitHashForSlug("CLDR-Tools");
         assertNotNull("getting CLDR-Tools version", toolsVersion);
     }
+
+    public void TestAjaxMetrics() throws JSONException, InterruptedException {
+        long oldSlowMillis = AjaxMetrics.getSlowMillis();
+        AjaxMetrics.reset();
+        AjaxMetrics.setSlowMillis(0);
+        try {
+            AjaxMetrics.Request outer = AjaxMetrics.begin("testmetrics", "fr", "Languages");
+            assertEquals("in flight", 1, getKind("testmetrics").getInt("inFlight"));
+            AjaxMetrics.connectionOpened();
+            AjaxMetrics.connectionOpened(); // nested connections are counted once
+            Thread.sleep(5);
+            AjaxMetrics.connectionClosed();
+            AjaxMetrics.connectionClosed();
+            long jsonStart = AjaxMetrics.jsonStart();
+            Thread.sleep(5);
+            AjaxMetrics.jsonWritten(jsonStart);
+            AjaxMetrics.end(outer);
+            AjaxMetrics.end(AjaxMetrics.begin("testmetrics", null, null));
+            AjaxMetrics.connectionOpened(); // outside a request: ignored
+            AjaxMetrics.connectionClosed();
+
+            JSONObject kind = getKind("testmetrics");
+            assertEquals("count", 2, kind.getInt("count"));
+            assertEquals("in flight", 0, kind.getInt("inFlight"));
+            double db = kind.getDouble("dbMillis");
+            double json = kind.getDouble("jsonMillis");
+            assertTrue("db time " + db, db >= 5 && db < kind.getDouble("totalMillis"));
+            assertTrue("json time " + json, json >= 5 && json < kind.getDouble("totalMillis"));
+            JSONObject histogram = kind.getJSONObject("histogram");
+            int histogramCount = 0;
+            for (String bucket : JSONObject.getNames(histogram)) {
+                histogramCount += histogram.getInt(bucket);
+            }
+            assertEquals("histogram count", 2, histogramCount);
+
+            JSONArray slow = AjaxMetrics.toJSON().getJSONArray("slow");
+            assertEquals("slow requests", 2, slow.length());
+            assertFalse("most recent first", slow.getJSONObject(0).has("locale"));
+            assertEquals("locale", "fr", slow.getJSONObject(1).getString("locale"));
+            assertEquals("page", "Languages", slow.getJSONObject(1).getString("page"));
+
+            AjaxMetrics.reset();
+            assertEquals("count after reset", 0, getKind("testmetrics").getInt("count"));
+            assertEquals("slow requests after reset", 0, AjaxMetrics.toJSON().getJSONArray("slow").length());
+        } finally {
+            AjaxMetrics.setSlowMillis(oldSlowMillis);
+        }
+    }
+
+    private static JSONObject getKind(String what) throws JSONException {
+        return AjaxMetrics.toJSON().getJSONObject("kinds").getJSONObject(what);
+    }
+
+    public void TestConnectionPool() throws SQLException, JSONException {
+        EmbeddedDataSource ds = new EmbeddedDataSource();
+        ds.setDatabaseName("memory:pooltest");
+        ds.setCreateDatabase("create");
+        ConnectionPool pool = new ConnectionPool(ds, 2, 4, 100, 0, true);
+        try {
+            Connection conn = pool.getConnection();
+            try (Statement s = conn.createStatement()) {
+                s.execute("create table pooltest (id int)");
+            }
+            conn.close();
+            conn.close(); // closing twice is harmless
+            assertTrue("closed", conn.isClosed());
+            assertEquals("in use", 0, pool.getInUse());
+
+            // statements are cached by their SQL, and belong to their connection's lease
+            conn = pool.getConnection();
+            conn.setAutoCommit(false);
+            final String insert = "insert into pooltest (id) values (?)";
+            PreparedStatement ps = conn.prepareStatement(insert);
+            assertTrue("statement's connection", ps.getConnection() == conn);
+            ps.setInt(1, 1);
+            ps.executeUpdate();
+            ps.close();
+            long hits = pool.getStatementHits();
+            ps = conn.prepareStatement(insert);
+            assertEquals("statement cached", hits + 1, pool.getStatementHits());
+            PreparedStatement ps2 = conn.prepareStatement(insert);
+            assertTrue("a statement in use isn't handed out twice", ps != ps2);
+            ps.setInt(1, 2);
+            ps.executeUpdate();
+            conn.commit();
+            ps.setInt(1, 3);
+            ps.executeUpdate(); // not committed: rolled back when the connection is given back
+            conn.close();
+            try {
+                ps.setInt(1, 4);
+                errln("statement usable after its connection was closed");
+            } catch (SQLException e) {
+                logln("Caught expected: " + e);
+            }
+            assertEquals("open connections", 1, pool.getSize());
+
+            conn = pool.getConnection();
+            assertTrue("autocommit restored", conn.getAutoCommit());
+            try (PreparedStatement count = conn.prepareStatement("select count(*) from pooltest");
+                ResultSet rs = count.executeQuery()) {
+                rs.next();
+                assertEquals("committed rows", 2, rs.getInt(1));
+            }
+
+            // options set on a cached statement don't carry over to its next use
+            final String select = "select id from pooltest";
+            try (PreparedStatement limited = conn.prepareStatement(select)) {
+                limited.setMaxRows(1);
+                limited.setFetchSize(1);
+                limited.setQueryTimeout(5);
+            }
+            try (PreparedStatement all = conn.prepareStatement(select);
+                ResultSet rs = all.executeQuery()) {
+                assertEquals("max rows", 0, all.getMaxRows());
+                assertEquals("query timeout", 0, all.getQueryTimeout());
+                int rows = 0;
+                while (rs.next()) {
+                    ++rows;
+                }
+                assertEquals("rows", 2, rows);
+            }
+
+            // the pool is bounded, and reports who holds the connections
+            Connection conn2 = pool.getConnection();
+            assertEquals("open connections", 2, pool.getSize());
+            try {
+                pool.getConnection();
+                errln("expected a timeout with all connections in use");
+            } catch (SQLException e) {
+                logln("Caught expected: " + e);
+            }
+            assertEquals("leaks", 2, pool.getLeaks().size());
+            assertTrue("leak has stack", pool.getLeaks().get(0).contains("TestConnectionPool"));
+            conn2.close();
+            conn.close();
+            JSONObject json = pool.toJSON();
+            assertEquals("in use", 0, json.getInt("inUse"));
+            assertEquals("max in use", 2, json.getInt("maxInUse"));
+            assertEquals("created", 2, json.getInt("created"));
+            assertEquals("waits", 1, json.getInt("waits"));
+        } finally {
+            pool.close();
+        }
+        try {
+            pool.getConnection();
+            errln("expected an exception from a closed pool");
+        } catch (SQLException e) {
+            logln("Caught expected: " + e);
+        }
+    }
 }
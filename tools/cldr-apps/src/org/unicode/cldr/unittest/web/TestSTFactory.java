@@ -3,19 +3,33 @@ package org.unicode.cldr.unittest.web;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Logger;
 
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import org.unicode.cldr.draft.FileUtilities;
+import org.unicode.cldr.test.CheckCLDR;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.TestCache.TestResultBundle;
 import org.unicode.cldr.unittest.web.TestAll.WebTestInfo;
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRFile.DraftStatus;
 import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.CLDRPaths;
+import org.unicode.cldr.util.CldrUtility;
 import org.unicode.cldr.util.SpecialLocales;
 import org.unicode.cldr.util.StackTracker;
 import org.unicode.cldr.util.VoteResolver;
@@ -26,15 +40,18 @@ import org.unicode.cldr.util.XPathParts;
 import org.unicode.cldr.web.BallotBox;
 import org.unicode.cldr.web.BallotBox.InvalidXPathException;
 import org.unicode.cldr.web.BallotBox.VoteNotAcceptedException;
+import org.unicode.cldr.web.ConnectionPool;
 import org.unicode.cldr.web.CookieSession;
 import org.unicode.cldr.web.DBUtils;
 import org.unicode.cldr.web.STFactory;
 import org.unicode.cldr.web.SurveyException;
+import org.unicode.cldr.web.SurveyForum;
 import org.unicode.cldr.web.SurveyLog;
 import org.unicode.cldr.web.SurveyMain;
 import org.unicode.cldr.web.UserRegistry;
 import org.unicode.cldr.web.UserRegistry.LogoutException;
 import org.unicode.cldr.web.UserRegistry.User;
+import org.unicode.cldr.web.VoteStatistics;
 import org.unicode.cldr.web.XPathTable;
 
 import com.ibm.icu.dev.test.TestFmwk;
@@ -364,6 +381,571 @@ public class TestSTFactory extends TestFmwk {
         }
     }
 
+    /**
+     * Simulate page loads between votes: after a vote, only the cached check results
+     * that depend on the voted path should be recomputed, not those for the whole locale.
+     * (The languages are checked for collisions with each other, so a vote on one of them
+     * does recompute the whole languages page, but not the scripts page.)
+     */
+    public void TestIncrementalRecheck() throws SQLException, IOException, InvalidXPathException, VoteNotAcceptedException {
+        STFactory fac = getFactory();
+        CLDRLocale locale = CLDRLocale.getInstance("fr");
+        CheckCLDR.Options options = new CheckCLDR.Options(locale, SurveyMain.getTestPhase(), null, null);
+        CLDRFile file = fac.make(locale, true);
+        BallotBox<User> box = fac.ballotBoxForLocale(locale);
+
+        List<String> page = new ArrayList<>();
+        List<String> otherPage = new ArrayList<>();
+        for (String path : file) {
+            if (path.startsWith("//ldml/localeDisplayNames/languages/")) {
+                page.add(path);
+            } else if (path.startsWith("//ldml/localeDisplayNames/scripts/")) {
+                otherPage.add(path);
+            }
+        }
+        final String votePath = page.get(page.size() / 2);
+
+        TestResultBundle bundle = fac.getTestResult(locale, options);
+        long start = System.currentTimeMillis();
+        checkPage(bundle, file, page);
+        long firstLoad = System.currentTimeMillis() - start;
+        checkPage(bundle, file, otherPage);
+        int dependenciesBefore = bundle.getDependencyCount();
+
+        final int VOTES = 5;
+        long reloads = 0;
+        for (int i = 0; i < VOTES; ++i) {
+            box.voteForValue(getMyUser(), votePath, "Incremental Recheck " + i);
+            TestResultBundle bundleAfterVote = fac.getTestResult(locale, options);
+            if (bundleAfterVote != bundle) {
+                errln("The test bundle was discarded for a vote on " + votePath);
+            }
+            assertTrue("The other page's cached results survive a vote",
+                bundleAfterVote.getCachedPathCount() >= otherPage.size());
+            assertTrue("The dependencies of removed results are removed too",
+                bundleAfterVote.getDependencyCount() < dependenciesBefore);
+            start = System.currentTimeMillis();
+            checkPage(bundleAfterVote, file, page);
+            reloads += System.currentTimeMillis() - start;
+        }
+        box.voteForValue(getMyUser(), votePath, null); // unvote
+        logln("Page of " + page.size() + " paths: first load " + firstLoad + "ms, average load after vote "
+            + (reloads / VOTES) + "ms");
+    }
+
+    /**
+     * The vote statistics, kept up to date on each vote, agree with the vote table.
+     */
+    public void TestVoteStatistics() throws SQLException, JSONException, InvalidXPathException, VoteNotAcceptedException {
+        STFactory fac = getFactory();
+        VoteStatistics stats = VoteStatistics.getInstance();
+        assertTrue("statistics loaded", stats.isLoaded());
+        CLDRLocale locale = CLDRLocale.getInstance("fr");
+        BallotBox<User> box = fac.ballotBoxForLocale(locale);
+        List<String> paths = new ArrayList<>();
+        for (String path : fac.make(locale, true)) {
+            if (path.startsWith("//ldml/localeDisplayNames/scripts/") && paths.size() < 3) {
+                paths.add(path);
+            }
+        }
+        int before = stats.getTotalItems();
+        for (String path : paths) {
+            box.voteForValue(getMyUser(), path, "Vote Statistics");
+        }
+        box.voteForValue(getMyUser(), paths.get(0), "Vote Statistics again"); // replaces the vote
+        box.voteForValue(getMyUser(), paths.get(1), null); // an abstention still has a row
+        assertTrue("total items grew", stats.getTotalItems() > before);
+        checkVoteStatistics(stats, locale);
+        for (String path : paths) {
+            box.voteForValue(getMyUser(), path, null);
+        }
+        checkVoteStatistics(stats, locale);
+    }
+
+    /**
+     * Locking and unlocking a path with permanent votes deletes those votes from the vote table,
+     * and from the vote statistics.
+     */
+    public void TestPermanentVoteStatistics() throws SQLException, JSONException, InvalidXPathException,
+        VoteNotAcceptedException {
+        STFactory fac = getFactory();
+        if (!canCreateForum()) {
+            return;
+        }
+        VoteStatistics stats = VoteStatistics.getInstance();
+        CLDRLocale locale = CLDRLocale.getInstance("fr");
+        BallotBox<User> box = fac.ballotBoxForLocale(locale);
+        String path = null;
+        for (String p : fac.make(locale, true)) {
+            if (p.startsWith("//ldml/localeDisplayNames/scripts/")) {
+                path = p;
+                break;
+            }
+        }
+        int xpathId = fac.sm.xpt.getByXpath(path);
+        User tc1 = getTcUser("permanent1", locale);
+        User tc2 = getTcUser("permanent2", locale);
+        SurveyForum oldFora = fac.sm.fora;
+        // a permanent vote needs a forum post for the path
+        fac.sm.fora = createForum(fac);
+        try {
+            Connection conn = DBUtils.getInstance().getDBConnection();
+            PreparedStatement ps = null;
+            try {
+                ps = DBUtils.prepareStatementWithArgs(conn, "INSERT INTO " + DBUtils.Table.FORUM_POSTS
+                    + " (forum,poster,subj,text,loc,xpath,root,type,open) VALUES (?,?,?,?,?,?,?,?,false)",
+                    0, tc1.id, "Permanent", "Locking this", locale.getBaseName(), xpathId, SurveyForum.NO_PARENT,
+                    1 /* Discuss */);
+                ps.executeUpdate();
+                conn.commit();
+            } finally {
+                DBUtils.close(ps, conn);
+            }
+            final Integer permanent = VoteResolver.Level.PERMANENT_VOTES;
+            box.voteForValue(tc1, path, "Permanent Statistics", permanent);
+            checkVoteStatistics(stats, locale);
+            box.voteForValue(tc2, path, "Permanent Statistics", permanent); // locks, deleting the permanent votes
+            assertEquals("permanent votes after locking", 0, DBUtils.sqlCount("select count(*) from "
+                + DBUtils.Table.VOTE_VALUE + " where locale=? and xpath=?", locale.getBaseName(), xpathId));
+            checkVoteStatistics(stats, locale);
+            box.voteForValue(tc1, path, null, permanent);
+            box.voteForValue(tc2, path, null, permanent); // unlocks, deleting the permanent votes
+            checkVoteStatistics(stats, locale);
+        } finally {
+            fac.sm.fora = oldFora;
+        }
+    }
+
+    /**
+     * The forum keeps the post counts and open posts of each locale in memory. Check them against the
+     * database as posts are made: a request, the posts made after votes (agree, decline, and close),
+     * a CLOSE reply, a CLOSE without a root (as for a removed flag, which isn't allowed), and posts
+     * saved from an older version with no value.
+     */
+    public void TestForumIndex() throws SQLException, SurveyException, InvalidXPathException, VoteNotAcceptedException {
+        STFactory fac = getFactory();
+        if (!canCreateForum()) {
+            return;
+        }
+        CLDRLocale locale = CLDRLocale.getInstance("fr");
+        CLDRLocale otherLocale = CLDRLocale.getInstance("de");
+        BallotBox<User> box = fac.ballotBoxForLocale(locale);
+        BallotBox<User> otherBox = fac.ballotBoxForLocale(otherLocale);
+        List<String> paths = getPaths(fac, locale, "//ldml/localeDisplayNames/scripts/", 4);
+        String otherPath = getPaths(fac, otherLocale, "//ldml/localeDisplayNames/scripts/", 1).get(0);
+        User requester = getUser("forum1", "apple", Level.vetter, locale);
+        User voter = getUser("forum2", "google", Level.vetter, locale);
+        User otherRequester = getUser("forum3", "apple", Level.vetter, otherLocale);
+        User otherVoter = getUser("forum4", "google", Level.vetter, otherLocale);
+
+        SurveyForum oldFora = fac.sm.fora;
+        SurveyForum fora = fac.sm.fora = createForum(fac);
+        try {
+            // posts from an older version, before the locale's posts are loaded: an open request, and
+            // an open agree post with no value
+            String nullPath = paths.get(3);
+            int nullXpath = fac.sm.xpt.getByXpath(nullPath);
+            int oldRequest = insertPost(requester, locale, nullXpath, SurveyForum.NO_PARENT, 2 /* Request */, "Forum Old");
+            insertPost(voter, locale, nullXpath, oldRequest, 3 /* Agree */, null);
+
+            // a request, and the agree, decline and close posts made after votes
+            String path = paths.get(0);
+            int xpath = fac.sm.xpt.getByXpath(path);
+            int request = post(fora, requester, locale, path, "Request", SurveyForum.NO_PARENT, "Forum Request");
+            checkPostCount(fora, locale, xpath);
+            box.voteForValue(voter, path, "Forum Request");
+            assertEquals("agree posts", 1, countPosts(request, 3 /* Agree */, voter, true));
+            checkPostCount(fora, locale, xpath);
+            box.voteForValue(voter, path, "Forum Other");
+            assertEquals("decline posts", 1, countPosts(request, 4 /* Decline */, voter, true));
+            checkPostCount(fora, locale, xpath);
+            box.voteForValue(requester, path, null);
+            assertEquals("close posts", 1, countPosts(request, 0 /* Close */, requester, false));
+            assertEquals("open posts after close", 0, DBUtils.sqlCount("select count(*) from " + DBUtils.Table.FORUM_POSTS
+                + " where (id=? or root=?) and open=true", request, request));
+            checkPostCount(fora, locale, xpath);
+            // the request is closed, so agreeing with it again doesn't post
+            box.voteForValue(voter, path, "Forum Request");
+            assertEquals("agree posts after close", 1, countPosts(request, 3 /* Agree */, voter, true)
+                + countPosts(request, 3 /* Agree */, voter, false));
+            checkPostCount(fora, locale, xpath);
+
+            // a CLOSE reply closes the thread
+            String closedPath = paths.get(1);
+            int closedXpath = fac.sm.xpt.getByXpath(closedPath);
+            int closedRequest = post(fora, requester, locale, closedPath, "Request", SurveyForum.NO_PARENT, "Forum Closed");
+            post(fora, requester, locale, closedPath, "Close", closedRequest, null);
+            box.voteForValue(voter, closedPath, "Forum Closed");
+            assertEquals("agree posts after close reply", 0, countPosts(closedRequest, 3 /* Agree */, voter, true));
+            checkPostCount(fora, locale, closedXpath);
+
+            // a CLOSE without a root (a removed flag) isn't saved, so it doesn't close the other locale's request
+            int otherXpath = fac.sm.xpt.getByXpath(otherPath);
+            int otherRequest = post(fora, otherRequester, otherLocale, otherPath, "Request", SurveyForum.NO_PARENT,
+                "Forum Flag");
+            checkPostCount(fora, otherLocale, otherXpath);
+            String flagPath = paths.get(2);
+            int flagXpath = fac.sm.xpt.getByXpath(flagPath);
+            fora.doForumAfterVote(locale, getTcUser("forumtc", locale), flagPath, flagXpath, null, true /* didClearFlag */);
+            checkPostCount(fora, locale, flagXpath);
+            otherBox.voteForValue(otherVoter, otherPath, "Forum Flag");
+            assertEquals("agree posts after removed flag", 1, countPosts(otherRequest, 3 /* Agree */, otherVoter, true));
+            checkPostCount(fora, otherLocale, otherXpath);
+
+            // as "NOT value=?" in SQL, a post with no value doesn't differ from any value, so isn't declined
+            box.voteForValue(voter, nullPath, "Forum Changed");
+            assertEquals("decline posts for no value", 0, countPosts(oldRequest, 4 /* Decline */, voter, true));
+            checkPostCount(fora, locale, nullXpath);
+
+            for (String p : paths) {
+                box.voteForValue(requester, p, null);
+                box.voteForValue(voter, p, null);
+            }
+            otherBox.voteForValue(otherVoter, otherPath, null);
+        } finally {
+            fac.sm.fora = oldFora;
+        }
+    }
+
+    /**
+     * Post to a path from several threads at once, starting with the locale's posts not yet loaded,
+     * and check that the count includes every post exactly once.
+     */
+    public void TestForumIndexConcurrent() throws SQLException, InterruptedException {
+        final STFactory fac = getFactory();
+        if (!canCreateForum()) {
+            return;
+        }
+        final CLDRLocale locale = CLDRLocale.getInstance("fr");
+        final String path = getPaths(fac, locale, "//ldml/localeDisplayNames/scripts/", 5).get(4);
+        final int xpath = fac.sm.xpt.getByXpath(path);
+        final User user = getUser("forum1", "apple", Level.vetter, locale);
+        final int POSTS = 10;
+        SurveyForum oldFora = fac.sm.fora;
+        final SurveyForum fora = fac.sm.fora = createForum(fac);
+        try {
+            final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; ++i) {
+                threads.add(new Thread("poster " + i) {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int j = 0; j < POSTS; ++j) {
+                                post(fora, user, locale, path, "Discuss", SurveyForum.NO_PARENT, null);
+                                fora.postCountFor(locale, xpath);
+                            }
+                        } catch (Throwable t) {
+                            errors.add(t);
+                        }
+                    }
+                });
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (Throwable e : errors) {
+                errln("Posting thread failed: " + e);
+            }
+            checkPostCount(fora, locale, xpath);
+        } finally {
+            fac.sm.fora = oldFora;
+        }
+    }
+
+    private boolean canCreateForum() {
+        if (DBUtils.db_Derby) {
+            logln("Skipping, since the forum table's \"open\" column is a reserved word in Derby");
+            return false;
+        }
+        return true;
+    }
+
+    private static SurveyForum createForum(STFactory fac) throws SQLException {
+        if (fac.sm.dbUtils == null) {
+            fac.sm.dbUtils = DBUtils.getInstance(); // the forum gets its connections from here
+        }
+        return SurveyForum.createTable(SurveyLog.logger, DBUtils.getInstance().getDBConnection(), fac.sm);
+    }
+
+    private List<String> getPaths(STFactory fac, CLDRLocale locale, String prefix, int count) {
+        List<String> paths = new ArrayList<>();
+        for (String path : fac.make(locale, true)) {
+            if (path.startsWith(prefix) && paths.size() < count) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    private static int post(SurveyForum fora, User user, CLDRLocale locale, String path, String type, int root,
+        String value) throws SurveyException {
+        CookieSession session = CookieSession.newSession(false, "[::1]", CookieSession.newId(false));
+        session.setUser(user);
+        try {
+            SurveyForum.PostInfo postInfo = fora.new PostInfo(locale, type, "Testing the forum index");
+            postInfo.setSubj("Forum Index");
+            postInfo.setPathString(XPathTable.getStringIDString(path));
+            postInfo.setReplyTo(root);
+            postInfo.setRoot(root);
+            postInfo.setUser(user);
+            postInfo.setValue(value);
+            postInfo.setSendEmail(false);
+            return fora.doPost(session, postInfo);
+        } finally {
+            session.remove();
+        }
+    }
+
+    /**
+     * Insert a post directly, as an older version might have saved it
+     */
+    private static int insertPost(User user, CLDRLocale locale, int xpath, int root, int type, String value)
+        throws SQLException {
+        Connection conn = DBUtils.getInstance().getDBConnection();
+        PreparedStatement ps = null;
+        try {
+            // the value column is left out (NULL) if there is no value
+            ps = conn.prepareStatement("INSERT INTO " + DBUtils.Table.FORUM_POSTS
+                + " (forum,poster,subj,text,loc,xpath,parent,root,type,open" + (value == null ? ")" : ",value)")
+                + " VALUES (?,?,?,?,?,?,?,?,?,true" + (value == null ? ")" : ",?)"), Statement.RETURN_GENERATED_KEYS);
+            DBUtils.setArgs(ps, 0, user.id, "Forum Index", "Older post", locale.getBaseName(), xpath, root, root, type);
+            if (value != null) {
+                ps.setString(10, value);
+            }
+            ps.executeUpdate();
+            conn.commit();
+            return DBUtils.getLastId(ps);
+        } finally {
+            DBUtils.close(ps, conn);
+        }
+    }
+
+    private static int countPosts(int root, int type, User poster, boolean open) {
+        return DBUtils.sqlCount("select count(*) from " + DBUtils.Table.FORUM_POSTS
+            + " where root=? and type=? and poster=? and open=" + open, root, type, poster.id);
+    }
+
+    private void checkPostCount(SurveyForum fora, CLDRLocale locale, int xpath) {
+        assertEquals(locale + " post count for " + xpath, DBUtils.sqlCount("select count(*) from "
+            + DBUtils.Table.FORUM_POSTS + " where loc=? and xpath=?", locale.getBaseName(), xpath),
+            fora.postCountFor(locale, xpath));
+    }
+
+    private User getTcUser(String name, CLDRLocale locale) throws SQLException {
+        return getUser(name, "adobe", VoteResolver.Level.tc, locale);
+    }
+
+    private User getUser(String name, String org, VoteResolver.Level level, CLDRLocale locale) throws SQLException {
+        String email = name + "@" + org + ".example.com";
+        User u = getFactory().sm.reg.get(email);
+        if (u == null) {
+            User proto = getFactory().sm.reg.getEmptyUser();
+            proto.email = email;
+            proto.name = name;
+            proto.org = org;
+            proto.password = UserRegistry.makePassword(proto.email);
+            proto.userlevel = level.getSTLevel();
+            proto.locales = locale.getBaseName();
+            u = getFactory().sm.reg.newUser(null, proto);
+        }
+        return u;
+    }
+
+    private void checkVoteStatistics(VoteStatistics stats, CLDRLocale locale) throws JSONException {
+        assertEquals("total items", DBUtils.sqlCount("select count(*) from " + DBUtils.Table.VOTE_VALUE),
+            stats.getTotalItems());
+        assertEquals("total submitters", DBUtils.sqlCount("select count(distinct submitter) from " + DBUtils.Table.VOTE_VALUE),
+            stats.getTotalSubmitters());
+        int localeCount = 0;
+        for (JSONArray row : rows(stats.getByLocale())) {
+            if (row.getString(0).equals(locale.getBaseName())) {
+                localeCount = row.getInt(1);
+            }
+        }
+        assertEquals("votes in " + locale, DBUtils.sqlCount("select count(*) from " + DBUtils.Table.VOTE_VALUE + " where locale=?",
+            locale.getBaseName()), localeCount);
+        int dayTotal = 0;
+        for (JSONArray row : rows(stats.getByDay(false))) {
+            dayTotal += row.getInt(0);
+        }
+        assertEquals("sum of votes by day", stats.getTotalItems(), dayTotal);
+        int newDayTotal = 0;
+        for (JSONArray row : rows(stats.getByDay(true))) {
+            newDayTotal += row.getInt(0);
+        }
+        assertEquals("sum of new votes by day", stats.getTotalNewItems(), newDayTotal);
+        int userDayTotal = 0;
+        for (JSONArray row : rows(stats.getByDayUserLocale())) {
+            userDayTotal += row.getInt(3);
+        }
+        assertEquals("sum of votes by day, user and locale", stats.getTotalItems(), userDayTotal);
+    }
+
+    private static List<JSONArray> rows(JSONObject table) throws JSONException {
+        List<JSONArray> result = new ArrayList<>();
+        JSONArray data = table.getJSONArray("data");
+        for (int i = 0; i < data.length(); ++i) {
+            result.add(data.getJSONArray(i));
+        }
+        return result;
+    }
+
+    /**
+     * Several threads voting at once, each taking connections from the pool, all get their votes in,
+     * and give every connection back. Each thread votes in its own locale, since votes in one locale
+     * are serialized, so that the threads really do hold connections at the same time.
+     */
+    public void TestConcurrentVotes() throws SQLException, InterruptedException, InvalidXPathException,
+        VoteNotAcceptedException {
+        final STFactory fac = getFactory();
+        final String[] LOCALES = { "fr", "de", "es", "it" };
+        final int VOTES = 5;
+        final User user = getMyUser();
+        final Map<CLDRLocale, List<String>> pathsByLocale = new LinkedHashMap<>();
+        for (String id : LOCALES) {
+            final CLDRLocale locale = CLDRLocale.getInstance(id);
+            final List<String> paths = new ArrayList<>();
+            for (String path : fac.make(locale, true)) {
+                if (path.startsWith("//ldml/localeDisplayNames/languages/") && paths.size() < VOTES) {
+                    paths.add(path);
+                }
+            }
+            pathsByLocale.put(locale, paths);
+        }
+        final ConnectionPool pool = DBUtils.getInstance().getPool();
+        final long hits = (pool == null) ? 0 : pool.getStatementHits();
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        List<Thread> threads = new ArrayList<>();
+        for (final Map.Entry<CLDRLocale, List<String>> e : pathsByLocale.entrySet()) {
+            final BallotBox<User> box = fac.ballotBoxForLocale(e.getKey());
+            threads.add(new Thread("voter " + e.getKey()) {
+                @Override
+                public void run() {
+                    try {
+                        for (String path : e.getValue()) {
+                            box.voteForValue(user, path, "Concurrent " + path.hashCode());
+                        }
+                    } catch (Throwable t) {
+                        errors.add(t);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (Throwable e : errors) {
+            errln("Voting thread failed: " + e);
+        }
+        for (Map.Entry<CLDRLocale, List<String>> e : pathsByLocale.entrySet()) {
+            final CLDRLocale locale = e.getKey();
+            final BallotBox<User> box = fac.ballotBoxForLocale(locale);
+            for (String path : e.getValue()) {
+                assertEquals(locale + " vote for " + path, "Concurrent " + path.hashCode(), box.getVoteValue(user, path));
+            }
+            assertEquals(locale + " votes saved", e.getValue().size(), DBUtils.sqlCount("select count(*) from "
+                + DBUtils.Table.VOTE_VALUE + " where locale=? and submitter=? and value like 'Concurrent %'",
+                locale.getBaseName(), user.id));
+        }
+        if (pool != null) {
+            logln(pool.toString());
+            assertEquals("connections in use", 0, pool.getInUse());
+            assertTrue("connections used at once", pool.getMaxInUse() > 1);
+            assertTrue("statements reused", pool.getStatementHits() > hits);
+        }
+        for (Map.Entry<CLDRLocale, List<String>> e : pathsByLocale.entrySet()) {
+            final BallotBox<User> box = fac.ballotBoxForLocale(e.getKey());
+            for (String path : e.getValue()) {
+                box.voteForValue(user, path, null);
+            }
+        }
+    }
+
+    /**
+     * After each change of votes (a vote, an abstention, a vote for the inherited value, and votes that
+     * make an approved value unapproved), makeUpdatedVettedFile resolves just the changed paths again,
+     * and still gives the same vxml as makeVettedFile.
+     */
+    public void TestUpdatedVettedFile() throws SQLException, IOException, InvalidXPathException, VoteNotAcceptedException {
+        STFactory fac = getFactory();
+        CLDRLocale locale = CLDRLocale.getInstance("fr");
+        BallotBox<User> box = fac.ballotBoxForLocale(locale);
+        List<String> approvedPaths = new ArrayList<>();
+        CLDRFile file = fac.make(locale, true);
+        for (String path : file) {
+            if (path.startsWith("//ldml/localeDisplayNames/territories/")
+                && file.getStringValue(path) != null
+                && box.getResolver(path).getWinningStatus() == Status.approved) {
+                approvedPaths.add(path);
+                if (approvedPaths.size() == 4) {
+                    break;
+                }
+            }
+        }
+        String votePath = approvedPaths.get(0);
+        fac.makeUpdatedVettedFile(locale); // remembers the vetted data
+        long sequence = fac.getChangeSequence();
+
+        box.voteForValue(getMyUser(), votePath, "Updated Vetted File");
+        assertTrue("changed since " + sequence, fac.hasChangesSince(locale, sequence));
+        assertFalse("root unchanged since " + sequence, fac.hasChangesSince(locale.getParent(), sequence));
+        assertEquals("changed xpath ids", Collections.singleton(fac.sm.xpt.getByXpath(votePath)),
+            fac.getChangesSince(locale, sequence));
+        assertEquals("vxml after vote", toXml(fac.makeVettedFile(locale)), toXml(fac.makeUpdatedVettedFile(locale)));
+
+        box.voteForValue(getMyUser(), votePath, null); // unvote
+        assertEquals("vxml after unvote", toXml(fac.makeVettedFile(locale)), toXml(fac.makeUpdatedVettedFile(locale)));
+        assertFalse("no changes since now", fac.hasChangesSince(locale, fac.getChangeSequence()));
+
+        User vetter1 = getUser("vetted1", "apple", Level.vetter, locale);
+        User vetter2 = getUser("vetted2", "google", Level.vetter, locale);
+
+        String abstainPath = approvedPaths.get(1);
+        box.voteForValue(vetter1, abstainPath, null); // an abstention, without an earlier vote
+        assertEquals("vxml after abstention", toXml(fac.makeVettedFile(locale)), toXml(fac.makeUpdatedVettedFile(locale)));
+
+        String inheritPath = approvedPaths.get(2);
+        box.voteForValue(vetter1, inheritPath, CldrUtility.INHERITANCE_MARKER);
+        assertEquals("vxml after vote for inherited value", toXml(fac.makeVettedFile(locale)),
+            toXml(fac.makeUpdatedVettedFile(locale)));
+
+        // two organizations vote for different new values, so neither is approved
+        String disputedPath = approvedPaths.get(3);
+        box.voteForValue(vetter1, disputedPath, "Updated Vetted File 1");
+        box.voteForValue(vetter2, disputedPath, "Updated Vetted File 2");
+        assertNotEquals("status after votes", Status.approved, box.getResolver(disputedPath).getWinningStatus());
+        assertEquals("vxml after approved value became unapproved", toXml(fac.makeVettedFile(locale)),
+            toXml(fac.makeUpdatedVettedFile(locale)));
+
+        for (String path : approvedPaths.subList(1, 4)) {
+            box.voteForValue(vetter1, path, null);
+            box.voteForValue(vetter2, path, null);
+        }
+        assertEquals("vxml after unvotes", toXml(fac.makeVettedFile(locale)), toXml(fac.makeUpdatedVettedFile(locale)));
+    }
+
+    private static String toXml(CLDRFile file) {
+        StringWriter sw = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            file.write(pw);
+        }
+        return sw.toString();
+    }
+
+    private void checkPage(TestResultBundle bundle, CLDRFile file, List<String> page) {
+        List<CheckStatus> result = new ArrayList<>();
+        for (String path : page) {
+            bundle.check(path, result, file.getStringValue(path));
+        }
+    }
+
     public void TestVettingDataDriven() throws SQLException, IOException {
         runDataDrivenTest(TestSTFactory.class.getSimpleName()); // TestSTFactory.xml
     }
@@ -3,6 +3,8 @@
  */
 package org.unicode.cldr.unittest.web;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.HashMap;
@@ -64,6 +66,48 @@ public class TestXPathTable extends TestFmwk {
         logln("OK: Tested " + ii + " values");
     }
 
+    /**
+     * A table made with the same cache file knows the xpaths without reading them all from the db.
+     */
+    public void TestCacheFile() throws SQLException, IOException {
+        File cache = File.createTempFile("TestXPathTable", ".dat");
+        try {
+            HashMap<Integer, String> s = new HashMap<>();
+            int count;
+            XPathTable xpt;
+            try (Connection conn = DBUtils.getInstance().getDBConnection()) {
+                xpt = XPathTable.createTable(conn, cache);
+            }
+            try {
+                for (int i = 0; i < TEST_COUNT; i++) {
+                    String str = "//test/cache/" + i + "/[@hash=\"" + CookieSession.cheapEncode(i) + "\"]/item";
+                    s.put(xpt.getByXpath(str), str);
+                }
+                count = xpt.count();
+            } finally {
+                xpt.close(); // unlocks the file for the next table
+            }
+
+            XPathTable xpt2;
+            try (Connection conn = DBUtils.getInstance().getDBConnection()) {
+                xpt2 = XPathTable.createTable(conn, cache);
+            }
+            try {
+                assertEquals("count", count, xpt2.count());
+                for (Map.Entry<Integer, String> entry : s.entrySet()) {
+                    assertEquals("xpath for " + entry.getKey(), entry.getValue(), xpt2.getById(entry.getKey()));
+                    assertEquals("id for " + entry.getValue(), (int) entry.getKey(), xpt2.peekByXpath(entry.getValue()));
+                    assertEquals("string id for " + entry.getValue(), entry.getValue(),
+                        xpt2.getByStringID(XPathTable.getStringIDString(entry.getValue())));
+                }
+            } finally {
+                xpt2.close();
+            }
+        } finally {
+            cache.delete();
+        }
+    }
+
     public void TestRemoveDraftAltProposed() {
         String inout[] = {
 
@@ -0,0 +1,285 @@
+package org.unicode.cldr.web;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.unicode.cldr.util.CLDRConfig;
+
+/**
+ * Latency metrics for the SurveyAjax requests, by the "what" parameter.
+ * <p>
+ * For each kind of request this counts the requests and those in flight, keeps a latency histogram,
+ * and splits the total time into time holding a database connection, time writing the JSON response,
+ * and the rest (compute). The slowest recent requests, with their locale and page, are kept in a ring buffer.
+ * <p>
+ * The current request is kept per thread, so that DBUtils and SurveyAjax.send can charge their time to it
+ * without passing it around. Time on other threads (such as the vetting or busy-work threads) isn't counted.
+ * Requests slower than the CLDR_AJAX_SLOW_MILLIS property (default 1000) are logged to the ring buffer.
+ */
+public final class AjaxMetrics {
+    private static final long[] BUCKET_LIMITS = { 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L };
+    private static final String[] BUCKET_NAMES = { "<1ms", "<10ms", "<100ms", "<1s", "<10s", ">=10s" };
+    /**
+     * Bound the number of kinds, since "what" comes from the client.
+     */
+    private static final int MAX_KINDS = 200;
+    private static final String OTHER = "(other)";
+    private static final int SLOW_COUNT = 50;
+
+    private static final Map<String, Kind> KINDS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Request> CURRENT = new ThreadLocal<>();
+
+    // guarded by SLOW
+    private static final Request[] SLOW = new Request[SLOW_COUNT];
+    private static int slowNext = 0;
+    private static volatile long slowNanos = CLDRConfig.getInstance().getProperty("CLDR_AJAX_SLOW_MILLIS", 1000)
+        * 1_000_000L;
+
+    private AjaxMetrics() {
+    }
+
+    /**
+     * Start timing a request on this thread. Must be followed by end() on the same thread.
+     *
+     * @param what the kind of request, or null
+     * @param locale the locale, or null
+     * @param page the page (the "x" parameter), or null
+     */
+    public static Request begin(String what, String locale, String page) {
+        Request request = new Request(getKind(what == null ? "(none)" : what), what, locale, page);
+        request.kind.inFlight.incrementAndGet();
+        CURRENT.set(request);
+        return request;
+    }
+
+    /**
+     * Finish timing the request begun on this thread.
+     */
+    public static void end(Request request) {
+        CURRENT.remove();
+        long now = System.nanoTime();
+        if (request.dbDepth > 0) { // a connection wasn't closed through DBUtils
+            request.dbNanos += now - request.dbStart;
+            request.dbDepth = 0;
+        }
+        request.totalNanos = now - request.startNanos;
+        request.kind.inFlight.decrementAndGet();
+        request.kind.record(request);
+        if (request.totalNanos >= slowNanos) {
+            synchronized (SLOW) {
+                SLOW[slowNext] = request;
+                slowNext = (slowNext + 1) % SLOW_COUNT;
+            }
+        }
+    }
+
+    /**
+     * Note that a database connection was opened on this thread. The time until the matching
+     * connectionClosed (or the end of the request) counts as database time.
+     */
+    public static void connectionOpened() {
+        Request request = CURRENT.get();
+        if (request != null && request.dbDepth++ == 0) {
+            request.dbStart = System.nanoTime();
+        }
+    }
+
+    public static void connectionClosed() {
+        Request request = CURRENT.get();
+        if (request != null && request.dbDepth > 0 && --request.dbDepth == 0) {
+            request.dbNanos += System.nanoTime() - request.dbStart;
+        }
+    }
+
+    /**
+     * @return the time now, to pass to jsonWritten
+     */
+    public static long jsonStart() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Charge the time since the jsonStart to writing JSON for the current request.
+     */
+    public static void jsonWritten(long start) {
+        Request request = CURRENT.get();
+        if (request != null) {
+            request.jsonNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Forget the metrics collected so far. Requests in flight are still counted as such.
+     */
+    public static void reset() {
+        for (Kind kind : KINDS.values()) {
+            kind.reset();
+        }
+        synchronized (SLOW) {
+            Arrays.fill(SLOW, null);
+            slowNext = 0;
+        }
+    }
+
+    /**
+     * Set the time above which a request is kept in the list of slow requests.
+     */
+    public static void setSlowMillis(long millis) {
+        slowNanos = millis * 1_000_000L;
+    }
+
+    public static long getSlowMillis() {
+        return slowNanos / 1_000_000L;
+    }
+
+    private static Kind getKind(String what) {
+        Kind kind = KINDS.get(what);
+        if (kind == null) {
+            if (KINDS.size() >= MAX_KINDS) {
+                what = OTHER;
+            }
+            kind = KINDS.computeIfAbsent(what, k -> new Kind());
+        }
+        return kind;
+    }
+
+    /**
+     * @return the metrics: for each kind of request (in order of decreasing total time) its counts, times and
+     * histogram; and the slow requests, most recent first
+     */
+    public static JSONObject toJSON() throws JSONException {
+        List<Map.Entry<String, Kind>> entries = new ArrayList<>(new TreeMap<>(KINDS).entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, Kind> e) -> e.getValue().totalNanos.sum()).reversed());
+        JSONObject kinds = new JSONObject();
+        JSONArray order = new JSONArray();
+        for (Map.Entry<String, Kind> entry : entries) {
+            kinds.put(entry.getKey(), entry.getValue().toJSON());
+            order.put(entry.getKey());
+        }
+        JSONArray slow = new JSONArray();
+        synchronized (SLOW) {
+            for (int i = 1; i <= SLOW_COUNT; ++i) {
+                Request request = SLOW[(slowNext - i + SLOW_COUNT) % SLOW_COUNT];
+                if (request != null) {
+                    slow.put(request.toJSON());
+                }
+            }
+        }
+        return new JSONObject()
+            .put("kinds", kinds)
+            .put("order", order)
+            .put("slowMillis", getSlowMillis())
+            .put("slow", slow);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * One request, used by one thread until end().
+     */
+    public static final class Request {
+        private final Kind kind;
+        private final String what;
+        private final String locale;
+        private final String page;
+        private final long startMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private long totalNanos;
+        private long dbNanos;
+        private long jsonNanos;
+        private int dbDepth;
+        private long dbStart;
+
+        private Request(Kind kind, String what, String locale, String page) {
+            this.kind = kind;
+            this.what = what;
+            this.locale = locale;
+            this.page = page;
+        }
+
+        JSONObject toJSON() throws JSONException {
+            return new JSONObject()
+                .put("what", what)
+                .put("locale", locale)
+                .put("page", page)
+                .put("start", startMillis)
+                .put("totalMillis", millis(totalNanos))
+                .put("dbMillis", millis(dbNanos))
+                .put("jsonMillis", millis(jsonNanos));
+        }
+    }
+
+    /**
+     * The totals for one kind of request.
+     */
+    private static final class Kind {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder dbNanos = new LongAdder();
+        private final LongAdder jsonNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_NAMES.length);
+
+        void record(Request request) {
+            long nanos = request.totalNanos;
+            count.increment();
+            totalNanos.add(nanos);
+            dbNanos.add(request.dbNanos);
+            jsonNanos.add(request.jsonNanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS.length && nanos >= BUCKET_LIMITS[bucket]) {
+                ++bucket;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            dbNanos.reset();
+            jsonNanos.reset();
+            maxNanos.set(0);
+            for (int i = 0; i < histogram.length(); ++i) {
+                histogram.set(i, 0);
+            }
+        }
+
+        JSONObject toJSON() throws JSONException {
+            long calls = count.sum();
+            long total = totalNanos.sum();
+            long db = dbNanos.sum();
+            long json = jsonNanos.sum();
+            JSONObject buckets = new JSONObject();
+            for (int i = 0; i < BUCKET_NAMES.length; ++i) {
+                buckets.put(BUCKET_NAMES[i], histogram.get(i));
+            }
+            return new JSONObject()
+                .put("count", calls)
+                .put("inFlight", inFlight.get())
+                .put("totalMillis", millis(total))
+                .put("meanMillis", calls == 0 ? 0 : millis(total) / calls)
+                .put("maxMillis", millis(maxNanos.get()))
+                .put("dbMillis", millis(db))
+                .put("jsonMillis", millis(json))
+                .put("computeMillis", millis(Math.max(0, total - db - json)))
+                .put("histogram", buckets);
+        }
+    }
+}
@@ -0,0 +1,580 @@
+package org.unicode.cldr.web;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.unicode.cldr.util.StackTracker;
+
+/**
+ * A bounded pool of connections from a DataSource, each with a cache of its prepared statements.
+ * <p>
+ * The connections handed out are proxies: closing one gives the physical connection back to the pool
+ * (rolling back anything not committed), and closing a prepared statement gives it back to the connection's
+ * cache, keyed by the SQL text and result set options. Other statements are closed when the connection is.
+ * <p>
+ * A connection that isn't closed is a leak. Connections held longer than the leak threshold are reported
+ * by getLeaks, with the stack where they were taken if tracking is on; a connection that is garbage collected
+ * without being closed is logged and its physical connection is closed, so that it doesn't count against the
+ * pool's size any more.
+ */
+public final class ConnectionPool {
+    private final DataSource dataSource;
+    private final int maxSize;
+    private final int statementCacheSize;
+    private final long waitMillis;
+    private final long leakMillis;
+    private final boolean trackStacks;
+
+    // guarded by this
+    private final ArrayDeque<Physical> idle = new ArrayDeque<>();
+    private int size = 0; // idle + in use
+    private boolean closed = false;
+
+    private final Map<Lease, Boolean> leases = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Connection> collected = new ReferenceQueue<>();
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+    private final AtomicLong leaked = new AtomicLong();
+    private volatile int maxInUse = 0;
+
+    /**
+     * @param maxSize the most connections open at once
+     * @param statementCacheSize the most prepared statements cached per connection
+     * @param waitMillis how long to wait for a connection when all are in use, before failing
+     * @param leakMillis how long a connection can be held before getLeaks reports it
+     * @param trackStacks whether to record where each connection was taken
+     */
+    public ConnectionPool(DataSource dataSource, int maxSize, int statementCacheSize, long waitMillis, long leakMillis,
+        boolean trackStacks) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.dataSource = dataSource;
+        this.maxSize = maxSize;
+        this.statementCacheSize = statementCacheSize;
+        this.waitMillis = waitMillis;
+        this.leakMillis = leakMillis;
+        this.trackStacks = trackStacks;
+    }
+
+    /**
+     * Take a connection, waiting if all are in use.
+     *
+     * @throws SQLException if the pool is closed, if no connection was free in time, or from the DataSource
+     */
+    public Connection getConnection() throws SQLException {
+        reclaimCollected();
+        Physical physical = null;
+        synchronized (this) {
+            long deadline = 0;
+            while (!closed && idle.isEmpty() && size >= maxSize) {
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+                    waits.incrementAndGet();
+                } else if (now >= deadline) {
+                    throw new SQLException("ConnectionPool: no connection free after " + waitMillis + "ms; "
+                        + size + " in use. Leaks? " + getLeaks());
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, deadline - now);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted waiting for a connection", e);
+                }
+                waitNanos.addAndGet(System.nanoTime() - now);
+            }
+            if (closed) {
+                throw new SQLException("ConnectionPool is closed");
+            }
+            physical = idle.pollFirst(); // most recently used
+            ++size; // reserve; given back below if it is idle or fails
+        }
+        if (physical != null) {
+            synchronized (this) {
+                --size; // it was already counted
+            }
+            if (!physical.isValid()) {
+                discard(physical);
+                return getConnection();
+            }
+        } else {
+            try {
+                physical = new Physical(dataSource.getConnection());
+                created.incrementAndGet();
+            } catch (SQLException | RuntimeException e) {
+                synchronized (this) {
+                    --size;
+                    notifyAll();
+                }
+                throw e;
+            }
+        }
+        borrowed.incrementAndGet();
+        Lease lease = new Lease(physical);
+        Connection proxy = lease.newProxy();
+        leases.put(lease, Boolean.TRUE);
+        int inUse = leases.size();
+        if (inUse > maxInUse) {
+            maxInUse = inUse;
+        }
+        return proxy;
+    }
+
+    /**
+     * Close the idle connections, and those in use as they are given back.
+     */
+    public void close() {
+        List<Physical> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            notifyAll();
+        }
+        for (Physical physical : toClose) {
+            discard(physical);
+        }
+    }
+
+    private void giveBack(Physical physical) {
+        boolean keep;
+        try {
+            keep = physical.reset();
+        } catch (SQLException | RuntimeException e) {
+            SurveyLog.logException(e, "ConnectionPool: resetting a connection");
+            keep = false;
+        }
+        synchronized (this) {
+            if (keep && !closed) {
+                idle.addFirst(physical);
+                notifyAll();
+                return;
+            }
+        }
+        discard(physical);
+    }
+
+    /**
+     * Close a physical connection and stop counting it.
+     */
+    private void discard(Physical physical) {
+        physical.closeQuietly();
+        synchronized (this) {
+            --size;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Handle connections that were garbage collected without being closed.
+     */
+    private void reclaimCollected() {
+        for (Lease.Ref ref; (ref = (Lease.Ref) collected.poll()) != null;) {
+            Lease lease = ref.lease;
+            if (leases.remove(lease) != null) {
+                leaked.incrementAndGet();
+                SurveyLog.logger.warning("ConnectionPool: a connection was never closed"
+                    + (lease.stack != null ? ", taken at:\n" + lease.stack : " (set CLDR_DB_POOL_TRACK to see where)"));
+                discard(lease.physical);
+            }
+        }
+    }
+
+    /**
+     * @return the connections held longer than the leak threshold, with how long and (if tracked) where they
+     * were taken
+     */
+    public List<String> getLeaks() {
+        List<String> result = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Lease lease : leases.keySet()) {
+            long held = now - lease.since;
+            if (held > leakMillis) {
+                result.add("held " + held + "ms" + (lease.stack != null ? ", taken at:\n" + lease.stack : ""));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of connections in use
+     */
+    public int getInUse() {
+        return leases.size();
+    }
+
+    /**
+     * @return the most connections that have been in use at once
+     */
+    public int getMaxInUse() {
+        return maxInUse;
+    }
+
+    /**
+     * @return the number of open connections, idle or in use
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    public long getStatementHits() {
+        return statementHits.get();
+    }
+
+    public JSONObject toJSON() throws JSONException {
+        int idleCount;
+        int total;
+        synchronized (this) {
+            idleCount = idle.size();
+            total = size;
+        }
+        JSONArray leakList = new JSONArray();
+        for (String leak : getLeaks()) {
+            leakList.put(leak);
+        }
+        return new JSONObject()
+            .put("maxSize", maxSize)
+            .put("size", total)
+            .put("idle", idleCount)
+            .put("inUse", leases.size())
+            .put("maxInUse", maxInUse)
+            .put("borrowed", borrowed.get())
+            .put("created", created.get())
+            .put("waits", waits.get())
+            .put("waitMillis", waitNanos.get() / 1_000_000.0)
+            .put("statementHits", statementHits.get())
+            .put("statementMisses", statementMisses.get())
+            .put("leaked", leaked.get())
+            .put("leaks", leakList);
+    }
+
+    @Override
+    public String toString() {
+        return "pool: " + leases.size() + " in use, " + getSize() + "/" + maxSize + " open, max in use " + maxInUse
+            + ", " + borrowed.get() + " borrowed, " + created.get() + " created, " + waits.get() + " waits, statements "
+            + statementHits.get() + " cached/" + statementMisses.get() + " prepared, " + leaked.get() + " leaked";
+    }
+
+    /**
+     * A connection from the DataSource, with its statement cache. Used by one Lease at a time.
+     */
+    private final class Physical {
+        private static final long VALIDATE_AFTER_MILLIS = 30 * 1000;
+
+        final Connection connection;
+        final boolean autoCommit;
+        private long lastUsed = System.currentTimeMillis();
+        // least recently used first
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        // statements that aren't cached, closed with the lease
+        private final List<Statement> uncached = new ArrayList<>();
+
+        Physical(Connection connection) throws SQLException {
+            this.connection = connection;
+            this.autoCommit = connection.getAutoCommit();
+        }
+
+        /**
+         * A connection that sat idle for a while may have been closed by the server.
+         */
+        boolean isValid() {
+            if (System.currentTimeMillis() - lastUsed < VALIDATE_AFTER_MILLIS) {
+                return true;
+            }
+            try {
+                return connection.isValid(5);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        PreparedStatement prepare(Lease lease, Connection proxy, String key, Method method, Object[] args) throws Throwable {
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse) {
+                statementHits.incrementAndGet();
+                cached.inUse = true;
+                cached.real.clearParameters();
+                cached.restoreOptions();
+                return cached.proxyFor(lease, proxy);
+            }
+            statementMisses.incrementAndGet();
+            PreparedStatement real = (PreparedStatement) invoke(method, connection, args);
+            if (cached != null || statementCacheSize <= 0) { // the cached one is in use: don't cache a second
+                uncached.add(real);
+                return real;
+            }
+            cached = new CachedStatement(real);
+            cached.inUse = true;
+            statements.put(key, cached);
+            if (statements.size() > statementCacheSize) {
+                Iterator<CachedStatement> eldest = statements.values().iterator();
+                while (statements.size() > statementCacheSize && eldest.hasNext()) {
+                    CachedStatement old = eldest.next();
+                    if (!old.inUse) {
+                        eldest.remove();
+                        closeQuietly(old.real);
+                    }
+                }
+            }
+            return cached.proxyFor(lease, proxy);
+        }
+
+        /**
+         * Make the connection ready for its next lease.
+         *
+         * @return false if it should be discarded instead
+         */
+        boolean reset() throws SQLException {
+            for (Statement statement : uncached) {
+                closeQuietly(statement);
+            }
+            uncached.clear();
+            for (CachedStatement cached : statements.values()) {
+                cached.inUse = false;
+            }
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback(); // as when closing a connection: uncommitted work is lost
+                if (autoCommit) {
+                    connection.setAutoCommit(true);
+                }
+            } else if (!autoCommit) {
+                connection.setAutoCommit(false);
+            }
+            lastUsed = System.currentTimeMillis();
+            return true;
+        }
+
+        void closeQuietly() {
+            for (CachedStatement cached : statements.values()) {
+                closeQuietly(cached.real);
+            }
+            statements.clear();
+            for (Statement statement : uncached) {
+                closeQuietly(statement);
+            }
+            uncached.clear();
+            try {
+                if (!connection.isClosed() && !connection.getAutoCommit()) {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                // closing anyway
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                SurveyLog.logException(e, "ConnectionPool: closing a connection");
+            }
+        }
+
+        private void closeQuietly(Statement statement) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * A cached prepared statement. Each lease gets its own proxy, so a statement kept after its connection was
+     * closed can't be used by the connection's next lease.
+     * <p>
+     * The options a caller may set on a statement (such as setMaxRows, in DBUtils.queryToJSONLimit) are put
+     * back to what they were when it was prepared, so that they don't carry over to the next caller.
+     */
+    private static final class CachedStatement {
+        final PreparedStatement real;
+        boolean inUse;
+        private final int maxRows;
+        private final int fetchSize;
+        private final int queryTimeout;
+
+        CachedStatement(PreparedStatement real) throws SQLException {
+            this.real = real;
+            this.maxRows = real.getMaxRows();
+            this.fetchSize = real.getFetchSize();
+            this.queryTimeout = real.getQueryTimeout();
+        }
+
+        void restoreOptions() throws SQLException {
+            if (real.getMaxRows() != maxRows) {
+                real.setMaxRows(maxRows);
+            }
+            if (real.getFetchSize() != fetchSize) {
+                real.setFetchSize(fetchSize);
+            }
+            if (real.getQueryTimeout() != queryTimeout) {
+                real.setQueryTimeout(queryTimeout);
+            }
+        }
+
+        PreparedStatement proxyFor(Lease lease, Connection connection) {
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+                    private boolean closed = false;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        switch (method.getName()) {
+                        case "close":
+                            if (!closed) {
+                                closed = true;
+                                if (!lease.closed) {
+                                    inUse = false;
+                                }
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed || lease.closed;
+                        case "getConnection":
+                            return connection;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "cached " + real;
+                        default:
+                            if (closed || lease.closed) {
+                                throw new SQLException("Statement is closed");
+                            }
+                            return ConnectionPool.invoke(method, real, args);
+                        }
+                    }
+                });
+        }
+    }
+
+    /**
+     * One use of a physical connection, from getConnection until close.
+     * The lease is held by the pool, so it must not hold its proxy: that is only weakly referenced,
+     * so that a proxy dropped without being closed is enqueued.
+     */
+    private final class Lease implements InvocationHandler {
+        final Physical physical;
+        final long since = System.currentTimeMillis();
+        final String stack;
+        volatile boolean closed = false;
+        @SuppressWarnings("unused") // keeps the reference until it is enqueued
+        private Ref ref;
+
+        Lease(Physical physical) {
+            this.physical = physical;
+            this.stack = trackStacks ? StackTracker.currentStack() : null;
+        }
+
+        Connection newProxy() {
+            Connection proxy = (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, this);
+            ref = new Ref(proxy, this);
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+            case "close":
+                if (!closed) {
+                    closed = true;
+                    leases.remove(this);
+                    giveBack(physical);
+                }
+                return null;
+            case "isClosed":
+                return closed;
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "pooled " + physical.connection;
+            }
+            if (closed) {
+                throw new SQLException("Connection is closed");
+            }
+            switch (method.getName()) {
+            case "prepareStatement":
+                return physical.prepare(this, (Connection) proxy, statementKey(args), method, args);
+            case "createStatement":
+            case "prepareCall":
+                Statement statement = (Statement) ConnectionPool.invoke(method, physical.connection, args);
+                physical.uncached.add(statement);
+                return statement;
+            default:
+                return ConnectionPool.invoke(method, physical.connection, args);
+            }
+        }
+
+        /**
+         * A weak reference to the proxy, to find leases that are never closed.
+         */
+        final class Ref extends WeakReference<Connection> {
+            final Lease lease;
+
+            Ref(Connection proxy, Lease lease) {
+                super(proxy, collected);
+                this.lease = lease;
+            }
+        }
+    }
+
+    /**
+     * The cache key for the arguments of prepareStatement: the SQL text, and the other arguments if any.
+     */
+    private static String statementKey(Object[] args) {
+        StringBuilder key = new StringBuilder((String) args[0]);
+        for (int i = 1; i < args.length; ++i) {
+            key.append('\u0000');
+            Object arg = args[i];
+            if (arg instanceof int[]) {
+                key.append(Arrays.toString((int[]) arg));
+            } else if (arg instanceof String[]) {
+                key.append(Arrays.toString((String[]) arg));
+            } else {
+                key.append(arg);
+            }
+        }
+        return key.toString();
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -62,6 +62,10 @@ public class DBUtils {
     private static DBUtils instance = null;
     private static final String JDBC_SURVEYTOOL = ("jdbc/SurveyTool");
     private static DataSource datasource = null;
+    /**
+     * Pool of connections from the datasource, or null to take them from the datasource directly.
+     */
+    private static ConnectionPool pool = null;
     // DB stuff
     public static String db_driver = null;
     public static String db_protocol = null;
@@ -128,8 +132,46 @@ public class DBUtils {
     // connections
 
     public Appendable stats(Appendable output) throws IOException {
-        return output.append("DBUtils: currently open: " + db_number_open).append(", max open: " + db_max_open)
+        output.append("DBUtils: currently open: " + db_number_open).append(", max open: " + db_max_open)
             .append(", total used: " + db_number_used);
+        final ConnectionPool p = pool;
+        if (p != null) {
+            output.append(", " + p);
+        }
+        return output;
+    }
+
+    /**
+     * @return the connection pool, or null if connections come from the datasource directly
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Pool the datasource's connections if CLDR_DB_POOL is true. It defaults to true only for an embedded
+     * Derby datasource: a container's datasource (jdbc/SurveyTool) normally pools connections and caches
+     * statements itself.
+     * CLDR_DB_POOL_SIZE: the most connections open at once (default 20);
+     * CLDR_DB_POOL_STATEMENTS: the most prepared statements cached per connection (default 64);
+     * CLDR_DB_POOL_WAIT_MILLIS: how long to wait for a free connection before failing (default 60000);
+     * CLDR_DB_POOL_LEAK_MILLIS: how long a connection may be held before it is reported as a leak (default 300000);
+     * CLDR_DB_POOL_TRACK: record where each connection was taken, to report leaks (default false).
+     */
+    private static void setupPool() {
+        final CLDRConfig config = CLDRConfig.getInstance();
+        if (datasource == null
+            || !config.getProperty("CLDR_DB_POOL", datasource instanceof EmbeddedDataSource)) {
+            pool = null;
+            return;
+        }
+        pool = new ConnectionPool(datasource,
+            config.getProperty("CLDR_DB_POOL_SIZE", 20),
+            config.getProperty("CLDR_DB_POOL_STATEMENTS", 64),
+            config.getProperty("CLDR_DB_POOL_WAIT_MILLIS", 60000),
+            config.getProperty("CLDR_DB_POOL_LEAK_MILLIS", 300000),
+            tracker != null || config.getProperty("CLDR_DB_POOL_TRACK", false));
+        System.err.println("DBUtils: pooling up to " + config.getProperty("CLDR_DB_POOL_SIZE", 20) + " connections");
     }
 
     public Appendable statsShort(Appendable output) throws IOException {
@@ -155,6 +197,7 @@ public class DBUtils {
                 e.printStackTrace();
             }
             db_number_open--;
+            AjaxMetrics.connectionClosed();
         }
     }
 
@@ -616,6 +659,7 @@ public class DBUtils {
                     setupSqlForServerType();
                     SurveyLog.debug("Metadata: " + dbInfo);
                     handleHaveDatasource(datasource);
+                    setupPool();
                 }
             } catch (SQLException t) {
                 datasource = null;
@@ -660,6 +704,7 @@ public class DBUtils {
                 }
                 SurveyLog.debug("Metadata: " + dbInfo + ", autocommit: " + autoCommit);
                 handleHaveDatasource(datasource);
+                setupPool();
             }
         } catch (SQLException t) {
             datasource = null;
@@ -708,6 +753,11 @@ public class DBUtils {
     }
 
     public void doShutdown() throws SQLException {
+        if (pool != null) {
+            System.err.println("DBUtils: closing " + pool);
+            pool.close();
+            pool = null;
+        }
         try {
             DBUtils.close(datasource);
         } catch (IllegalArgumentException iae) {
@@ -774,7 +824,9 @@ public class DBUtils {
                 }
             }
 
-            Connection c = datasource.getConnection();
+            AjaxMetrics.connectionOpened(); // waiting for a connection counts as database time
+            final ConnectionPool p = pool;
+            Connection c = (p != null) ? p.getConnection() : datasource.getConnection();
             if (db_Derby) {
                 c.setAutoCommit(false);
             }
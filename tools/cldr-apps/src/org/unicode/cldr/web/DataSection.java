@@ -14,6 +14,7 @@ package org.unicode.cldr.web;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
@@ -468,6 +469,12 @@ public class DataSection implements JSONString {
              * Called only by DataSection.DataRow.CandidateItem.toJSONString()
              */
             private String getExample() {
+                if (examples != null) {
+                    Map<String, String> valueToExample = examples.get(xpath);
+                    if (valueToExample != null && valueToExample.containsKey(rawValue)) {
+                        return valueToExample.get(rawValue);
+                    }
+                }
                 return nativeExampleGenerator.getExampleHtml(xpath, rawValue);
             }
 
@@ -1616,7 +1623,7 @@ public class DataSection implements JSONString {
 
             final String org = session.getEffectiveCoverageLevel(locale.toString());
 
-            options = new Options(locale, SurveyMain.getTestPhase(), def, org);
+            options = Options.getInstance(locale, SurveyMain.getTestPhase(), def, org);
         }
         return options;
     }
@@ -1644,6 +1651,11 @@ public class DataSection implements JSONString {
 
     private CLDRLocale locale;
     private ExampleGenerator nativeExampleGenerator;
+
+    /**
+     * The examples made by toJSONString for each path and value, or null
+     */
+    private Map<String, Map<String, String>> examples = null;
     private XPathMatcher matcher;
     private PageId pageId;
     private CLDRFile diskFile;
@@ -2308,6 +2320,19 @@ public class DataSection implements JSONString {
         JSONObject itemList = new JSONObject();
         JSONObject result = new JSONObject();
         try {
+            /*
+             * Make the examples for all the items at once, with one set of formatters, rather than
+             * one by one as CandidateItem.toJSONString needs them.
+             */
+            Map<String, List<String>> valuesByPath = new HashMap<>();
+            for (DataRow d : rowsHash.values()) {
+                List<String> values = new ArrayList<>();
+                for (CandidateItem item : d.items.values()) {
+                    values.add(item.getValue());
+                }
+                valuesByPath.put(d.xpath, values);
+            }
+            examples = nativeExampleGenerator.getExamples(valuesByPath);
             for (DataRow d : rowsHash.values()) {
                 try {
                     String str = d.toJSONString();
@@ -313,18 +313,28 @@ public class OutputFileManager {
                     conn = sm.dbUtils.getDBConnection();
                 }
                 for (CLDRLocale loc : sortSet) {
+                    /*
+                     * Only query the locale time for files whose changes haven't been tracked since startup.
+                     */
                     Timestamp locTime = null;
-                    if (conn != null) {
-                        locTime = this.getLocaleTime(conn, loc);
-                        out.write("<li>" + loc.getDisplayName() + " - " + locTime.toLocaleString() + "<br/>\n");
-                    } else {
-                        out.write("<li>" + loc.getDisplayName() + "<br/>\n");
-                    }
+                    out.write("<li>" + loc.getDisplayName() + "<br/>\n");
                     for (OutputFileManager.Kind kind : OutputFileManager.Kind.values()) {
                         /*
                          * TODO: is there any point in outputting anything here for kind other than vxml and pxml?
                          */
-                        boolean nu = makeSeparateDir || this.fileNeedsUpdate(locTime, loc, kind.name());
+                        boolean nu = makeSeparateDir;
+                        if (!nu) {
+                            Boolean sinceExport = fileNeedsUpdateSinceExport(loc, kind.name());
+                            if (sinceExport != null) {
+                                nu = sinceExport;
+                            } else {
+                                if (locTime == null) {
+                                    locTime = this.getLocaleTime(conn, loc);
+                                    out.write(" - " + locTime.toLocaleString() + " ");
+                                }
+                                nu = this.fileNeedsUpdate(locTime, loc, kind.name());
+                            }
+                        }
                         String background = nu ? "#ff9999" : "green";
                         String weight = nu ? "regular" : "bold";
                         String color = nu ? "silver" : "black";
@@ -784,7 +794,7 @@ public class OutputFileManager {
         long st = System.currentTimeMillis();
         CLDRFile file;
         if (kind == Kind.vxml) {
-            file = sm.getSTFactory().makeVettedFile(loc);
+            file = sm.getSTFactory().makeUpdatedVettedFile(loc);
         } else if (kind == Kind.pxml) {
             file = sm.getSTFactory().makeProposedFile(loc);
         } else {
@@ -1034,14 +1044,43 @@ public class OutputFileManager {
      * @throws IOException
      */
     public File getOutputFile(Connection conn, CLDRLocale loc, String kind) throws SQLException, IOException {
+        /*
+         * Get the sequence number before checking or writing the file, so that votes made
+         * while writing count as changes next time.
+         */
+        long sequence = sm.getSTFactory().getChangeSequence();
+        File result;
         if (fileNeedsUpdate(conn, loc, kind)) {
             if (!isCacheableKind(kind)) {
                 throw new InternalError("Can't (yet) cache kind " + kind + " for loc " + loc);
             }
-            return writeOutputFile(loc, Kind.valueOf(kind));
+            result = writeOutputFile(loc, Kind.valueOf(kind));
         } else {
-            return sm.getDataFile(kind, loc);
+            result = sm.getDataFile(kind, loc);
         }
+        exportSequences.computeIfAbsent(kind, k -> new ConcurrentHashMap<>()).put(loc, sequence);
+        return result;
+    }
+
+    /**
+     * For each kind, and each locale whose file has been written (or found up to date) since startup,
+     * the STFactory change sequence number as of then.
+     */
+    private final Map<String, Map<CLDRLocale, Long>> exportSequences = new ConcurrentHashMap<>();
+
+    /**
+     * Is an update needed for a file, according to the votes made since it was last written?
+     *
+     * @return true or false, or null if that isn't known (the file hasn't been checked since startup,
+     * or is missing), in which case the timestamps must be compared
+     */
+    private Boolean fileNeedsUpdateSinceExport(CLDRLocale loc, String kind) throws IOException {
+        Map<CLDRLocale, Long> sequences = exportSequences.get(kind);
+        Long sequence = sequences == null ? null : sequences.get(loc);
+        if (sequence == null || !sm.getDataFile(kind, loc).exists()) {
+            return null;
+        }
+        return sm.getSTFactory().hasChangesSince(loc, sequence);
     }
 
     public Timestamp getLocaleTime(CLDRLocale loc) throws SQLException {
@@ -1110,6 +1149,10 @@ public class OutputFileManager {
      * @throws SQLException
      */
     private boolean fileNeedsUpdate(Connection conn, CLDRLocale loc, String kind) throws SQLException, IOException {
+        Boolean sinceExport = fileNeedsUpdateSinceExport(loc, kind);
+        if (sinceExport != null) {
+            return sinceExport;
+        }
         return fileNeedsUpdate(getLocaleTime(conn, loc), loc, kind);
     }
 
@@ -1176,12 +1219,11 @@ public class OutputFileManager {
                             loc = CLDR_OUTPUT_ONLY != null ? CLDRLocale.getInstance(CLDR_OUTPUT_ONLY) // DEBUGGING
                                 : locs[(spinner++) % locs.length]; // A new one each time. (normal case)
 
-                            Timestamp localeTime = getLocaleTime(conn, loc);
-                            SurveyLog.debug("Updater: Considering: " + loc + " - " + localeTime);
-                            if (!fileNeedsUpdate(localeTime, loc, "vxml")) {
+                            SurveyLog.debug("Updater: Considering: " + loc);
+                            if (!fileNeedsUpdate(conn, loc, "vxml")) {
                                 loc = null;
                             } else {
-                                SurveyLog.debug("Updater: To update:: " + loc + " - " + localeTime);
+                                SurveyLog.debug("Updater: To update:: " + loc);
                                 break; // update it.
                             }
                             if (j % 16 == 0) {
@@ -2,7 +2,10 @@ package org.unicode.cldr.web;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.unicode.cldr.util.VoteResolver;
 
@@ -231,27 +234,38 @@ public class PermanentVote {
     /**
      * Clean slate for TC “permanent” votes when lock or unlock
      *
-     * Remove all permanent votes from the VOTE_VALUE table for this locale+path
+     * Remove all permanent votes from the VOTE_VALUE table for this locale+path,
+     * and from the VoteStatistics counts
      */
     private void cleanSlate() {
         String tableName = DBUtils.Table.VOTE_VALUE.toString();
         Connection conn = null;
         PreparedStatement ps = null;
-        String sql = "DELETE FROM " + tableName
+        ResultSet rs = null;
+        String sql = "SELECT submitter,value,last_mod,locale,xpath FROM " + tableName
             + " WHERE locale=?"
             + " AND xpath=?"
             + " AND vote_override=" + VoteResolver.Level.PERMANENT_VOTES;
+        List<VoteStatistics.Change> deletions = new ArrayList<>();
         try {
             conn = DBUtils.getInstance().getDBConnection();
-            ps = DBUtils.prepareForwardReadOnly(conn, sql);
+            ps = DBUtils.prepareForwardUpdateable(conn, sql); // locale and xpath are selected for deleteRow
             ps.setString(1, localeName);
             ps.setInt(2, xpathId);
-            ps.executeUpdate();
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                deletions.add(VoteStatistics.getInstance().prepareRemoval(conn, localeName, xpathId, rs.getInt(1),
+                    DBUtils.getStringUTF8(rs, 2), rs.getTimestamp(3)));
+                rs.deleteRow();
+            }
             conn.commit();
+            for (VoteStatistics.Change deletion : deletions) {
+                VoteStatistics.getInstance().apply(deletion);
+            }
         } catch (SQLException e) {
             SurveyLog.logException(e);
         } finally {
-            DBUtils.close(ps, conn);
+            DBUtils.close(rs, ps, conn);
         }
     }
 }
@@ -13,7 +13,9 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -27,6 +29,7 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.unicode.cldr.icu.LDMLConstants;
 import org.unicode.cldr.test.CheckCLDR;
@@ -139,7 +142,15 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         XMLSource aliasOf; // original XMLSource
 
         public DataBackedSource(PerLocaleData makeFrom) {
-            super(makeFrom.diskData.cloneAsThawed());
+            this(makeFrom, makeFrom.diskData.cloneAsThawed());
+        }
+
+        /**
+         * @param makeFrom the PerLocaleData with the votes
+         * @param delegate the (thawed) source of the values, such as vetted data made earlier
+         */
+        public DataBackedSource(PerLocaleData makeFrom, XMLSource delegate) {
+            super(delegate);
             ballotBox = makeFrom;
         }
 
@@ -693,6 +704,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 ResultSet rs = null;
                 int n = 0;
                 int del = 0;
+                List<VoteStatistics.Change> deletions = new ArrayList<>();
 
                 try {
                     /*
@@ -733,6 +745,8 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                             n++;
                         } catch (BallotBox.InvalidXPathException e) {
                             System.err.println("InvalidXPathException: Deleting vote for " + theSubmitter + ":" + locale + ":" + xpath);
+                            deletions.add(VoteStatistics.getInstance().prepareRemoval(conn, locale.getBaseName(), xp, submitter, value,
+                                last_mod));
                             rs.deleteRow();
                             del++;
                         }
@@ -740,6 +754,9 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                     if (del > 0) {
                         System.out.println("Committing delete of " + del + " invalid votes from " + locale);
                         conn.commit();
+                        for (VoteStatistics.Change deletion : deletions) {
+                            VoteStatistics.getInstance().apply(deletion);
+                        }
                     }
                     DBUtils.close(rs, ps);
                     ps = openPermVoteQuery(conn);
@@ -1093,6 +1110,33 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             return vxmlSource;
         }
 
+        /**
+         * Make a vetted source like makeVettedSource, by updating a copy of the values of an earlier
+         * vetted source for the given paths only. Each path is reset to its diskData value and resolved
+         * again, just as makeVettedSource would; the other paths keep their earlier values.
+         *
+         * @param previous the values of the earlier vetted source, which are not changed
+         * @param paths the distinguishing paths whose votes may have changed since then
+         * @return the DataBackedSource (NOT the same as PerLocaleData.xmlsource)
+         */
+        public synchronized DataBackedSource makeVettedSource(XMLSource previous, Collection<String> paths) {
+            DataBackedSource vxmlSource = new DataBackedSource(this, previous.cloneAsThawed());
+            XMLSource values = vxmlSource.delegate;
+            VoteResolver<String> resolver = null;
+            Set<String> votedPaths = allPXDPaths();
+            for (String path : paths) {
+                values.removeValueAtDPath(path);
+                String diskValue = diskData.getValueAtDPath(path);
+                if (diskValue != null) {
+                    values.putValueAtPath(diskData.getFullPathAtDPath(path), diskValue);
+                }
+                if (diskValue != null || votedPaths.contains(path)) { // the paths that loadVoteValues resolves
+                    resolver = vxmlSource.setValueFromResolver(path, resolver, true /* resolveMorePaths */);
+                }
+            }
+            return vxmlSource;
+        }
+
         @Override
         public void unvoteFor(User user, String distinguishingXpath) throws BallotBox.InvalidXPathException, VoteNotAcceptedException {
             voteForValue(user, distinguishingXpath, null);
@@ -1159,6 +1203,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
 
             internalSetVoteForValue(user, distinguishingXpath, value, withVote, new Date());
+            recordChange(locale, xpathId);
 
             if (withVote != null && withVote == VoteResolver.Level.PERMANENT_VOTES) {
                 doPermanentVote(distinguishingXpath, xpathId, value);
@@ -1195,8 +1240,10 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             ResultSet rs = null;
             final boolean wasFlagged = getFlag(locale, xpathId); // do this outside of the txn..
             int submitter = user.id;
+            VoteStatistics.Change statisticsChange;
             try {
                 conn = DBUtils.getInstance().getDBConnection();
+                statisticsChange = VoteStatistics.getInstance().prepareChange(conn, locale.getBaseName(), xpathId, submitter, value);
 
                 String add0 = "", add1 = "", add2 = "";
 
@@ -1265,6 +1312,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             } finally {
                 DBUtils.close(saveOld, rs, ps, ps2, conn);
             }
+            VoteStatistics.getInstance().apply(statisticsChange);
             SurveyLog.debug(et);
 
             if (sm.fora != null) {
@@ -1567,6 +1615,8 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             handleUserChanged(null);
             progress.update("setup pathheader factory");
             phf = PathHeader.getFactory(sm.getEnglishFile());
+            progress.update("setup vote tables and statistics");
+            setupDB();
         }
     }
 
@@ -1655,6 +1705,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
             if (pld == null) {
                 pld = new PerLocaleData(locale);
+                lastVettedData.invalidate(locale); // made from the old disk data
                 rLocales.put(locale, pld);
                 locales.put(locale, (new SoftReference<>(pld)));
                 // update the locale display name cache.
@@ -1778,6 +1829,132 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
         return cldrFile;
     }
 
+    /**
+     * The vetted values last made by makeUpdatedVettedFile for a locale, the change sequence
+     * number as of when they were made, and the PerLocaleData (with its disk data) that they were made from.
+     */
+    private static final class VettedData {
+        final XMLSource values;
+        final long sequence;
+        final PerLocaleData source;
+
+        VettedData(XMLSource values, long sequence, PerLocaleData source) {
+            this.values = values;
+            this.sequence = sequence;
+            this.source = source;
+        }
+    }
+
+    private final Cache<CLDRLocale, VettedData> lastVettedData = CacheBuilder.newBuilder().softValues().build();
+
+    /**
+     * Make the same vetted CLDRFile as makeVettedFile, for (re)writing the vxml.
+     *
+     * If the previous call for this locale is still cached, and since then only votes in this locale
+     * (not in its parents) have changed, only the changed paths are resolved again; the rest of the
+     * data is copied from the previous call. Otherwise the file is made from scratch, as by makeVettedFile.
+     * The cached data is dropped when the locale's data is loaded again from disk (see get), since the
+     * disk values may have changed.
+     *
+     * @param loc the CLDRLocale
+     * @return the vetted CLDRFile with more paths resolved
+     */
+    public CLDRFile makeUpdatedVettedFile(CLDRLocale loc) {
+        PerLocaleData pld = get(loc.getBaseName());
+        long sequence = getChangeSequence(); // before reading the votes, so later votes count as changes
+        VettedData previous = lastVettedData.getIfPresent(loc);
+        DataBackedSource xmlSource;
+        if (previous != null && previous.source == pld && !hasChangesSince(loc.getParent(), previous.sequence)) {
+            List<String> paths = new ArrayList<>();
+            for (int xpathId : getChangesSince(loc, previous.sequence)) {
+                paths.add(sm.xpt.getById(xpathId));
+            }
+            xmlSource = pld.makeVettedSource(previous.values, paths);
+            SurveyLog.debug("makeUpdatedVettedFile: " + loc + " - resolved " + paths.size() + " changed paths");
+        } else {
+            xmlSource = (DataBackedSource) pld.makeVettedSource();
+        }
+        lastVettedData.put(loc, new VettedData(xmlSource.delegate, sequence, pld));
+        CLDRFile cldrFile = new CLDRFile(xmlSource);
+        cldrFile.setSupplementalDirectory(getSupplementalDirectory());
+        return cldrFile;
+    }
+
+    /**
+     * Counts the vote changes since startup; see getChangeSequence.
+     */
+    private final AtomicLong changeSequence = new AtomicLong();
+
+    /**
+     * For each locale, the change sequence number of the latest change to each xpath id
+     */
+    private final ConcurrentHashMap<CLDRLocale, ConcurrentHashMap<Integer, Long>> changedXpaths = new ConcurrentHashMap<>();
+
+    /**
+     * For each locale, the change sequence number of its latest change
+     */
+    private final ConcurrentHashMap<CLDRLocale, Long> latestChanges = new ConcurrentHashMap<>();
+
+    /**
+     * Record that the votes for a path have changed. Called after the vote is saved to the database,
+     * so that a reader that gets the sequence number first and then reads the database
+     * sees every change up to that number.
+     */
+    private void recordChange(CLDRLocale locale, int xpathId) {
+        long sequence = changeSequence.incrementAndGet();
+        changedXpaths.computeIfAbsent(locale, l -> new ConcurrentHashMap<>()).merge(xpathId, sequence, Math::max);
+        latestChanges.merge(locale, sequence, Math::max);
+    }
+
+    /**
+     * Get the current change sequence number, which grows with each vote made since startup.
+     * Output files made after getting the number include all the changes up to it; hasChangesSince
+     * then tells whether they are out of date. The numbers are not kept across restarts.
+     *
+     * @return the sequence number of the latest change, or 0 if there were none
+     */
+    public long getChangeSequence() {
+        return changeSequence.get();
+    }
+
+    /**
+     * Have the votes in this locale, or in any of its parents, changed since the given sequence number?
+     * Changes in parents count, since they can affect the inherited values used in vote resolution.
+     *
+     * @param loc the CLDRLocale, or null
+     * @param sequence a number from getChangeSequence
+     * @return true if there were changes after the sequence number
+     */
+    public boolean hasChangesSince(CLDRLocale loc, long sequence) {
+        for (; loc != null; loc = loc.getParent()) {
+            Long latest = latestChanges.get(loc);
+            if (latest != null && latest > sequence) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the xpath ids in this locale (but not its parents) whose votes have changed since the given sequence number.
+     *
+     * @param loc the CLDRLocale
+     * @param sequence a number from getChangeSequence
+     * @return the xpath ids
+     */
+    public Set<Integer> getChangesSince(CLDRLocale loc, long sequence) {
+        Map<Integer, Long> changes = changedXpaths.get(loc);
+        Set<Integer> result = new TreeSet<>();
+        if (changes != null) {
+            for (Entry<Integer, Long> e : changes.entrySet()) {
+                if (e.getValue() > sequence) {
+                    result.add(e.getKey());
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Prepare statement. Args: locale Result: xpath,submitter,value
      *
@@ -1942,6 +2119,12 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
                 conn.commit();
                 System.err.println("Created table " + tableName);
              }
+            try {
+                VoteStatistics.getInstance().load(conn);
+            } catch (SQLException se) {
+                // the statistics pages will show that they aren't available, but voting can go on
+                SurveyLog.logException(se, "Loading the vote statistics");
+            }
         } catch (SQLException se) {
             SurveyLog.logException(se, "SQL: " + sql);
             SurveyMain.busted("Setting up DB for STFactory, SQL: " + sql, se);
@@ -2280,6 +2463,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
             }
 
             conn.commit();
+            VoteStatistics.getInstance().load(conn); // the votes were replaced wholesale
         } catch (SQLException e) {
             SurveyLog.logException(e, "importing locale data from files");
         } finally {
@@ -2295,7 +2479,7 @@ public class STFactory extends Factory implements BallotBoxFactory<UserRegistry.
     private TestResultBundle getDiskTestBundle(CLDRLocale locale) {
         synchronized (gDiskTestCache) {
             TestResultBundle q;
-            q = gDiskTestCache.getBundle(new CheckCLDR.Options(locale, SurveyMain.getTestPhase(), null, null));
+            q = gDiskTestCache.getBundle(CheckCLDR.Options.getInstance(locale, SurveyMain.getTestPhase(), null, null));
             return q;
         }
     }
@@ -23,9 +23,6 @@ public class StatisticsUtils {
 
     public static final int NO_LIMIT = -1;
 
-    public static final String QUERY_ALL_VOTES = "select  locale,count(*) as count from " + DBUtils.Table.VOTE_VALUE + "  where submitter is not null " + ""
-        + " group by locale ";
-
     public static String[][] calcSubmits(String[][] v, String[][] d) {
         return calcSubmits(v, d, NO_LIMIT);
     }
@@ -81,24 +78,26 @@ public class StatisticsUtils {
     }
 
     /**
-     * Total items submitted. Updated every few minutes
+     * Total items submitted. Kept up to date by VoteStatistics
      * @return
      */
     public static int getTotalItems() {
-        final String queryName = "total_items";
-        final String querySql = "select count(*) from " + DBUtils.Table.VOTE_VALUE + " where submitter is not null";
-        return getCachedQuery(queryName, querySql);
+        if (!isStatisticsReady()) {
+            return -2;
+        }
+        return VoteStatistics.getInstance().getTotalItems();
     }
 
     /**
-     * Total items submitted. Updated every few minutes
+     * Total items submitted, excluding those that are the same as the submitter's vote in the last release.
+     * Kept up to date by VoteStatistics
      * @return
      */
     public static int getTotalNewItems() {
-        final String queryName = "total_new_items";
-        final String querySql = "select count(*) from " + DBUtils.Table.VOTE_VALUE + " as new_votes where new_votes.submitter is not null  and "
-            + getExcludeOldVotesSql();
-        return getCachedQuery(queryName, querySql);
+        if (!isStatisticsReady()) {
+            return -2;
+        }
+        return VoteStatistics.getInstance().getTotalNewItems();
     }
 
     public static String getExcludeOldVotesSql() {
@@ -108,13 +107,18 @@ public class StatisticsUtils {
     }
 
     /**
-     * Total submitters. Updated every few minutes
+     * Total submitters. Kept up to date by VoteStatistics
      * @return
      */
     public static int getTotalSubmitters() {
-        final String queryName = "total_submitters";
-        final String querySql = "select count(distinct submitter) from " + DBUtils.Table.VOTE_VALUE + " ";
-        return getCachedQuery(queryName, querySql);
+        if (!isStatisticsReady()) {
+            return -2;
+        }
+        return VoteStatistics.getInstance().getTotalSubmitters();
+    }
+
+    private static boolean isStatisticsReady() {
+        return SurveyMain.isSetup && !SurveyMain.isBusted() && VoteStatistics.getInstance().isLoaded();
     }
 
     /**
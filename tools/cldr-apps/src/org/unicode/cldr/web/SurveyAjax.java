@@ -324,6 +324,17 @@ public class SurveyAjax extends HttpServlet {
     }
 
     private void processRequest(HttpServletRequest request, HttpServletResponse response, String val) throws ServletException,
+        IOException {
+        AjaxMetrics.Request timing = AjaxMetrics.begin(request.getParameter(REQ_WHAT),
+            request.getParameter(SurveyMain.QUERY_LOCALE), request.getParameter(SurveyMain.QUERY_SECTION));
+        try {
+            dispatchRequest(request, response, val);
+        } finally {
+            AjaxMetrics.end(timing);
+        }
+    }
+
+    private void dispatchRequest(HttpServletRequest request, HttpServletResponse response, String val) throws ServletException,
         IOException {
         CLDRConfigImpl.setUrls(request);
         final SurveyMain sm = SurveyMain.getInstance(request);
@@ -356,8 +367,7 @@ public class SurveyAjax extends HttpServlet {
                 generateReport(request, response, out, sm, sess, l);
             } else if (what.equals(WHAT_STATS_BYLOC)) {
                 JSONWriter r = newJSONStatusQuick(sm);
-                JSONObject query = DBUtils.queryToCachedJSON(what, 5 * 60 * 1000, StatisticsUtils.QUERY_ALL_VOTES);
-                r.put(what, query);
+                r.put(what, VoteStatistics.getInstance().getByLocale());
                 addGeneralStats(r);
                 send(r, out);
             } else if (what.equals(WHAT_FLAGGED)) {
@@ -369,37 +379,13 @@ public class SurveyAjax extends HttpServlet {
             } else if (what.equals(WHAT_STATS_BYDAYUSERLOC)) {
                 String votesAfterString = SurveyMain.getVotesAfterString();
                 JSONWriter r = newJSONStatus(sm);
-                final String day = DBUtils.db_Mysql ? "DATE_FORMAT(last_mod, '%Y-%m-%d')" : "last_mod ";
-                final String sql = "select submitter," + day + " as day,locale,count(*) as count from " + DBUtils.Table.VOTE_VALUE
-                    + " group by submitter,locale,YEAR(last_mod),MONTH(last_mod),day order by day desc";
-                JSONObject query = DBUtils.queryToCachedJSON(what, 5 * 60 * 1000,
-                    sql);
-                r.put(what, query);
+                r.put(what, VoteStatistics.getInstance().getByDayUserLocale());
                 r.put("after", votesAfterString);
                 send(r, out);
-                // select submitter,DATE_FORMAT(last_mod, '%Y-%m-%d') as day,locale,count(*) from "+DBUtils.Table.VOTE_VALUE+" group by submitter,locale,YEAR(last_mod),MONTH(last_mod),DAYOFMONTH(last_mod) order by day desc limit 10000;
             } else if (what.equals(WHAT_STATS_BYDAY)) {
                 JSONWriter r = newJSONStatus(sm);
-                {
-                    final String sql = DBUtils.db_Mysql ? ("select count(*) as count ,last_mod from " + DBUtils.Table.VOTE_VALUE
-                        + " group by Year(last_mod) desc ,Month(last_mod) desc,last_mod desc") // mysql
-                        : ("select count(*) as count ,Date(" + DBUtils.Table.VOTE_VALUE + ".last_mod) as last_mod from " + DBUtils.Table.VOTE_VALUE
-                            + " group by Date(" + DBUtils.Table.VOTE_VALUE + ".last_mod)"); // derby
-                    final JSONObject query = DBUtils
-                        .queryToCachedJSON(what, (5 * 60 * 1000), sql);
-                    r.put("byday", query);
-                }
-                {
-                    // exclude old votes
-                    final String sql2 = DBUtils.db_Mysql ? ("select count(*) as count ,last_mod from " + DBUtils.Table.VOTE_VALUE
-                        + " as new_votes where " + StatisticsUtils.getExcludeOldVotesSql()
-                        + " group by Year(last_mod) desc ,Month(last_mod) desc,last_mod desc") // mysql
-                        : ("select count(*) as count ,Date(" + DBUtils.Table.VOTE_VALUE + ".last_mod) as last_mod from " + DBUtils.Table.VOTE_VALUE
-                            + " group by Date(" + DBUtils.Table.VOTE_VALUE + ".last_mod)"); // derby
-                    final JSONObject query2 = DBUtils
-                        .queryToCachedJSON(what + "_new", (5 * 60 * 1000), sql2);
-                    r.put("byday_new", query2);
-                }
+                r.put("byday", VoteStatistics.getInstance().getByDay(false));
+                r.put("byday_new", VoteStatistics.getInstance().getByDay(true)); // exclude old votes
                 r.put("after", "n/a");
                 send(r, out);
             } else if (what.equals(WHAT_GETXPATH)) {
@@ -1532,7 +1518,9 @@ public class SurveyAjax extends HttpServlet {
     }
 
     private static void send(JSONWriter r, PrintWriter out) throws IOException {
+        long start = AjaxMetrics.jsonStart();
         out.print(r.toString());
+        AjaxMetrics.jsonWritten(start);
     }
 
     public enum AjaxType {
@@ -2422,6 +2410,16 @@ public class SurveyAjax extends HttpServlet {
                 }
             }
         }
+        if (totalVotesTransferred > 0) {
+            // the last release's votes decide which current votes count as new
+            Connection conn = null;
+            try {
+                conn = DBUtils.getInstance().getDBConnection();
+                VoteStatistics.getInstance().load(conn);
+            } finally {
+                DBUtils.close(conn);
+            }
+        }
         final JSONObject o = new JSONObject();
         o.put("from_user_id", from_user_id);
         o.put("from_locale", from_locale);
@@ -2808,6 +2806,7 @@ public class SurveyAjax extends HttpServlet {
                     }
                 }
 
+                long jsonStart = AjaxMetrics.jsonStart();
                 try {
                     org.json.JSONWriter r = new org.json.JSONWriter(out).object()
                         .key("stro").value(STFactory.isReadOnlyLocale(locale))
@@ -2829,6 +2828,7 @@ public class SurveyAjax extends HttpServlet {
                     SurveyLog.logException(t, "RefreshRow write");
                     new org.json.JSONWriter(out).object().key("err").value("Exception on writeSection:" + t.toString()).endObject();
                 }
+                AjaxMetrics.jsonWritten(jsonStart);
             }
         } finally {
             // put the name back.
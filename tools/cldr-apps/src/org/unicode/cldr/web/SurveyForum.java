@@ -13,12 +13,15 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -78,7 +81,7 @@ public class SurveyForum {
             .replaceAll("&amp;", "&");
     }
 
-    private Hashtable<String, Integer> nameToNum = new Hashtable<>();
+    private final Map<String, Integer> nameToNum = new ConcurrentHashMap<>();
 
     private static final int BAD_FORUM = -1;
     private static final int NO_FORUM = -2;
@@ -89,8 +92,16 @@ public class SurveyForum {
      */
     public static final int NO_PARENT = -1;
 
-    private synchronized int getForumNumber(CLDRLocale locale) {
+    private int getForumNumber(CLDRLocale locale) {
         String forum = localeToForum(locale);
+        Integer i = nameToNum.get(forum); // only valid forums are in the map
+        if (i != null) {
+            return i.intValue();
+        }
+        return getForumNumber(forum);
+    }
+
+    private synchronized int getForumNumber(String forum) {
         if (forum.length() == 0) {
             return NO_FORUM; // all forums
         }
@@ -554,6 +565,148 @@ public class SurveyForum {
             + "Forum" + "</a>";
     }
 
+    /**
+     * What is known about the posts in each locale, by the "loc" column: loaded on first use,
+     * and updated as posts are saved, so that counting posts and finding open posts doesn't
+     * need the database. Post text isn't kept.
+     */
+    private final Map<String, LocaleIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * An open post, as needed by the auto-posts made after a vote.
+     */
+    private static final class OpenPost {
+        final int id;
+        final int root;
+        final PostType type;
+        final int poster;
+        final String value;
+        final String subj;
+
+        OpenPost(int id, int root, PostType type, int poster, String value, String subj) {
+            this.id = id;
+            this.root = root;
+            this.type = type;
+            this.poster = poster;
+            this.value = value;
+            this.subj = subj;
+        }
+
+        /**
+         * @return whether the SQL "NOT value=?" matches this post; it doesn't if value is null
+         */
+        boolean valueDiffers(String dbValue) {
+            return value != null && !value.equals(dbValue);
+        }
+    }
+
+    /**
+     * The posts in one locale. Everything is guarded by the index itself; savePostToDb holds that lock
+     * while it writes, so that a post is either seen by load() or added afterwards, never both.
+     */
+    private static final class LocaleIndex {
+        private final String loc;
+        private boolean loaded = false;
+        private final Map<Integer, Integer> countByXpath = new HashMap<>();
+        private final Map<Integer, List<OpenPost>> openByXpath = new HashMap<>();
+
+        LocaleIndex(String loc) {
+            this.loc = loc;
+        }
+
+        /**
+         * Load the posts, unless already loaded. Called with the lock held.
+         */
+        void load() {
+            if (loaded) {
+                return;
+            }
+            Connection conn = null;
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                conn = DBUtils.getInstance().getDBConnection();
+                ps = DBUtils.prepareForwardReadOnly(conn, "SELECT id,root,xpath,poster,type,open,value,subj FROM "
+                    + DBUtils.Table.FORUM_POSTS + " WHERE loc=? ORDER BY id");
+                ps.setString(1, loc);
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    final boolean open = rs.getBoolean(6);
+                    add(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), PostType.fromInt(rs.getInt(5), PostType.DISCUSS),
+                        open, open ? DBUtils.getStringUTF8(rs, 7) : null, open ? DBUtils.getStringUTF8(rs, 8) : null);
+                }
+                loaded = true;
+            } catch (SQLException se) {
+                clear();
+                String complaint = "SurveyForum: Couldn't load posts for " + loc + " - " + DBUtils.unchainSqlException(se);
+                SurveyLog.logException(se, complaint);
+                throw new RuntimeException(complaint);
+            } finally {
+                DBUtils.close(rs, ps, conn);
+            }
+        }
+
+        /**
+         * Forget the posts, so that they are loaded again on next use.
+         */
+        void clear() {
+            loaded = false;
+            countByXpath.clear();
+            openByXpath.clear();
+        }
+
+        void add(int id, int root, int xpath, int poster, PostType type, boolean open, String value, String subj) {
+            countByXpath.merge(xpath, 1, Integer::sum);
+            if (open) {
+                openByXpath.computeIfAbsent(xpath, k -> new ArrayList<>()).add(new OpenPost(id, root, type, poster, value, subj));
+            }
+        }
+
+        /**
+         * As prepare_pCloseThread: set open=false for the posts whose id or root is the given root.
+         */
+        void closeThread(int root) {
+            for (Iterator<List<OpenPost>> lists = openByXpath.values().iterator(); lists.hasNext();) {
+                List<OpenPost> list = lists.next();
+                for (Iterator<OpenPost> posts = list.iterator(); posts.hasNext();) {
+                    OpenPost post = posts.next();
+                    if (post.id == root || post.root == root) {
+                        posts.remove();
+                    }
+                }
+                if (list.isEmpty()) {
+                    lists.remove();
+                }
+            }
+        }
+
+        int count(int xpath) {
+            Integer count = countByXpath.get(xpath);
+            return (count == null) ? 0 : count;
+        }
+
+        List<OpenPost> openPosts(int xpath) {
+            List<OpenPost> list = openByXpath.get(xpath);
+            return (list == null) ? new ArrayList<OpenPost>() : new ArrayList<>(list);
+        }
+    }
+
+    /**
+     * @param loc the locale, as stored in the "loc" column
+     * @return the index for that locale, loaded
+     */
+    private LocaleIndex getLoadedIndex(String loc) {
+        LocaleIndex index = getIndex(loc);
+        synchronized (index) {
+            index.load();
+        }
+        return index;
+    }
+
+    private LocaleIndex getIndex(String loc) {
+        return indexes.computeIfAbsent(loc, LocaleIndex::new);
+    }
+
     /**
      * How many forum posts are there for the given locale and xpath?
      *
@@ -564,22 +717,14 @@ public class SurveyForum {
      * Called by STFactory.PerLocaleData.voteForValue and SurveyAjax.processRequest (WHAT_FORUM_COUNT)
      */
     public int postCountFor(CLDRLocale locale, int xpathId) {
-        Connection conn = null;
-        PreparedStatement ps = null;
-        String tableName = DBUtils.Table.FORUM_POSTS.toString();
         try {
-            conn = DBUtils.getInstance().getDBConnection();
-
-            ps = DBUtils.prepareForwardReadOnly(conn, "select count(*) from " + tableName + " where loc=? and xpath=?");
-            ps.setString(1, locale.getBaseName());
-            ps.setInt(2, xpathId);
-
-            return DBUtils.sqlCount(null, conn, ps);
-        } catch (SQLException e) {
-            SurveyLog.logException(e, "postCountFor for " + tableName + " " + locale + ":" + xpathId);
+            LocaleIndex index = getLoadedIndex(locale.getBaseName());
+            synchronized (index) {
+                return index.count(xpathId);
+            }
+        } catch (RuntimeException e) {
+            SurveyLog.logException(e, "postCountFor for " + locale + ":" + xpathId);
             return 0;
-        } finally {
-            DBUtils.close(ps, conn);
         }
     }
 
@@ -602,6 +747,15 @@ public class SurveyForum {
 
         int forumNumber = getForumNumber(locale);
 
+        if (ident == 0 && base_xpath > 0) {
+            LocaleIndex index = getLoadedIndex(locale.toString());
+            synchronized (index) {
+                if (index.count(base_xpath) == 0) {
+                    return ret; // no posts for this path
+                }
+            }
+        }
+
         try {
             Connection conn = null;
             try {
@@ -840,31 +994,31 @@ public class SurveyForum {
      * @param value
      */
     private void autoPostAgree(CLDRLocale locale, User user, int xpathId, String value) {
-        Connection conn = null;
-        PreparedStatement pList = null;
-        String tableName = DBUtils.Table.FORUM_POSTS.toString();
         Map<Integer, String> posts = new HashMap<>();
-        try {
-            conn = sm.dbUtils.getDBConnection();
-            pList = DBUtils.prepareStatement(conn, "pList",
-                "SELECT id,subj FROM " + tableName
-                + " WHERE open=true AND type=? AND loc=? AND xpath=? AND value=? AND NOT poster=?");
-            pList.setInt(1, PostType.REQUEST.toInt());
-            pList.setString(2, locale.toString());
-            pList.setInt(3, xpathId);
-            DBUtils.setStringUTF8(pList, 4, value);
-            pList.setInt(5, user.id);
-            ResultSet rs = pList.executeQuery();
-            while (rs.next()) {
-                posts.put(rs.getInt(1), DBUtils.getStringUTF8(rs, 2));
+        for (OpenPost post : getOpenPosts(locale, xpathId, PostType.REQUEST)) {
+            if (value.equals(post.value) && post.poster != user.id) {
+                posts.put(post.id, post.subj);
             }
-            posts.forEach((root, subject) -> autoPostReplyAgree(root, subject, locale, user, xpathId, value));
-         } catch (SQLException se) {
-            String complaint = "SurveyForum: autoPostAgree - " + DBUtils.unchainSqlException(se);
-            SurveyLog.logException(se, complaint);
-        } finally {
-            DBUtils.close(pList, conn);
         }
+        posts.forEach((root, subject) -> autoPostReplyAgree(root, subject, locale, user, xpathId, value));
+    }
+
+    /**
+     * Get the open posts of the given type for this locale and xpath, from the index
+     *
+     * @param locale
+     * @param xpathId
+     * @param type
+     * @return a new list of the posts
+     */
+    private List<OpenPost> getOpenPosts(CLDRLocale locale, int xpathId, PostType type) {
+        List<OpenPost> posts;
+        LocaleIndex index = getLoadedIndex(locale.toString());
+        synchronized (index) {
+            posts = index.openPosts(xpathId);
+        }
+        posts.removeIf(post -> post.type != type);
+        return posts;
     }
 
     private void autoPostReplyAgree(int root, String subject, CLDRLocale locale, User user,
@@ -896,31 +1050,13 @@ public class SurveyForum {
      */
     private void autoPostDecline(CLDRLocale locale, User user, int xpathId, String value) {
         String dbValue = value == null ? "" : value;
-        Connection conn = null;
-        PreparedStatement pList = null;
-        String tableName = DBUtils.Table.FORUM_POSTS.toString();
         Map<Integer, String> posts = new HashMap<>();
-        try {
-            conn = sm.dbUtils.getDBConnection();
-            pList = DBUtils.prepareStatement(conn, "pList",
-                "SELECT root,subj FROM " + tableName
-                + " WHERE open=true AND type=? AND loc=? AND xpath=? AND poster=? AND NOT value=?");
-            pList.setInt(1, PostType.AGREE.toInt());
-            pList.setString(2, locale.toString());
-            pList.setInt(3, xpathId);
-            pList.setInt(4, user.id);
-            DBUtils.setStringUTF8(pList, 5, dbValue);
-            ResultSet rs = pList.executeQuery();
-            while (rs.next()) {
-                posts.put(rs.getInt(1), DBUtils.getStringUTF8(rs, 2));
+        for (OpenPost post : getOpenPosts(locale, xpathId, PostType.AGREE)) {
+            if (post.poster == user.id && post.valueDiffers(dbValue)) {
+                posts.put(post.root, post.subj);
             }
-            posts.forEach((root, subject) -> autoPostReplyDecline(root, subject, locale, user, xpathId, value));
-         } catch (SQLException se) {
-            String complaint = "SurveyForum: autoPostDecline - " + DBUtils.unchainSqlException(se);
-            SurveyLog.logException(se, complaint);
-        } finally {
-            DBUtils.close(pList, conn);
         }
+        posts.forEach((root, subject) -> autoPostReplyDecline(root, subject, locale, user, xpathId, value));
     }
 
     private void autoPostReplyDecline(int root, String subject, CLDRLocale locale, User user,
@@ -953,31 +1089,13 @@ public class SurveyForum {
      */
     private void autoPostClose(CLDRLocale locale, User user, int xpathId, String value) {
         String dbValue = value == null ? "" : value;
-        Connection conn = null;
-        PreparedStatement pList = null;
-        String tableName = DBUtils.Table.FORUM_POSTS.toString();
         Map<Integer, String> posts = new HashMap<>();
-        try {
-            conn = sm.dbUtils.getDBConnection();
-            pList = DBUtils.prepareStatement(conn, "pList",
-                "SELECT id,subj FROM " + tableName
-                + " WHERE open=true AND type=? AND loc=? AND xpath=? AND poster=? AND NOT value=?");
-            pList.setInt(1, PostType.REQUEST.toInt());
-            pList.setString(2, locale.toString());
-            pList.setInt(3, xpathId);
-            pList.setInt(4, user.id);
-            DBUtils.setStringUTF8(pList, 5, dbValue);
-            ResultSet rs = pList.executeQuery();
-            while (rs.next()) {
-                posts.put(rs.getInt(1), DBUtils.getStringUTF8(rs, 2));
+        for (OpenPost post : getOpenPosts(locale, xpathId, PostType.REQUEST)) {
+            if (post.poster == user.id && post.valueDiffers(dbValue)) {
+                posts.put(post.id, post.subj);
             }
-            posts.forEach((root, subject) -> autoPostReplyClose(root, subject, locale, user, xpathId, value));
-         } catch (SQLException se) {
-            String complaint = "SurveyForum: autoPostClose - " + DBUtils.unchainSqlException(se);
-            SurveyLog.logException(se, complaint);
-        } finally {
-            DBUtils.close(pList, conn);
         }
+        posts.forEach((root, subject) -> autoPostReplyClose(root, subject, locale, user, xpathId, value));
     }
 
     private void autoPostReplyClose(int root, String subject, CLDRLocale locale, User user,
@@ -1028,6 +1146,46 @@ public class SurveyForum {
         return postId;
     }
 
+    /**
+     * Save a new post to the FORUM_POSTS table, as insertPost does, and add it to the locale's index
+     *
+     * @param PostInfo the post info
+     * @return the new post id, or <= 0 for failure
+     * @throws SurveyException
+     */
+    private int savePostToDb(PostInfo postInfo) throws SurveyException {
+        final PostType type = postInfo.getType();
+        final boolean open = (type == PostType.CLOSE) ? false : postInfo.getOpen();
+        final int root = postInfo.getRoot();
+        final LocaleIndex index = getIndex(postInfo.getLocale().toString());
+        final int postId;
+        synchronized (index) {
+            postId = insertPost(postInfo);
+            if (index.loaded) {
+                if (type == PostType.CLOSE && root > 0) {
+                    index.closeThread(root);
+                }
+                if (postId > 0) {
+                    index.add(postId, root, postInfo.getPath(), postInfo.getUser().id, type, open, postInfo.getValue(),
+                        postInfo.getSubj());
+                } else {
+                    index.clear(); // can't tell which post it was: load again
+                }
+            }
+        }
+        if (type == PostType.CLOSE && root <= 0) {
+            // "WHERE id=? OR root=?" with root=NO_PARENT closes the first post of every thread, in every locale
+            for (LocaleIndex other : indexes.values()) {
+                synchronized (other) {
+                    if (other.loaded) {
+                        other.closeThread(root);
+                    }
+                }
+            }
+        }
+        return postId;
+    }
+
     /**
      * Save a new post to the FORUM_POSTS table; if it's a CLOSE post,
      * also set open=false for all posts in this thread
@@ -1035,8 +1193,10 @@ public class SurveyForum {
      * @param PostInfo the post info
      * @return the new post id, or <= 0 for failure
      * @throws SurveyException
+     *
+     * Called only by savePostToDb
      */
-    private int savePostToDb(PostInfo postInfo) throws SurveyException {
+    private int insertPost(PostInfo postInfo) throws SurveyException {
         int postId = 0;
         final CLDRLocale locale = postInfo.getLocale();
         final String localeStr = locale.toString();
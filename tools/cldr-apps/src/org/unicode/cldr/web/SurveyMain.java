@@ -4865,7 +4865,11 @@ public class SurveyMain extends HttpServlet implements CLDRProgressIndicator, Ex
             }
             progress.update("Create XPT"); // restore
             try {
-                xpt = XPathTable.createTable(dbUtils.getDBConnection());
+                // the cache of xpaths, so that they don't all have to be read from the database at startup
+                String xpathCache = CLDRConfig.getInstance().getProperty("CLDR_XPATH_CACHE",
+                    new File(getSurveyHome(), "xpaths.dat").getPath());
+                xpt = XPathTable.createTable(dbUtils.getDBConnection(),
+                    xpathCache.isEmpty() ? null : new File(xpathCache));
             } catch (SQLException e) {
                 busted("On XPathTable startup", e);
                 return;
@@ -4917,6 +4921,9 @@ public class SurveyMain extends HttpServlet implements CLDRProgressIndicator, Ex
                 t.printStackTrace();
                 SurveyLog.logger.warning("While shutting down reg ");
             }
+            if (xpt != null) {
+                xpt.close();
+            }
             if (dbUtils != null) {
                 dbUtils.doShutdown();
             }
@@ -0,0 +1,388 @@
+package org.unicode.cldr.web;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.unicode.cldr.util.CLDRLocale;
+
+/**
+ * Counts of the rows in the VOTE_VALUE table, for the statistics pages: in total, by locale, by day, and by
+ * submitter, locale and day; also the counts of "new" votes, those that aren't the same as the submitter's vote
+ * in the last release (see StatisticsUtils.getExcludeOldVotesSql).
+ * <p>
+ * The counts are read from the database once, when STFactory sets up its tables, and then kept up to date by
+ * STFactory as it saves each vote, so the statistics pages don't need to query the whole table. The totals
+ * are read without locking; the tables (in the same JSON form as DBUtils.queryToJSON) are built when first
+ * asked for after a change.
+ * <p>
+ * Days are in the server's time zone, as with the database's DATE(last_mod).
+ */
+public class VoteStatistics {
+    static final long NO_DAY = Long.MIN_VALUE;
+
+    private static final VoteStatistics instance = new VoteStatistics();
+
+    public static VoteStatistics getInstance() {
+        return instance;
+    }
+
+    /**
+     * The counts for one submitter, locale and day.
+     */
+    private static final class Key {
+        final int submitter;
+        final String locale;
+        final long day;
+
+        Key(int submitter, String locale, long day) {
+            this.submitter = submitter;
+            this.locale = locale;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return submitter == other.submitter && day == other.day && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(submitter, locale, day);
+        }
+    }
+
+    /**
+     * The change to the counts from saving or deleting one vote, found before the vote is written.
+     */
+    static final class Change {
+        private final String locale;
+        private final int submitter;
+        private final boolean hadOld;
+        private final long oldDay;
+        private final boolean oldWasNew;
+        private final boolean isNew;
+        private final boolean isRemoval;
+
+        private Change(String locale, int submitter, boolean hadOld, long oldDay, boolean oldWasNew, boolean isNew,
+            boolean isRemoval) {
+            this.locale = locale;
+            this.submitter = submitter;
+            this.hadOld = hadOld;
+            this.oldDay = oldDay;
+            this.oldWasNew = oldWasNew;
+            this.isNew = isNew;
+            this.isRemoval = isRemoval;
+        }
+    }
+
+    // guarded by this
+    private final Map<Key, int[]> counts = new HashMap<>(); // {all, new}
+    private final Map<String, Integer> byLocale = new HashMap<>();
+    private final TreeMap<Long, int[]> byDay = new TreeMap<>(); // {all, new}
+    private final Map<Integer, Integer> bySubmitter = new HashMap<>();
+    private String lastVoteTable; // null if there is none
+    private JSONObject byLocaleJSON;
+    private JSONObject byDayJSON;
+    private JSONObject byDayNewJSON;
+    private JSONObject byDayUserLocaleJSON;
+
+    private volatile boolean loaded = false;
+    private volatile int totalItems;
+    private volatile int totalNewItems;
+    private volatile int totalSubmitters;
+
+    private VoteStatistics() {
+    }
+
+    /**
+     * Read the counts from the database, replacing any that were there.
+     */
+    synchronized void load(Connection conn) throws SQLException {
+        counts.clear();
+        byLocale.clear();
+        byDay.clear();
+        bySubmitter.clear();
+        totalItems = totalNewItems = 0;
+        String table = STFactory.getLastVoteTable();
+        lastVoteTable = DBUtils.hasTable(conn, table) ? table : null;
+        final String select = "select locale,submitter,DATE(last_mod) as day,count(*) as count from " + DBUtils.Table.VOTE_VALUE;
+        final String groupBy = " group by locale,submitter,DATE(last_mod)";
+        loadCounts(conn, select + groupBy, 0);
+        if (lastVoteTable != null) {
+            loadCounts(conn, select + " as new_votes where " + StatisticsUtils.getExcludeOldVotesSql() + groupBy, 1);
+        } else {
+            loadCounts(conn, select + groupBy, 1);
+        }
+        totalSubmitters = bySubmitter.size();
+        invalidate();
+        loaded = true;
+    }
+
+    private void loadCounts(Connection conn, String sql, int which) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = DBUtils.prepareForwardReadOnly(conn, sql);
+            rs = ps.executeQuery();
+            while (rs.next()) {
+                java.sql.Date date = rs.getDate(3);
+                add(rs.getString(1), rs.getInt(2), date == null ? NO_DAY : date.toLocalDate().toEpochDay(), which,
+                    rs.getInt(4));
+            }
+        } finally {
+            DBUtils.close(rs, ps);
+        }
+    }
+
+    /**
+     * Look at the vote that is about to be replaced. Call this in the transaction that saves the vote,
+     * before the vote is written.
+     *
+     * @param value the new value, or null for an abstention
+     */
+    Change prepareChange(Connection conn, String locale, int xpathId, int submitter, String value) throws SQLException {
+        boolean hadOld = false;
+        long oldDay = NO_DAY;
+        String oldValue = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = DBUtils.prepareStatementWithArgsFRO(conn, "select value,last_mod from " + DBUtils.Table.VOTE_VALUE
+                + " where locale=? and xpath=? and submitter=?", locale, xpathId, submitter);
+            rs = ps.executeQuery();
+            if (rs.next()) {
+                hadOld = true;
+                oldValue = DBUtils.getStringUTF8(rs, 1);
+                oldDay = dayOf(rs.getTimestamp(2));
+            }
+        } finally {
+            DBUtils.close(rs, ps);
+        }
+        String lastValue = getLastReleaseValue(conn, locale, xpathId, submitter);
+        return new Change(locale, submitter, hadOld, oldDay, hadOld && isNew(oldValue, lastValue), isNew(value, lastValue),
+            false);
+    }
+
+    /**
+     * Look at a vote that is about to be deleted. Call this before the vote is deleted.
+     *
+     * @param lastMod the vote's last_mod
+     */
+    Change prepareRemoval(Connection conn, String locale, int xpathId, int submitter, String value, Timestamp lastMod)
+        throws SQLException {
+        return new Change(locale, submitter, true, dayOf(lastMod),
+            isNew(value, getLastReleaseValue(conn, locale, xpathId, submitter)), false, true);
+    }
+
+    /**
+     * As in getExcludeOldVotesSql, a null value never matches.
+     */
+    private static boolean isNew(String value, String lastReleaseValue) {
+        return value == null || !value.equals(lastReleaseValue);
+    }
+
+    /**
+     * @return the submitter's vote in the last release, or null if there is none
+     */
+    private String getLastReleaseValue(Connection conn, String locale, int xpathId, int submitter) throws SQLException {
+        String table = getLastVoteTable();
+        if (table == null) {
+            return null;
+        }
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        try {
+            ps = DBUtils.prepareStatementWithArgsFRO(conn, "select value from " + table
+                + " where locale=? and xpath=? and submitter=?", locale, xpathId, submitter);
+            rs = ps.executeQuery();
+            return rs.next() ? DBUtils.getStringUTF8(rs, 1) : null;
+        } finally {
+            DBUtils.close(rs, ps);
+        }
+    }
+
+    private synchronized String getLastVoteTable() {
+        return lastVoteTable;
+    }
+
+    /**
+     * Apply the change, once the vote has been committed. A saved vote's last_mod is now.
+     */
+    synchronized void apply(Change change) {
+        if (!loaded) {
+            return;
+        }
+        if (change.hadOld) {
+            add(change.locale, change.submitter, change.oldDay, 0, -1);
+            if (change.oldWasNew) {
+                add(change.locale, change.submitter, change.oldDay, 1, -1);
+            }
+        }
+        if (!change.isRemoval) {
+            long today = LocalDate.now().toEpochDay();
+            add(change.locale, change.submitter, today, 0, 1);
+            if (change.isNew) {
+                add(change.locale, change.submitter, today, 1, 1);
+            }
+        }
+        totalSubmitters = bySubmitter.size();
+        invalidate();
+    }
+
+    /**
+     * @param which 0 for all votes, 1 for new votes
+     */
+    private void add(String locale, int submitter, long day, int which, int count) {
+        Key key = new Key(submitter, locale, day);
+        int[] cell = counts.computeIfAbsent(key, k -> new int[2]);
+        cell[which] += count;
+        if (cell[0] == 0 && cell[1] == 0) {
+            counts.remove(key);
+        }
+        int[] dayCounts = byDay.computeIfAbsent(day, k -> new int[2]);
+        dayCounts[which] += count;
+        if (dayCounts[0] == 0 && dayCounts[1] == 0) {
+            byDay.remove(day);
+        }
+        if (which == 0) {
+            byLocale.merge(locale, count, (a, b) -> a + b == 0 ? null : a + b);
+            bySubmitter.merge(submitter, count, (a, b) -> a + b == 0 ? null : a + b);
+            totalItems += count;
+        } else {
+            totalNewItems += count;
+        }
+    }
+
+    private void invalidate() {
+        byLocaleJSON = byDayJSON = byDayNewJSON = byDayUserLocaleJSON = null;
+    }
+
+    static long dayOf(Timestamp timestamp) {
+        return timestamp == null ? NO_DAY : timestamp.toLocalDateTime().toLocalDate().toEpochDay();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return the number of votes (including abstentions)
+     */
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    /**
+     * @return the number of votes that differ from the submitter's vote in the last release
+     */
+    public int getTotalNewItems() {
+        return totalNewItems;
+    }
+
+    /**
+     * @return the number of users who have voted
+     */
+    public int getTotalSubmitters() {
+        return totalSubmitters;
+    }
+
+    /**
+     * @return the votes by locale, with the columns LOCALE, COUNT and LOCALE_NAME
+     */
+    public synchronized JSONObject getByLocale() throws JSONException {
+        if (byLocaleJSON == null) {
+            JSONArray data = new JSONArray();
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(byLocale).entrySet()) {
+                data.put(new JSONArray()
+                    .put(entry.getKey())
+                    .put(entry.getValue().intValue())
+                    .put(CLDRLocale.getInstance(entry.getKey()).getDisplayName()));
+            }
+            byLocaleJSON = table(data, "LOCALE", "COUNT", "LOCALE_NAME");
+        }
+        return byLocaleJSON;
+    }
+
+    /**
+     * @param newOnly whether to count only the new votes
+     * @return the votes by day, most recent first, with the columns COUNT and LAST_MOD (the start of the day, in
+     * milliseconds). The rows are the same days whether or not newOnly is set.
+     */
+    public synchronized JSONObject getByDay(boolean newOnly) throws JSONException {
+        JSONObject result = newOnly ? byDayNewJSON : byDayJSON;
+        if (result == null) {
+            JSONArray data = new JSONArray();
+            for (Map.Entry<Long, int[]> entry : byDay.descendingMap().entrySet()) {
+                if (entry.getKey() != NO_DAY) {
+                    data.put(new JSONArray()
+                        .put(entry.getValue()[newOnly ? 1 : 0])
+                        .put(startOfDay(entry.getKey())));
+                }
+            }
+            result = table(data, "COUNT", "LAST_MOD");
+            if (newOnly) {
+                byDayNewJSON = result;
+            } else {
+                byDayJSON = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the votes by submitter, day and locale, most recent day first, with the columns SUBMITTER,
+     * DAY (yyyy-mm-dd), LOCALE, COUNT and LOCALE_NAME
+     */
+    public synchronized JSONObject getByDayUserLocale() throws JSONException {
+        if (byDayUserLocaleJSON == null) {
+            TreeMap<Long, Map<Key, int[]>> sorted = new TreeMap<>();
+            for (Map.Entry<Key, int[]> entry : counts.entrySet()) {
+                if (entry.getKey().day != NO_DAY && entry.getValue()[0] != 0) {
+                    sorted.computeIfAbsent(entry.getKey().day, k -> new HashMap<>()).put(entry.getKey(), entry.getValue());
+                }
+            }
+            JSONArray data = new JSONArray();
+            for (Map.Entry<Long, Map<Key, int[]>> day : sorted.descendingMap().entrySet()) {
+                String dayString = LocalDate.ofEpochDay(day.getKey()).toString();
+                for (Map.Entry<Key, int[]> entry : day.getValue().entrySet()) {
+                    data.put(new JSONArray()
+                        .put(entry.getKey().submitter)
+                        .put(dayString)
+                        .put(entry.getKey().locale)
+                        .put(entry.getValue()[0])
+                        .put(CLDRLocale.getInstance(entry.getKey().locale).getDisplayName()));
+                }
+            }
+            byDayUserLocaleJSON = table(data, "SUBMITTER", "DAY", "LOCALE", "COUNT", "LOCALE_NAME");
+        }
+        return byDayUserLocaleJSON;
+    }
+
+    private static long startOfDay(long day) {
+        return LocalDate.ofEpochDay(day).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static JSONObject table(JSONArray data, String... columns) throws JSONException {
+        JSONObject header = new JSONObject();
+        for (int i = 0; i < columns.length; ++i) {
+            header.put(columns[i], i);
+        }
+        return new JSONObject().put("header", header).put("data", data);
+    }
+}
@@ -1093,7 +1093,7 @@ public class WebContext implements Cloneable, Appendable {
         String def = getRequiredCoverageLevel();
         String org = getEffectiveCoverageLevel();
 
-        return new CheckCLDR.Options(getLocale(), SurveyMain.getTestPhase(), def, org);
+        return CheckCLDR.Options.getInstance(getLocale(), SurveyMain.getTestPhase(), def, org);
     }
 
     /**
@@ -0,0 +1,361 @@
+package org.unicode.cldr.web;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.CRC32;
+
+import org.unicode.cldr.util.StringId;
+
+/**
+ * An append-only dictionary of the xpaths known to the XPathTable: the xpid, StringID and path of each.
+ * <p>
+ * The records are kept outside the Java heap, in a memory-mapped file (or, without a file, in a direct
+ * buffer). The file survives restarts, so the Survey Tool doesn't have to read the whole cldr_xpaths table
+ * at startup, nor compute the StringIDs again. Lookups (xpid to path, StringID to xpid) use primitive tables
+ * that are read without locking; additions are serialized.
+ * <p>
+ * The file has a header (magic, version, end of the committed records) followed by the records:
+ * xpid (int), StringID (long), length (int) and UTF-8 bytes of the path, and a CRC-32 (int) of those fields.
+ * A record is written before the committed end is moved past it, so a crash can lose the last record but
+ * doesn't expose a partial one. The dictionary is a cache of the database table, so losing records is harmless.
+ * The file is locked while it is open, so that two Survey Tool instances can't share it.
+ * <p>
+ * StringIDs are computed without StringId's cache, which would otherwise keep every path on the heap
+ * a second time.
+ */
+final class XPathDictionary {
+    static final int NONE = -1;
+
+    private static final int MAGIC = 0x58504454; // "XPDT"
+    private static final int VERSION = 1;
+    private static final int END_OFFSET = 8;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_OVERHEAD = 4 + 8 + 4 + 4;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private final File file; // null if in memory
+    private final FileChannel channel;
+    private final FileLock lock;
+
+    // Published through the volatile fields; each replacement is complete before it is published.
+    private volatile ByteBuffer buffer;
+    private volatile AtomicIntegerArray offsetsById; // record offsets, 0 if absent
+    private volatile IdTable idsByStringId;
+
+    // guarded by this
+    private int end;
+    private volatile int size;
+    private volatile int maxId = NONE;
+
+    /**
+     * Open (or create) a dictionary file. Records after a damaged one are dropped.
+     *
+     * @throws IOException if the file can't be read, or is in use by another dictionary
+     */
+    static XPathDictionary open(File file) throws IOException {
+        return new XPathDictionary(file);
+    }
+
+    /**
+     * Make a dictionary that isn't saved.
+     */
+    static XPathDictionary inMemory() {
+        try {
+            return new XPathDictionary(null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // can't happen without a file
+        }
+    }
+
+    private XPathDictionary(File file) throws IOException {
+        this.file = file;
+        if (file == null) {
+            channel = null;
+            lock = null;
+            buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        } else {
+            channel = new RandomAccessFile(file, "rw").getChannel();
+            try {
+                lock = lockFile(channel, file);
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_CAPACITY));
+            } catch (IOException | RuntimeException e) {
+                channel.close(); // releases the lock, if taken
+                throw e;
+            }
+        }
+        ByteBuffer buf = buffer;
+        if (buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+            clear();
+            return;
+        }
+        offsetsById = new AtomicIntegerArray(1024);
+        idsByStringId = new IdTable(1024);
+        long committed = buf.getLong(END_OFFSET);
+        end = HEADER_SIZE;
+        while (end < committed) {
+            int length = end + RECORD_OVERHEAD <= committed ? buf.getInt(end + 12) : -1;
+            if (length < 0 || end + RECORD_OVERHEAD + length > committed
+                || buf.getInt(end + RECORD_OVERHEAD - 4 + length) != checksum(buf, end, length)) {
+                SurveyLog.logger.warning("XPathDictionary: dropping the records after offset " + end + " of " + file);
+                break;
+            }
+            index(buf.getInt(end), buf.getLong(end + 4), end);
+            end += RECORD_OVERHEAD + length;
+        }
+        if (end != committed) {
+            buf.putLong(END_OFFSET, end);
+        }
+    }
+
+    private static FileLock lockFile(FileChannel channel, File file) throws IOException {
+        FileLock result;
+        try {
+            result = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            result = null; // locked by this process
+        }
+        if (result == null) {
+            throw new IOException(file + " is in use by another XPathDictionary");
+        }
+        return result;
+    }
+
+    /**
+     * Unlock and close the file. The dictionary can't be used afterwards.
+     */
+    synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            lock.release();
+            channel.close();
+        }
+    }
+
+    /**
+     * Remove all the records, for example if the file doesn't match the database.
+     */
+    synchronized void clear() {
+        ByteBuffer buf = buffer;
+        buf.putInt(0, MAGIC);
+        buf.putInt(4, VERSION);
+        buf.putLong(END_OFFSET, HEADER_SIZE);
+        end = HEADER_SIZE;
+        offsetsById = new AtomicIntegerArray(1024);
+        idsByStringId = new IdTable(1024);
+        size = 0;
+        maxId = NONE;
+    }
+
+    /**
+     * Get the xpid for a StringID, or NONE.
+     */
+    int getId(long stringId) {
+        return idsByStringId.get(stringId);
+    }
+
+    /**
+     * Get the xpid for a path, or NONE.
+     */
+    int getId(String path) {
+        return getId(StringId.getId(path, false));
+    }
+
+    /**
+     * Get the path for an xpid, or null.
+     */
+    String getPath(int xpid) {
+        AtomicIntegerArray offsets = offsetsById;
+        if (xpid < 0 || xpid >= offsets.length()) {
+            return null;
+        }
+        int offset = offsets.get(xpid);
+        if (offset == 0) {
+            return null;
+        }
+        ByteBuffer buf = buffer; // the mapping may have been replaced, but every mapping has the records
+        byte[] bytes = new byte[buf.getInt(offset + 12)];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = buf.get(offset + 16 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Add a path, unless it is already there with the same xpid.
+     *
+     * @throws IllegalArgumentException if the xpid or the path's StringID is already used for another path
+     */
+    synchronized void add(int xpid, String path) {
+        if (xpid < 0) {
+            throw new IllegalArgumentException("Bad xpid " + xpid + " for " + path);
+        }
+        long stringId = StringId.getId(path, false);
+        int oldId = getId(stringId);
+        String oldPath = getPath(xpid);
+        if (oldId == xpid && path.equals(oldPath)) {
+            return;
+        } else if (oldPath != null) {
+            throw new IllegalArgumentException("xpid " + xpid + " is " + oldPath + ", not " + path);
+        } else if (oldId != NONE) {
+            throw new IllegalArgumentException(path + " is xpid " + oldId + ", not " + xpid);
+        }
+        byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+        int recordEnd = end + RECORD_OVERHEAD + bytes.length;
+        ByteBuffer buf = ensureCapacity(recordEnd);
+        buf.putInt(end, xpid);
+        buf.putLong(end + 4, stringId);
+        buf.putInt(end + 12, bytes.length);
+        for (int i = 0; i < bytes.length; ++i) {
+            buf.put(end + 16 + i, bytes[i]);
+        }
+        buf.putInt(recordEnd - 4, checksum(buf, end, bytes.length));
+        buf.putLong(END_OFFSET, recordEnd); // commit
+        index(xpid, stringId, end);
+        end = recordEnd;
+    }
+
+    /**
+     * Add the record at the offset to the lookup tables.
+     */
+    private void index(int xpid, long stringId, int offset) {
+        AtomicIntegerArray offsets = offsetsById;
+        if (xpid >= offsets.length()) {
+            AtomicIntegerArray newOffsets = new AtomicIntegerArray(Math.max(xpid + 1, offsets.length() * 2));
+            for (int i = 0; i < offsets.length(); ++i) {
+                newOffsets.set(i, offsets.get(i));
+            }
+            offsetsById = offsets = newOffsets;
+        }
+        offsets.set(xpid, offset);
+        IdTable table = idsByStringId;
+        if (table.isFull()) {
+            idsByStringId = table = table.grow();
+        }
+        table.put(stringId, xpid);
+        if (xpid > maxId) {
+            maxId = xpid;
+        }
+        ++size;
+    }
+
+    private ByteBuffer ensureCapacity(int capacity) {
+        ByteBuffer buf = buffer;
+        if (capacity <= buf.capacity()) {
+            return buf;
+        }
+        int newCapacity = Math.max(capacity, buf.capacity() * 2);
+        ByteBuffer newBuffer;
+        if (channel == null) {
+            newBuffer = ByteBuffer.allocateDirect(newCapacity);
+            ByteBuffer source = buf.duplicate();
+            source.clear().limit(end);
+            newBuffer.put(source).clear();
+        } else {
+            try {
+                newBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+            } catch (IOException e) {
+                throw new IllegalStateException("Can't extend " + file, e);
+            }
+        }
+        buffer = newBuffer;
+        return newBuffer;
+    }
+
+    private static int checksum(ByteBuffer buf, int offset, int length) {
+        CRC32 crc = new CRC32();
+        ByteBuffer record = buf.duplicate();
+        record.position(offset).limit(offset + RECORD_OVERHEAD - 4 + length);
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return the number of paths
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the largest xpid, or NONE if there are none
+     */
+    int getMaxId() {
+        return maxId;
+    }
+
+    String stats() {
+        return "XPathDictionary " + (file == null ? "(in memory)" : file.getPath()) + ": " + size + " paths, "
+            + end + " bytes, max xpid " + maxId;
+    }
+
+    /**
+     * An open-addressing table from StringIDs (which are never negative) to xpids.
+     * Written by one thread at a time; the value is set before the key, so a reader that finds
+     * the key also sees the value.
+     */
+    private static final class IdTable {
+        private static final long EMPTY = -1;
+        private final AtomicLongArray keys;
+        private final AtomicIntegerArray values;
+        private int count;
+
+        IdTable(int capacity) {
+            long[] empty = new long[capacity];
+            Arrays.fill(empty, EMPTY);
+            keys = new AtomicLongArray(empty);
+            values = new AtomicIntegerArray(capacity);
+        }
+
+        int get(long key) {
+            int mask = keys.length() - 1;
+            for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+                long k = keys.get(i);
+                if (k == key) {
+                    return values.get(i);
+                } else if (k == EMPTY) {
+                    return NONE;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            int mask = keys.length() - 1;
+            int i = hash(key) & mask;
+            while (keys.get(i) != EMPTY && keys.get(i) != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys.get(i) == EMPTY) {
+                ++count;
+            }
+            values.set(i, value);
+            keys.set(i, key);
+        }
+
+        boolean isFull() {
+            return count * 2 >= keys.length(); // keep the load factor at most 1/2
+        }
+
+        IdTable grow() {
+            IdTable result = new IdTable(keys.length() * 2);
+            for (int i = 0; i < keys.length(); ++i) {
+                long key = keys.get(i);
+                if (key != EMPTY) {
+                    result.put(key, values.get(i));
+                }
+            }
+            return result;
+        }
+
+        private static int hash(long key) {
+            return (int) (key ^ (key >>> 32));
+        }
+    }
+}
@@ -9,6 +9,8 @@
 
 package org.unicode.cldr.web;
 
+import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -16,7 +18,6 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
 
@@ -34,8 +35,9 @@ import com.ibm.icu.impl.Utility;
 
 /**
  * This class maps between full and partial xpaths, and the small integers (xpids) which
- * are actually stored in the database. It keeps an in-memory cache which is
- * populated as ids are requested.
+ * are actually stored in the database. It keeps a cache, an {@link XPathDictionary}, which is
+ * populated as ids are requested. The cache can be kept in a file, so that at startup only the
+ * xpaths added since the last run need to be read from the database.
  *
  *
  * Definitions:
@@ -63,11 +65,32 @@ public class XPathTable {
      *            the conn to use
      */
     public static XPathTable createTable(Connection ourConn) throws SQLException {
+        return createTable(ourConn, null);
+    }
+
+    /**
+     * Create the table, keeping its cache in a file.
+     *
+     * @param ourConn
+     *            the conn to use
+     * @param dictionaryFile
+     *            the file for the cache of xpaths, or null to keep it in memory
+     */
+    public static XPathTable createTable(Connection ourConn, File dictionaryFile) throws SQLException {
         try {
             boolean isNew = !DBUtils.hasTable(ourConn, CLDR_XPATHS);
-            XPathTable reg = new XPathTable();
+            XPathDictionary dictionary = null;
+            if (dictionaryFile != null) {
+                try {
+                    dictionary = XPathDictionary.open(dictionaryFile);
+                } catch (IOException e) {
+                    SurveyLog.logException(e, "Couldn't open " + dictionaryFile + ", keeping the xpaths in memory");
+                }
+            }
+            XPathTable reg = new XPathTable(dictionary == null ? XPathDictionary.inMemory() : dictionary);
             if (isNew) {
                 reg.setupDB();
+                reg.dictionary.clear();
             }
             reg.loadXPaths(ourConn);
 
@@ -77,26 +100,50 @@ public class XPathTable {
         }
     }
 
+    /**
+     * Read the xpaths that aren't in the dictionary yet. The row for the dictionary's last xpid is
+     * read too, as a check that the dictionary was made from this database; if not, it is cleared
+     * and all the xpaths are read.
+     */
     private void loadXPaths(Connection conn) throws SQLException {
-        if (stringToId.size() != 0) { // Only load the entire stringToId map
-            // once.
-            return;
-        }
         ElapsedTimer et = new ElapsedTimer("XPathTable: load all xpaths");
         int ixpaths = 0;
-        PreparedStatement queryStmt = DBUtils.prepareForwardReadOnly(conn, "SELECT id,xpath FROM " + CLDR_XPATHS);
-        // First, try to query it back from the DB.
-        ResultSet rs = queryStmt.executeQuery();
-        while (rs.next()) {
-            int id = rs.getInt(1);
-            String xpath = Utility.unescape(rs.getString(2));
-            setById(id, xpath);
-            stat_dbFetch++;
-            ixpaths++;
+        int cachedXpaths = dictionary.size();
+        int lastId = dictionary.getMaxId();
+        String lastXpath = lastId == XPathDictionary.NONE ? null : dictionary.getPath(lastId);
+        PreparedStatement queryStmt = DBUtils.prepareForwardReadOnly(conn,
+            "SELECT id,xpath FROM " + CLDR_XPATHS + " WHERE id >= ? ORDER BY id");
+        try {
+            queryStmt.setInt(1, lastId);
+            // First, try to query it back from the DB.
+            ResultSet rs = queryStmt.executeQuery();
+            boolean first = true;
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                String xpath = Utility.unescape(rs.getString(2));
+                if (first && lastXpath != null && (id != lastId || !xpath.equals(lastXpath))) {
+                    SurveyLog.warnOnce("XPathTable: the xpath cache doesn't match " + CLDR_XPATHS + ", reloading");
+                    rs.close();
+                    dictionary.clear();
+                    loadXPaths(conn);
+                    return;
+                }
+                first = false;
+                setById(id, xpath);
+                stat_dbFetch++;
+                ixpaths++;
+            }
+            if (first && lastXpath != null) { // the last row is gone
+                SurveyLog.warnOnce("XPathTable: the xpath cache has xpaths not in " + CLDR_XPATHS + ", reloading");
+                dictionary.clear();
+                loadXPaths(conn);
+                return;
+            }
+        } finally {
+            queryStmt.close();
         }
-        queryStmt.close();
         final boolean hushMessages = CLDRConfig.getInstance().getEnvironment() == Environment.UNITTEST;
-        if (!hushMessages) System.err.println(et + ": " + ixpaths + " loaded");
+        if (!hushMessages) System.err.println(et + ": " + ixpaths + " loaded, " + cachedXpaths + " cached");
     }
 
     /**
@@ -147,8 +194,7 @@ public class XPathTable {
         }
     }
 
-    public Hashtable<String, Integer> stringToId = new Hashtable<>(4096); // public for statistics only
-    public Hashtable<Long, String> sidToString = new Hashtable<>(4096); // public for statistics only
+    private final XPathDictionary dictionary;
 
     public String statistics() {
         return "DB: " + stat_dbAdd + "add/" + stat_dbFetch + "fetch/"
@@ -159,26 +205,27 @@ public class XPathTable {
     private static int stat_dbFetch = 0;
 
     public XPathTable() {
+        this(XPathDictionary.inMemory());
     }
 
-    /**
-     * SpecialTable implementation
-     */
-    IntHash<String> xptHash = new IntHash<>();
-
-    String idToString_put(int id, String str) {
-        return xptHash.put(id, str);
-    }
-
-    String idToString_get(int id) {
-        return xptHash.get(id);
+    private XPathTable(XPathDictionary dictionary) {
+        this.dictionary = dictionary;
     }
 
     String idStats() {
-        return xptHash.stats();
+        return dictionary.stats();
     }
 
-    /** END specialtable implementation */
+    /**
+     * Close the file of the cache of xpaths, if there is one. The table can't be used afterwards.
+     */
+    public void close() {
+        try {
+            dictionary.close();
+        } catch (IOException e) {
+            SurveyLog.logException(e, "Closing " + idStats());
+        }
+    }
 
     /**
      * Loads all xpath-id mappings from the database. If there are any xpaths in
@@ -189,9 +236,10 @@ public class XPathTable {
         // Get list of xpaths that aren't already loaded.
         Set<String> unloadedXpaths = new HashSet<>();
         for (String xpath : source) {
-            unloadedXpaths.add(xpath);
+            if (dictionary.getId(xpath) == XPathDictionary.NONE) {
+                unloadedXpaths.add(xpath);
+            }
         }
-        unloadedXpaths.removeAll(stringToId.keySet());
 
         Connection conn = null;
         PreparedStatement queryStmt = null;
@@ -262,9 +310,9 @@ public class XPathTable {
      * @return the xpath's id (as an Integer)
      */
     private synchronized Integer addXpath(String xpath, boolean addIfNotFound, Connection inConn) {
-        Integer nid = stringToId.get(xpath); // double check
-        if (nid != null) {
-            return nid;
+        int id = dictionary.getId(xpath); // double check
+        if (id != XPathDictionary.NONE) {
+            return id;
         }
 
         Connection conn = null;
@@ -303,12 +351,11 @@ public class XPathTable {
                 stat_dbFetch++;
             }
 
-            int id = rs.getInt(1);
-            nid = Integer.valueOf(id);
+            id = rs.getInt(1);
             setById(id, xpath);
             // logger.info("Mapped " + id + " back to " + xpath);
             rs.close();
-            return nid;
+            return id;
         } catch (SQLException sqe) {
             SurveyLog.logger.warning("xpath [" + xpath + "] len " + xpath.length());
             SurveyLog.logger.severe("XPathTable: Failed in addXPath(" + xpath + "): " + DBUtils.unchainSqlException(sqe));
@@ -350,7 +397,7 @@ public class XPathTable {
         if (id == -1) {
             return null;
         }
-        String s = idToString_get(id);
+        String s = dictionary.getPath(id);
         if (s != null) {
             return s;
         }
@@ -365,8 +412,7 @@ public class XPathTable {
      * @param xpath
      */
     public final void setById(int id, String xpath) {
-        stringToId.put(idToString_put(id, xpath), id);
-        sidToString.put(getStringID(xpath), xpath);
+        dictionary.add(id, xpath);
     }
 
     /**
@@ -377,9 +423,9 @@ public class XPathTable {
      * @return the id for the specified path
      */
     public final int getByXpath(String xpath) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        int nid = dictionary.getId(xpath);
+        if (nid != XPathDictionary.NONE) {
+            return nid;
         } else {
             return addXpath(xpath, true, null).intValue();
         }
@@ -392,9 +438,9 @@ public class XPathTable {
      * @return id, or -1 if not found
      */
     public final int peekByXpath(String xpath) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        int nid = dictionary.getId(xpath);
+        if (nid != XPathDictionary.NONE) {
+            return nid;
         } else {
             return addXpath(xpath, false, null).intValue();
         }
@@ -408,9 +454,9 @@ public class XPathTable {
      * @return the id for the specified path
      */
     public final int getByXpath(String xpath, Connection conn) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        int nid = dictionary.getId(xpath);
+        if (nid != XPathDictionary.NONE) {
+            return nid;
         } else {
             return addXpath(xpath, true, conn).intValue();
         }
@@ -423,9 +469,9 @@ public class XPathTable {
      * @return id, or -1 if not found
      */
     public final int peekByXpath(String xpath, Connection conn) {
-        Integer nid = stringToId.get(xpath);
-        if (nid != null) {
-            return nid.intValue();
+        int nid = dictionary.getId(xpath);
+        if (nid != XPathDictionary.NONE) {
+            return nid;
         } else {
             return addXpath(xpath, false, conn).intValue();
         }
@@ -686,7 +732,7 @@ public class XPathTable {
      * @return Number of xpaths in the table
      */
     public int count() {
-        return stringToId.size();
+        return dictionary.size();
     }
 
     /**
@@ -745,19 +791,12 @@ public class XPathTable {
 
     public String getByStringID(String id) {
         if (id == null) return null;
-        Long l = Long.parseLong(id, 16);
-        String s = sidToString.get(l);
-        if (s != null)
-            return s;
-        // slow way
-        for (String x : stringToId.keySet()) {
-            if (getStringID(x) == l) {
-                sidToString.put(l, x);
-                return x;
-            }
-        }
+        long l = Long.parseLong(id, 16);
+        int xpid = dictionary.getId(l);
+        if (xpid != XPathDictionary.NONE)
+            return dictionary.getPath(xpid);
         if (SurveyMain.isUnofficial())
-            System.err.println("xpt: Couldn't find stringid " + id + " - sid has " + sidToString.size());
+            System.err.println("xpt: Couldn't find stringid " + id + " - sid has " + dictionary.size());
         // it may be
         return null;
     }
@@ -4,14 +4,17 @@ import static org.unicode.cldr.api.CldrData.PathOrder.ARBITRARY;
 import static org.unicode.cldr.api.CldrData.PathOrder.DTD;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.unicode.cldr.api.CldrData.PathOrder;
 import org.unicode.cldr.util.CLDRConfig;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.ibm.icu.dev.test.TestFmwk;
@@ -56,6 +59,33 @@ public class CldrFileDataSourceTest extends TestFmwk {
         assertEquals("unresolved is subset", ImmutableSet.of(), onlyUnresolved);
     }
 
+    // Visiting with prefix matchers gives the same values, in the same order, as filtering a
+    // full visit.
+    public void TestPrefixes() {
+        CldrFileDataSource src = new CldrFileDataSource(testInfo.getCLDRFile("en_GB", true));
+        Collection<PathMatcher> prefixes = ImmutableList.of(
+            PathMatcher.of("//ldml/numbers/symbols[@numberSystem=\"latn\"]"),
+            PathMatcher.of("//ldml/dates/calendars/calendar[@type=\"gregorian\"]/eras"),
+            PathMatcher.of("//ldml/localeDisplayNames/types/type[@key=\"ca\"]"));
+        for (PathOrder order : PathOrder.values()) {
+            List<CldrValue> expected = new ArrayList<>();
+            src.accept(order, v -> {
+                if (prefixes.stream().anyMatch(m -> m.matchesPrefixOf(v.getPath()))) {
+                    expected.add(v);
+                }
+            });
+            assertFalse(order + " has values", expected.isEmpty());
+            List<CldrValue> actual = new ArrayList<>();
+            src.accept(order, actual::add, prefixes);
+            if (order == ARBITRARY) {
+                assertEquals(order + " values",
+                    ImmutableSet.copyOf(expected), ImmutableSet.copyOf(actual));
+            } else {
+                assertEquals(order + " values", expected, actual);
+            }
+        }
+    }
+
     public void TestNoDtdVersionPath() {
         CldrFileDataSource unresolved = new CldrFileDataSource(testInfo.getCLDRFile("en_GB", false));
         unresolved.accept(DTD, v ->
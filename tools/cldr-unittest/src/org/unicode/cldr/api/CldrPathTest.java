@@ -175,4 +175,20 @@ public final class CldrPathTest extends TestFmwk {
             p.toString());
         assertEquals("draft status", CldrDraftStatus.CONTRIBUTED, p.getDraftStatus().get());
     }
+
+    public void TestSharedPaths() {
+        String path = "//ldml/numbers/currencies/currency[@type=\"MGA\"]/displayName[@count=\"one\"]";
+        CldrPath p = CldrPath.parseDistinguishingPath(path);
+        assertTrue("same path", p == CldrPath.parseDistinguishingPath(path));
+        CldrPath sibling = CldrPath.parseDistinguishingPath(
+            "//ldml/numbers/currencies/currency[@type=\"MGA\"]/displayName[@count=\"other\"]");
+        assertTrue("same parent", p.getParent() == sibling.getParent());
+
+        // Paths which differ only in draft status are equal, but not shared.
+        CldrPath draft = CldrPath.parseDistinguishingPath(
+            path.replace("[@count=\"one\"]", "[@count=\"one\"][@draft=\"contributed\"]"));
+        assertEquals("equal paths", p, draft);
+        assertFalse("different draft status", p == draft);
+        assertTrue("same parent", p.getParent() == draft.getParent());
+    }
 }
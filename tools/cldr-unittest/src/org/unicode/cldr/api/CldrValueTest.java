@@ -78,4 +78,12 @@ public class CldrValueTest extends TestFmwk {
         assertNotEquals("unequal hashcode", v.hashCode(), vDiffValue.hashCode());
         assertNotEquals("unequal hashcode", v.hashCode(), vDiffAttr.hashCode());
     }
+
+    public void TestSharedValueAttributes() {
+        CldrValue v = CldrValue.parseValue("//supplementalData/info[@iso4217=\"AMD\"][@digits=\"2\"]"
+            + "[@rounding=\"0\"][@cashDigits=\"0\"][@cashRounding=\"0\"]", "");
+        CldrValue other = CldrValue.parseValue("//supplementalData/info[@iso4217=\"XXX\"][@digits=\"2\"]"
+            + "[@rounding=\"0\"][@cashDigits=\"0\"][@cashRounding=\"0\"]", "");
+        assertTrue("same attributes", v.getValueAttributes() == other.getValueAttributes());
+    }
 }
@@ -73,6 +73,35 @@ public class PathMatcherTest extends TestFmwk {
         assertFalse("", wildcard.matches(dayInfo("generic", "format", "wide", "mon")));
     }
 
+    public void TestMayMatchBelow() {
+        PathMatcher narrowMonths = PathMatcher.of("//ldml/dates/calendars/calendar[@type=*]")
+            .withSuffix("months/monthContext[@type=*]/monthWidth[@type=\"narrow\"]");
+        CldrPath narrowMonth = monthInfo("generic", "format", "narrow", 1);
+
+        assertTrue("prefix of match", narrowMonths.mayMatchBelow(narrowMonth.getParent()));
+        assertTrue("match", narrowMonths.mayMatchBelow(narrowMonth));
+        assertTrue("short prefix", narrowMonths.mayMatchBelow(
+            parseDistinguishingPath("//ldml/dates/calendars/calendar[@type=\"generic\"]/months")
+                .getParent()));
+        assertFalse("other width",
+            narrowMonths.mayMatchBelow(monthInfo("generic", "format", "wide", 1).getParent()));
+        assertFalse("other element", narrowMonths.mayMatchBelow(
+            dayInfo("generic", "format", "narrow", "sun").getParent().getParent()));
+    }
+
+    public void TestLiteralPrefix() {
+        assertEquals("no attributes", "//ldml/numbers/symbols",
+            PathMatcher.of("//ldml/numbers/symbols").getLiteralPrefix());
+        assertEquals("attributes", "//ldml/dates/calendars/calendar",
+            PathMatcher.of("//ldml/dates/calendars/calendar[@type=\"gregorian\"]")
+                .withSuffix("months").getLiteralPrefix());
+        assertEquals("wildcard", "//ldml/dates/",
+            PathMatcher.of("//ldml/dates/*/calendar").getLiteralPrefix());
+        assertEquals("suffix", "//ldml/numbers/currencies/currency",
+            PathMatcher.of("//ldml/numbers").withSuffix("currencies/currency[@type=*]")
+                .getLiteralPrefix());
+    }
+
     public void TestBadSpecifiers() {
         assertInvalidPathSpecification("");
         // Leading and trailing '/' are not permitted (they imply empty segments.
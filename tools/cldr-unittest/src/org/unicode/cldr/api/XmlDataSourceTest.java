@@ -11,11 +11,16 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
+import org.unicode.cldr.api.CldrData.PathOrder;
+
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.LinkedListMultimap;
@@ -108,6 +113,144 @@ public class XmlDataSourceTest extends TestFmwk {
         assertEquals("paths order", dtdOrderedPaths, ImmutableList.copyOf(out.keySet()));
     }
     
+    // Files are read and merged, with or without caching. A path repeated in a later file keeps its
+    // first position. It has the later value if cached, or else the first value.
+    public void TestMergedFiles() {
+        ListMultimap<Path, String> files = LinkedListMultimap.create();
+        addFile(files, "foo.xml",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>",
+            "<!DOCTYPE supplementalData SYSTEM \"../../common/dtd/ldmlSupplemental.dtd\">",
+            "<supplementalData>",
+            "  <version number=\"42\"/>",
+            "  <currencyData>",
+            "    <fractions>",
+            "      <info iso4217=\"AFN\" digits=\"0\" rounding=\"0\"/>",
+            "      <info iso4217=\"ADP\" digits=\"0\" rounding=\"0\"/>",
+            "    </fractions>",
+            "    <region iso3166=\"AC\">",
+            "      <currency iso4217=\"SHP\" from=\"1976-01-01\"/>",
+            "    </region>",
+            "  </currencyData>",
+            "</supplementalData>");
+        addFile(files, "bar.xml",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>",
+            "<!DOCTYPE supplementalData SYSTEM \"../../common/dtd/ldmlSupplemental.dtd\">",
+            "<supplementalData>",
+            "  <version number=\"42\"/>",
+            "  <currencyData>",
+            "    <fractions>",
+            "      <info iso4217=\"AED\" digits=\"2\" rounding=\"0\"/>",
+            "      <info iso4217=\"ADP\" digits=\"3\" rounding=\"0\"/>",
+            "    </fractions>",
+            "    <region iso3166=\"AC\">",
+            "      <currency iso4217=\"SHP\" from=\"1976-01-01\"/>",
+            "    </region>",
+            "  </currencyData>",
+            "</supplementalData>");
+        CldrPath afn = CldrPath.parseDistinguishingPath(
+            "//supplementalData/currencyData/fractions/info[@iso4217=\"AFN\"]");
+        CldrPath adp = CldrPath.parseDistinguishingPath(
+            "//supplementalData/currencyData/fractions/info[@iso4217=\"ADP\"]");
+        CldrPath aed = CldrPath.parseDistinguishingPath(
+            "//supplementalData/currencyData/fractions/info[@iso4217=\"AED\"]");
+        ImmutableList<CldrPath> naturalOrderedPaths = ImmutableList.of(afn, adp, aed);
+
+        for (PathOrder order : PathOrder.values()) {
+            List<CldrValue> cached = new ArrayList<>();
+            new XmlDataSource(SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files))
+                .accept(order, cached::add);
+            List<CldrValue> uncached = new ArrayList<>();
+            XmlDataSource uncachedSource =
+                new XmlDataSource(SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files), false);
+            uncachedSource.accept(order, uncached::add);
+            List<CldrPath> infoPaths =
+                order == DTD ? ImmutableList.sortedCopyOf(naturalOrderedPaths) : naturalOrderedPaths;
+            checkMergedValues(order + " cached", cached, adp, "3", infoPaths);
+            // Without caching, the first value of a repeated path has already been visited.
+            checkMergedValues(order + " uncached", uncached, adp, "0", infoPaths);
+
+            // get() caches the values, which then have the last value, as for a cached instance.
+            AttributeKey digits = AttributeKey.keyOf("info", "digits");
+            assertEquals(order + " uncached get", "3", uncachedSource.get(adp).get(digits));
+            List<CldrValue> afterGet = new ArrayList<>();
+            uncachedSource.accept(order, afterGet::add);
+            checkMergedValues(order + " uncached after get", afterGet, adp, "3", infoPaths);
+        }
+    }
+
+    private void checkMergedValues(String message, List<CldrValue> values, CldrPath repeated,
+        String expectedDigits, List<CldrPath> expectedInfoPaths) {
+        AttributeKey digits = AttributeKey.keyOf("info", "digits");
+        assertEquals(message + " no repeats", values.size(),
+            (int) values.stream().map(CldrValue::getPath).distinct().count());
+        List<CldrPath> paths = new ArrayList<>();
+        for (CldrValue value : values) {
+            if (value.getPath().getName().equals("info")) {
+                paths.add(value.getPath());
+            }
+            if (value.getPath().equals(repeated)) {
+                assertEquals(message + " repeated value", expectedDigits, value.get(digits));
+            }
+        }
+        assertEquals(message + " paths order", expectedInfoPaths, paths);
+    }
+
+    // Visiting with prefix matchers skips the other elements, but gives the same values (with the
+    // same sort indices for ordered elements) as filtering a full visit.
+    public void TestPrefixes() {
+        ListMultimap<Path, String> files = LinkedListMultimap.create();
+        addFile(files, "foo.xml",
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>",
+            "<!DOCTYPE supplementalData SYSTEM \"../../common/dtd/ldmlSupplemental.dtd\">",
+            "<supplementalData>",
+            "  <version number=\"42\"/>",
+            "  <currencyData>",
+            "    <fractions>",
+            "      <info iso4217=\"AFN\" digits=\"0\" rounding=\"0\"/>",
+            "    </fractions>",
+            "    <region iso3166=\"AC\">",
+            "      <currency iso4217=\"SHP\" from=\"1976-01-01\"/>",
+            "    </region>",
+            "  </currencyData>",
+            "  <plurals type=\"cardinal\">",
+            "    <pluralRules locales=\"fr\">",
+            "      <pluralRule count=\"one\">i = 0,1</pluralRule>",
+            "      <pluralRule count=\"other\"></pluralRule>",
+            "    </pluralRules>",
+            "    <pluralRules locales=\"en\">",
+            "      <pluralRule count=\"one\">i = 1 and v = 0</pluralRule>",
+            "      <pluralRule count=\"other\"></pluralRule>",
+            "    </pluralRules>",
+            "  </plurals>",
+            "</supplementalData>");
+        Collection<PathMatcher> prefixes = ImmutableList.of(
+            PathMatcher.of("//supplementalData/currencyData/fractions"),
+            PathMatcher.of("//supplementalData/plurals[@type=*]/pluralRules[@locales=\"en\"]"));
+
+        for (PathOrder order : PathOrder.values()) {
+            List<CldrValue> expected = new ArrayList<>();
+            new XmlDataSource(SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files))
+                .accept(order, v -> {
+                    if (prefixes.stream().anyMatch(m -> m.matchesPrefixOf(v.getPath()))) {
+                        expected.add(v);
+                    }
+                });
+            assertEquals(order + " expected values", 3, expected.size());
+
+            List<CldrValue> pruned = new ArrayList<>();
+            XmlDataSource src =
+                new XmlDataSource(SUPPLEMENTAL, files.keySet(), UNCONFIRMED, openFileFn(files));
+            src.accept(order, pruned::add, prefixes);
+            assertEquals(order + " pruned values", expected, pruned);
+
+            // Once the values are cached, they are filtered instead.
+            src.accept(order, v -> {});
+            List<CldrValue> filtered = new ArrayList<>();
+            src.accept(order, filtered::add, prefixes);
+            assertEquals(order + " filtered values", expected, filtered);
+        }
+    }
+
     public void TestBadElementNesting() {
         ListMultimap<Path, String> files = LinkedListMultimap.create();
         String fakeXmlName = "bad.xml";
@@ -4,12 +4,16 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.unicode.cldr.draft.FileUtilities;
+import org.unicode.cldr.util.AliasIndex;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRFile.Status;
@@ -40,6 +44,66 @@ public class TestAliases extends TestFmwk {
         }
     }
 
+    public void testAliasIndex() {
+        Map<String, String> aliases = new LinkedHashMap<>();
+        aliases.put("//ldml/a", "//ldml/x");
+        aliases.put("//ldml/a/b[@type=\"c/d\"]", "//ldml/y");
+        aliases.put("//ldml/z", "//ldml/a");
+        AliasIndex index = new AliasIndex(aliases);
+
+        String[][] testCases = {
+            { "//ldml/a", "//ldml/x" },
+            { "//ldml/a/q", "//ldml/x/q" },
+            { "//ldml/a/b[@type=\"c/d\"]", "//ldml/y" },
+            { "//ldml/a/b[@type=\"c/d\"]/e", "//ldml/y/e" },
+            { "//ldml/a/b[@type=\"c\"]/e", "//ldml/x/b[@type=\"c\"]/e" },
+            { "//ldml/ab", null }, // only whole segments match
+            { "//ldml/a[@alt=\"short\"]", null },
+            { "//ldml/a[@alt=\"short\"]/q", null },
+            { "//ldml/a/b[@type=\"c/d\"][@alt=\"short\"]/e", "//ldml/x/b[@type=\"c/d\"][@alt=\"short\"]/e" },
+            { "//ldml/q/a", null },
+        };
+        for (String[] row : testCases) {
+            assertEquals(row[0], row[1], index.getAliasedPath(row[0]));
+        }
+
+        // dependencies are transitive: //ldml/z/q => //ldml/a/q => //ldml/x/q
+        assertEquals("dependents", new TreeSet<>(Arrays.asList("//ldml/a/q", "//ldml/z/q")),
+            new TreeSet<>(index.getDependentPaths("//ldml/x/q")));
+        assertEquals("no dependents", Collections.emptySet(), index.getDependentPaths("//ldml/q"));
+    }
+
+    /**
+     * The index must agree with a plain lookup on the real root aliases.
+     */
+    public void testAliasIndexRoot() {
+        CLDRFile root = config.getCldrFactory().make("root", false);
+        Map<String, String> aliases = new LinkedHashMap<>();
+        for (String path : root) {
+            if (!XMLSource.Alias.isAliasPath(path)) {
+                continue;
+            }
+            XMLSource.Alias alias = XMLSource.Alias.make(root.getFullXPath(path));
+            if (alias != null) {
+                aliases.put(alias.getOldPath(), alias.getNewPath());
+            }
+        }
+        AliasIndex index = new AliasIndex(aliases);
+        assertEquals("size", aliases.size(), index.size());
+        // //ldml/numbers/symbols is aliased to this, so matching it with more attributes would loop
+        String latn = "//ldml/numbers/symbols[@numberSystem=\"latn\"]/decimal";
+        assertEquals(latn, null, index.getAliasedPath(latn));
+        for (Map.Entry<String, String> entry : aliases.entrySet()) {
+            assertEquals(entry.getKey(), entry.getValue(), index.getAliasedPath(entry.getKey()));
+            String child = entry.getKey() + "/foo";
+            assertEquals(child, entry.getValue() + "/foo", index.getAliasedPath(child));
+            // an alias source followed by more attributes doesn't match
+            String alt = entry.getKey() + "[@alt=\"variant\"]/foo";
+            assertNotEquals(alt, entry.getValue() + "[@alt=\"variant\"]/foo", index.getAliasedPath(alt));
+            assertTrue(entry.getValue() + " dependents", index.getDependentPaths(entry.getValue()).contains(entry.getKey()));
+        }
+    }
+
     /** Check on 
      * http://unicode.org/cldr/trac/ticket/9477
      *      <field type="quarter-narrow">
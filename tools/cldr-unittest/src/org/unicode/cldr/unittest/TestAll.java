@@ -193,6 +193,7 @@ public class TestAll extends TestGroup {
             "org.unicode.cldr.unittest.TestCLDRUtils",
             "org.unicode.cldr.unittest.TestCanonicalIds",
             "org.unicode.cldr.unittest.TestCasingInfo",
+            "org.unicode.cldr.unittest.TestChartDelta",
             "org.unicode.cldr.unittest.TestCheckCLDR",
             "org.unicode.cldr.unittest.TestComparisonBuilder",
             "org.unicode.cldr.unittest.TestCoverageLevel",
@@ -201,6 +202,7 @@ public class TestAll extends TestGroup {
             "org.unicode.cldr.unittest.TestExampleGenerator",
             "org.unicode.cldr.unittest.TestExternalCodeAPIs",
             "org.unicode.cldr.unittest.TestFallbackIterator",
+            "org.unicode.cldr.unittest.TestICUResourceBinary",
             "org.unicode.cldr.unittest.TestIdentifierInfo",
             "org.unicode.cldr.unittest.TestIdentity",
             "org.unicode.cldr.unittest.TestInheritance",
@@ -0,0 +1,59 @@
+package org.unicode.cldr.unittest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.unicode.cldr.tool.ChartDelta;
+import org.unicode.cldr.tool.ToolConstants;
+
+import com.ibm.icu.dev.test.TestFmwk;
+
+public class TestChartDelta extends TestFmwk {
+    public static void main(String[] args) {
+        new TestChartDelta().run(args);
+    }
+
+    /**
+     * Check that the delta charts for a few locales are the same when the locales are compared on
+     * several threads as on one.
+     */
+    public void TestParallelMatchesSerial() throws IOException {
+        File previous = new File(ToolConstants.getBaseDirectory(ToolConstants.PREV_CHART_VERSION), "common");
+        if (!previous.isDirectory()) {
+            logln("Skipping, since there is no " + previous);
+            return;
+        }
+        Path top = Files.createTempDirectory("charts");
+        try {
+            String fileFilter = "^main/(de|fr|ja)$";
+            ChartDelta.writeCharts(top.resolve("serial/delta/") + "/", fileFilter, 1);
+            ChartDelta.writeCharts(top.resolve("parallel/delta/") + "/", fileFilter, 4);
+            Path serial = top.resolve("serial");
+            Path parallel = top.resolve("parallel");
+            List<Path> serialFiles = listFiles(serial);
+            assertEquals("files", serialFiles, listFiles(parallel));
+            assertNotEquals("files", 0, serialFiles.size());
+            for (Path file : serialFiles) {
+                assertTrue(file.toString(), Arrays.equals(
+                    Files.readAllBytes(serial.resolve(file)), Files.readAllBytes(parallel.resolve(file))));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(top)) {
+                files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    private static List<Path> listFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).map(dir::relativize).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -14,6 +15,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.regex.Matcher;
+import java.util.stream.Collectors;
 
 import org.unicode.cldr.test.CheckCLDR;
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
@@ -25,6 +27,7 @@ import org.unicode.cldr.test.CheckCLDR.StatusAction;
 import org.unicode.cldr.test.CheckConsistentCasing;
 import org.unicode.cldr.test.CheckDates;
 import org.unicode.cldr.test.CheckForExemplars;
+import org.unicode.cldr.test.CheckMetrics;
 import org.unicode.cldr.test.CheckNames;
 import org.unicode.cldr.test.CheckNew;
 import org.unicode.cldr.test.SubmissionLocales;
@@ -63,11 +66,16 @@ import org.unicode.cldr.util.VoteResolver.VoterInfo;
 import org.unicode.cldr.util.XMLSource;
 
 import com.google.common.collect.ImmutableSet;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.ibm.icu.dev.test.TestFmwk;
+import com.ibm.icu.dev.test.TestFmwk.Independent;
 import com.ibm.icu.impl.Row.R2;
 import com.ibm.icu.impl.Row.R5;
 import com.ibm.icu.text.UnicodeSet;
 
+@Independent
 public class TestCheckCLDR extends TestFmwk {
     static CLDRConfig testInfo = CLDRConfig.getInstance();
     private final Set<String> eightPointLocales = new TreeSet<>(
@@ -120,6 +128,127 @@ public class TestCheckCLDR extends TestFmwk {
         }
     }
 
+    /**
+     * Options are immutable, and equal ones are interned to the same instance, a private copy.
+     */
+    public void TestOptionsIntern() {
+        CLDRLocale locale = CLDRLocale.getInstance("fr");
+        Options a = Options.getInstance(locale, Phase.SUBMISSION, "modern", "basic");
+        Options b = new Options(locale, Phase.SUBMISSION, "modern", "basic");
+        assertEquals("equal", a, b);
+        assertEquals("hash", a.hashCode(), b.hashCode());
+        assertTrue("interned", a == Options.intern(b));
+        assertEquals("clone", a, a.clone());
+
+        Options d = new Options(CLDRLocale.getInstance("de"), Phase.SUBMISSION, "modern", "basic");
+        assertTrue("interned copy", d != Options.intern(d));
+        Options changed = a.set(Options.Option.phase.getKey(), "vetting");
+        assertEquals("changed copy", Options.getInstance(locale, Phase.VETTING, "modern", "basic"), changed);
+        assertEquals("original unchanged", "submission", a.get(Options.Option.phase));
+        assertEquals("locale changed", CLDRLocale.getInstance("de"), a.set(Options.Option.locale.getKey(), "de").getLocale());
+
+        Options c = Options.getInstance(locale, Phase.VETTING, "modern", "basic");
+        assertNotEquals("phase differs", a, c);
+        assertNotEquals("compareTo", 0, a.compareTo(c));
+
+        Map<String, String> map = new HashMap<>();
+        map.put(Options.Option.locale.getKey(), "fr");
+        map.put(Options.Option.phase.getKey(), "submission");
+        map.put(Options.Option.CoverageLevel_requiredLevel.getKey(), "modern");
+        map.put(Options.Option.CoverageLevel_localeType.getKey(), "basic");
+        assertTrue("from map", a == Options.getInstance(map));
+
+        CheckCLDR checkCldr = CheckCLDR.getCheckAll(testInfo.getCldrFactory(), ".*");
+        CLDRFile english = testInfo.getEnglish();
+        List<CheckStatus> possibleErrors = new ArrayList<>();
+        Options options = Options.getInstance(CLDRLocale.getInstance("en"), Phase.SUBMISSION, "modern", "basic");
+        checkCldr.setCldrFileToCheck(english, options, possibleErrors);
+        CheckCLDR.CheckLoop loop = new CheckCLDR.CheckLoop(checkCldr, options);
+        String path = "//ldml/localeDisplayNames/languages/language[@type=\"fr\"]";
+        List<CheckStatus> fromLoop = new ArrayList<>(loop.check(path, english.getFullXPath(path), english.getStringValue(path)));
+        checkCldr.check(path, english.getFullXPath(path), english.getStringValue(path), options, possibleErrors);
+        assertEquals("CheckLoop matches check", possibleErrors.toString(), fromLoop.toString());
+    }
+
+    /**
+     * CompoundCheckCLDR sets up its checks concurrently, but the possible errors are the same as
+     * when each check is set up on its own, in the order of the checks.
+     */
+    public void TestSetupErrorOrder() {
+        Factory factory = testInfo.getCldrFactory();
+        for (String localeId : Arrays.asList("fr", "ar", "zh_Hant", "sr_Latn", "yi", "root")) {
+            Options options = Options.getInstance(CLDRLocale.getInstance(localeId), Phase.SUBMISSION, "modern", "basic");
+            CLDRFile cldrFile = factory.make(localeId, true);
+            List<CheckStatus> possibleErrors = new ArrayList<>();
+            CheckCLDR checkAll = CheckCLDR.getCheckAll(factory, ".*");
+            checkAll.setCldrFileToCheck(cldrFile, options, possibleErrors);
+
+            Set<Class<?>> checkClasses = new LinkedHashSet<>();
+            List<String> actual = new ArrayList<>();
+            for (CheckStatus status : possibleErrors) {
+                checkClasses.add(status.getCause().getClass());
+                actual.add(status.toString());
+            }
+            List<String> expected = new ArrayList<>();
+            for (Class<?> checkClass : checkClasses) {
+                List<CheckStatus> alone = new ArrayList<>();
+                CheckCLDR check = CheckCLDR.getCheckAll(factory, "\\." + checkClass.getSimpleName() + "$");
+                check.setCldrFileToCheck(cldrFile, options, alone);
+                for (CheckStatus status : alone) {
+                    expected.add(status.toString());
+                }
+            }
+            logln(localeId + ": " + checkClasses);
+            assertEquals(localeId, expected, actual);
+        }
+    }
+
+    /**
+     * CheckMetrics counts the setup and checks of each check while it is enabled.
+     */
+    public void TestCheckMetrics() {
+        Factory factory = testInfo.getCldrFactory();
+        CLDRFile cldrFile = factory.make("fr", true);
+        Options options = Options.getInstance(CLDRLocale.getInstance("fr"), Phase.SUBMISSION, "modern", "basic");
+        List<String> paths = new ArrayList<>();
+        for (String path : cldrFile.fullIterable()) {
+            if (path.startsWith("//ldml/localeDisplayNames/languages/")) {
+                paths.add(path);
+            }
+        }
+        CheckCLDR checkDates = CheckCLDR.getCheckAll(factory, "\\.CheckDates$");
+        List<CheckStatus> result = new ArrayList<>();
+        boolean wasEnabled = CheckMetrics.isEnabled();
+        CheckMetrics.setEnabled(true);
+        try {
+            CheckMetrics.reset();
+            checkDates.setCldrFileToCheck(cldrFile, options, result);
+            for (String path : paths) {
+                checkDates.check(path, cldrFile.getFullXPath(path), cldrFile.getStringValue(path), options, result);
+            }
+            JsonObject checks = new JsonParser().parse(CheckMetrics.toJson()).getAsJsonObject().getAsJsonObject("checks");
+            assertEquals("checks", ImmutableSet.of(CheckDates.class.getName()), checks.keySet());
+            JsonObject stats = checks.getAsJsonObject(CheckDates.class.getName());
+            assertEquals("setups", 1, stats.getAsJsonObject("setup").get("count").getAsInt());
+            assertEquals("paths", paths.size(), stats.getAsJsonObject("check").get("count").getAsInt());
+            long histogramTotal = 0;
+            for (Entry<String, JsonElement> bucket : stats.getAsJsonObject("check").getAsJsonObject("histogram").entrySet()) {
+                histogramTotal += bucket.getValue().getAsLong();
+            }
+            assertEquals("histogram", paths.size(), histogramTotal);
+            assertEquals("slowest", Math.min(10, paths.size()), stats.getAsJsonArray("slowest").size());
+            logln(CheckMetrics.toJson());
+
+            CheckMetrics.setEnabled(false);
+            CheckMetrics.reset();
+            checkDates.check(paths.get(0), cldrFile.getFullXPath(paths.get(0)), cldrFile.getStringValue(paths.get(0)), options, result);
+            assertEquals("disabled", 0, new JsonParser().parse(CheckMetrics.toJson()).getAsJsonObject().getAsJsonObject("checks").size());
+        } finally {
+            CheckMetrics.setEnabled(wasEnabled);
+            CheckMetrics.reset();
+        }
+    }
+
     /**
      * Test the TestCache and TestResultBundle objects
      */
@@ -170,6 +299,45 @@ public class TestCheckCLDR extends TestFmwk {
         }
     }
 
+    /**
+     * Checking with one TestResultBundle from several threads at once, which uses several CheckCLDR
+     * instances, must give the same results as checking one path at a time.
+     */
+    public void TestTestCacheConcurrent() {
+        CheckCLDR.setDisplayInformation(testInfo.getEnglish());
+        CheckCLDR.Options checkCldrOptions = new Options(CLDRLocale.getInstance("fr"), Phase.SUBMISSION, "default", "basic");
+        TestCache serialCache = new TestCache();
+        serialCache.setFactory(testInfo.getCldrFactory(), ".*");
+        TestResultBundle serialBundle = serialCache.getBundle(checkCldrOptions);
+        TestCache concurrentCache = new TestCache();
+        concurrentCache.setFactory(testInfo.getCldrFactory(), ".*");
+        TestResultBundle concurrentBundle = concurrentCache.getBundle(checkCldrOptions);
+
+        final CLDRFile cldrFile = testInfo.getCLDRFile("fr", true);
+        int maxPathCount = (getInclusion() < 5) ? 1000 : 100000;
+        List<String> paths = new ArrayList<>();
+        for (String path : cldrFile) {
+            paths.add(path);
+            if (paths.size() == maxPathCount) {
+                break;
+            }
+        }
+        List<String> expected = new ArrayList<>();
+        for (String path : paths) {
+            expected.add(check(serialBundle, path, cldrFile.getStringValue(path)));
+        }
+        List<String> actual = paths.parallelStream()
+            .map(path -> check(concurrentBundle, path, cldrFile.getStringValue(path)))
+            .collect(Collectors.toList());
+        assertEquals("concurrent results", expected, actual);
+    }
+
+    private static String check(TestResultBundle bundle, String path, String value) {
+        List<CheckStatus> result = new ArrayList<>();
+        bundle.check(path, result, value);
+        return path + "\t" + result;
+    }
+
     /**
      * Test the "collisionless" error/warning messages.
      */
@@ -1,6 +1,9 @@
 package org.unicode.cldr.unittest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.unicode.cldr.test.DisplayAndInputProcessor;
 import org.unicode.cldr.util.CLDRConfig;
@@ -392,4 +395,34 @@ public class TestDisplayAndInputProcessor extends TestFmwk {
         String value = daip.processInput(xpath, "\btest\bTEST\b", null);
         assertEquals("Backspaces are filtered out", "testTEST", value);
     }
+
+    /**
+     * A processor is shared by the Survey Tool threads for a locale, so the results
+     * must be the same when it is used concurrently.
+     */
+    public void TestConcurrentUse() {
+        for (String locale : new String[] { "en", "de_CH", "my", "ar", "fr" }) {
+            CLDRFile cldrFile = info.getCLDRFile(locale, true);
+            DisplayAndInputProcessor daip = new DisplayAndInputProcessor(cldrFile, true);
+            List<String> paths = new ArrayList<>();
+            for (String path : cldrFile) {
+                if (cldrFile.getStringValue(path) != null) {
+                    paths.add(path);
+                }
+            }
+            List<String> expected = new ArrayList<>();
+            for (String path : paths) {
+                expected.add(process(daip, path, cldrFile.getStringValue(path)));
+            }
+            List<String> actual = paths.parallelStream()
+                .map(path -> process(daip, path, cldrFile.getStringValue(path)))
+                .collect(Collectors.toList());
+            assertEquals(locale + " concurrent results", expected, actual);
+        }
+    }
+
+    private static String process(DisplayAndInputProcessor daip, String path, String value) {
+        String display = daip.processForDisplay(path, value);
+        return display + "\t" + daip.processInput(path, display, null);
+    }
 }
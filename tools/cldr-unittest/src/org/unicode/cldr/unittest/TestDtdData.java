@@ -15,6 +15,7 @@ import java.util.Set;
 import java.util.TreeSet;
 
 import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.DtdData;
 import org.unicode.cldr.util.DtdData.Attribute;
@@ -319,6 +320,33 @@ public class TestDtdData extends TestFmwk {
         }
     }
 
+    /**
+     * The DtdData sort keys must give the same order as comparing the XPathParts.
+     */
+    public void TestSortKeys() {
+        checkSortKeys(DtdType.ldmlICU, testInfo.getEnglish());
+        checkSortKeys(DtdType.ldmlICU, testInfo.getCldrFactory().make("de_CH", false));
+        checkSortKeys(DtdType.supplementalData, testInfo.getSupplementalFactory().make("supplementalData", false));
+        checkSortKeys(DtdType.supplementalData, testInfo.getSupplementalFactory().make("supplementalMetadata", false));
+    }
+
+    private void checkSortKeys(DtdType type, CLDRFile cldrFile) {
+        DtdData dtdData = DtdData.getInstance(type);
+        DtdData.DtdComparator comparator = dtdData.getDtdComparator();
+        Set<String> expected = new TreeSet<>((a, b) -> comparator.xpathComparator(
+            XPathParts.getFrozenInstance(a), XPathParts.getFrozenInstance(b)));
+        cldrFile.forEach(expected::add);
+        List<String> actual = comparator.sort(cldrFile.iterator());
+        assertEquals(type + " " + cldrFile.getLocaleID(), new ArrayList<>(expected), actual);
+        String last = null;
+        for (String path : actual) {
+            if (last != null) {
+                assertTrue(last + " < " + path, dtdData.getSortKey(last).compareTo(dtdData.getSortKey(path)) < 0);
+            }
+            last = path;
+        }
+    }
+
 //    public void TestNonLeafValues() {
 //        for (DtdType type : DtdType.values()) {
 //            if (type == DtdType.ldmlICU) {
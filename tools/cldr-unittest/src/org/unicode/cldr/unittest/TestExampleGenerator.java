@@ -1,11 +1,16 @@
 package org.unicode.cldr.unittest;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.unicode.cldr.test.ExampleGenerator;
 import org.unicode.cldr.test.ExampleGenerator.UnitLength;
@@ -823,4 +828,51 @@ public class TestExampleGenerator extends TestFmwk {
             errln("Expected example to contain " + EXPECTED + "; got " + specialExample);
         }
     }
+
+    /**
+     * One ExampleGenerator shared by several threads gives the same examples as getExampleHtml
+     * on one thread, and so does the bulk getExamples.
+     */
+    public void TestConcurrentExamples() throws InterruptedException {
+        final int THREADS = 4;
+        for (String locale : new String[] { "fr", "ar", "ja" }) {
+            final CLDRFile cldrFile = info.getCLDRFile(locale, true);
+            ExampleGenerator serial = new ExampleGenerator(cldrFile, info.getEnglish(), CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY);
+            final ExampleGenerator shared = new ExampleGenerator(cldrFile, info.getEnglish(), CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY);
+            shared.setCachingEnabled(false); // make every example, rather than read another thread's
+            final List<String> paths = new ArrayList<>();
+            Map<String, String> expected = new LinkedHashMap<>();
+            for (String path : cldrFile) {
+                paths.add(path);
+                expected.put(path, serial.getExampleHtml(path, cldrFile.getStringValue(path)));
+            }
+            final Map<String, String> actual = new ConcurrentHashMap<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; ++t) {
+                final int first = t;
+                threads.add(new Thread() {
+                    @Override
+                    public void run() {
+                        for (int i = first; i < paths.size(); i += THREADS) {
+                            String path = paths.get(i);
+                            String example = shared.getExampleHtml(path, cldrFile.getStringValue(path));
+                            if (example != null) {
+                                actual.put(path, example);
+                            }
+                        }
+                    }
+                });
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (Map.Entry<String, String> entry : expected.entrySet()) {
+                assertEquals(locale + " " + entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+            }
+            assertEquals(locale + " bulk examples", expected, shared.getExamples(paths));
+        }
+    }
 }
@@ -0,0 +1,174 @@
+package org.unicode.cldr.unittest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Pattern;
+
+import org.unicode.cldr.icu.ICUResourceBinaryReader;
+import org.unicode.cldr.icu.ICUResourceBinaryWriter;
+import org.unicode.cldr.icu.ICUResourceWriter.Resource;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceArray;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceString;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceTable;
+import org.unicode.cldr.util.CLDRConfig;
+import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.XPathParts;
+
+import com.ibm.icu.dev.test.TestFmwk;
+
+public class TestICUResourceBinary extends TestFmwk {
+    private static final Pattern INVARIANT_KEY = Pattern.compile("[-A-Za-z0-9_.:]+");
+
+    public static void main(String[] args) {
+        new TestICUResourceBinary().run(args);
+    }
+
+    public void TestRoundTrip() {
+        ResourceTable top = makeTestTree();
+        Resource read = ICUResourceBinaryReader.read(ICUResourceBinaryWriter.toByteBuffer(top), "root");
+        top.sort(); // the binary tables are sorted
+        assertEquals("round trip", toText(top), toText(read));
+    }
+
+    /**
+     * Round trip the paths of a locale.
+     */
+    public void TestLocaleRoundTrip() {
+        CLDRFile english = CLDRConfig.getInstance().getEnglish();
+        ResourceTable top = makeTree(english);
+        Resource read = ICUResourceBinaryReader.read(ICUResourceBinaryWriter.toByteBuffer(top), "en");
+        top.sort();
+        assertEquals("round trip", toText(top), toText(read));
+    }
+
+    /**
+     * Check that equal strings and keys are written once, by comparing with trees where they all differ.
+     */
+    public void TestSharing() {
+        int sharedStrings = ICUResourceBinaryWriter.toByteBuffer(makeRepeatedTree(false, true)).remaining();
+        int distinctStrings = ICUResourceBinaryWriter.toByteBuffer(makeRepeatedTree(false, false)).remaining();
+        assertTrue("shared strings: " + sharedStrings + " < " + distinctStrings, sharedStrings < distinctStrings);
+        int sharedKeys = ICUResourceBinaryWriter.toByteBuffer(makeRepeatedTree(true, false)).remaining();
+        assertTrue("shared keys: " + sharedKeys + " < " + distinctStrings, sharedKeys < distinctStrings);
+    }
+
+    /**
+     * Make a table of 100 tables of two strings, with either the same keys or the same strings in each.
+     */
+    private static ResourceTable makeRepeatedTree(boolean sameKeys, boolean sameStrings) {
+        Resource[] tables = new Resource[100];
+        for (int i = 0; i < tables.length; ++i) {
+            String suffix = String.format("%03d", i);
+            String keySuffix = sameKeys ? "" : suffix;
+            String stringSuffix = sameStrings ? "000" : suffix;
+            tables[i] = table("table" + suffix,
+                string("one" + keySuffix, "a value for one " + stringSuffix),
+                string("other" + keySuffix, "a value for other " + stringSuffix));
+        }
+        return table("root", tables);
+    }
+
+    private static ResourceTable makeTestTree() {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 2000; ++i) {
+            longString.append((char) ('a' + i % 26));
+        }
+        return table("root",
+            string("zeta", "zeta"),
+            table("inner",
+                string("zz", "xabc"),
+                string("bc", "bc"),
+                string("c", "c"),
+                string("abc", "d\u00E9j\u00E0 vu \uD83D\uDE00")),
+            array("array",
+                string(null, "abc"),
+                string(null, "xabc"),
+                string(null, ""),
+                string(null, "\uDC00 starts with a trail surrogate"),
+                string(null, "has a \u0000 NUL"),
+                string(null, longString.toString())),
+            string("Version", "1.0"));
+    }
+
+    /**
+     * Make a resource tree from the paths of a CLDRFile, with a table for each element (with its
+     * attribute values in the key). Paths that don't give invariant-character keys are skipped, as
+     * are values with quotes, since the writer removes those.
+     */
+    static ResourceTable makeTree(CLDRFile cldrFile) {
+        ResourceTable top = new ResourceTable();
+        top.name = cldrFile.getLocaleID();
+        Map<ResourceTable, Map<String, Resource>> children = new HashMap<>();
+        paths: for (String path : cldrFile) {
+            String value = cldrFile.getStringValue(path);
+            if (value.indexOf('"') >= 0) {
+                continue;
+            }
+            XPathParts parts = XPathParts.getFrozenInstance(path);
+            String[] keys = new String[parts.size() - 1];
+            for (int i = 1; i < parts.size(); ++i) {
+                StringBuilder key = new StringBuilder(parts.getElement(i));
+                for (Entry<String, String> attribute : parts.getAttributes(i).entrySet()) {
+                    key.append(':').append(attribute.getValue());
+                }
+                if (!INVARIANT_KEY.matcher(key).matches()) {
+                    continue paths;
+                }
+                keys[i - 1] = key.toString();
+            }
+            ResourceTable table = top;
+            for (int i = 0; i < keys.length - 1; ++i) {
+                Resource child = children.computeIfAbsent(table, t -> new HashMap<>()).get(keys[i]);
+                if (child == null) {
+                    child = add(table, children, new ResourceTable(), keys[i]);
+                } else if (!(child instanceof ResourceTable)) {
+                    continue paths;
+                }
+                table = (ResourceTable) child;
+            }
+            String leafKey = keys[keys.length - 1];
+            if (children.computeIfAbsent(table, t -> new HashMap<>()).get(leafKey) == null) {
+                add(table, children, new ResourceString(null, value), leafKey);
+            }
+        }
+        return top;
+    }
+
+    private static Resource add(ResourceTable table, Map<ResourceTable, Map<String, Resource>> children,
+        Resource child, String key) {
+        child.name = key;
+        child.next = table.first;
+        table.first = child;
+        children.get(table).put(key, child);
+        return child;
+    }
+
+    private static ResourceString string(String name, String value) {
+        return new ResourceString(name, value);
+    }
+
+    private static ResourceTable table(String name, Resource... items) {
+        return link(new ResourceTable(), name, items);
+    }
+
+    private static ResourceArray array(String name, Resource... items) {
+        return link(new ResourceArray(), name, items);
+    }
+
+    private static <T extends Resource> T link(T parent, String name, Resource... items) {
+        parent.name = name;
+        for (int i = items.length - 1; i >= 0; --i) {
+            items[i].next = parent.first;
+            parent.first = items[i];
+        }
+        return parent;
+    }
+
+    private static String toText(Resource resource) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resource.write(out, 0, false);
+        return out.toString();
+    }
+}
@@ -26,8 +26,10 @@ import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.ChainedMap;
 import org.unicode.cldr.util.ChainedMap.M3;
 import org.unicode.cldr.util.CldrUtility;
+import org.unicode.cldr.util.Factory;
 import org.unicode.cldr.util.LanguageTagParser;
 import org.unicode.cldr.util.LocaleIDParser;
+import org.unicode.cldr.util.LocaleInheritance;
 import org.unicode.cldr.util.PatternCache;
 import org.unicode.cldr.util.StandardCodes;
 import org.unicode.cldr.util.SupplementalDataInfo;
@@ -385,6 +387,64 @@ public class TestInheritance extends TestFmwk {
         }
     }
 
+    public void TestLocaleInheritanceGraph() {
+        Factory factory = testInfo.getFullCldrFactory();
+        LocaleInheritance inheritance = factory.getLocaleInheritance();
+        for (String loc : availableLocales) {
+            String expectedParent = getParentByRule(loc);
+            assertEquals("parent of " + loc, expectedParent, inheritance.getParent(loc));
+            assertEquals("LocaleIDParser parent of " + loc, expectedParent, LocaleIDParser.getParent(loc));
+
+            List<String> expectedAncestors = new ArrayList<>();
+            for (String current = expectedParent; current != null; current = getParentByRule(current)) {
+                expectedAncestors.add(current);
+            }
+            assertEquals("ancestors of " + loc, expectedAncestors, inheritance.getAncestors(loc));
+
+            if (expectedParent != null) {
+                assertTrue(loc + " is a child of " + expectedParent,
+                    inheritance.getChildren(expectedParent).contains(loc));
+                if (defaultContents.contains(loc)) {
+                    assertEquals("default content of " + expectedParent, loc,
+                        inheritance.getDefaultContent(expectedParent));
+                }
+            }
+
+            Set<CLDRLocale> expectedSubLocales = new TreeSet<>();
+            CLDRLocale cldrLocale = CLDRLocale.getInstance(loc);
+            for (String other : availableLocales) {
+                if (loc.equals(getParentByRule(other))) {
+                    expectedSubLocales.add(CLDRLocale.getInstance(other));
+                }
+            }
+            assertEquals("sublocales of " + loc, expectedSubLocales, factory.subLocalesOf(cldrLocale));
+        }
+        // locales outside of the graph still get the parent rules
+        assertEquals("parent of unknown locale", "xx", inheritance.getParent("xx_YY"));
+        assertEquals("ancestors of unknown locale", Arrays.asList("xx", "root"), inheritance.getAncestors("xx_YY"));
+        assertEquals("children of unknown locale", Collections.emptyList(), inheritance.getChildren("xx_YY"));
+    }
+
+    /**
+     * The parent rules computed directly from the supplemental data, to check the precomputed graph against.
+     */
+    private static String getParentByRule(String localeName) {
+        int pos = localeName.lastIndexOf('_');
+        if (pos < 0) {
+            return localeName.equals("root") ? null : "root";
+        }
+        String explicitParent = dataInfo.getExplicitParentLocale(localeName);
+        if (explicitParent != null) {
+            return explicitParent;
+        }
+        String truncated = localeName.substring(0, pos);
+        if (LocaleIDParser.getScriptPosition(localeName) > 0
+            && !localeName.substring(pos + 1).equals(dataInfo.getDefaultScript(truncated))) {
+            return "root";
+        }
+        return truncated.isEmpty() ? "root" : truncated;
+    }
+
     private void verifyScriptsWithDefaultContents(LanguageTagParser ltp,
         Relation<String, String> base2scripts,
         Map<String, String> parent2default,
@@ -1,16 +1,24 @@
 package org.unicode.cldr.unittest;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.unicode.cldr.test.OutdatedPaths;
 import org.unicode.cldr.tool.CldrVersion;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.Pair;
 import org.unicode.cldr.util.PathHeader;
+import org.unicode.cldr.util.StringId;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.TreeMultimap;
 
@@ -88,4 +96,46 @@ public class TestOutdatedPaths extends TestFmwkPlus {
         }
     }
 
+    /**
+     * Write data files with GenerateBirth's writers, and check that they read back.
+     */
+    public void TestRoundTrip() throws IOException {
+        String outdated = "//ldml/localeDisplayNames/languages/language[@type=\"ar\"]";
+        String notOutdated = "//ldml/localeDisplayNames/languages/language[@type=\"de\"]";
+        String newPath = "//ldml/localeDisplayNames/languages/language[@type=\"fr\"]";
+        Map<String, Set<Long>> localeToIds = new TreeMap<>();
+        localeToIds.put("xx", ImmutableSet.of(StringId.getId(outdated), 42L, -42L));
+        localeToIds.put("yy", ImmutableSet.of());
+        Map<Long, Pair<CldrVersion, String>> pathToBirthNPrevious = new HashMap<>();
+        pathToBirthNPrevious.put(StringId.getId(outdated), Pair.of(CldrVersion.v30_0, "Arabic \uD83D\uDE00"));
+        pathToBirthNPrevious.put(StringId.getId(notOutdated), Pair.of(CldrVersion.v1_1_1, "German"));
+        pathToBirthNPrevious.put(StringId.getId(newPath), Pair.of(CldrVersion.v30_0, OutdatedPaths.NO_VALUE));
+
+        File dir = Files.createTempDirectory("TestOutdatedPaths").toFile();
+        File localeFile = new File(dir, OutdatedPaths.OUTDATED_DATA);
+        File englishFile = new File(dir, OutdatedPaths.OUTDATED_ENGLISH_DATA);
+        try {
+            OutdatedPaths.writeLocaleToPaths(localeFile, localeToIds);
+            OutdatedPaths.writeBirthValues(englishFile, pathToBirthNPrevious);
+            OutdatedPaths read = new OutdatedPaths(dir.toString());
+            assertEquals("xx count", 3, read.countOutdated("xx"));
+            assertEquals("yy count", 0, read.countOutdated("yy"));
+            assertEquals("zz count", 0, read.countOutdated("zz"));
+            assertTrue("outdated", read.isRawOutdated("xx", outdated));
+            assertFalse("not outdated", read.isRawOutdated("xx", notOutdated));
+            assertFalse("no ids", read.isRawOutdated("yy", outdated));
+            assertEquals("previous", "Arabic \uD83D\uDE00", read.getPreviousEnglish(outdated));
+            assertEquals("birth", CldrVersion.v1_1_1, read.getEnglishBirth(notOutdated));
+            assertEquals("no previous", OutdatedPaths.NO_VALUE, read.getPreviousEnglish(newPath));
+            assertNull("missing", read.getPreviousEnglish("//ldml/identity/version"));
+
+            Map<Long, Pair<CldrVersion, String>> readValues = new HashMap<>();
+            OutdatedPaths.readBirthValues(dir.toString(), null, readValues);
+            assertEquals("birth values", pathToBirthNPrevious, readValues);
+        } finally {
+            localeFile.delete();
+            englishFile.delete();
+            dir.delete();
+        }
+    }
 }
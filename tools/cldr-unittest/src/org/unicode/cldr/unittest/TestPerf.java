@@ -1,17 +1,46 @@
 package org.unicode.cldr.unittest;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.unicode.cldr.api.CldrData;
+import org.unicode.cldr.api.CldrData.PathOrder;
+import org.unicode.cldr.api.CldrDataSupplier;
+import org.unicode.cldr.api.CldrDataSupplier.CldrResolution;
+import org.unicode.cldr.api.CldrDataType;
+import org.unicode.cldr.api.CldrPath;
+import org.unicode.cldr.api.PathMatcher;
+import org.unicode.cldr.icu.ICUResourceBinaryWriter;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceTable;
+import org.unicode.cldr.test.CheckCLDR.CheckStatus;
+import org.unicode.cldr.test.CheckCLDR.Options;
+import org.unicode.cldr.test.CheckLogicalGroupings;
+import org.unicode.cldr.test.DisplayAndInputProcessor;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
+import org.unicode.cldr.util.CLDRFile.Status;
+import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.DtdData;
 import org.unicode.cldr.util.DtdData.AttributeValueComparator;
 import org.unicode.cldr.util.DtdType;
+import org.unicode.cldr.util.Factory;
+import org.unicode.cldr.util.LogicalGrouping;
 import org.unicode.cldr.util.Timer;
 import org.unicode.cldr.util.XPathParts;
 
@@ -195,6 +224,307 @@ public class TestPerf extends TestFmwkPlus {
         return timer.getSeconds() / iterations;
     }
 
+    /**
+     * Resolve alias-heavy paths (non-gregorian calendars and non-latn number systems)
+     * in a set of locales that share the same root, so the alias index is built once.
+     */
+    public void TestAliasLookup() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        String[] locales = { "en", "de", "fr", "ja", "ar", "hi", "ru", "zh", "th", "fa" };
+        Set<String> aliasHeavy = new TreeSet<String>();
+        for (String path : factory.make("root", true)) {
+            if (path.startsWith("//ldml/dates/calendars/calendar") && !path.contains("\"gregorian\"")
+                || path.startsWith("//ldml/numbers/") && path.contains("[@numberSystem=") && !path.contains("\"latn\"")) {
+                aliasHeavy.add(path);
+            }
+        }
+        Status status = new Status();
+        Timer t = new Timer();
+        int found = 0;
+        for (String locale : locales) {
+            CLDRFile cldrFile = factory.make(locale, true);
+            for (String path : aliasHeavy) {
+                if (cldrFile.getSourceLocaleID(path, status) != null) {
+                    ++found;
+                }
+            }
+        }
+        long duration = t.stop();
+        logln("Alias lookups: " + found + " in " + t.toString(found) + " per path");
+        assertEquals("all paths resolved", aliasHeavy.size() * locales.length, found);
+        assertRelation("", true, duration / 1000000.0, LEQ, 5000.0);
+    }
+
+    /**
+     * Write all of main, checking that sorting the paths with DtdData sort keys gives the same order
+     * as the XPathParts-based comparison. The times are only logged, since they vary by machine.
+     */
+    public void TestWriteMain() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        DtdData dtdData = DtdData.getInstance(DtdType.ldmlICU); // used by CLDRFile for ldml
+        DtdData.DtdComparator dtdComparator = dtdData.getDtdComparator();
+        Comparator<String> partsComparator = (a, b) -> dtdComparator.xpathComparator(
+            XPathParts.getFrozenInstance(a), XPathParts.getFrozenInstance(b));
+        int maxLocales = getInclusion() < 5 ? 50 : Integer.MAX_VALUE;
+        Timer oldTimer = new Timer();
+        Timer newTimer = new Timer();
+        Timer writeTimer = new Timer();
+        long oldNanos = 0;
+        long newNanos = 0;
+        long writeNanos = 0;
+        int count = 0;
+        for (String locale : factory.getAvailable()) {
+            if (count >= maxLocales) {
+                break;
+            }
+            ++count;
+            CLDRFile cldrFile = factory.make(locale, false);
+            List<String> paths = new ArrayList<String>();
+            cldrFile.forEach(paths::add);
+
+            oldTimer.start();
+            Set<String> oldSorted = new TreeSet<String>(partsComparator);
+            oldSorted.addAll(paths);
+            oldNanos += oldTimer.stop();
+
+            newTimer.start();
+            List<String> newSorted = dtdComparator.sort(paths.iterator());
+            newNanos += newTimer.stop();
+
+            assertEquals(locale + " sort order", new ArrayList<String>(oldSorted), newSorted);
+
+            writeTimer.start();
+            cldrFile.write(new PrintWriter(new StringWriter()));
+            writeNanos += writeTimer.stop();
+        }
+        logln("Locales: " + count + "\tTreeSet sort: " + oldNanos / 1000000 + " ms"
+            + "\tsort keys: " + newNanos / 1000000 + " ms\twrite: " + writeNanos / 1000000 + " ms");
+    }
+
+    /**
+     * Time the .res writer on trees made from the main locales. Only logs, since timings vary by machine.
+     */
+    public void TestWriteResBundles() throws IOException {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        int maxLocales = getInclusion() < 5 ? 50 : Integer.MAX_VALUE;
+        File dir = Files.createTempDirectory("TestWriteResBundles").toFile();
+        Timer timer = new Timer();
+        long nanos = 0;
+        long bytes = 0;
+        int count = 0;
+        try {
+            for (String locale : factory.getAvailable()) {
+                if (count >= maxLocales) {
+                    break;
+                }
+                ++count;
+                ResourceTable tree = TestICUResourceBinary.makeTree(factory.make(locale, false));
+                File file = new File(dir, locale + ".res");
+                timer.start();
+                ICUResourceBinaryWriter.write(tree, file);
+                nanos += timer.stop();
+                bytes += file.length();
+                file.delete();
+            }
+        } finally {
+            dir.delete();
+        }
+        logln("Locales: " + count + "\tformatVersion 2: " + nanos / 1000000 + " ms, " + bytes + " bytes");
+    }
+
+    /**
+     * Process the English values with one shared DisplayAndInputProcessor, first on one thread and
+     * then on several at once. Since the processor isn't locked, the threads shouldn't be serialized.
+     * Only logs, since timings vary by machine.
+     */
+    public void TestDisplayAndInputContention() throws Exception {
+        CLDRFile english = CLDRConfig.getInstance().getEnglish();
+        DisplayAndInputProcessor daip = new DisplayAndInputProcessor(english, true);
+        List<String> paths = new ArrayList<String>();
+        List<String> values = new ArrayList<String>();
+        for (String path : english) {
+            String value = english.getStringValue(path);
+            if (value != null) {
+                paths.add(path);
+                values.add(value);
+            }
+        }
+        Runnable processAll = () -> {
+            for (int i = 0; i < paths.size(); ++i) {
+                String display = daip.processForDisplay(paths.get(i), values.get(i));
+                daip.processInput(paths.get(i), display, null);
+            }
+        };
+        processAll.run(); // warmup, and fill the path cache
+
+        Timer timer = new Timer();
+        timer.start();
+        processAll.run();
+        long serialNanos = timer.stop();
+
+        int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            timer.start();
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(processAll));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long concurrentNanos = timer.stop();
+        logln("Values: " + paths.size() + "\t1 thread: " + serialNanos / 1000000 + " ms"
+            + "\t" + threads + " threads: " + concurrentNanos / 1000000 + " ms for " + threads + "× the values");
+    }
+
+    /**
+     * Count the path elements in the values of the locales, as read through CldrDataSupplier, and the
+     * distinct instances among them. Equal paths are shared across locales, so there should be far fewer.
+     * Nothing is timed, so the check doesn't depend on the machine.
+     */
+    public void TestSharedCldrPaths() {
+        CldrDataSupplier supplier = CldrDataSupplier.forCldrFilesIn(Paths.get(CLDRPaths.BASE_DIRECTORY));
+        int maxLocales = getInclusion() < 5 ? 50 : Integer.MAX_VALUE;
+        Set<CldrPath> instances = Collections.newSetFromMap(new IdentityHashMap<CldrPath, Boolean>());
+        long[] elements = { 0 };
+        int count = 0;
+        for (String locale : supplier.getAvailableLocaleIds()) {
+            if (count >= maxLocales) {
+                break;
+            }
+            ++count;
+            supplier.getDataForLocale(locale, CldrResolution.UNRESOLVED).accept(PathOrder.ARBITRARY, value -> {
+                for (CldrPath path = value.getPath(); path != null; path = path.getParent()) {
+                    ++elements[0];
+                    instances.add(path);
+                }
+            });
+        }
+        logln("Locales: " + count + "\tpath elements: " + elements[0] + "\tinstances: " + instances.size());
+        assertRelation("shared path elements", true, instances.size() * 2L, LEQ, elements[0]);
+    }
+
+    /**
+     * Compare looking up the logical groups of the paths of a large locale with getPaths (which copies
+     * the group each time) and through the locale's group index, counting the cost of filling in the
+     * index, and time CheckLogicalGroupings on it. The groups are checked, but the times are only logged.
+     */
+    public void TestLogicalGroupIndex() {
+        Factory factory = CLDRConfig.getInstance().getCldrFactory();
+        CLDRFile cldrFile = factory.make("de", true);
+        List<String> paths = new ArrayList<String>();
+        cldrFile.fullIterable().forEach(paths::add);
+
+        Timer timer = new Timer();
+        long copySize = 0;
+        timer.start();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            for (String path : paths) {
+                copySize += LogicalGrouping.getPaths(cldrFile, path).size();
+            }
+        }
+        long copyNanos = timer.stop();
+
+        // a new file, so that its index starts out empty
+        CLDRFile freshFile = Factory.make(CLDRPaths.MAIN_DIRECTORY, ".*").make("de", true);
+        long indexSize = 0;
+        timer.start();
+        for (String path : paths) {
+            indexSize += LogicalGrouping.getGroup(freshFile, path, null).size();
+        }
+        long firstNanos = timer.stop();
+        timer.start();
+        for (int i = 1; i < ITERATIONS; ++i) {
+            for (String path : paths) {
+                indexSize += LogicalGrouping.getGroup(freshFile, path, null).size();
+            }
+        }
+        long indexNanos = firstNanos + timer.stop();
+        assertEquals("same groups", copySize, indexSize);
+
+        CheckLogicalGroupings checker = new CheckLogicalGroupings(factory);
+        Options options = new Options();
+        List<CheckStatus> result = new ArrayList<CheckStatus>();
+        checker.setCldrFileToCheck(cldrFile, options, result);
+        timer.start();
+        for (String path : paths) {
+            checker.handleCheck(path, cldrFile.getFullXPath(path), cldrFile.getStringValue(path), options, result);
+        }
+        long checkNanos = timer.stop();
+
+        logln("Paths: " + paths.size() + "\tfirst index pass (filling it in): " + firstNanos / 1000000 + " ms"
+            + "\tgetPaths: " + copyNanos / ITERATIONS / 1000 + " µs"
+            + "\tindex: " + indexNanos / ITERATIONS / 1000 + " µs"
+            + "\tCheckLogicalGroupings: " + checkNanos / 1000000 + " ms");
+    }
+
+    /**
+     * Compare extracting one section (the Gregorian calendar) from the locales, as read through
+     * CldrDataSupplier, by filtering all the values and by passing a prefix matcher to accept.
+     * Also compare reading the plural rules from the supplemental data. The values are checked, but the
+     * times are only logged.
+     */
+    public void TestPrefixVisitation() {
+        CldrDataSupplier supplier = CldrDataSupplier.forCldrFilesIn(Paths.get(CLDRPaths.BASE_DIRECTORY));
+        int maxLocales = getInclusion() < 5 ? 50 : Integer.MAX_VALUE;
+        List<CldrData> locales = new ArrayList<>();
+        for (String locale : supplier.getAvailableLocaleIds()) {
+            if (locales.size() >= maxLocales) {
+                break;
+            }
+            locales.add(supplier.getDataForLocale(locale, CldrResolution.UNRESOLVED));
+        }
+        List<PathMatcher> gregorian = Collections.singletonList(
+            PathMatcher.of("//ldml/dates/calendars/calendar[@type=\"gregorian\"]"));
+
+        long[] counts = { 0, 0 };
+        Timer timer = new Timer();
+        timer.start();
+        for (CldrData data : locales) {
+            data.accept(PathOrder.DTD, value -> {
+                if (gregorian.get(0).matchesPrefixOf(value.getPath())) {
+                    ++counts[0];
+                }
+            });
+        }
+        long filterNanos = timer.stop();
+        timer.start();
+        for (CldrData data : locales) {
+            data.accept(PathOrder.DTD, value -> ++counts[1], gregorian);
+        }
+        long prefixNanos = timer.stop();
+        assertEquals("same values", counts[0], counts[1]);
+
+        List<PathMatcher> plurals = Collections.singletonList(PathMatcher.of("//supplementalData/plurals"));
+        long[] pluralCounts = { 0, 0 };
+        timer.start();
+        CldrDataSupplier.forCldrFilesIn(Paths.get(CLDRPaths.BASE_DIRECTORY))
+            .getDataForType(CldrDataType.SUPPLEMENTAL)
+            .accept(PathOrder.DTD, value -> {
+                if (plurals.get(0).matchesPrefixOf(value.getPath())) {
+                    ++pluralCounts[0];
+                }
+            });
+        long xmlFilterNanos = timer.stop();
+        timer.start();
+        CldrDataSupplier.forCldrFilesIn(Paths.get(CLDRPaths.BASE_DIRECTORY))
+            .getDataForType(CldrDataType.SUPPLEMENTAL)
+            .accept(PathOrder.DTD, value -> ++pluralCounts[1], plurals);
+        long xmlPrefixNanos = timer.stop();
+        assertEquals("same plural values", pluralCounts[0], pluralCounts[1]);
+
+        logln("Locales: " + locales.size() + "\tgregorian values: " + counts[1]
+            + "\tfiltered: " + filterNanos / 1000000 + " ms"
+            + "\tprefix: " + prefixNanos / 1000000 + " ms");
+        logln("Supplemental plural values: " + pluralCounts[1]
+            + "\tfiltered: " + xmlFilterNanos / 1000000 + " ms"
+            + "\tprefix: " + xmlPrefixNanos / 1000000 + " ms");
+    }
+
     public void TestUnused() {
 
     }
@@ -14,6 +14,8 @@ import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -30,6 +32,8 @@ import java.util.Map.Entry;
 import java.util.MissingResourceException;
 import java.util.Random;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import com.ibm.icu.util.TimeZone;
 import com.ibm.icu.util.ULocale;
@@ -125,6 +129,16 @@ public class TestFmwk extends AbstractTestLog {
         return new Random(params.seed);
     }
 
+    /**
+     * Marks a test class that doesn't change any global state (default locale,
+     * time zone, shared configuration) and doesn't depend on the order of tests.
+     * With -parallel, such classes among the children of the top-level TestGroup
+     * run concurrently with each other.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Independent {
+    }
+
     /**
      * A test that has no test methods itself, but instead runs other tests.
      *
@@ -359,6 +373,18 @@ public class TestFmwk extends AbstractTestLog {
 
         protected void execute() throws Exception{
         }
+
+        /**
+         * Return true if this target may run concurrently with the other
+         * independent children of the top-level TestGroup.
+         */
+        protected boolean isIndependent() {
+            return false;
+        }
+
+        private void setParams(TestParams paramsArg) {
+            params = paramsArg;
+        }
     }
 
     public class EmptyTarget extends Target {
@@ -453,17 +479,54 @@ public class TestFmwk extends AbstractTestLog {
             return TestFmwk.this.getDescription();
         }
 
+        @Override
+        protected boolean isIndependent() {
+            return TestFmwk.this.getClass().isAnnotationPresent(Independent.class);
+        }
+
         @Override
         protected void execute() throws Exception {
             params.indentLevel++;
             Target target = randomize(getTargets(targetName));
-            while (target != null) {
-                target.run();
-                target = target.next;
+            if (params.pool != null && params.indentLevel == 1
+                    && TestFmwk.this instanceof TestGroup && !params.inDocMode()) {
+                runParallel(target);
+            } else {
+                while (target != null) {
+                    target.run();
+                    target = target.next;
+                }
             }
             params.indentLevel--;
         }
 
+        /**
+         * Run the targets, with each run of consecutive independent targets
+         * running concurrently. The other targets run alone, as in a serial run.
+         */
+        private void runParallel(Target target) throws Exception {
+            List<ForkedTarget> forked = new ArrayList<>();
+            for (; target != null; target = target.next) {
+                if (target.isIndependent()) {
+                    forked.add(new ForkedTarget(target, params));
+                } else {
+                    joinAll(forked);
+                    target.run();
+                }
+            }
+            joinAll(forked);
+        }
+
+        private void joinAll(List<ForkedTarget> forked) throws Exception {
+            try {
+                for (ForkedTarget f : forked) {
+                    f.join(params);
+                }
+            } finally {
+                forked.clear();
+            }
+        }
+
         private Target randomize(Target t) {
             if (t != null && t.getNext() != null) {
                 ArrayList list = new ArrayList();
@@ -512,6 +575,46 @@ public class TestFmwk extends AbstractTestLog {
         }
     }
 
+    /**
+     * A target running on the fork-join pool. It has its own TestParams, with a
+     * buffered log, which are merged into the parent's when it is joined.
+     */
+    private static final class ForkedTarget {
+        private final Target target;
+        private final TestParams forkedParams;
+        private final ForkJoinTask<Exception> task;
+
+        ForkedTarget(Target target, TestParams parent) {
+            this.target = target;
+            forkedParams = parent.fork();
+            target.setParams(forkedParams);
+            task = parent.pool.submit(() -> {
+                long start = System.currentTimeMillis();
+                try {
+                    target.run();
+                    return null;
+                } catch (Exception e) {
+                    return e;
+                } finally {
+                    forkedParams.millis = System.currentTimeMillis() - start;
+                }
+            });
+        }
+
+        /**
+         * Wait for the target, and merge its log and counts into the parent.
+         * An exception thrown by the target is rethrown here, as in a serial run.
+         */
+        void join(TestParams parent) throws Exception {
+            Exception e = task.join();
+            target.setParams(parent);
+            parent.merge(forkedParams, target.name);
+            if (e != null) {
+                throw e;
+            }
+        }
+    }
+
     //------------------------------------------------------------------------
     // Everything below here is boilerplate code that makes it possible
     // to add a new test by simply adding a function to an existing class
@@ -565,7 +668,14 @@ public class TestFmwk extends AbstractTestLog {
             return -1;
         }
 
-        int errorCount = runTests(localParams, args);
+        int errorCount;
+        try {
+            errorCount = runTests(localParams, args);
+        } finally {
+            if (localParams.pool != null) {
+                localParams.pool.shutdownNow();
+            }
+        }
 
         if (localParams.seed != 0) {
             localParams.log.println("-random:" + localParams.seed);
@@ -578,6 +688,11 @@ public class TestFmwk extends AbstractTestLog {
             localParams.log.println(localParams.timeLog.toString());
         }
 
+        if (localParams.parallelLog != null && localParams.parallelLog.length() > 0) {
+            localParams.log.println("\nTests run in parallel (elapsed time of each):");
+            localParams.log.println(localParams.parallelLog.toString());
+        }
+
         if (localParams.knownIssues != null) {
             localParams.log.println("\nKnown Issues:");
             for (Entry<String, List<String>> entry : localParams.knownIssues.entrySet()) {
@@ -977,6 +1092,9 @@ public class TestFmwk extends AbstractTestLog {
         pw.println(" -n[othrow] Message on test failure rather than exception.\n"
                 + "       This is the default behavior and has no effects on ICU 55+.");
         pw.println(" -p[rompt] Prompt before exiting");
+        pw.println(" -parallel[:<n>] Run the children of the top-level test group that are\n"
+                + "       marked @Independent concurrently, on n threads (default: the number\n"
+                + "       of processors). Their output is buffered and written in the usual order.");
         pw.println(" -prop:<key>=<value> Set optional property used by this test");
         pw.println(" -q[uiet] Do not show warnings");
         pw.println(" -r[andom][:<n>] If present, randomize targets.  If n is present,\n"
@@ -1192,7 +1310,11 @@ public class TestFmwk extends AbstractTestLog {
 
         public StringBuffer errorSummary = new StringBuffer();
         private StringBuffer timeLog;
+        private StringBuffer parallelLog;
         private Map<String, List<String>> knownIssues;
+        private ForkJoinPool pool; // non-null for -parallel
+        private CharArrayWriter buffer; // the log of forked params
+        private long millis; // elapsed time of forked params
 
         public PrintWriter log;
         public int indentLevel;
@@ -1338,6 +1460,21 @@ public class TestFmwk extends AbstractTestLog {
                             if (params.log instanceof ASCIIWriter) {
                                 params.log = log;
                             }
+                        } else if (arg.equals("-parallel") || arg.startsWith("-parallel:")) {
+                            int threads = Runtime.getRuntime().availableProcessors();
+                            if (arg.length() > 9) {
+                                try {
+                                    threads = Integer.parseInt(arg.substring(10));
+                                } catch (NumberFormatException e) {
+                                    threads = 0;
+                                }
+                                if (threads <= 0) {
+                                    log.println("*** Error: bad thread count: " + arg);
+                                    usageError = true;
+                                    break;
+                                }
+                            }
+                            params.pool = new ForkJoinPool(threads);
                         } else if (arg.startsWith("-prop:")) {
                             String temp = arg.substring(6);
                             int eql = temp.indexOf('=');
@@ -1386,6 +1523,103 @@ public class TestFmwk extends AbstractTestLog {
             return errorSummary == null ? "" : errorSummary.toString();
         }
 
+        /**
+         * Return params for running a target concurrently with others. They have
+         * the same options and a copy of the stack, but their own log buffer and
+         * counts, starting at zero.
+         */
+        private TestParams fork() {
+            TestParams result = new TestParams();
+            result.verbose = verbose;
+            result.quiet = quiet;
+            result.listlevel = listlevel;
+            result.describe = describe;
+            result.warnings = warnings;
+            result.nodata = nodata;
+            result.timing = timing;
+            result.memusage = memusage;
+            result.inclusion = inclusion;
+            result.filter = filter;
+            result.seed = seed;
+            result.tfilter = tfilter;
+            result.maxTargetSec = maxTargetSec;
+            result.props = props;
+            result.pool = pool;
+            result.tformat = (NumberFormat) tformat.clone();
+            result.buffer = new CharArrayWriter();
+            result.log = new PrintWriter(result.buffer);
+            result.errorSummary = errorSummary == null ? null : new StringBuffer();
+            result.init();
+            result.indentLevel = indentLevel;
+            result.stack = result.copyStack(stack);
+            return result;
+        }
+
+        private State copyStack(State state) {
+            return state == null ? null : new State(copyStack(state.link), state);
+        }
+
+        /**
+         * Add the log, counts and summaries of forked params, once their target has
+         * finished. The log is written as if the target had run here.
+         */
+        private synchronized void merge(TestParams forked, String name) {
+            forked.log.flush();
+            if (forked.buffer.size() > 0) {
+                if (stack != null) {
+                    stack.flush();
+                }
+                if (needLineFeed) {
+                    log.println(inDocMode() ? "" : " {");
+                }
+                log.print(forked.buffer.toString());
+                log.flush();
+                needLineFeed = forked.needLineFeed;
+                suppressIndent = forked.suppressIndent;
+            }
+
+            errorCount += forked.errorCount;
+            warnCount += forked.warnCount;
+            invalidCount += forked.invalidCount;
+            testCount += forked.testCount;
+
+            if (errorSummary != null && forked.errorSummary != null) {
+                errorSummary.append(forked.errorSummary);
+            }
+            if (forked.timeLog != null) {
+                if (timeLog == null) {
+                    timeLog = new StringBuffer();
+                }
+                timeLog.append(forked.timeLog);
+            }
+            if (forked.knownIssues != null) {
+                if (knownIssues == null) {
+                    knownIssues = new TreeMap<>();
+                }
+                for (Entry<String, List<String>> entry : forked.knownIssues.entrySet()) {
+                    List<String> lines = knownIssues.get(entry.getKey());
+                    if (lines == null) {
+                        lines = new ArrayList<>();
+                        knownIssues.put(entry.getKey(), lines);
+                    }
+                    for (String line : entry.getValue()) {
+                        if (!lines.contains(line)) {
+                            lines.add(line);
+                        }
+                    }
+                }
+            }
+
+            if (parallelLog == null) {
+                parallelLog = new StringBuffer();
+            }
+            if (stack != null) {
+                stack.appendPath(parallelLog);
+                parallelLog.append('/');
+            }
+            parallelLog.append(name + " (" + tformat.format(forked.millis / 1000f) + ")\n");
+        }
+
         public void init() {
             indentLevel = 0;
             needLineFeed = false;
@@ -1434,6 +1668,20 @@ public class TestFmwk extends AbstractTestLog {
                 millis = System.currentTimeMillis();
             }
 
+            /**
+             * Copy a state for forked params. It counts as flushed, since the
+             * original will be flushed when the forked log is merged.
+             */
+            State(State link, State original) {
+                this.link = link;
+                this.name = original.name;
+                this.level = original.level;
+                this.included = original.included;
+                this.mem = original.mem;
+                this.millis = original.millis;
+                this.flushed = true;
+            }
+
             void flush() {
                 if (!flushed) {
                     if (link != null) {
@@ -1548,7 +1796,7 @@ public class TestFmwk extends AbstractTestLog {
             write(msg, true);
         }
 
-        private void write(String msg, boolean newln) {
+        private synchronized void write(String msg, boolean newln) {
             if (!suppressIndent) {
                 if (needLineFeed) {
                     log.println();
@@ -1564,7 +1812,7 @@ public class TestFmwk extends AbstractTestLog {
             suppressIndent = !newln;
         }
 
-        private void msg(String message, int level, boolean incCount,
+        private synchronized void msg(String message, int level, boolean incCount,
                 boolean newln) {
             int oldLevel = level;
             //            if (level == WARN && (!warnings && !nodata)){
@@ -1,7 +1,10 @@
 package org.unicode.cldr.api;
 
+import java.util.Collection;
 import java.util.function.Consumer;
 
+import com.google.common.collect.ImmutableList;
+
 /**
  * An immutable, reusable CLDR data instance on which visitors can be accepted to process paths
  * and values, or for which values can be looked up by their corresponding distinguishing path.
@@ -21,6 +24,29 @@ public interface CldrData {
      */
     void accept(PathOrder order, ValueVisitor visitor);
 
+    /**
+     * Accepts the given visitor over the path/value pairs of this CLDR data instance whose paths
+     * have a prefix matched by at least one of the given matchers (see {@link
+     * PathMatcher#matchesPrefixOf(CldrPath)}), in the same order as {@link #accept(PathOrder,
+     * ValueVisitor)} would visit them.
+     *
+     * <p>This has the same effect as filtering the values in the visitor, but implementations
+     * can use the matchers to avoid reading or processing data outside the matched
+     * sub-hierarchies, which is much faster when only a few sections of the data are needed.
+     *
+     * @param order the order in which visitation should occur.
+     * @param visitor the visitor to process CLDR data.
+     * @param prefixes matchers for the path prefixes of the sub-hierarchies to be visited.
+     */
+    default void accept(PathOrder order, ValueVisitor visitor, Collection<PathMatcher> prefixes) {
+        ImmutableList<PathMatcher> matchers = ImmutableList.copyOf(prefixes);
+        accept(order, v -> {
+            if (PathMatcher.anyMatchesPrefixOf(matchers, v.getPath())) {
+                visitor.visit(v);
+            }
+        });
+    }
+
     /**
      * Accepts the given visitor over all partial path prefixes of this CLDR data instance.
      * Note that, on its own, this visitor will never see CDLR values, or even complete paths.
@@ -113,7 +113,28 @@ public abstract class CldrDataSupplier {
      */
     public static CldrData forCldrFiles(
         CldrDataType type, CldrDraftStatus draftStatus, Set<Path> xmlFiles) {
-        return new XmlDataSource(type, ImmutableSet.copyOf(xmlFiles), draftStatus);
+        return new XmlDataSource(type, ImmutableSet.copyOf(xmlFiles), draftStatus, true);
+    }
+
+    /**
+     * Returns an unresolved CLDR data instance of a set of XML files, like {@link #forCldrFiles}, but
+     * which does not keep the paths/values in memory. Each visit reads the files again and visits
+     * the values as they are read, so this is only useful for data which is visited once. Calling
+     * {@link CldrData#get(CldrPath)} reads and keeps all the values as usual.
+     *
+     * <p>The files should be disjoint, as for {@link #forCldrFiles}. If a path does appear more
+     * than once, a visit gives it its first value, since that has already been visited when the
+     * later one is read, whereas the cached data of {@link #forCldrFiles} (and of this instance,
+     * once {@code get} has been called) keeps the last value.
+     *
+     * @param type the expected CLDR type of the data in the XML file.
+     * @param draftStatus the desired status for filtering paths/values.
+     * @param xmlFiles the CLDR XML files.
+     * @return a data instance for the paths/values in the specified XML file.
+     */
+    public static CldrData forCldrFilesUncached(
+        CldrDataType type, CldrDraftStatus draftStatus, Set<Path> xmlFiles) {
+        return new XmlDataSource(type, ImmutableSet.copyOf(xmlFiles), draftStatus, false);
     }
 
     private static Multimap<CldrDataType, Path> createCldrDirectoryMap(
@@ -235,7 +256,7 @@ public abstract class CldrDataSupplier {
         public CldrData getDataForType(CldrDataType type) {
             ImmutableSet<Path> xmlFiles = listXmlFilesForType(type);
             if (!xmlFiles.isEmpty()) {
-                return new XmlDataSource(type, xmlFiles, draftStatus);
+                return new XmlDataSource(type, xmlFiles, draftStatus, true);
             }
             return NO_DATA;
         }
@@ -3,17 +3,22 @@ package org.unicode.cldr.api;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CldrUtility;
+import org.unicode.cldr.util.DtdData;
 import org.unicode.cldr.util.XPathParts;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 
 /**
@@ -55,7 +60,46 @@ final class CldrFileDataSource implements CldrData {
         default:
             throw new AssertionError("Unknown path ordering: " + order);
         }
-        read(paths, source, visitor);
+        read(paths, source, visitor, p -> true);
+    }
+
+    @Override
+    public void accept(PathOrder order, ValueVisitor visitor, Collection<PathMatcher> prefixes) {
+        ImmutableList<PathMatcher> matchers = ImmutableList.copyOf(prefixes);
+        // Paths are filtered (by string) before they are sorted or turned into CldrPaths, since
+        // that's where the time goes. The literal prefixes may be too broad (they stop at the
+        // first attribute) so the matchers are then checked properly on the CldrPath.
+        ImmutableList<String> literalPrefixes = matchers.stream()
+            .map(PathMatcher::getLiteralPrefix)
+            .distinct()
+            .collect(ImmutableList.toImmutableList());
+        Iterator<String> paths = Iterators.filter(
+            source.iterator(), p -> literalPrefixes.stream().anyMatch(p::startsWith));
+        switch (order) {
+        case ARBITRARY:
+            break;
+
+        case NESTED_GROUPING:
+            paths = sort(paths, Comparator.naturalOrder());
+            break;
+
+        case DTD:
+            paths = sort(paths, source.getComparator());
+            break;
+
+        default:
+            throw new AssertionError("Unknown path ordering: " + order);
+        }
+        read(paths, source, visitor, p -> PathMatcher.anyMatchesPrefixOf(matchers, p));
+    }
+
+    private static Iterator<String> sort(Iterator<String> paths, Comparator<String> comparator) {
+        if (comparator instanceof DtdData.DtdComparator) {
+            return ((DtdData.DtdComparator) comparator).sort(paths).iterator();
+        }
+        List<String> sorted = Lists.newArrayList(paths);
+        sorted.sort(comparator);
+        return sorted.iterator();
     }
 
     @Override
@@ -98,7 +142,8 @@ final class CldrFileDataSource implements CldrData {
         return dpath;
     }
 
-    private void read(Iterator<String> paths, CLDRFile src, ValueVisitor visitor) {
+    private void read(
+        Iterator<String> paths, CLDRFile src, ValueVisitor visitor, Predicate<CldrPath> filter) {
         Map<AttributeKey, String> valueAttributes = new LinkedHashMap<>();
 
         // This is a bit fiddly since we add path elements in reverse order to the 'stack' but want
@@ -129,7 +174,8 @@ final class CldrFileDataSource implements CldrData {
             CldrPath cldrPath = CldrPaths.processXPath(
                 src.getFullXPath(dPath), previousElements, valueAttributes::put);
 
-            if (CldrPaths.isLeafPath(cldrPath) && CldrPaths.shouldEmit(cldrPath)) {
+            if (CldrPaths.isLeafPath(cldrPath) && CldrPaths.shouldEmit(cldrPath)
+                && filter.test(cldrPath)) {
                 visitor.visit(CldrValue.create(value, valueAttributes, cldrPath));
             }
 
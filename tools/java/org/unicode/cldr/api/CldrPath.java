@@ -13,6 +13,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -21,6 +22,9 @@ import org.unicode.cldr.api.AttributeKey.AttributeSupplier;
 import com.google.common.base.CharMatcher;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.MapMaker;
 
 /**
  * A sequence of CLDR path elements and "distinguishing" attributes.
@@ -138,7 +142,86 @@ public final class CldrPath implements AttributeSupplier, Comparable<CldrPath> {
     // care about making assignment atomic however, since all values would be equal anyway.
     private String localToString = null;
 
-    CldrPath(CldrPath parent,
+    // Path elements are shared, so that equal paths from different files and locales share their
+    // structure (rather than each data source holding its own copies of the common prefixes). The
+    // values are weakly held, so elements are discarded once no path uses them.
+    private static final ConcurrentMap<InternKey, CldrPath> internedPaths =
+        new MapMaker().weakValues().makeMap();
+    private static final Interner<ImmutableList<String>> internedKeyValuePairs =
+        Interners.newWeakInterner();
+
+    /**
+     * Returns the path element with the given parent and content, sharing an existing instance if
+     * there is one. This should be used rather than the constructor, so that the parents of all
+     * path elements are shared instances.
+     */
+    static CldrPath create(CldrPath parent,
+        String name,
+        List<String> attributeKeyValuePairs,
+        CldrDataType dtdType,
+        /* @Nullable */ CldrDraftStatus localDraftStatus, int sortIndex) {
+        Optional<CldrDraftStatus> draftStatus = resolveDraftStatus(parent, localDraftStatus);
+        CldrPath path = internedPaths.get(
+            new InternKey(parent, name, attributeKeyValuePairs, draftStatus, sortIndex, dtdType));
+        if (path == null) {
+            CldrPath newPath = new CldrPath(
+                parent, name, attributeKeyValuePairs, dtdType, localDraftStatus, sortIndex);
+            // Don't key on the caller's (possibly mutable) list.
+            path = internedPaths.putIfAbsent(new InternKey(parent, name,
+                newPath.attributeKeyValuePairs, draftStatus, sortIndex, dtdType), newPath);
+            if (path == null) {
+                path = newPath;
+            }
+        }
+        return path;
+    }
+
+    // The key for a shared path element. Since parents are shared, they are compared by identity.
+    // The draft status is part of the key (even though it's ignored by equals()), so that paths
+    // which differ only in draft status are kept distinct. The key must not refer to the path
+    // element itself, or it could never be discarded.
+    private static final class InternKey {
+        private final CldrPath parent;
+        private final String name;
+        private final List<String> keyValuePairs;
+        private final Optional<CldrDraftStatus> draftStatus;
+        private final int sortIndex;
+        private final CldrDataType dtdType;
+        private final int hashCode;
+
+        InternKey(CldrPath parent, String name, List<String> keyValuePairs,
+            Optional<CldrDraftStatus> draftStatus, int sortIndex, CldrDataType dtdType) {
+            this.parent = parent;
+            this.name = name;
+            this.keyValuePairs = keyValuePairs;
+            this.draftStatus = draftStatus;
+            this.sortIndex = sortIndex;
+            this.dtdType = dtdType;
+            this.hashCode = Objects.hash(
+                System.identityHashCode(parent), name, keyValuePairs, draftStatus, sortIndex, dtdType);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof InternKey)) {
+                return false;
+            }
+            InternKey other = (InternKey) obj;
+            return parent == other.parent
+                && sortIndex == other.sortIndex
+                && dtdType == other.dtdType
+                && name.equals(other.name)
+                && keyValuePairs.equals(other.keyValuePairs)
+                && draftStatus.equals(other.draftStatus);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private CldrPath(CldrPath parent,
         String name,
         List<String> attributeKeyValuePairs,
         CldrDataType dtdType,
@@ -181,7 +264,7 @@ public final class CldrPath implements AttributeSupplier, Comparable<CldrPath> {
             String v = keyValuePairs.get(n + 1);
             checkArgument(!v.contains("\""), "unsupported '\"' in attribute value: %s", v);
         }
-        return ImmutableList.copyOf(keyValuePairs);
+        return internedKeyValuePairs.intern(ImmutableList.copyOf(keyValuePairs));
     }
 
     /**
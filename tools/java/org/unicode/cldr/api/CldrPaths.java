@@ -366,7 +366,7 @@ final class CldrPaths {
                 }
             }
             // This path has diverged from the previous path, so we must start making new elements.
-            path = new CldrPath(path, elementName, keyValuePairs, dtdType, draftStatus, sortIndex);
+            path = CldrPath.create(path, elementName, keyValuePairs, dtdType, draftStatus, sortIndex);
             diverged = true;
         }
         return path;
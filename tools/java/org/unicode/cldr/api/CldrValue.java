@@ -12,6 +12,8 @@ import org.unicode.cldr.util.CldrUtility;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 /**
  * A CLDR element value and associated "value" attributes, along with its distinguishing {@link
@@ -101,6 +103,10 @@ public final class CldrValue implements AttributeSupplier {
         return new CldrValue(value, valueAttributes, path);
     }
 
+    // Value attributes are few and often repeated, so equal maps are shared between values.
+    private static final Interner<ImmutableMap<AttributeKey, String>> internedAttributes =
+        Interners.newWeakInterner();
+
     private final String value;
     private final ImmutableMap<AttributeKey, String> attributes;
     private final CldrPath path;
@@ -127,7 +133,10 @@ public final class CldrValue implements AttributeSupplier {
         for (String v : attributes.values()) {
             checkArgument(!v.contains("\""), "unsupported '\"' in attribute value: %s", v);
         }
-        return ImmutableMap.copyOf(attributes);
+        ImmutableMap<AttributeKey, String> map = ImmutableMap.copyOf(attributes);
+        ImmutableMap<AttributeKey, String> shared = internedAttributes.intern(map);
+        // Map equality ignores order, but the attribute order is kept.
+        return shared.entrySet().asList().equals(map.entrySet().asList()) ? shared : map;
     }
 
     /**
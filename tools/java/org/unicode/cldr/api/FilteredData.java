@@ -5,6 +5,8 @@ package org.unicode.cldr.api;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
+
 /**
  * Filters underlying {@link CldrData} source data to transform values or remove values on the fly.
  * The order of transformed values produced by the class is the same order as the underlying data.
@@ -44,6 +46,12 @@ public abstract class FilteredData implements CldrData {
         src.accept(order, v -> visitFiltered(v, visitor));
     }
 
+    @Override
+    public final void accept(
+        PathOrder order, ValueVisitor visitor, Collection<PathMatcher> prefixes) {
+        src.accept(order, v -> visitFiltered(v, visitor), prefixes);
+    }
+
     @Override
     public final CldrValue get(CldrPath path) {
         CldrValue value = src.get(path);
@@ -10,6 +10,7 @@ import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static org.unicode.cldr.api.AttributeKey.keyOf;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -74,18 +75,28 @@ public final class PathMatcher {
         checkArgument(m.lookingAt(), "invalid path pattern: %s", pattern);
         // This throws IllegalArgumentException if the type isn't valid.
         CldrDataType.forXmlName(m.group(1));
-        return new PathMatcher(null, parse(pattern.substring(2)));
+        return new PathMatcher(null, pattern, parse(pattern.substring(2)));
     }
 
     private final Optional<PathMatcher> parent;
     private final ImmutableList<Predicate<CldrPath>> elementMatchers;
     private final int totalElementCount;
+    // The full pattern (including the parent pattern) and all the element matchers, from the
+    // root, for matching the prefix of a path without matching any parent matchers separately.
+    private final String pattern;
+    private final ImmutableList<Predicate<CldrPath>> allElementMatchers;
 
-    private PathMatcher(PathMatcher parent, List<Predicate<CldrPath>> elementMatchers) {
+    private PathMatcher(
+        PathMatcher parent, String pattern, List<Predicate<CldrPath>> elementMatchers) {
         this.parent = Optional.ofNullable(parent);
         this.elementMatchers = ImmutableList.copyOf(elementMatchers);
         this.totalElementCount =
             elementMatchers.size() + (parent != null ? parent.totalElementCount : 0);
+        this.pattern = pattern;
+        this.allElementMatchers = parent == null
+            ? this.elementMatchers
+            : ImmutableList.<Predicate<CldrPath>>builder()
+                .addAll(parent.allElementMatchers).addAll(elementMatchers).build();
     }
 
     /**
@@ -99,7 +110,7 @@ public final class PathMatcher {
      * Then {@code RULE} would match paths like {@code "//ldml/collations/collation/cr"}.
      */
     public PathMatcher withSuffix(String pattern) {
-        return new PathMatcher(this, parse(pattern));
+        return new PathMatcher(this, this.pattern + "/" + pattern, parse(pattern));
     }
 
     /**
@@ -151,6 +162,65 @@ public final class PathMatcher {
             && matchRegion(path, totalElementCount - elementMatchers.size());
     }
 
+    /**
+     * Returns whether the given path, which may be a partial path prefix, agrees with this
+     * matcher for as many elements as they both have. If not, no path with the given prefix can be
+     * matched by {@link #matchesPrefixOf(CldrPath)}, so the sub-hierarchy below the prefix need
+     * not be visited.
+     */
+    boolean mayMatchBelow(CldrPath path) {
+        int length = Math.min(path.getLength(), totalElementCount);
+        while (path.getLength() > length) {
+            path = path.getParent();
+        }
+        for (int i = length - 1; i >= 0; i--, path = path.getParent()) {
+            if (!allElementMatchers.get(i).test(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the longest string which every distinguishing path string matched (as a prefix)
+     * by this matcher must start with. The prefix ends before the first wildcard element or after
+     * the name of the first element with attributes (since the attribute order of a path string
+     * isn't known here). For example {@code "//ldml/dates/calendars/calendar"} for the pattern
+     * {@code //ldml/dates/calendars/calendar[@type="gregorian"]/months}.
+     */
+    String getLiteralPrefix() {
+        int end = pattern.length();
+        int attributes = pattern.indexOf('[');
+        if (attributes != -1) {
+            end = attributes;
+        }
+        int wildcard = pattern.indexOf('*');
+        if (wildcard != -1 && wildcard < end) {
+            end = wildcard;
+        }
+        return pattern.substring(0, end);
+    }
+
+    /** Returns whether any of the matchers matches a prefix of the given path. */
+    static boolean anyMatchesPrefixOf(Collection<PathMatcher> matchers, CldrPath path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matchesPrefixOf(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns whether any of the matchers {@link #mayMatchBelow may match below} the path. */
+    static boolean anyMayMatchBelow(Collection<PathMatcher> matchers, CldrPath path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.mayMatchBelow(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private boolean matchRegion(CldrPath path, int offset) {
         // offset is the path element corresponding the the "top most" element matcher, it
         // must be in the range 0 ... (path.length() - elementMatchers.size()).
@@ -3,6 +3,7 @@ package org.unicode.cldr.api;
 import static com.google.common.base.CharMatcher.whitespace;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.io.Reader;
@@ -10,12 +11,15 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.IntStream;
@@ -39,9 +43,25 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Multiset;
-
-/** Serializes a set of LDML XML files as a sequence of {@code CldrValue}s. */
+import com.google.common.collect.PeekingIterator;
+
+/**
+ * Serializes a set of LDML XML files as a sequence of {@code CldrValue}s.
+ *
+ * <p>The values are normally cached: the files are then parsed concurrently, each into its own
+ * run of values (sorted, if DTD order is needed), and the runs are merged in one pass. An uncached
+ * instance reads the files again for each visit, and hands the values to the visitor as they are
+ * parsed, except that DTD order still needs each file's values to sort them before the runs are
+ * merged. A visit restricted to some path prefixes, before any values are cached, reads the files
+ * without caching them, skipping the elements outside those prefixes.
+ *
+ * <p>A path which is repeated (which CLDR data should avoid, but doesn't always) has its last
+ * value when the values are cached, as in a map, but its first value otherwise, since
+ * the earlier value has already been visited.
+ */
 final class XmlDataSource implements CldrData {
     private static final Splitter TRIMMING_LINE_SPLITTER =
         Splitter.on('\n').trimResults().omitEmptyStrings();
@@ -51,6 +71,7 @@ final class XmlDataSource implements CldrData {
     private final ImmutableSet<Path> xmlFiles;
     private final CldrDraftStatus minimalDraftStatus;
     private final Function<Path, Reader> openFn;
+    private final boolean cacheValues;
 
     // Memoized data map to avoid loading/parsing files more than once.
     private volatile ImmutableMap<CldrPath, CldrValue> pathValueMap = null;
@@ -75,17 +96,25 @@ final class XmlDataSource implements CldrData {
     // It terms of having multiple draft status attributes on a path, it seems that the current
     // CLDRFile code has a "top-most one wins" strategy, which can be affected in this code by
     // simply setting draft status the first time it's present on an element.
-    XmlDataSource(CldrDataType dtdType, Set<Path> xmlFiles, CldrDraftStatus draftStatus) {
-        this(dtdType, xmlFiles, draftStatus, XmlDataSource::openFile);
+    XmlDataSource(
+        CldrDataType dtdType, Set<Path> xmlFiles, CldrDraftStatus draftStatus, boolean cacheValues) {
+        this(dtdType, xmlFiles, draftStatus, XmlDataSource::openFile, cacheValues);
     }
 
     // @VisibleForTesting
     XmlDataSource(
         CldrDataType dtdType, Set<Path> xmlFiles, CldrDraftStatus draftStatus, Function<Path, Reader> openFn) {
+        this(dtdType, xmlFiles, draftStatus, openFn, true);
+    }
+
+    // @VisibleForTesting
+    XmlDataSource(CldrDataType dtdType, Set<Path> xmlFiles, CldrDraftStatus draftStatus,
+        Function<Path, Reader> openFn, boolean cacheValues) {
         this.xmlFiles = ImmutableSet.copyOf(xmlFiles);
         this.dtdType = dtdType;
         this.minimalDraftStatus = checkNotNull(draftStatus);
         this.openFn = checkNotNull(openFn);
+        this.cacheValues = cacheValues;
     }
 
     private Map<CldrPath, CldrValue> getPathValueMap(PathOrder order) {
@@ -94,10 +123,10 @@ final class XmlDataSource implements CldrData {
         boolean mustSort = (order == PathOrder.DTD);
         ImmutableMap<CldrPath, CldrValue> localMapRef = pathValueMap;
         if (localMapRef == null) {
-            Map<CldrPath, CldrValue> map = mustSort ? new TreeMap<>() : new LinkedHashMap<>();
-            read(value -> map.put(value.getPath(), value), dtdType, true);
             // Avoid work with the lock held...
-            localMapRef = ImmutableMap.copyOf(map);
+            ImmutableMap.Builder<CldrPath, CldrValue> map = ImmutableMap.builder();
+            read(mustSort, true, value -> map.put(value.getPath(), value), null);
+            localMapRef = map.build();
             // There's a race condition here whereby two threads can decide to create the map
             // but in different orders and then the flags get out of sync with the map contents.
             synchronized (cacheLock) {
@@ -125,9 +154,28 @@ final class XmlDataSource implements CldrData {
 
     @Override
     public void accept(PathOrder order, ValueVisitor visitor) {
+        if (!cacheValues && pathValueMap == null) {
+            read(order == PathOrder.DTD, false, visitor, null);
+            return;
+        }
         getPathValueMap(order).values().forEach(visitor::visit);
     }
 
+    @Override
+    public void accept(PathOrder order, ValueVisitor visitor, Collection<PathMatcher> prefixes) {
+        ImmutableList<PathMatcher> matchers = ImmutableList.copyOf(prefixes);
+        if (pathValueMap == null) {
+            // Don't read everything just to visit part of it.
+            read(order == PathOrder.DTD, cacheValues, visitor, matchers);
+            return;
+        }
+        for (CldrValue value : getPathValueMap(order).values()) {
+            if (PathMatcher.anyMatchesPrefixOf(matchers, value.getPath())) {
+                visitor.visit(value);
+            }
+        }
+    }
+
     @Override
     public CldrValue get(CldrPath path) {
         return getPathValueMap(PathOrder.ARBITRARY).get(path);
@@ -142,23 +190,127 @@ final class XmlDataSource implements CldrData {
         }
     }
 
-    private void read(ValueVisitor visitor, CldrDataType dtdType, boolean validating) {
-        XMLReader xmlReader = createXmlReader(validating);
+    // Reads the files and visits their values in DTD order (if sorted) or else in file order. If
+    // there are prefix matchers, only the values they match are read.
+    //
+    // A buffered visit, whose values are being kept anyway, parses the files concurrently and then
+    // merges them as if they had all been put into one map: a path which is repeated keeps its first
+    // position but has the last value. Otherwise values are only held in memory where they must be,
+    // to sort each file's values into DTD order, and are handed to the visitor as they are parsed or
+    // merged. A later value can't replace one which has already been visited, so a repeated path
+    // keeps its first value (only the paths are remembered, to skip the repeats).
+    private void read(boolean sorted, boolean buffered, ValueVisitor visitor,
+        /* @Nullable */ Collection<PathMatcher> prefixes) {
+        if (!sorted && !buffered) {
+            Set<CldrPath> seen = new HashSet<>();
+            ValueVisitor firstValues = v -> {
+                if (seen.add(v.getPath())) {
+                    visitor.visit(v);
+                }
+            };
+            xmlFiles.forEach(p -> readFile(p, firstValues, prefixes));
+            return;
+        }
+        List<List<CldrValue>> runs = readRuns(sorted, prefixes);
+        if (sorted) {
+            mergeSortedRuns(runs, buffered, visitor);
+        } else {
+            visitLastValues(Iterables.concat(runs), visitor);
+        }
+    }
+
+    // Returns the values of each file, in file order or else (if sorted) in DTD order.
+    private List<List<CldrValue>> readRuns(
+        boolean sorted, /* @Nullable */ Collection<PathMatcher> prefixes) {
+        Function<Path, List<CldrValue>> readRun = p -> {
+            List<CldrValue> run = new ArrayList<>();
+            readFile(p, run::add, prefixes);
+            if (sorted) {
+                // A stable sort, so a repeated path keeps its file order.
+                run.sort(Comparator.comparing(CldrValue::getPath));
+            }
+            return run;
+        };
+        if (xmlFiles.size() == 1) {
+            return ImmutableList.of(readRun.apply(xmlFiles.iterator().next()));
+        }
+        // The files are independent, so can be parsed concurrently (the list keeps file order).
+        return xmlFiles.asList().parallelStream().map(readRun).collect(toList());
+    }
+
+    private void readFile(
+        Path p, ValueVisitor visitor, /* @Nullable */ Collection<PathMatcher> prefixes) {
+        XMLReader xmlReader = createXmlReader(true);
         xmlReader.setErrorHandler(ERROR_HANDLER);
-        xmlReader.setContentHandler(new PathValueHandler(visitor, dtdType));
-        for (Path p : xmlFiles) {
-            try (Reader r = openFn.apply(p)) {
-                InputSource src = new InputSource(r);
-                // Important: The system ID is a URI or path which should identify the XML file so
-                // that a relative path to the DTD can be resolved. Thus if the XML contains
-                // <!DOCTYPE ldmlBCP47 SYSTEM "../../common/dtd/ldmlBCP47.dtd">
-                // then the location of "ldmlBCP47.dtd" can be properly determined. Thus even for
-                // testing, a suitable path from which the DTD can be determined must be used.
-                src.setSystemId(p.toString());
-                parseXml(xmlReader, src, p);
-            } catch (IOException e) {
-                throw new UncheckedIOException(e);
+        xmlReader.setContentHandler(new PathValueHandler(visitor, dtdType, prefixes));
+        try (Reader r = openFn.apply(p)) {
+            InputSource src = new InputSource(r);
+            // Important: The system ID is a URI or path which should identify the XML file so
+            // that a relative path to the DTD can be resolved. Thus if the XML contains
+            // <!DOCTYPE ldmlBCP47 SYSTEM "../../common/dtd/ldmlBCP47.dtd">
+            // then the location of "ldmlBCP47.dtd" can be properly determined. Thus even for
+            // testing, a suitable path from which the DTD can be determined must be used.
+            src.setSystemId(p.toString());
+            parseXml(xmlReader, src, p);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Visits the values in order, giving a repeated path the position of its first occurrence and
+    // the value of its last one, as a map would.
+    private static void visitLastValues(Iterable<CldrValue> values, ValueVisitor visitor) {
+        Map<CldrPath, CldrValue> map = new LinkedHashMap<>();
+        values.forEach(v -> map.put(v.getPath(), v));
+        map.values().forEach(visitor::visit);
+    }
+
+    // Visits the values of the sorted runs in DTD order, with a k-way merge over the runs, taking the
+    // value of a path which appears several times from its first or last occurrence (in file order).
+    private static void mergeSortedRuns(
+        List<List<CldrValue>> runs, boolean lastValue, ValueVisitor visitor) {
+        // Runs are ordered by their next path, then by file order.
+        PriorityQueue<SortedRun> queue = new PriorityQueue<>(
+            Comparator.<SortedRun, CldrPath>comparing(r -> r.values.peek().getPath())
+                .thenComparingInt(r -> r.index));
+        for (int i = 0; i < runs.size(); i++) {
+            requeue(queue, new SortedRun(i, runs.get(i)));
+        }
+        while (!queue.isEmpty()) {
+            SortedRun run = queue.poll();
+            CldrValue value = run.values.next();
+            // Repeats in the same run are next to it, and those in later runs come off the queue next.
+            while (true) {
+                while (run.values.hasNext()
+                    && run.values.peek().getPath().equals(value.getPath())) {
+                    CldrValue repeat = run.values.next();
+                    value = lastValue ? repeat : value;
+                }
+                requeue(queue, run);
+                if (queue.isEmpty() || !queue.peek().values.peek().getPath().equals(value.getPath())) {
+                    break;
+                }
+                run = queue.poll();
+                CldrValue repeat = run.values.next();
+                value = lastValue ? repeat : value;
             }
+            visitor.visit(value);
+        }
+    }
+
+    private static void requeue(PriorityQueue<SortedRun> queue, SortedRun run) {
+        if (run.values.hasNext()) {
+            queue.add(run);
+        }
+    }
+
+    private static final class SortedRun {
+        private final int index;
+        private final PeekingIterator<CldrValue> values;
+
+        SortedRun(int index, List<CldrValue> run) {
+            this.index = index;
+            this.values = Iterators.peekingIterator(run.iterator());
         }
     }
 
@@ -204,20 +356,32 @@ final class XmlDataSource implements CldrData {
         private final ValueVisitor visitor;
         private final CldrDataType dataType;
         private final Multiset<String> orderedElementIndices = HashMultiset.create();
+        // Null if all elements are wanted.
+        private final Collection<PathMatcher> prefixes;
 
         private final Map<AttributeKey, String> valueAttributes = new LinkedHashMap<>();
         private CldrPath path = null;
         // You can get multiple calls to "characters()" for a single element.
         private StringBuilder elementText = new StringBuilder();
         private boolean wasLeafElement = true;
+        // The depth of the current element below the start of a skipped sub-hierarchy (which is
+        // at depth 1), or zero if the element isn't skipped.
+        private int skippedDepth = 0;
 
-        private PathValueHandler(ValueVisitor visitor, CldrDataType dataType) {
+        private PathValueHandler(
+            ValueVisitor visitor, CldrDataType dataType, Collection<PathMatcher> prefixes) {
             this.visitor = visitor;
             this.dataType = dataType;
+            this.prefixes = prefixes;
         }
 
         @Override
         public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (skippedDepth > 0) {
+                // Nothing below a skipped element can be wanted. The parser still checks it.
+                skippedDepth++;
+                return;
+            }
             if (path == null && !qName.equals(dataType.getLdmlName())) {
                 throw new IncompatibleDtdException();
             }
@@ -230,19 +394,35 @@ final class XmlDataSource implements CldrData {
             path = extendPath(path, qName, attributes, sortIndex, dataType, valueAttributes::put);
             elementText.setLength(0);
             wasLeafElement = true;
+            if (prefixes != null && !PathMatcher.anyMayMatchBelow(prefixes, path)) {
+                skippedDepth = 1;
+            }
         }
 
         // Note: This is not invoked for self-closing elements (e.g. "<foo/>").
         @Override
         public void characters(char[] ch, int start, int length) {
-            elementText.append(ch, start, length);
+            if (skippedDepth == 0) {
+                elementText.append(ch, start, length);
+            }
         }
 
         @Override
         public void endElement(String uri, String localName, String qName) {
-            // False if we have, since starting this element, entered and exited a child element.
+            if (skippedDepth > 1) {
+                skippedDepth--;
+                return;
+            }
+            // Leaving a skipped element is handled like leaving any other element, except that
+            // nothing is emitted. Elements below it didn't change any state which survives this
+            // (the sort indices of their ordered elements would be reset here anyway).
+            boolean skipped = skippedDepth == 1;
+            skippedDepth = 0;
+            // False if we have, since starting this element, entered and exited a child element
+            // (always true for a skipped element, since its children aren't processed).
             if (wasLeafElement) {
-                if (hasAllowedDraftStatus(path) && CldrPaths.shouldEmit(path)) {
+                if (!skipped && hasAllowedDraftStatus(path) && CldrPaths.shouldEmit(path)
+                    && (prefixes == null || PathMatcher.anyMatchesPrefixOf(prefixes, path))) {
                     // IMPORTANT: The CldrFile class doesn't just trim whitespace at the start and
                     // end of values, it also removes any blank lines (unconditionally) on the
                     // apparent assumption that it is never important. However it doesn't remove
@@ -352,7 +532,7 @@ final class XmlDataSource implements CldrData {
         // where paths from different XML files could share sort indices on the same element, but
         // there should probably be code to handle it one way or another.
         // TODO: Figure out how to handle sort indices split over multiple files (possibly error).
-        return new CldrPath(
+        return CldrPath.create(
             parent, elementName, attributeKeyValuePairs, dataType, draftStatus, sortIndex);
     }
 
@@ -0,0 +1,211 @@
+package org.unicode.cldr.icu;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+
+import org.unicode.cldr.icu.ICUResourceWriter.Resource;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceAlias;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceArray;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceBinary;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceInt;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceIntVector;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceString;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceTable;
+
+/**
+ * Reads an ICU binary resource bundle (.res) back into a tree of ICUResourceWriter.Resource objects,
+ * for testing ICUResourceBinaryWriter. Handles the resource types that it writes, in formatVersion 2
+ * (or 1, as the earlier writer wrote), but not pool bundles or 16-bit arrays and tables.
+ */
+public class ICUResourceBinaryReader {
+    private final ByteBuffer data;
+    private final int unitsStart;
+
+    /**
+     * Read a .res file. The top table is named after the file, as in LDML2ICUBinaryWriter.writeBinaryFile.
+     */
+    public static Resource read(File file) throws IOException {
+        String name = file.getName();
+        if (name.endsWith(".res")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        return read(ByteBuffer.wrap(Files.readAllBytes(file.toPath())), name);
+    }
+
+    /**
+     * Read the contents of a .res file, from the buffer's position.
+     *
+     * @param name the name to give the top table
+     */
+    public static Resource read(ByteBuffer bytes, String name) {
+        Resource top = new ICUResourceBinaryReader(bytes).readResource(-1, 0);
+        top.name = name;
+        return top;
+    }
+
+    private ICUResourceBinaryReader(ByteBuffer bytes) {
+        ByteBuffer header = bytes.slice();
+        int headerSize = header.getChar(0);
+        if (header.get(2) != (byte) 0xda || header.get(3) != 0x27) {
+            throw new IllegalArgumentException("Not ICU data: bad magic number");
+        }
+        // the UDataInfo starts at byte 4
+        header.order(header.get(8) != 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        if (header.get(12) != 'R' || header.get(13) != 'e' || header.get(14) != 's' || header.get(15) != 'B') {
+            throw new IllegalArgumentException("Not a resource bundle");
+        }
+        int formatVersion = header.get(16);
+        if (formatVersion != 1 && formatVersion != 2) {
+            throw new IllegalArgumentException("Unsupported formatVersion " + formatVersion);
+        }
+        header.position(headerSize);
+        data = header.slice().order(header.order());
+        int indexLength = data.getInt(4) & 0xff;
+        unitsStart = data.getInt(4 * (1 + ICUResourceBinaryWriter.URES_INDEX_KEYS_TOP)) << 2;
+        if (formatVersion == 2 && indexLength <= ICUResourceBinaryWriter.URES_INDEX_16BIT_TOP) {
+            throw new IllegalArgumentException("Missing the 16-bit units");
+        }
+    }
+
+    /**
+     * @param res the 32-bit Resource word, or -1 for the root
+     * @param keyOffset the offset of the key, or 0 if there is none
+     */
+    private Resource readResource(int res, int keyOffset) {
+        if (res == -1) {
+            res = data.getInt(0);
+        }
+        int type = res >>> 28;
+        int offset = (res & 0xfffffff) << 2;
+        Resource result;
+        switch (type) {
+        case LDML2ICUBinaryWriter.URES_STRING:
+            result = new ResourceString(null, offset == 0 ? "" : getChars(offset));
+            break;
+        case ICUResourceBinaryWriter.URES_STRING_V2:
+            result = new ResourceString(null, get16BitString(res & 0xfffffff));
+            break;
+        case LDML2ICUBinaryWriter.URES_ALIAS:
+            ResourceAlias alias = new ResourceAlias();
+            alias.val = getChars(offset);
+            result = alias;
+            break;
+        case LDML2ICUBinaryWriter.URES_INT:
+            ResourceInt resourceInt = new ResourceInt();
+            resourceInt.val = String.valueOf((res << 4) >> 4); // sign-extend the 28 bits
+            result = resourceInt;
+            break;
+        case LDML2ICUBinaryWriter.URES_INT_VECTOR:
+            ResourceIntVector vector = new ResourceIntVector();
+            Resource last = null;
+            for (int i = 0, count = data.getInt(offset); i < count; ++i) {
+                ResourceInt item = new ResourceInt();
+                item.val = String.valueOf(data.getInt(offset + 4 * (i + 1)));
+                last = append(vector, last, item);
+            }
+            result = vector;
+            break;
+        case LDML2ICUBinaryWriter.URES_BINARY:
+            ResourceBinary binary = new ResourceBinary();
+            binary.data = new byte[data.getInt(offset)];
+            for (int i = 0; i < binary.data.length; ++i) {
+                binary.data[i] = data.get(offset + 4 + i);
+            }
+            result = binary;
+            break;
+        case LDML2ICUBinaryWriter.URES_ARRAY:
+            result = new ResourceArray();
+            last = null;
+            for (int i = 0, count = data.getInt(offset); i < count; ++i) {
+                last = append(result, last, readResource(data.getInt(offset + 4 * (i + 1)), 0));
+            }
+            break;
+        case LDML2ICUBinaryWriter.URES_TABLE:
+        case LDML2ICUBinaryWriter.URES_TABLE32:
+            result = new ResourceTable();
+            boolean is32Bit = type == LDML2ICUBinaryWriter.URES_TABLE32;
+            int count = is32Bit ? data.getInt(offset) : data.getChar(offset);
+            int keysStart = offset + (is32Bit ? 4 : 2);
+            // 16-bit keys are padded to 4 bytes
+            int itemsStart = is32Bit ? keysStart + 4 * count : (keysStart + 2 * count + 3) & ~3;
+            last = null;
+            for (int i = 0; i < count; ++i) {
+                int key = is32Bit ? data.getInt(keysStart + 4 * i) : data.getChar(keysStart + 2 * i);
+                last = append(result, last, readResource(data.getInt(itemsStart + 4 * i), key));
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Unsupported resource type " + type);
+        }
+        if (keyOffset != 0) {
+            result.name = getKey(keyOffset);
+        }
+        return result;
+    }
+
+    private static Resource append(Resource parent, Resource last, Resource item) {
+        if (last == null) {
+            parent.first = item;
+        } else {
+            last.next = item;
+        }
+        return item;
+    }
+
+    /**
+     * A string stored as its length, its UTF-16 units, and a NUL.
+     */
+    private String getChars(int offset) {
+        int length = data.getInt(offset);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i) {
+            chars[i] = data.getChar(offset + 4 + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * A string in the 16-bit units, which is NUL-terminated unless it starts with a trail surrogate
+     * that gives the length.
+     */
+    private String get16BitString(int unitOffset) {
+        int position = unitsStart + 2 * unitOffset;
+        char first = data.getChar(position);
+        StringBuilder result = new StringBuilder();
+        if ((first & 0xfc00) != 0xdc00) {
+            for (char c = first; c != 0; c = data.getChar(position += 2)) {
+                result.append(c);
+            }
+            return result.toString();
+        }
+        int length;
+        if (first < 0xdfef) {
+            length = first & 0x3ff;
+            position += 2;
+        } else if (first < 0xdfff) {
+            length = ((first - 0xdfef) << 16) | data.getChar(position + 2);
+            position += 4;
+        } else {
+            length = (data.getChar(position + 2) << 16) | data.getChar(position + 4);
+            position += 6;
+        }
+        for (int i = 0; i < length; ++i) {
+            result.append(data.getChar(position + 2 * i));
+        }
+        return result.toString();
+    }
+
+    /**
+     * A NUL-terminated key in invariant characters.
+     */
+    private String getKey(int offset) {
+        StringBuilder result = new StringBuilder();
+        for (byte b = data.get(offset); b != 0; b = data.get(++offset)) {
+            result.append((char) b);
+        }
+        return result.toString();
+    }
+}
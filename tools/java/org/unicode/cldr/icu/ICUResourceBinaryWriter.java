@@ -0,0 +1,434 @@
+package org.unicode.cldr.icu;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.unicode.cldr.icu.ICUResourceWriter.Resource;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceAlias;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceArray;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceBinary;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceInt;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceIntVector;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceString;
+import org.unicode.cldr.icu.ICUResourceWriter.ResourceTable;
+
+/**
+ * Writes a tree of ICUResourceWriter.Resource objects as an ICU binary resource bundle (.res),
+ * in formatVersion 2.
+ * <p>
+ * The bundle is laid out in a single ByteBuffer, which is written to the file in one call.
+ * Each distinct key is stored once, and a key that is the end of another key shares its bytes;
+ * string values go in the pool of 16-bit units, where each distinct string is stored once, and
+ * a string that is the end of another string shares its units. The tree is not modified.
+ * <p>
+ * The layout (after the header) is: the root resource, the indexes[], the keys, the 16-bit units,
+ * then the resources, with each container after its items. See uresdata.h in ICU4C.
+ *
+ * @see ICUResourceBinaryReader
+ */
+public class ICUResourceBinaryWriter {
+    /** Resource type for a string in the 16-bit units, new in formatVersion 2. */
+    static final int URES_STRING_V2 = 6;
+
+    /* indexes[] entries, see uresdata.h */
+    static final int URES_INDEX_LENGTH = 0;
+    static final int URES_INDEX_KEYS_TOP = 1;
+    static final int URES_INDEX_RESOURCES_TOP = 2;
+    static final int URES_INDEX_BUNDLE_TOP = 3;
+    static final int URES_INDEX_MAX_TABLE_LENGTH = 4;
+    static final int URES_INDEX_ATTRIBUTES = 5;
+    static final int URES_INDEX_16BIT_TOP = 6;
+    static final int URES_INDEX_TOP = 7;
+
+    static final int URES_ATT_NO_FALLBACK = 1;
+
+    /** The header is padded to a multiple of 16 bytes. */
+    static final int HEADER_SIZE = 32;
+
+    private static final byte[] DATA_FORMAT = { 0x52, 0x65, 0x73, 0x42 }; // "ResB"
+    private static final byte[] FORMAT_VERSION = { 2, 0, 0, 0 };
+    private static final byte[] DATA_VERSION = { 1, 4, 0, 0 };
+
+    /** Strings are compared from their ends, so that a string comes just after the ones that end with it. */
+    private static final Comparator<String> BY_REVERSED = new Comparator<String>() {
+        @Override
+        public int compare(String a, String b) {
+            int i = a.length(), j = b.length();
+            while (i > 0 && j > 0) {
+                int diff = a.charAt(--i) - b.charAt(--j);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return i - j;
+        }
+    };
+
+    private final Map<String, Integer> keyOffsets = new HashMap<>();
+    private final Map<String, Integer> stringOffsets = new HashMap<>();
+    private final Map<String, Integer> aliasResources = new HashMap<>();
+    private int maxTableLength = 0;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    /**
+     * Write the bundle to the file (replacing it if it exists).
+     *
+     * @param top the top table of the bundle
+     */
+    public static void write(Resource top, File file) throws IOException {
+        ByteBuffer bytes = toByteBuffer(top);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Lay out the bundle, returning a buffer with the contents of the .res file, ready to be read.
+     *
+     * @param top the top table of the bundle
+     */
+    public static ByteBuffer toByteBuffer(Resource top) {
+        if (!(top instanceof ResourceTable)) {
+            throw new IllegalArgumentException("The top of a bundle must be a table: " + top.name);
+        }
+        return new ICUResourceBinaryWriter().layOut((ResourceTable) top);
+    }
+
+    private ICUResourceBinaryWriter() {
+    }
+
+    private ByteBuffer layOut(ResourceTable top) {
+        TreeSet<String> keys = new TreeSet<>(BY_REVERSED);
+        TreeSet<String> strings = new TreeSet<>(BY_REVERSED);
+        collect(top, keys, strings);
+
+        writeHeader();
+        int indexesStart = position() + 4;
+        position(indexesStart + URES_INDEX_TOP * 4);
+
+        // the key offsets are from the start of the data
+        placeSuffixShared(keys, keyOffsets, true, 0);
+        padTo(4);
+        int keysTop = position();
+
+        // the 16-bit units start with the empty string, at offset 0
+        int unitsStart = position();
+        ensure(2);
+        buffer.putChar((char) 0);
+        placeSuffixShared(strings, stringOffsets, false, unitsStart);
+        for (String s : strings) {
+            if (!stringOffsets.containsKey(s)) {
+                stringOffsets.put(s, (position() - unitsStart) / 2);
+                putExplicitLengthString(s);
+            }
+        }
+        padTo(4);
+        int unitsTop = position();
+
+        int root = writeResource(top);
+        padTo(4);
+        int bundleTop = position();
+
+        int attributes = ResourceTable.NO_FALLBACK.equals(top.annotation) ? URES_ATT_NO_FALLBACK : 0;
+        putInt(0, root);
+        int[] indexes = new int[URES_INDEX_TOP];
+        indexes[URES_INDEX_LENGTH] = URES_INDEX_TOP;
+        indexes[URES_INDEX_KEYS_TOP] = keysTop >>> 2;
+        indexes[URES_INDEX_RESOURCES_TOP] = bundleTop >>> 2;
+        indexes[URES_INDEX_BUNDLE_TOP] = bundleTop >>> 2;
+        indexes[URES_INDEX_MAX_TABLE_LENGTH] = maxTableLength;
+        indexes[URES_INDEX_ATTRIBUTES] = attributes;
+        indexes[URES_INDEX_16BIT_TOP] = unitsTop >>> 2;
+        for (int i = 0; i < indexes.length; ++i) {
+            putInt(indexesStart + i * 4, indexes[i]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Gather the distinct keys and string values of the tree.
+     */
+    private void collect(Resource res, TreeSet<String> keys, TreeSet<String> strings) {
+        if (res instanceof ResourceTable) {
+            int count = 0;
+            for (Resource child = res.first; child != null; child = child.next) {
+                keys.add(getKey(child));
+                collect(child, keys, strings);
+                ++count;
+            }
+            maxTableLength = Math.max(maxTableLength, count);
+        } else if (res instanceof ResourceArray) {
+            for (Resource child = res.first; child != null; child = child.next) {
+                collect(child, keys, strings);
+            }
+        } else if (res instanceof ResourceString) {
+            String value = getValue((ResourceString) res);
+            if (!value.isEmpty()) {
+                strings.add(value);
+            }
+        }
+    }
+
+    /**
+     * Write the strings that can share their ends, in reverse order of BY_REVERSED, so that each
+     * string comes just after (or within) the longer strings that end with it. Strings that can't
+     * be NUL-terminated are skipped. Key offsets are from the start of the data, string offsets are
+     * in 16-bit units from the start of the 16-bit units.
+     *
+     * @param asKeys true for invariant-character keys (as bytes), false for strings (as 16-bit units)
+     * @param start the position that the offsets are relative to
+     */
+    private void placeSuffixShared(TreeSet<String> sorted, Map<String, Integer> offsets, boolean asKeys, int start) {
+        int unitSize = asKeys ? 1 : 2;
+        String last = null;
+        int lastOffset = 0;
+        for (String s : sorted.descendingSet()) {
+            if (!asKeys && !canBeNulTerminated(s)) {
+                continue;
+            }
+            if (last != null && last.endsWith(s)) {
+                offsets.put(s, lastOffset + last.length() - s.length());
+                continue;
+            }
+            lastOffset = (position() - start) / unitSize;
+            offsets.put(s, lastOffset);
+            last = s;
+            if (asKeys) {
+                byte[] bytes = s.getBytes(StandardCharsets.US_ASCII);
+                ensure(bytes.length + 1);
+                buffer.put(bytes).put((byte) 0);
+            } else {
+                ensure((s.length() + 1) * 2);
+                for (int i = 0; i < s.length(); ++i) {
+                    buffer.putChar(s.charAt(i));
+                }
+                buffer.putChar((char) 0);
+            }
+        }
+    }
+
+    /**
+     * A string can be stored with an implicit length if it has no NUL and doesn't start with a trail surrogate,
+     * which would mark an explicit length.
+     */
+    static boolean canBeNulTerminated(String s) {
+        char first = s.charAt(0);
+        return (first & 0xfc00) != 0xdc00 && s.indexOf('\0') < 0;
+    }
+
+    private void putExplicitLengthString(String s) {
+        int length = s.length();
+        ensure((length + 4) * 2);
+        if (length <= 0x3ee) {
+            buffer.putChar((char) (0xdc00 | length));
+        } else if (length <= 0xfffff) {
+            buffer.putChar((char) (0xdfef + (length >>> 16)));
+            buffer.putChar((char) length);
+        } else {
+            buffer.putChar((char) 0xdfff);
+            buffer.putChar((char) (length >>> 16));
+            buffer.putChar((char) length);
+        }
+        for (int i = 0; i < length; ++i) {
+            buffer.putChar(s.charAt(i));
+        }
+        buffer.putChar((char) 0);
+    }
+
+    /**
+     * Write a resource after its items, returning the 32-bit Resource word that refers to it.
+     */
+    private int writeResource(Resource res) {
+        if (res instanceof ResourceString) {
+            String value = getValue((ResourceString) res);
+            return value.isEmpty() ? URES_STRING_V2 << 28 : URES_STRING_V2 << 28 | stringOffsets.get(value);
+        } else if (res instanceof ResourceInt) {
+            return LDML2ICUBinaryWriter.URES_INT << 28 | (parseInt(((ResourceInt) res).val) & 0xfffffff);
+        } else if (res instanceof ResourceAlias) {
+            return writeAlias(((ResourceAlias) res).val);
+        } else if (res instanceof ResourceTable) {
+            return writeTable(res);
+        } else if (res instanceof ResourceArray) {
+            List<Resource> children = getChildren(res);
+            int[] items = new int[children.size()];
+            for (int i = 0; i < items.length; ++i) {
+                items[i] = writeResource(children.get(i));
+            }
+            int offset = position();
+            ensure((items.length + 1) * 4);
+            buffer.putInt(items.length);
+            for (int item : items) {
+                buffer.putInt(item);
+            }
+            return LDML2ICUBinaryWriter.URES_ARRAY << 28 | offset >>> 2;
+        } else if (res instanceof ResourceIntVector) {
+            List<Resource> children = getChildren(res);
+            int offset = position();
+            ensure((children.size() + 1) * 4);
+            buffer.putInt(children.size());
+            for (Resource child : children) {
+                buffer.putInt(parseInt(((ResourceInt) child).val));
+            }
+            return LDML2ICUBinaryWriter.URES_INT_VECTOR << 28 | offset >>> 2;
+        } else if (res instanceof ResourceBinary) {
+            byte[] data = ((ResourceBinary) res).data;
+            // the data itself is aligned to 16 bytes
+            while ((position() + 4) % ICUResourceWriter.BIN_ALIGNMENT != 0) {
+                putInt(0);
+            }
+            int offset = position();
+            ensure(data.length + 4);
+            buffer.putInt(data.length).put(data);
+            padTo(4);
+            return LDML2ICUBinaryWriter.URES_BINARY << 28 | offset >>> 2;
+        }
+        throw new IllegalArgumentException("Can't write " + res.getClass().getSimpleName() + " " + res.name
+            + " in a binary bundle");
+    }
+
+    private int writeTable(Resource table) {
+        List<Resource> children = getChildren(table);
+        // tables are looked up with a binary search on the keys
+        Collections.sort(children, (a, b) -> getKey(a).compareTo(getKey(b)));
+        int count = children.size();
+        int[] keys = new int[count];
+        int[] items = new int[count];
+        boolean is32Bit = count > 0xffff;
+        for (int i = 0; i < count; ++i) {
+            Resource child = children.get(i);
+            keys[i] = keyOffsets.get(getKey(child));
+            is32Bit |= keys[i] > 0xffff;
+            items[i] = writeResource(child);
+        }
+        int offset = position();
+        if (is32Bit) {
+            ensure((2 * count + 1) * 4);
+            buffer.putInt(count);
+            for (int key : keys) {
+                buffer.putInt(key);
+            }
+        } else {
+            ensure((count + 1) * 2);
+            buffer.putChar((char) count);
+            for (int key : keys) {
+                buffer.putChar((char) key);
+            }
+            padTo(4);
+        }
+        ensure(count * 4);
+        for (int item : items) {
+            buffer.putInt(item);
+        }
+        return (is32Bit ? LDML2ICUBinaryWriter.URES_TABLE32 : LDML2ICUBinaryWriter.URES_TABLE) << 28 | offset >>> 2;
+    }
+
+    /**
+     * Aliases are stored as in formatVersion 1: the length, the UTF-16 units, and a NUL.
+     */
+    private int writeAlias(String value) {
+        Integer result = aliasResources.get(value);
+        if (result == null) {
+            int offset = position();
+            ensure((value.length() + 3) * 2 + 4);
+            buffer.putInt(value.length());
+            for (int i = 0; i < value.length(); ++i) {
+                buffer.putChar(value.charAt(i));
+            }
+            buffer.putChar((char) 0);
+            padTo(4);
+            result = LDML2ICUBinaryWriter.URES_ALIAS << 28 | offset >>> 2;
+            aliasResources.put(value, result);
+        }
+        return result;
+    }
+
+    private void writeHeader() {
+        UDataInfo info;
+        try {
+            info = new UDataInfo(UDataInfo.getSize(), (short) 0, UDataInfo.BIGENDIAN, UDataInfo.ASCII_FAMILY,
+                UDataInfo.SIZE_OF_UCHAR, (byte) 0, DATA_FORMAT, FORMAT_VERSION, DATA_VERSION);
+        } catch (UDataInfo.IncorrectArrayLengthException e) {
+            throw new IllegalArgumentException(e);
+        }
+        buffer.putShort((short) HEADER_SIZE);
+        buffer.put((byte) 0xda).put((byte) 0x27);
+        buffer.put(info.getByteArray());
+        while (buffer.position() < HEADER_SIZE) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static List<Resource> getChildren(Resource res) {
+        List<Resource> result = new ArrayList<>();
+        for (Resource child = res.first; child != null; child = child.next) {
+            result.add(child);
+        }
+        return result;
+    }
+
+    /**
+     * Quotes are removed from keys and string values, as the earlier formatVersion 1 writer did.
+     */
+    private static String getKey(Resource res) {
+        return res.name.indexOf('"') >= 0 ? LDML2ICUBinaryWriter.removeQuotes(res.name) : res.name;
+    }
+
+    private static String getValue(ResourceString res) {
+        return res.val.indexOf('"') >= 0 ? LDML2ICUBinaryWriter.removeQuotes(res.val) : res.val;
+    }
+
+    private static int parseInt(String value) {
+        return Integer.parseInt(value.trim());
+    }
+
+    /* Positions are relative to the end of the header, as are the offsets in the bundle. */
+
+    private int position() {
+        return buffer.position() - HEADER_SIZE;
+    }
+
+    private void position(int position) {
+        ensure(position - position());
+        buffer.position(position + HEADER_SIZE);
+    }
+
+    private void putInt(int value) {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    private void putInt(int position, int value) {
+        buffer.putInt(position + HEADER_SIZE, value);
+    }
+
+    private void padTo(int alignment) {
+        while (position() % alignment != 0) {
+            ensure(1);
+            buffer.put((byte) 0);
+        }
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+}
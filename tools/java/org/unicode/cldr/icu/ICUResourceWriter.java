@@ -10,10 +10,7 @@
  */
 package org.unicode.cldr.icu;
 
-import java.io.FileOutputStream;
-import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
 
 import com.ibm.icu.text.UTF16;
 
@@ -41,7 +38,6 @@ public class ICUResourceWriter {
     private static final String INTVECTOR = "intvector";
     // private static final String ARRAYS = "array";
     private static final String LINESEP = System.getProperty("line.separator");
-    private static final String STRTERM = "\0";
 
     public static final int SIZE_OF_INT = 4;
     public static final int SIZE_OF_CHAR = 2;
@@ -52,10 +48,6 @@ public class ICUResourceWriter {
     public static final String DEPENDENCY = "dependency";
 
     public static final int BIN_ALIGNMENT = 16;
-    /**
-     * This integer is a count of ALL the resources in this tree (not including the root object)
-     */
-    public static int maxTableLength;
 
     public static class Resource {
         public class MalformedResourceError extends Error {
@@ -89,39 +81,10 @@ public class ICUResourceWriter {
          */
         public Resource first = null;
 
-        /**
-         * A counter for how many children there are below this object.
-         */
-        public int numChildren;
-
-        /**
-         * Stores how many bytes are used by the children of this object.
-         */
-        public int sizeOfChildren;
-
-        /**
-         * Stores how many bytes are used by this resource.
-         */
-        public int size;
-
-        /**
-         * This integer stores the number of bytes from the beginning of the "key string"
-         * this resources key starts. For more information see the comment in LDML2ICUBinaryWriter above
-         * the writeKeyString method.
-         */
-        public int keyStringOffset;
-
         public boolean hasKey = true;
 
         public boolean isTop = false;
 
-        /**
-         * This method will set the size of the resource. Overwritten for each child object
-         */
-        public void setSize() {
-            size = 0;
-        }
-
         public Resource() {
             isTop = false;
         }
@@ -252,13 +215,6 @@ public class ICUResourceWriter {
             }
         }
 
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            // should never get called
-            System.err.println("Unexpected type: " + this.getClass().toString());
-            System.err.println("Resource Name: " + this.name);
-            return usedOffset;
-        }
-
         public void write(OutputStream writer, String value) {
             try {
                 byte[] bytes = value.getBytes(CHARSET);
@@ -370,48 +326,6 @@ public class ICUResourceWriter {
             }
         }
 
-        /**
-         * Writes this object to the provided output stream in binary format. Copies formating from Genrb (in ICU4C
-         * tools.
-         *
-         * @param out
-         *            A File output stream which has already been set up to write to.
-         */
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            byte[] valLenBytes;
-            byte[] valBytes;
-            byte[] padding;
-
-            valLenBytes = intToBytes(val.length());
-
-            try {
-                valBytes = (val + STRTERM).getBytes(LDML2ICUBinaryWriter.CHARSET16);
-                padding = create32Padding(valBytes.length);
-                out.write(valLenBytes);
-                LDML2ICUBinaryWriter.written += valLenBytes.length;
-
-                out.write(valBytes);
-                LDML2ICUBinaryWriter.written += valBytes.length;
-
-                if (padding != null) {
-                    out.write(padding);
-                    LDML2ICUBinaryWriter.written += padding.length;
-                }
-
-            } catch (UnsupportedEncodingException e) {
-                errUnsupportedEncoding();
-            } catch (IOException e) {
-                errIO();
-            }
-            return usedOffset;
-        }
-
-        @Override
-        public void setSize() {
-            // a pointer + the string
-            size = SIZE_OF_INT + ((val.length() + 1) * SIZE_OF_CHAR);
-        }
     }
 
     public static class ResourceArray extends Resource {
@@ -453,112 +367,6 @@ public class ICUResourceWriter {
             }
         }
 
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            int count = 0;
-            int[] resources = new int[numChildren];
-            byte[] resourceBytes;
-            Resource current = this.first;
-
-            // if there are items in the array
-            if (current != null) {
-                // start at the first one and loop
-                while (current != null) {
-                    // if it's an int: resources[i] = (current->fType << 28) | (current->u.fIntValue.fValue &
-                    // 0xFFFFFFF);
-                    if (current instanceof ResourceInt) {
-                        int value = 0;
-
-                        try {
-                            value = Integer.parseInt(((ResourceInt) current).val);
-                        } catch (NumberFormatException e) {
-                            System.err.println("Error converting string to int: " + e.getMessage());
-                            System.exit(1);
-                        }
-                        resources[count] = LDML2ICUBinaryWriter.URES_INT << 28 | (value & 0xFFFFFFF);
-                    } else {
-                        // write the current object
-                        usedOffset = current.writeBinary(out, usedOffset);
-
-                        // write 32 bits for identification?
-                        if (current instanceof ResourceString) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_STRING << 28 | usedOffset >>> 2;
-                        } else if (current instanceof ResourceTable) {
-                            if (((ResourceTable) current).is32Bit()) {
-                                resources[count] = LDML2ICUBinaryWriter.URES_TABLE32 << 28 | usedOffset >>> 2;
-                            } else {
-                                resources[count] = LDML2ICUBinaryWriter.URES_TABLE << 28 | usedOffset >>> 2;
-                            }
-
-                        } else if (current instanceof ResourceAlias) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_ALIAS << 28 | usedOffset >>> 2;
-                        } else if (current instanceof ResourceArray) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_ARRAY << 28 | usedOffset >>> 2;
-                        } else if (current instanceof ResourceIntVector) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_INT_VECTOR << 28 | usedOffset >>> 2;
-                        }
-
-                        usedOffset += current.size + pad32(current.size);
-                    }
-                    count++;
-                    current = current.next;
-                }
-
-                // convert the resource array into the resourceBytes
-                resourceBytes = intArrayToBytes(resources);
-
-                try {
-                    // write the array count (int32)
-                    out.write(intToBytes(count));
-                    LDML2ICUBinaryWriter.written += intToBytes(count).length;
-
-                    // write the resources array...should be size of int32 * array count
-                    out.write(resourceBytes);
-                    LDML2ICUBinaryWriter.written += resourceBytes.length;
-                } catch (IOException e) {
-                    errIO();
-                }
-
-            } else // Empty array
-            {
-                try {
-                    out.write(intToBytes(0));
-                    LDML2ICUBinaryWriter.written += intToBytes(0).length;
-                } catch (IOException e) {
-                    errIO();
-                }
-            }
-            return usedOffset;
-
-        }
-
-        /**
-         * This method will set the size of the resource.
-         */
-        @Override
-        public void setSize() {
-            // Arrays have children.
-            int x = 0;
-            Resource current = this.first;
-
-            this.sizeOfChildren = 0;
-
-            while (current != null) {
-                x++;
-
-                this.sizeOfChildren += current.size + pad32(current.size);
-
-                if (current instanceof ResourceTable || current instanceof ResourceArray) {
-                    this.sizeOfChildren += current.sizeOfChildren;
-                }
-
-                current = current.next;
-            }
-
-            // pointer to the key + pointer to each member
-            size = SIZE_OF_INT + (x * SIZE_OF_INT);
-
-        }
     }
 
     public static class ResourceInt extends Resource {
@@ -579,19 +387,6 @@ public class ICUResourceWriter {
             }
         }
 
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            return usedOffset;
-        }
-
-        /**
-         * This method will set the size of the resource. Overwritten for each child object
-         */
-        @Override
-        public void setSize() {
-            size = 0;
-
-        }
     }
 
     public static class ResourceIntVector extends Resource {
@@ -620,50 +415,6 @@ public class ICUResourceWriter {
             write(writer, CLOSEBRACE + LINESEP);
         }
 
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            int count = 0;
-            int[] numbers = new int[numChildren];
-            byte[] numBytes;
-            Resource current = this.first;
-
-            while (current != null) {
-                numbers[count] = Integer.parseInt(((ResourceInt) current).val);
-                count++;
-                current = current.next;
-            }
-
-            numBytes = intArrayToBytes(numbers);
-
-            try {
-                out.write(intToBytes(count));
-                LDML2ICUBinaryWriter.written += intToBytes(count).length;
-
-                out.write(numBytes);
-                LDML2ICUBinaryWriter.written += numBytes.length;
-            } catch (IOException e) {
-                errIO();
-            }
-            return usedOffset;
-        }
-
-        /**
-         * This method will set the size of the resource. Overwritten for each child object
-         */
-        @Override
-        public void setSize() {
-            // has children
-            int x = 0;
-            Resource current = this.first;
-
-            while (current != null) {
-                x++;
-                current = current.next;
-            }
-
-            // this resources key offset + each int
-            size = SIZE_OF_INT + (x * SIZE_OF_INT);
-        }
     }
 
     public static class ResourceString extends Resource {
@@ -767,52 +518,6 @@ public class ICUResourceWriter {
             }
         }
 
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-
-            // clean up quotes if any
-            if (this.val.indexOf("\"") >= 0) {
-                this.val = LDML2ICUBinaryWriter.removeQuotes(this.val);
-            }
-
-            String valPlusTerm = val + STRTERM;
-            byte[] valBytes;
-            byte[] valLenBytes;
-            byte[] padding;
-
-            valLenBytes = intToBytes(val.length());
-
-            try {
-                valBytes = valPlusTerm.getBytes(LDML2ICUBinaryWriter.CHARSET16);
-                padding = create32Padding(valBytes.length);
-                out.write(valLenBytes); // 32 bit int
-                LDML2ICUBinaryWriter.written += valLenBytes.length;
-
-                out.write(valBytes); // The string plus a null terminator
-                LDML2ICUBinaryWriter.written += valBytes.length;
-
-                if (padding != null) {
-                    out.write(padding);
-                    LDML2ICUBinaryWriter.written += padding.length;
-                }
-            } catch (UnsupportedEncodingException e) {
-                System.err.print("Problems converting string resource to " + LDML2ICUBinaryWriter.CHARSET16);
-                System.exit(1);
-            } catch (IOException e) {
-                System.err.print("Problems writing the string resource to file.");
-                System.exit(1);
-            }
-            return usedOffset;
-        }
-
-        /**
-         * This method will set the size of the resource. Overwritten for each child object
-         */
-        @Override
-        public void setSize() {
-            // a pointer to the key + a string
-            size = SIZE_OF_INT + (SIZE_OF_CHAR * (val.length() + 1));
-        }
     }
 
     public static class ResourceTable extends Resource {
@@ -885,182 +590,6 @@ public class ICUResourceWriter {
 
         } // end sort()
 
-        public boolean is32Bit() {
-            Resource current = this.first;
-            boolean mustBe32 = false;
-
-            while (current != null) {
-                if (current.keyStringOffset > 0xFFFF) {
-                    mustBe32 = true;
-                }
-                current = current.next;
-            }
-            return mustBe32;
-        }
-
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            int count = 0;
-            int pad;
-            Resource current = this.first;
-            int[] resources = new int[numChildren];
-            short[] keys16 = null;
-            int[] keys32 = null;
-            boolean is32Bit = this.is32Bit();
-            byte[] padding;
-
-            if (is32Bit) {
-                keys32 = new int[numChildren];
-            } else {
-                keys16 = new short[numChildren];
-            }
-
-            // if the table has objects in it
-            if (current != null) {
-
-                // loop through them all
-                while (current != null) {
-                    // get the key ptr for current (size depends on table size, store in array
-                    if (is32Bit) {
-                        keys32[count] = current.keyStringOffset;
-                    } else {
-                        keys16[count] = (short) current.keyStringOffset;
-                    }
-
-                    // if INT
-                    if (current instanceof ResourceInt) {
-                        // resources[i] = (current->fType << 28) | (current->u.fIntValue.fValue & 0xFFFFFFF);
-                        int value = 0;
-
-                        try {
-                            value = Integer.parseInt(((ResourceInt) current).val);
-                        } catch (NumberFormatException e) {
-                            System.err.println("Error converting string to int: " + e.getMessage());
-                            System.exit(1);
-                        }
-                        resources[count] = LDML2ICUBinaryWriter.URES_INT << 28 | (value & 0xFFFFFFF);
-
-                    } else {
-                        // write the current object
-                        usedOffset = current.writeBinary(out, usedOffset);
-
-                        // write 32 bits for identification?
-                        if (current instanceof ResourceString) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_STRING << 28 | usedOffset >>> 2;
-                        } else if (current instanceof ResourceTable) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_TABLE << 28 | usedOffset >>> 2;
-                        } else if (current instanceof ResourceAlias) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_ALIAS << 28 | usedOffset >>> 2;
-                        } else if (current instanceof ResourceArray) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_ARRAY << 28 | usedOffset >>> 2;
-                        } else if (current instanceof ResourceIntVector) {
-                            resources[count] = LDML2ICUBinaryWriter.URES_INT_VECTOR << 28 | usedOffset >>> 2;
-                        }
-
-                        usedOffset += current.size + pad32(current.size);
-                    }
-                    count++;
-                    current = current.next;
-                }
-
-                // write the member count and the key offsets
-                if (is32Bit) {
-                    try {
-                        // write a 32 bit block with the number of items in this table
-                        out.write(intToBytes(count));
-                        LDML2ICUBinaryWriter.written += intToBytes(count).length;
-
-                        // write all the 32 bit keys which were added to the array.
-                        out.write(intArrayToBytes(keys32));
-                        LDML2ICUBinaryWriter.written += intArrayToBytes(keys32).length;
-
-                        out.write(intArrayToBytes(resources));
-                        LDML2ICUBinaryWriter.written += intArrayToBytes(resources).length;
-                    } catch (IOException e) {
-                        errIO();
-                    }
-
-                } else {
-                    try {
-                        // write 2 byte block with the number of items in this table
-                        out.write(shortToBytes((short) count));
-                        LDML2ICUBinaryWriter.written += shortToBytes((short) count).length;
-
-                        // write all the 2 byte keys which were added to an array
-                        out.write(shortArrayToBytes(keys16));
-                        LDML2ICUBinaryWriter.written += shortArrayToBytes(keys16).length;
-
-                        pad = pad32(this.size);
-                        padding = createPadding(pad);
-                        if (padding != null) {
-                            out.write(padding);
-                            LDML2ICUBinaryWriter.written += padding.length;
-                        }
-
-                        out.write(intArrayToBytes(resources));
-                        LDML2ICUBinaryWriter.written += intArrayToBytes(resources).length;
-
-                    } catch (IOException e) {
-                        errIO();
-                    }
-
-                }
-            } else // else (the table is empty)
-            {
-                short zero = 0;
-
-                // We'll write it as a 16 bit table, because it's empty...
-                try {
-                    // write a 16 bit zero.
-                    out.write(shortToBytes(zero));
-                    LDML2ICUBinaryWriter.written += shortToBytes(zero).length;
-
-                    // pad it
-                    padding = createPadding(pad16Bytes(2));
-                    if (padding != null) {
-                        out.write(padding);
-                        LDML2ICUBinaryWriter.written += padding.length;
-                    }
-
-                } catch (IOException e) {
-                    errIO();
-                }
-            }
-            return usedOffset;
-        }
-
-        /**
-         * This method will set the size of the resource. Overwritten for each child object
-         */
-        @Override
-        public void setSize() {
-            // Tables have children.
-            int x = 0;
-            Resource current = this.first;
-            this.sizeOfChildren = 0;
-            while (current != null) {
-                x++;
-                this.sizeOfChildren += current.size + pad32(current.size);
-
-                if (current instanceof ResourceTable || current instanceof ResourceArray) {
-                    this.sizeOfChildren += current.sizeOfChildren;
-                }
-
-                current = current.next;
-            }
-
-            if (x > maxTableLength) {
-                maxTableLength = x;
-            }
-
-            if (this.is32Bit()) {
-                // this resources key offset + a key offset for each child + a pointer to their resource object.
-                size = SIZE_OF_INT + (x * 2 * SIZE_OF_INT);
-            } else {
-                // this resources key offset + a pointer to each childs resource + a 16 bit pointer to each childs key
-                size = SIZE_OF_INT / 2 + (x * (SIZE_OF_INT + (SIZE_OF_INT / 2)));
-            }
-        }
     }
 
     /* Currently there is nothing in LDML which converts to a Binary resource. So this type is currently unused. */
@@ -1084,42 +613,6 @@ public class ICUResourceWriter {
             }
         }
 
-        @Override
-        public void setSize() {
-            // sizeof(int32_t) + sizeof(uint8_t) * length + BIN_ALIGNMENT;
-            size = SIZE_OF_INT + data.length + BIN_ALIGNMENT;
-        }
-
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            int pad = 0;
-            int extrapad = pad32(this.size);
-            int dataStart = usedOffset + SIZE_OF_INT;
-
-            try {
-
-                // write some padding
-                if (dataStart % BIN_ALIGNMENT != 0) {
-                    pad = (BIN_ALIGNMENT - (dataStart % BIN_ALIGNMENT));
-                    out.write(createPadding(pad));
-                    usedOffset += pad;
-                }
-
-                // write the length of the data
-                out.write(intToBytes(data.length));
-
-                // if there is data, write it
-                if (data.length > 0) {
-                    out.write(data);
-                }
-
-                // write some more padding
-                out.write(createPadding(BIN_ALIGNMENT - pad + extrapad));
-            } catch (Exception e) {
-                System.err.println("Had problems writing Binary Resource");
-            }
-            return usedOffset;
-        }
     }
 
     public static class ResourceProcess extends Resource {
@@ -1142,19 +635,6 @@ public class ICUResourceWriter {
             }
         }
 
-        @Override
-        public int writeBinary(FileOutputStream out, int usedOffset) {
-            if (this.name.equals("depends")) {
-
-            } else {
-
-                // should never get called
-                System.err.println("Unexpected type: " + this.getClass().toString());
-                System.err.println("Resource Name: " + this.name);
-                return usedOffset;
-            }
-            return usedOffset;
-        }
     }
 
     public static class ResourceImport extends Resource {
@@ -1212,109 +692,4 @@ public class ICUResourceWriter {
         return new ResourceString(name, val);
     }
 
-    private static int pad32(int x) {
-        return ((x % SIZE_OF_INT) == 0) ? 0 : (SIZE_OF_INT - (x % SIZE_OF_INT));
-    }
-
-    private static byte[] create32Padding(int x) {
-        byte[] b = new byte[pad32(x)];
-        if (pad32(x) == 0) {
-            return null;
-        }
-
-        for (int z = 0; z < b.length; z++) {
-            b[z] = 0;
-        }
-        return b;
-    }
-
-    private static int pad16Bytes(int x) {
-        return ((x % 16) == 0) ? 0 : (16 - (x % 16));
-    }
-
-    /**
-     * Takes a 32 bit integer and returns an array of 4 bytes.
-     *
-     */
-    private static byte[] intToBytes(int x) {
-        byte[] b = new byte[4];
-        b[3] = (byte) (x); // just the last byte
-
-        x = x >>> 8; // shift each byte over one spot.
-        b[2] = (byte) (x); // just the last byte
-
-        x = x >>> 8; // shift each byte over one spot.
-        b[1] = (byte) (x); // just the last byte
-
-        x = x >>> 8; // shift each byte over one spot.
-        b[0] = (byte) (x); // just the last byte
-
-        return b;
-    }
-
-    /**
-     * Takes an array of integers and returns a byte array of the memory representation.
-     *
-     * @param x
-     * @return
-     */
-    private static byte[] intArrayToBytes(int[] x) {
-        byte[] b = new byte[x.length * 4];
-        byte[] temp;
-        int i, z;
-
-        for (i = 0; i < x.length; i++) {
-            temp = intToBytes(x[i]);
-            for (z = 0; z < temp.length; z++) {
-                b[i * temp.length + z] = temp[z];
-            }
-        }
-        return b;
-    }
-
-    private static byte[] shortArrayToBytes(short[] x) {
-        byte[] b = new byte[x.length * 2];
-        byte[] temp;
-        int i, z;
-
-        for (i = 0; i < x.length; i++) {
-            temp = shortToBytes(x[i]);
-            for (z = 0; z < temp.length; z++) {
-                b[i * temp.length + z] = temp[z];
-            }
-        }
-        return b;
-    }
-
-    private static byte[] shortToBytes(short x) {
-        byte[] b = new byte[2];
-        b[1] = (byte) (x); // bitwise AND with the lower byte
-        b[0] = (byte) (x >>> 8); // shift four bits to the right and fill with zeros, and then bitwise and with the
-        // lower byte
-        return b;
-    }
-
-    private static void errUnsupportedEncoding() {
-        System.err.print("Unsupported Encoding");
-        System.exit(1);
-    }
-
-    private static void errIO() {
-        System.err.print("An error occured while writing to file.");
-        System.exit(1);
-    }
-
-    private static byte[] createPadding(int length) {
-        byte x = (byte) 0x00;
-        byte[] b = new byte[length];
-        if (length == 0) {
-            return null;
-        }
-        for (int z = 0; z < b.length; z++) {
-            b[z] = x;
-        }
-
-        return b;
-    }
-
 }
@@ -8,8 +8,6 @@
 package org.unicode.cldr.icu;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Hashtable;
 
@@ -25,47 +23,12 @@ import com.ibm.icu.text.UTF16;
  *
  */
 public class LDML2ICUBinaryWriter {
-    /**
-     * This string is the copyright to be written into the file.
-     * In the C version, can be found in <I>icu4c_root</I>/source/common/unicode/uversion.h
-     */
-    private static final String COPYRIGHT = " Copyright (C) 2012, International Business Machines Corporation and others. All Rights Reserved. ";
-
-    public static int written = 0;
-
-    /**
-     * Magic numbers!!!!
-     */
-    private static final byte MAGIC1 = (byte) 0xda;
-    private static final byte MAGIC2 = 0x27;
-
-    private static boolean INCLUDE_COPYRIGHT = false;
-    /**
-     * The number of bytes it takes to write magic number 1.
-     */
-    private static final short BYTES_TAKEN_BY_MAGIC1 = 1;
-
-    /**
-     * The number of bytes it takes to write magic number 2;
-     */
-    private static final short BYTES_TAKEN_BY_MAGIC2 = 1;
-
-    /**
-     * The number of bytes that it takes to write the size of the header.
-     */
-    private static final short BYTES_TAKEN_BY_HEADER_SIZE = 2;
-
     /**
      * The charsets to be used when encoding strings.
      */
     public static final String CHARSET8 = "UTF-8";
     public static final String CHARSET16 = "UTF-16BE";
 
-    /**
-     * The number of bytes that each character takes up. This is dependant on the encoding (see CHARSET above).
-     */
-    private static final int BYTES_PER_UTF8_CHAR = 1;
-
     /**
      * Numeric constants for special elements.
      */
@@ -138,26 +101,6 @@ public class LDML2ICUBinaryWriter {
 
     public static final int URES_LIMIT = 16;
 
-    /*
-     * The enum below is ported from C. See uresdata.h
-     *
-     * It is used as index references for the array which will be written.
-     */
-    /* [0] contains URES_INDEX_TOP==the length of indexes[] */
-    private static final int URES_INDEX_LENGTH = 0;
-    /* [1] contains the top of the strings, same as the bottom of resources, rounded up */
-    private static final int URES_INDEX_STRINGS_TOP = 1;
-    /* [2] contains the top of all resources */
-    private static final int URES_INDEX_RESOURCES_TOP = 2;
-    /* [3] contains the top of the bundle, in case it were ever different from [2] */
-    private static final int URES_INDEX_BUNDLE_TOP = 3;
-    /* [4] max. length of any table */
-    private static final int URES_INDEX_MAX_TABLE_LENGTH = 4;
-    /* [5] attributes bit set, see URES_ATT_* (new in formatVersion 1.2) */
-    // private static final int URES_INDEX_ATTRIBUTES = 5;
-    /* This one is the length of the array */
-    private static final int URES_INDEX_TOP = 6;
-
     // must be set if writing transliteration
     private static Hashtable<String, String> ruleStringsHash = null;
 
@@ -167,7 +110,8 @@ public class LDML2ICUBinaryWriter {
 
     /**
      * This method is called upon the top of an ICUResourceWriter.Resource
-     * in order to write the whole Resource tree into binary format.
+     * in order to write the whole Resource tree into binary format, using
+     * ICUResourceBinaryWriter (formatVersion 2).
      *
      * @param resTop
      *            The top of the resource tree that you would like written to file. This
@@ -179,107 +123,40 @@ public class LDML2ICUBinaryWriter {
      *            (ex: .txt) this method will strip that extention and replace with .res.
      */
     public static void writeBinaryFile(ICUResourceWriter.Resource resTop, String outDir, String outFile) {
-        String fileName = "";
-        int usedOffset = 0;
-        String directoryPath = "";
-        FileOutputStream out;
-        UDataInfo info;
-        byte[] dataFormat;
-        byte[] formatVersion;
-        byte[] dataVersion;
-        byte[] padding;
-
-        // Do some checks on the file name
-        // if it has a period in it...get rid of everything after the period
-        if (outFile.indexOf('.') > -1) {
-            fileName = outFile.substring(0, outFile.indexOf('.'));
-            if (fileName.length() == 0) {
-                printError(outFile + " is not a valid file name.");
-                System.exit(1);
-            }
-            fileName = fileName + ".res";
-        } else {
-            fileName = outFile + ".res";
-        }
-        // add the .res part to the file name
-
-        // do some checks on the directory path
-        // replace all backslashes with forward slashes
-        directoryPath = outDir.replace('\\', '/');
-
-        // if the path does not end in a slash, then we'll add one
-        if (directoryPath.charAt(directoryPath.length() - 1) != '/') {
-            directoryPath = directoryPath + "/";
-        }
-
-        // create UDataInfo
-        // Data format is "ResB"
-        dataFormat = new byte[4];
-        dataFormat[0] = 0x52; // R
-        dataFormat[1] = 0x65; // e
-        dataFormat[2] = 0x73; // s
-        dataFormat[3] = 0x42; // B
-
-        // Format version is 1.2.0.0
-        formatVersion = new byte[4];
-        formatVersion[0] = 1;
-        formatVersion[1] = 2;
-        formatVersion[2] = 0;
-        formatVersion[3] = 0;
-
-        // data version is 1.4.0.0
-        dataVersion = new byte[4];
-        dataVersion[0] = 1;
-        dataVersion[1] = 4;
-        dataVersion[2] = 0;
-        dataVersion[3] = 0;
-
-        // now that the file and directory name are formatted, lets try to create an output stream
+        File f = new File(outDir, getResFileName(outFile));
         try {
-            System.out.println("Creating file: " + directoryPath + fileName);
-            File f = new File(directoryPath, fileName);
-            out = new FileOutputStream(f);
-
-            info = new UDataInfo(UDataInfo.getSize(), (short) 0, UDataInfo.BIGENDIAN, UDataInfo.ASCII_FAMILY,
-                UDataInfo.SIZE_OF_UCHAR, (byte) 0, dataFormat, formatVersion, dataVersion);
+            System.out.println("Creating file: " + f);
 
             // this method goes through the tree and looks for a table named CollationElements or Collations, and adds
-            // the
-            // appropriate data to the tree
+            // the appropriate data to the tree
             dealWithSpecialElements(resTop, outDir);
 
-            // before we do anything with the resources, sort them
-            resTop.sort();
-
-            // call writeBinaryHeader.
-            writeBinaryHeader(out, info, COPYRIGHT);
-
-            usedOffset = writeKeyString(out, resTop);
-
-            // Call writeBinary on the top of the Resource tree
-
-            usedOffset = resTop.writeBinary(out, usedOffset);
-            padding = createPadding(pad32(usedOffset));
-            if (padding != null) {
-                out.write(padding);
-                written += padding.length;
-            }
-            out.close();
+            ICUResourceBinaryWriter.write(resTop, f);
             System.out.println("Finished writing binary.");
-        } catch (FileNotFoundException e) {
-            printError(directoryPath + fileName + " could not be opened, please ensure the correct path is given.");
-            e.printStackTrace();
-            System.exit(1);
         } catch (SecurityException e) {
-            printError("access denied: " + directoryPath + fileName);
+            printError("access denied: " + f);
             e.printStackTrace();
             System.exit(1);
-        } catch (Exception e) {
-            printError(e.getMessage());
+        } catch (IOException e) {
+            printError(f + " could not be written, please ensure the correct path is given. " + e.getMessage());
+            e.printStackTrace();
             System.exit(1);
         }
     }
 
+    private static String getResFileName(String outFile) {
+        // if it has a period in it...get rid of everything after the period
+        if (outFile.indexOf('.') > -1) {
+            String fileName = outFile.substring(0, outFile.indexOf('.'));
+            if (fileName.length() == 0) {
+                printError(outFile + " is not a valid file name.");
+                System.exit(1);
+            }
+            return fileName + ".res";
+        }
+        return outFile + ".res";
+    }
+
     private static int getSpecialType(ICUResourceWriter.Resource res) {
         if (!res.hasKey) {
             return SPECIAL_NONE;
@@ -640,309 +517,6 @@ public class LDML2ICUBinaryWriter {
         }
     }
 
-    /**
-     * Write the header section of the file. This section of the file currently contains:<br>
-     * -A 2 byte number containing the length (in bytes) of the header.<br>
-     * -Two "magic numbers" each 1 byte in size.<br>
-     * -The UDataInfo structure
-     * -The null terminated copyright string (if it should be written)
-     *
-     * @param out
-     * @param info
-     * @param copyright
-     */
-    private static void writeBinaryHeader(FileOutputStream out, UDataInfo info, String copyright) {
-        short headSize = 0;
-        byte[] magics = new byte[2];
-        int pad = 0;
-        byte[] padding;
-        /*
-         * The header includes a 2 byte number containing the size of the header,
-         * two magic numbers each 1 byte in size, the UDataInfo structure, and the
-         * copyright plus null terminator. Subject to change.
-         */
-        headSize += info.size + BYTES_TAKEN_BY_HEADER_SIZE + BYTES_TAKEN_BY_MAGIC1 + BYTES_TAKEN_BY_MAGIC2;
-        if (copyright != null && INCLUDE_COPYRIGHT) {
-            headSize += copyright.length() + 1;
-        }
-        if ((pad = pad16Bytes(headSize)) != 0) {
-            headSize += pad;
-        }
-
-        magics[0] = MAGIC1;
-        magics[1] = MAGIC2;
-
-        try {
-            // write the size of the header
-            out.write(shortToBytes(headSize));
-            written += (shortToBytes(headSize)).length;
-
-            // write the two magic numbers
-            out.write(magics);
-            written += magics.length;
-
-            // write the UDataInfo structure
-            out.write(info.getByteArray());
-            written += info.getByteArray().length;
-
-            // write the copyright and null terminating byte(s) if writing it
-            if (copyright != null && INCLUDE_COPYRIGHT) {
-                out.write((copyright + "\0").getBytes(CHARSET8));
-                written += ((copyright + "\0").getBytes(CHARSET8)).length;
-
-            }
-
-            if (pad != 0) {
-                padding = new byte[pad];
-                for (int i = 0; i < padding.length; i++) {
-                    padding[i] = 0;
-                }
-                out.write(padding);
-                written += padding.length;
-            }
-
-        } catch (IOException e) {
-            printError(e.getMessage());
-            e.printStackTrace();
-            System.exit(1);
-        }
-    }
-
-    /**
-     * Write some information about the key string and then write a chunk of bytes which mirrors the
-     * SRBRoot->fkeys character buffer. This will be a list of null
-     * terminated strings. Each string pertains to a certain resource. This method also modifies the resources in
-     * 'resTop' by setting the keyStringOffset variable. The keyStringOffset variable is the number of bytes from
-     * the start of the key string that the resources key starts. For example:
-     *
-     * <p>
-     * In the 'en_PK' locale, you may have a Table resource with the key "Version." The Table contains a string resource
-     * with the key "1.31."
-     * </p>
-     * <p>
-     * If this were the whole of the locale data, the key string would be an encoded version of this:
-     * </p>
-     *
-     * "Version\01.31\0"
-     *
-     * <br>
-     * <br>
-     * In UTF-16 encoding, each character will take 2 bytes. <br>
-     * keyStringOffset for the table object would be 0. <br>
-     * keyStringOffset for the string resource would be = "Version".length() + 2 = 16
-     *
-     *
-     * @param out
-     *            The output stream to write this to.
-     * @param resTop
-     *            The top of the resource tree whose keys shall be written
-     */
-    private static int writeKeyString(FileOutputStream out, ICUResourceWriter.Resource resTop) {
-        String keyList = "";
-        byte[] padding = null;
-        int padBytes = 0;
-        int end;
-        int root;
-        byte[] rootBytes;
-        int[] indexes = new int[URES_INDEX_TOP];
-        byte[] indexBytes = new byte[URES_INDEX_TOP * 4];
-        byte[] keyBytes;
-        int usedOffset;
-        int sizeOfIndexes;
-        int sizeOfIndexesAndKeys;
-        int tableID;
-
-        // set flag so that we know which resource is the top of the tree
-        resTop.isTop = true;
-
-        sizeOfIndexes = (1 + URES_INDEX_TOP) * ICUResourceWriter.SIZE_OF_INT;
-
-        usedOffset = sizeOfIndexes;
-
-        // Build the String of keys
-        keyList = buildKeyList(keyList, resTop, usedOffset);
-
-        sizeOfIndexesAndKeys = sizeOfIndexes + keyList.length();
-        usedOffset = sizeOfIndexesAndKeys + pad32(sizeOfIndexesAndKeys);
-
-        end = sizeOfIndexesAndKeys + resTop.sizeOfChildren;
-
-        // if it is not 16 byte aligned
-        if ((padBytes = pad32(sizeOfIndexesAndKeys)) != 0) {
-            padding = createPadding(padBytes);
-            if (padding != null) {
-                usedOffset += padding.length;
-                end += padding.length;
-            }
-
-        }
-
-        // build a set of 32 bits (in C this variable is called 'root' in reslist.c)
-        // the number of bytes included in the keyList, keyList padding, all the children
-
-        if (((ICUResourceWriter.ResourceTable) resTop).is32Bit()) {
-            tableID = (URES_TABLE32 << 28);
-        } else {
-            tableID = (URES_TABLE << 28);
-        }
-        root = (end >>> 2) | (tableID);
-
-        rootBytes = intToBytes(root);
-
-        end += resTop.size;
-
-        end += pad32(end);
-
-        indexes[URES_INDEX_LENGTH] = URES_INDEX_TOP;
-        indexes[URES_INDEX_STRINGS_TOP] = usedOffset >>> 2;
-        indexes[URES_INDEX_RESOURCES_TOP] = (end) >> 2;
-        indexes[URES_INDEX_BUNDLE_TOP] = indexes[URES_INDEX_RESOURCES_TOP];
-        indexes[URES_INDEX_MAX_TABLE_LENGTH] = ICUResourceWriter.maxTableLength;
-
-        indexBytes = intArrayToBytes(indexes);
-
-        try {
-            // write the "root" object
-            out.write(rootBytes);
-            written += rootBytes.length;
-
-            // write the indexes array
-            out.write(indexBytes);
-            written += indexBytes.length;
-
-            // write the keyList and padding if nessicary
-            keyBytes = keyList.getBytes(CHARSET8);
-            out.write(keyBytes);
-            written += keyBytes.length;
-
-            if (padding != null) {
-                out.write(padding);
-                written += padding.length;
-            }
-        } catch (IOException e) {
-            printError("Could not write key string to file. " + e.getMessage());
-            System.exit(1);
-        }
-
-        return usedOffset;
-    }
-
-    /**
-     * Recursively go through the whole tree and continue to add to the keyList. As this is done,
-     * set the keyStringOffset, numChildren, sizeOfChildren, and size variables.
-     *
-     * @param keyList
-     *            The current string of keys.
-     * @param resTop
-     *            The resource whose keys shall be written to the keyList.
-     * @return
-     */
-    private static String buildKeyList(String keyList, ICUResourceWriter.Resource resTop, int usedOffset) {
-        ICUResourceWriter.Resource current = resTop.first;
-        int x = 0;
-
-        // add this resources key to the list unless it is the top resource or doesn't have a key
-        if (!resTop.isTop && resTop.hasKey) {
-            // clean up quotes if any
-            if (resTop.name.indexOf("\"") >= 0) {
-                resTop.name = removeQuotes(resTop.name);
-            }
-            // set the keyStringOffset
-            resTop.keyStringOffset = usedOffset + (keyList.length() * BYTES_PER_UTF8_CHAR);
-            keyList += (resTop.name + "\0");
-
-        }
-
-        // if it has children, call this method on them too
-        while (current != null) {
-            if (resTop instanceof ICUResourceWriter.ResourceArray
-                || resTop instanceof ICUResourceWriter.ResourceIntVector) {
-                current.hasKey = false;
-            }
-
-            keyList = buildKeyList(keyList, current, usedOffset);
-            x++;
-
-            // add the size of the current child to the parents sizeOfChildren
-
-            current = current.next;
-        }
-
-        // set the size of this object
-        resTop.setSize();
-
-        resTop.numChildren = x;
-        return keyList;
-    }
-
-    /**
-     * Takes a 16 bit number and returns a two byte array. 0th element is lower byte, 1st element is upper byte.
-     * Ex: x = 28,000. In binary: 0110 1101 0110 0000. This method will return:
-     * [0] = 0110 0000 or 0x60
-     * [1] = 0110 1101 or 0x6D
-     */
-    private static byte[] shortToBytes(short x) {
-        byte[] b = new byte[2];
-        b[1] = (byte) (x); // bitwise AND with the lower byte
-        b[0] = (byte) (x >>> 8); // shift four bits to the right and fill with zeros, and then bitwise and with the
-        // lower byte
-        return b;
-    }
-
-    /**
-     * Takes a 32 bit integer and returns an array of 4 bytes.
-     *
-     */
-    private static byte[] intToBytes(int x) {
-        byte[] b = new byte[4];
-        b[3] = (byte) (x); // just the last byte
-
-        x = x >>> 8; // shift each byte over one spot.
-        b[2] = (byte) (x); // just the last byte
-
-        x = x >>> 8; // shift each byte over one spot.
-        b[1] = (byte) (x); // just the last byte
-
-        x = x >>> 8; // shift each byte over one spot.
-        b[0] = (byte) (x); // just the last byte
-
-        return b;
-    }
-
-    /**
-     * Takes an array of integers and returns a byte array of the memory representation.
-     *
-     * @param x
-     * @return
-     */
-    private static byte[] intArrayToBytes(int[] x) {
-        byte[] b = new byte[x.length * 4];
-        byte[] temp;
-        int i, z;
-
-        for (i = 0; i < x.length; i++) {
-            temp = intToBytes(x[i]);
-            for (z = 0; z < 4; z++) {
-                b[(i * 4) + z] = temp[z];
-            }
-        }
-        return b;
-    }
-
-    /**
-     * calculate the padding to make things align with 32 bits (aka 4 bytes)
-     *
-     * @param x
-     * @return
-     */
-    private static int pad32(int x) {
-        return ((x % 4) == 0) ? 0 : (4 - (x % 4));
-    }
-
-    private static int pad16Bytes(int x) {
-        return ((x % 16) == 0) ? 0 : (16 - (x % 16));
-    }
-
     /**
      * for printing errors.
      */
@@ -951,19 +525,6 @@ public class LDML2ICUBinaryWriter {
         System.err.println("LDML2ICUBinaryWriter : ERROR : " + message);
     }
 
-    private static byte[] createPadding(int length) {
-        byte x = (byte) 0x00;
-        byte[] b = new byte[length];
-        if (length == 0) {
-            return null;
-        }
-        for (int z = 0; z < b.length; z++) {
-            b[z] = x;
-        }
-
-        return b;
-    }
-
     public static String removeQuotes(String s) {
         String temp = s;
         String temp2;
@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.text.ParsePosition;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -19,6 +21,10 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,6 +41,7 @@ import org.unicode.cldr.util.Level;
 import org.unicode.cldr.util.PathHeader;
 import org.unicode.cldr.util.PathHeader.SurveyToolStatus;
 import org.unicode.cldr.util.PatternCache;
+import org.unicode.cldr.util.RecordingCLDRFile;
 import org.unicode.cldr.util.RegexFileParser;
 import org.unicode.cldr.util.RegexFileParser.RegexLineParser;
 import org.unicode.cldr.util.StandardCodes;
@@ -42,7 +49,10 @@ import org.unicode.cldr.util.TransliteratorUtilities;
 import org.unicode.cldr.util.VoteResolver;
 import org.unicode.cldr.util.VoteResolver.Status;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.ibm.icu.dev.util.ElapsedTimer;
 import com.ibm.icu.impl.Row.R3;
 import com.ibm.icu.text.ListFormatter;
@@ -345,79 +355,126 @@ abstract public class CheckCLDR {
 
         private static StandardCodes sc = StandardCodes.make();
 
+        private static final Option[] OPTIONS = Option.values();
+
+        private static final Map<String, Option> KEY_TO_OPTION;
+        static {
+            Map<String, Option> keyToOption = new HashMap<>();
+            for (Option o : OPTIONS) {
+                keyToOption.put(o.getKey(), o);
+            }
+            KEY_TO_OPTION = ImmutableMap.copyOf(keyToOption);
+        }
+
+        /**
+         * Interned instances; the number of distinct Options in use is small (a few per locale).
+         */
+        private static final Interner<Options> INTERNER = Interners.newWeakInterner();
+
         private final boolean DEBUG_OPTS = false;
 
-        String options[] = new String[Option.values().length];
-        CLDRLocale locale = null;
+        /**
+         * Values indexed by Option.ordinal(); never modified after construction
+         */
+        private final String options[];
+        private final CLDRLocale locale;
+        private final int hashCode;
 
-        private final String key; // for fast compare
+        private Options(CLDRLocale locale, String[] options) {
+            this.locale = locale;
+            this.options = options;
+            this.hashCode = computeHashCode();
+        }
 
         /**
          * Adopt some other map
          * @param fromOptions
          */
         public Options(Map<String, String> fromOptions) {
-            clear();
-            setAll(fromOptions);
-            key = null; // no key = slow compare
+            this(null, toArray(fromOptions));
         }
 
-        private void setAll(Map<String, String> fromOptions) {
+        private static String[] toArray(Map<String, String> fromOptions) {
+            String[] result = new String[OPTIONS.length];
             for (Map.Entry<String, String> e : fromOptions.entrySet()) {
-                set(e.getKey(), e.getValue());
+                result[getOption(e.getKey()).ordinal()] = e.getValue();
             }
+            return result;
+        }
+
+        private static Option getOption(String key) {
+            Option o = KEY_TO_OPTION.get(key);
+            if (o == null) {
+                throw new IllegalArgumentException("Unknown CLDR option: '" + key + "' - valid keys are: " + Options.getValidKeys());
+            }
+            return o;
         }
 
         /**
+         * Options are immutable, so this returns a copy with the option set, and leaves this one unchanged.
          * @param key
          * @param value
+         * @return the copy
          */
-        public void set(String key, String value) {
-            // TODO- cache the map
-            for (Option o : Option.values()) {
-                if (o.getKey().equals(key)) {
-                    set(o, value);
-                    return;
-                }
-            }
-            throw new IllegalArgumentException("Unknown CLDR option: '" + key + "' - valid keys are: " + Options.getValidKeys());
+        public Options set(String key, String value) {
+            Option o = getOption(key);
+            String[] copy = Arrays.copyOf(options, options.length);
+            copy[o.ordinal()] = value;
+            if (DEBUG_OPTS) System.err.println("Setting " + o + " = " + value);
+            return new Options(o == Option.locale ? null : locale, copy);
         }
 
         private static String getValidKeys() {
-            Set<String> allkeys = new TreeSet<>();
-            for (Option o : Option.values()) {
-                allkeys.add(o.getKey());
-            }
+            Set<String> allkeys = new TreeSet<>(KEY_TO_OPTION.keySet());
             return ListFormatter.getInstance().format(allkeys);
         }
 
         public Options() {
-            clear();
-            key = "".intern(); // null Options.
+            this(null, new String[OPTIONS.length]);
         }
 
         /**
-         * Deep clone
+         * Copy
          * @param options2
          */
         public Options(Options options2) {
-            this.options = Arrays.copyOf(options2.options, options2.options.length);
-            this.key = options2.key;
+            this(options2.locale, Arrays.copyOf(options2.options, options2.options.length));
         }
 
         public Options(CLDRLocale locale, CheckCLDR.Phase testPhase, String requiredLevel, String localeType) {
-            this.locale = locale;
-            options = new String[Option.values().length];
-            StringBuilder sb = new StringBuilder();
-            set(Option.locale, locale.getBaseName());
-            sb.append(locale.getBaseName()).append('/');
-            set(Option.CoverageLevel_requiredLevel, requiredLevel);
-            sb.append(requiredLevel).append('/');
-            set(Option.CoverageLevel_localeType, localeType);
-            sb.append(localeType).append('/');
-            set(Option.phase, testPhase.name().toLowerCase());
-            sb.append(localeType).append('/');
-            key = sb.toString().intern();
+            this(locale, toArray(locale, testPhase, requiredLevel, localeType));
+        }
+
+        private static String[] toArray(CLDRLocale locale, CheckCLDR.Phase testPhase, String requiredLevel, String localeType) {
+            String[] result = new String[OPTIONS.length];
+            result[Option.locale.ordinal()] = locale.getBaseName();
+            result[Option.CoverageLevel_requiredLevel.ordinal()] = requiredLevel;
+            result[Option.CoverageLevel_localeType.ordinal()] = localeType;
+            result[Option.phase.ordinal()] = testPhase.name().toLowerCase();
+            return result;
+        }
+
+        /**
+         * Get the canonical instance equal to the given one, so that equal Options can be compared by
+         * identity and share storage, such as for cache keys. The canonical instance is a private copy,
+         * never the caller's own.
+         */
+        public static Options intern(Options options) {
+            return INTERNER.intern(new Options(options));
+        }
+
+        /**
+         * Get the canonical instance for the given map of option keys to values.
+         */
+        public static Options getInstance(Map<String, String> fromOptions) {
+            return INTERNER.intern(new Options(fromOptions));
+        }
+
+        /**
+         * Get the canonical instance for the given locale, phase, and coverage values.
+         */
+        public static Options getInstance(CLDRLocale locale, CheckCLDR.Phase testPhase, String requiredLevel, String localeType) {
+            return INTERNER.intern(new Options(locale, testPhase, requiredLevel, localeType));
         }
 
         @Override
@@ -429,24 +486,8 @@ abstract public class CheckCLDR {
         public boolean equals(Object other) {
             if (this == other) return true;
             if (!(other instanceof Options)) return false;
-            if (this.key != null && ((Options) other).key != null) {
-                return (this.key == ((Options) other).key);
-            } else {
-                return this.compareTo((Options) other) == 0;
-            }
-        }
-
-        private Options clear() {
-            for (int i = 0; i < options.length; i++) {
-                options[i] = null;
-            }
-            return this;
-        }
-
-        private Options set(Option o, String v) {
-            options[o.ordinal()] = v;
-            if (DEBUG_OPTS) System.err.println("Setting " + o + " = " + v);
-            return this;
+            Options that = (Options) other;
+            return hashCode == that.hashCode && Arrays.equals(options, that.options);
         }
 
         public String get(Option o) {
@@ -491,15 +532,11 @@ abstract public class CheckCLDR {
         @Override
         public int compareTo(Options other) {
             if (other == this) return 0;
-            if (key != null && other.key != null) {
-                if (key == other.key) return 0;
-                return key.compareTo(other.key);
-            }
             for (int i = 0; i < options.length; i++) {
                 final String s1 = options[i];
                 final String s2 = other.options[i];
-                if (s1 == null && s2 == null) {
-                    // no difference
+                if (s1 == s2) {
+                    // no difference (including both null)
                 } else if (s1 == null) {
                     return -1;
                 } else if (s2 == null) {
@@ -514,10 +551,7 @@ abstract public class CheckCLDR {
             return 0;
         }
 
-        @Override
-        public int hashCode() {
-            if (key != null) return key.hashCode();
-
+        private int computeHashCode() {
             int h = 1;
             for (int i = 0; i < options.length; i++) {
                 if (options[i] == null) {
@@ -529,11 +563,15 @@ abstract public class CheckCLDR {
             return h;
         }
 
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
         @Override
         public String toString() {
-            if (key != null) return "Options:" + key;
             StringBuilder sb = new StringBuilder();
-            for (Option o : Option.values()) {
+            for (Option o : OPTIONS) {
                 if (options[o.ordinal()] != null) {
                     sb.append(o)
                     .append('=')
@@ -545,10 +583,58 @@ abstract public class CheckCLDR {
         }
     }
 
+    /**
+     * Reusable state for running the checks over many paths with the same Options, as in
+     * ConsoleCheckCLDR or VettingViewer. The Options and the result list are shared across calls,
+     * instead of being allocated for each path. The list returned by check and getExamples is only
+     * valid until the next call. Not thread-safe: use one CheckLoop per thread.
+     * <p>
+     * The CheckStatus objects themselves are not reused, since callers may keep them (for example in TestCache).
+     */
+    public static final class CheckLoop {
+        private final CheckCLDR checkCldr;
+        private final Options options;
+        private final List<CheckStatus> result = new ArrayList<>();
+
+        public CheckLoop(CheckCLDR checkCldr, Options options) {
+            this.checkCldr = checkCldr;
+            this.options = Options.intern(options);
+        }
+
+        public Options getOptions() {
+            return options;
+        }
+
+        /**
+         * @see CheckCLDR#check(String, String, String, Options, List)
+         */
+        public List<CheckStatus> check(String path, String fullPath, String value) {
+            checkCldr.check(path, fullPath, value, options, result);
+            return result;
+        }
+
+        /**
+         * @see CheckCLDR#getExamples(String, String, String, Options, List)
+         */
+        public List<CheckStatus> getExamples(String path, String fullPath, String value) {
+            checkCldr.getExamples(path, fullPath, value, options, result);
+            return result;
+        }
+    }
+
     public boolean isSkipTest() {
         return skipTest;
     }
 
+    /**
+     * Get the checks whose setCldrFileToCheck must finish before this one's starts. A CompoundCheckCLDR
+     * sets up its checks concurrently, so override this if the setup depends on another check's setup.
+     * The other checks must have been added to the CompoundCheckCLDR before this one.
+     */
+    protected Collection<Class<? extends CheckCLDR>> getSetupDependencies() {
+        return Collections.emptySet();
+    }
+
     // this should only be set for the test in setCldrFileToCheck
     public void setSkipTest(boolean skipTest) {
         this.skipTest = skipTest;
@@ -641,7 +727,7 @@ abstract public class CheckCLDR {
      */
     final public CheckCLDR setCldrFileToCheck(CLDRFile cldrFileToCheck, Map<String, String> options,
         List<CheckStatus> possibleErrors) {
-        return setCldrFileToCheck(cldrFileToCheck, new Options(options), possibleErrors);
+        return setCldrFileToCheck(cldrFileToCheck, Options.getInstance(options), possibleErrors);
     }
 
     /**
@@ -1065,7 +1151,7 @@ abstract public class CheckCLDR {
     @Deprecated
     public final CheckCLDR check(String path, String fullPath, String value, Map<String, String> options,
         List<CheckStatus> result) {
-        return check(path, fullPath, value, new Options(options), result);
+        return check(path, fullPath, value, Options.getInstance(options), result);
     }
 
     /**
@@ -1121,17 +1207,49 @@ abstract public class CheckCLDR {
             }
         }
         CheckCLDR instance = handleCheck(path, fullPath, value, options, result);
-        Iterator<CheckStatus> iterator = result.iterator();
         // Filter out any errors/warnings that match the filter list in CheckCLDR-exceptions.txt.
-        while (iterator.hasNext()) {
-            CheckStatus status = iterator.next();
-            if (shouldExcludeStatus(fullPath, status)) {
-                iterator.remove();
+        if (!result.isEmpty() && !filtersForLocale.isEmpty()) {
+            Iterator<CheckStatus> iterator = result.iterator();
+            while (iterator.hasNext()) {
+                CheckStatus status = iterator.next();
+                if (shouldExcludeStatus(fullPath, status)) {
+                    iterator.remove();
+                }
             }
         }
         return instance;
     }
 
+    /**
+     * Same as check(String, String, String, Options, List), but also returns the paths that were read
+     * from the cldrFileToCheck while checking. This lets callers that cache the results (such as TestCache)
+     * invalidate only the results that depend on a changed path.
+     * <p>
+     * The cldrFileToCheck must be a RecordingCLDRFile. Calls may run concurrently, since each records
+     * only the paths read by its own thread.
+     *
+     * @param pathsRead
+     *            the paths whose values were read are added to this. The paths where inherited values were
+     *            found are not, except for getBaileyValue (see RecordingCLDRFile.getPathWhereFound)
+     * @param prefixesRead
+     *            the prefixes for which the whole set of paths was queried (such as by getPathsWithValue)
+     *            are added to this; the empty string means that all the paths were listed
+     *            (see RecordingCLDRFile.getRecordedPrefixes)
+     */
+    public final CheckCLDR check(String path, String fullPath, String value, Options options,
+        List<CheckStatus> result, Set<String> pathsRead, Set<String> prefixesRead) {
+        if (!(cldrFileToCheck instanceof RecordingCLDRFile)) {
+            throw new InternalCldrException("CheckCLDR problem: cldrFileToCheck must be a RecordingCLDRFile to record paths");
+        }
+        RecordingCLDRFile recordingFile = (RecordingCLDRFile) cldrFileToCheck;
+        recordingFile.startRecording(pathsRead, prefixesRead);
+        try {
+            return check(path, fullPath, value, options, result);
+        } finally {
+            recordingFile.stopRecording();
+        }
+    }
+
     /**
      * Returns any examples in the result parameter. Both examples and demos can
      * be returned. A demo will have getType() == CheckStatus.demoType. In that
@@ -1213,8 +1331,9 @@ abstract public class CheckCLDR {
             if (CldrUtility.INHERITANCE_MARKER.equals(value)) {
                 value = getCldrFileToCheck().getConstructedBaileyValue(path, null, null);
             }
-            for (Iterator<CheckCLDR> it = filteredCheckList.iterator(); it.hasNext();) {
-                CheckCLDR item = it.next();
+            final boolean metrics = CheckMetrics.isEnabled();
+            for (int i = 0; i < filteredCheckList.size(); ++i) {
+                CheckCLDR item = filteredCheckList.get(i);
                 // skip proposed items in final testing.
                 if (Phase.FINAL_TESTING == item.getPhase()) {
                     if (path.contains("proposed") && path.contains("[@alt=")) {
@@ -1222,8 +1341,17 @@ abstract public class CheckCLDR {
                     }
                 }
                 try {
-                    if (!item.isSkipTest()) {
+                    if (item.isSkipTest()) {
+                        // skip
+                    } else if (!metrics) {
                         item.handleCheck(path, fullPath, value, options, result);
+                    } else {
+                        CheckMetrics.Probe probe = CheckMetrics.start();
+                        try {
+                            item.handleCheck(path, fullPath, value, options, result);
+                        } finally {
+                            CheckMetrics.recordCheck(item, getCldrFileToCheck().getLocaleID(), path, probe);
+                        }
                     }
                 } catch (Exception e) {
                     addError(result, item, e);
@@ -1271,7 +1399,7 @@ abstract public class CheckCLDR {
         @Override
         public CheckCLDR setCldrFileToCheck(CLDRFile cldrFileToCheck, Options options,
             List<CheckStatus> possibleErrors) {
-            ElapsedTimer testTime = null, testOverallTime = null;
+            ElapsedTimer testOverallTime = null;
             if (cldrFileToCheck == null) return this;
             boolean SHOW_TIMES = options.contains(Options.Option.SHOW_TIMES);
             setPhase(Phase.forString(options.get(Options.Option.phase)));
@@ -1279,27 +1407,116 @@ abstract public class CheckCLDR {
             super.setCldrFileToCheck(cldrFileToCheck, options, possibleErrors);
             possibleErrors.clear();
 
-            for (Iterator<CheckCLDR> it = filteredCheckList.iterator(); it.hasNext();) {
-                CheckCLDR item = it.next();
-                if (SHOW_TIMES)
+            List<Setup> setups = new ArrayList<>(filteredCheckList.size());
+            for (CheckCLDR item : filteredCheckList) {
+                setups.add(new Setup(item, cldrFileToCheck, options, SHOW_TIMES));
+            }
+            if (setups.size() < 2) {
+                for (Setup setup : setups) {
+                    setup.run();
+                }
+            } else {
+                runConcurrently(setups);
+            }
+            // add the errors in the order of the checks, as if they had been set up one after another
+            for (Setup setup : setups) {
+                possibleErrors.addAll(setup.errors);
+                if (SHOW_TIMES) System.out.println(setup.timeMessage);
+            }
+            if (SHOW_TIMES) System.out.println("Overall: " + testOverallTime + ": {0}");
+            return this;
+        }
+
+        /**
+         * Run the setups on the shared pool, each after those of its dependencies.
+         */
+        private static void runConcurrently(List<Setup> setups) {
+            Map<Setup, CompletableFuture<Void>> futures = new HashMap<>();
+            for (int i = 0; i < setups.size(); ++i) {
+                Setup setup = setups.get(i);
+                List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+                for (Class<? extends CheckCLDR> dependency : setup.item.getSetupDependencies()) {
+                    for (int j = 0; j < setups.size(); ++j) {
+                        if (j != i && dependency.isInstance(setups.get(j).item)) {
+                            if (j > i) {
+                                throw new IllegalArgumentException(setup.item.getClass().getName()
+                                    + " must be added after " + setups.get(j).item.getClass().getName());
+                            }
+                            dependencies.add(futures.get(setups.get(j)));
+                        }
+                    }
+                }
+                futures.put(setup, CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[dependencies.size()]))
+                    .thenRunAsync(setup, SetupPool.POOL));
+            }
+            try {
+                CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()])).join();
+            } catch (CompletionException e) {
+                // RuntimeExceptions are recorded as errors by Setup, so this is an Error
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * The threads that set up the checks, shared by all CompoundCheckCLDRs.
+         */
+        private static final class SetupPool {
+            static final ExecutorService POOL = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "CheckCLDR setup");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        }
+
+        /**
+         * The setup of one check, with the errors that it adds.
+         */
+        private final class Setup implements Runnable {
+            final CheckCLDR item;
+            final CLDRFile cldrFileToCheck;
+            final Options options;
+            final boolean showTimes;
+            final List<CheckStatus> errors = new ArrayList<>();
+            String timeMessage;
+
+            Setup(CheckCLDR item, CLDRFile cldrFileToCheck, Options options, boolean showTimes) {
+                this.item = item;
+                this.cldrFileToCheck = cldrFileToCheck;
+                this.options = options;
+                this.showTimes = showTimes;
+            }
+
+            @Override
+            public void run() {
+                ElapsedTimer testTime = null;
+                if (showTimes)
                     testTime = new ElapsedTimer("Test setup time for " + item.getClass().toString() + ": {0}");
+                CheckMetrics.Probe probe = CheckMetrics.isEnabled() ? CheckMetrics.start() : null;
                 try {
                     item.setPhase(getPhase());
-                    item.setCldrFileToCheck(cldrFileToCheck, options, possibleErrors);
-                    if (SHOW_TIMES) {
+                    item.setCldrFileToCheck(cldrFileToCheck, options, errors);
+                    if (showTimes) {
                         if (item.isSkipTest()) {
-                            System.out.println("Disabled : " + testTime);
+                            timeMessage = "Disabled : " + testTime;
                         } else {
-                            System.out.println("OK : " + testTime);
+                            timeMessage = "OK : " + testTime;
                         }
                     }
                 } catch (RuntimeException e) {
-                    addError(possibleErrors, item, e);
-                    if (SHOW_TIMES) System.out.println("ERR: " + testTime + " - " + e.toString());
+                    addError(errors, item, e);
+                    if (showTimes) timeMessage = "ERR: " + testTime + " - " + e.toString();
+                } finally {
+                    if (probe != null) {
+                        CheckMetrics.recordSetup(item, probe);
+                    }
                 }
             }
-            if (SHOW_TIMES) System.out.println("Overall: " + testOverallTime + ": {0}");
-            return this;
         }
 
         public Matcher getFilter() {
@@ -1356,14 +1573,15 @@ abstract public class CheckCLDR {
     /**
      * A map of error/warning types to their filters.
      */
-    private static List<R3<Pattern, Subtype, Pattern>> allFilters;
+    private static volatile List<R3<Pattern, Subtype, Pattern>> allFilters;
 
     /**
      * Loads the set of filters used for CheckCLDR results.
+     * The list is only published when it is complete, since checks can be set up concurrently.
      */
     private void loadFilters() {
         if (allFilters != null) return;
-        allFilters = new ArrayList<>();
+        List<R3<Pattern, Subtype, Pattern>> filters = new ArrayList<>();
         RegexFileParser fileParser = new RegexFileParser();
         fileParser.setLineParser(new RegexLineParser() {
             @Override
@@ -1372,10 +1590,11 @@ abstract public class CheckCLDR {
                 Subtype subtype = Subtype.valueOf(fields[0]);
                 Pattern locale = PatternCache.get(fields[1]);
                 Pattern xpathRegex = PatternCache.get(fields[2].replaceAll("\\[@", "\\\\[@"));
-                allFilters.add(new R3<>(locale, subtype, xpathRegex));
+                filters.add(new R3<>(locale, subtype, xpathRegex));
             }
         });
         fileParser.parse(CheckCLDR.class, "/org/unicode/cldr/util/data/CheckCLDR-exceptions.txt");
+        allFilters = filters;
     }
 
     /**
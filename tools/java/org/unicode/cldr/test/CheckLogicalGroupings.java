@@ -1,9 +1,9 @@
 package org.unicode.cldr.test;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -104,8 +104,8 @@ public class CheckLogicalGroupings extends FactoryCheckCLDR {
         }
 
         Output<PathType> pathType = new Output<>();
-        Set<String> paths = LogicalGrouping.getPaths(getCldrFileToCheck(), path, pathType);
-        if (paths == null || paths.size() < 2) return this; // skip if not part of a logical grouping
+        Set<String> group = LogicalGrouping.getGroup(getCldrFileToCheck(), path, pathType);
+        if (group == null || group.size() < 2) return this; // skip if not part of a logical grouping
 
         // check the edit distances for count, gender, case
         switch(pathType.value) {
@@ -113,12 +113,10 @@ public class CheckLogicalGroupings extends FactoryCheckCLDR {
         case COUNT:
         case COUNT_CASE_GENDER:
             // only check the first path
-            TreeSet<String> sorted = new TreeSet<>(paths);
-            if (path.equals(sorted.iterator().next())) {
+            if (path.equals(group.iterator().next())) {
                 Multiset<String> values = TreeMultiset.create();
-                int maxDistance = getMaxDistance(path, value, sorted, values);
+                int maxDistance = getMaxDistance(path, value, group, values);
                 if (maxDistance >= LIMIT_DISTANCE) {
-                    maxDistance = getMaxDistance(path, value, paths, values);
                     result.add(new CheckStatus().setCause(this).setMainType(CheckStatus.warningType)
                         .setSubtype(Subtype.largerDifferences) // typically warningType or errorType
                         .setMessage("{0} different characters within {1}; {2}", maxDistance, showInvisibles(values), pathType.value));
@@ -129,11 +127,10 @@ public class CheckLogicalGroupings extends FactoryCheckCLDR {
         }
 
 
-        // TODO make this more efficient
-        Set<String> paths2 = new HashSet<>(paths);
-        for (String p : paths2) {
-            if (LogicalGrouping.isOptional(getCldrFileToCheck(), p)) {
-                paths.remove(p);
+        List<String> paths = new ArrayList<>(group.size()); // still sorted
+        for (String p : group) {
+            if (!LogicalGrouping.isOptional(getCldrFileToCheck(), p)) {
+                paths.add(p);
             }
         }
         if (paths.size() < 2) return this; // skip if not part of a logical grouping
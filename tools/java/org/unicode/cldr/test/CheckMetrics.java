@@ -0,0 +1,267 @@
+package org.unicode.cldr.test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.unicode.cldr.util.CldrUtility;
+
+import com.google.gson.stream.JsonWriter;
+import com.ibm.icu.util.ICUUncheckedIOException;
+
+/**
+ * Timings of the checks run by CompoundCheckCLDR, to find which checks make page loads slow.
+ * For each check, the calls of setCldrFileToCheck and of handleCheck are counted and timed, with
+ * a latency histogram, and the slowest paths are kept. Optionally the bytes allocated by the calling
+ * thread are counted too (where the JVM supports that).
+ * <p>
+ * Collection is off unless enabled with setEnabled or the CHECK_METRICS property; when it is off,
+ * CompoundCheckCLDR only reads a volatile field. The results can be written as JSON, as by
+ * ConsoleCheckCLDR -M and the Survey Tool admin panel.
+ */
+public final class CheckMetrics {
+    /**
+     * The upper bounds of the histogram buckets, in nanoseconds; the last bucket has no bound.
+     */
+    private static final long[] BUCKET_LIMITS = { 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+        1_000_000_000L };
+    private static final String[] BUCKET_NAMES = { "<10us", "<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s" };
+    private static final int SLOWEST_COUNT = 10;
+
+    private static volatile boolean enabled = CldrUtility.getProperty("CHECK_METRICS", false);
+    private static volatile boolean allocations = false;
+    private static final Map<String, CheckStats> CHECK_TO_STATS = new ConcurrentHashMap<>();
+    private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+
+    private CheckMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        CheckMetrics.enabled = enabled;
+    }
+
+    /**
+     * @return whether allocations are counted (when the JVM supports it)
+     */
+    public static boolean isCountingAllocations() {
+        return allocations;
+    }
+
+    /**
+     * Count the bytes allocated by each call too. This is ignored if the JVM can't measure them.
+     */
+    public static void setCountingAllocations(boolean countAllocations) {
+        allocations = countAllocations && THREAD_BEAN instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) THREAD_BEAN).isThreadAllocatedMemorySupported();
+        if (allocations) {
+            ((com.sun.management.ThreadMXBean) THREAD_BEAN).setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * Forget the metrics collected so far.
+     */
+    public static void reset() {
+        CHECK_TO_STATS.clear();
+    }
+
+    /**
+     * Start timing a call. Only call this if isEnabled().
+     */
+    static Probe start() {
+        return new Probe(allocations ? allocatedBytes() : -1);
+    }
+
+    /**
+     * Record a call of setCldrFileToCheck.
+     */
+    static void recordSetup(CheckCLDR check, Probe probe) {
+        getStats(check).setup.record(probe);
+    }
+
+    /**
+     * Record a call of handleCheck for a path.
+     */
+    static void recordCheck(CheckCLDR check, String localeID, String path, Probe probe) {
+        CheckStats stats = getStats(check);
+        stats.recordSlowPath(localeID, path, stats.check.record(probe));
+    }
+
+    private static CheckStats getStats(CheckCLDR check) {
+        return CHECK_TO_STATS.computeIfAbsent(check.getClass().getName(), k -> new CheckStats());
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) THREAD_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The start of a call.
+     */
+    static final class Probe {
+        private final long startNanos = System.nanoTime();
+        private final long startBytes;
+
+        private Probe(long startBytes) {
+            this.startBytes = startBytes;
+        }
+    }
+
+    /**
+     * The timings of one kind of call of one check.
+     */
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_NAMES.length);
+
+        /**
+         * @return the elapsed nanoseconds
+         */
+        long record(Probe probe) {
+            long nanos = System.nanoTime() - probe.startNanos;
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (probe.startBytes >= 0) {
+                allocatedBytes.add(allocatedBytes() - probe.startBytes);
+            }
+            int bucket = 0;
+            while (bucket < BUCKET_LIMITS.length && nanos >= BUCKET_LIMITS[bucket]) {
+                ++bucket;
+            }
+            histogram.incrementAndGet(bucket);
+            return nanos;
+        }
+
+        void write(JsonWriter out) throws IOException {
+            long calls = count.sum();
+            long total = totalNanos.sum();
+            out.beginObject()
+                .name("count").value(calls)
+                .name("totalMillis").value(total / 1_000_000.0)
+                .name("meanMicros").value(calls == 0 ? 0 : total / 1_000.0 / calls)
+                .name("maxMillis").value(maxNanos.get() / 1_000_000.0);
+            if (allocatedBytes.sum() != 0) {
+                out.name("allocatedBytes").value(allocatedBytes.sum());
+            }
+            out.name("histogram").beginObject();
+            for (int i = 0; i < BUCKET_NAMES.length; ++i) {
+                out.name(BUCKET_NAMES[i]).value(histogram.get(i));
+            }
+            out.endObject().endObject();
+        }
+    }
+
+    private static final class SlowPath {
+        final String localeID;
+        final String path;
+        final long nanos;
+
+        SlowPath(String localeID, String path, long nanos) {
+            this.localeID = localeID;
+            this.path = path;
+            this.nanos = nanos;
+        }
+    }
+
+    private static final class CheckStats {
+        private final Timing setup = new Timing();
+        private final Timing check = new Timing();
+        // guarded by slowest; sorted from slowest to fastest
+        private final List<SlowPath> slowest = new ArrayList<>();
+        // the time to beat to get into a full list, so most calls don't need the lock
+        private volatile long slowestThreshold = 0;
+
+        void recordSlowPath(String localeID, String path, long nanos) {
+            if (nanos <= slowestThreshold) {
+                return;
+            }
+            synchronized (slowest) {
+                int i = slowest.size();
+                while (i > 0 && slowest.get(i - 1).nanos < nanos) {
+                    --i;
+                }
+                slowest.add(i, new SlowPath(localeID, path, nanos));
+                if (slowest.size() > SLOWEST_COUNT) {
+                    slowest.remove(SLOWEST_COUNT);
+                }
+                if (slowest.size() == SLOWEST_COUNT) {
+                    slowestThreshold = slowest.get(SLOWEST_COUNT - 1).nanos;
+                }
+            }
+        }
+
+        long totalNanos() {
+            return setup.totalNanos.sum() + check.totalNanos.sum();
+        }
+
+        void write(JsonWriter out) throws IOException {
+            out.beginObject();
+            out.name("setup");
+            setup.write(out);
+            out.name("check");
+            check.write(out);
+            out.name("slowest").beginArray();
+            synchronized (slowest) {
+                for (SlowPath slowPath : slowest) {
+                    out.beginObject()
+                        .name("locale").value(slowPath.localeID)
+                        .name("path").value(slowPath.path)
+                        .name("millis").value(slowPath.nanos / 1_000_000.0)
+                        .endObject();
+                }
+            }
+            out.endArray().endObject();
+        }
+    }
+
+    /**
+     * Write the metrics as a JSON object, with the checks in order of decreasing total time.
+     */
+    public static void writeJson(Writer writer) throws IOException {
+        List<Map.Entry<String, CheckStats>> entries = new ArrayList<>(CHECK_TO_STATS.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, CheckStats> e) -> e.getValue().totalNanos()).reversed());
+        JsonWriter out = new JsonWriter(writer);
+        out.setIndent("  ");
+        out.beginObject()
+            .name("enabled").value(enabled)
+            .name("countingAllocations").value(allocations)
+            .name("checks").beginObject();
+        for (Map.Entry<String, CheckStats> entry : entries) {
+            out.name(entry.getKey());
+            entry.getValue().write(out);
+        }
+        out.endObject().endObject();
+        out.flush();
+    }
+
+    /**
+     * Get the metrics as a JSON string.
+     */
+    public static String toJson() {
+        StringWriter result = new StringWriter();
+        try {
+            writeJson(result);
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException(e); // can't happen with a StringWriter
+        }
+        return result.toString();
+    }
+}
@@ -157,7 +157,9 @@ public class ConsoleCheckCLDR {
             "Partially qualified directories. Standard subdirectories added if not specified (/main, /annotations, /subdivisions). (Conflicts with -s.)")
             .setMatch(".*").setFlag('S').setDefault("common,seed,exemplars")), //, 'S', <changed>),
         bailey(new Params().setHelp("check bailey values (" + CldrUtility.INHERITANCE_MARKER + ")")), //, 'b', UOption.NO_ARG)
-        exemplarError(new Params().setFlag('E').setHelp("include to force strict Exemplar check"));
+        exemplarError(new Params().setFlag('E').setHelp("include to force strict Exemplar check")),
+        metrics(new Params().setFlag('M').setMatch(".*")
+            .setHelp("write the time taken by each check (and its slowest paths) as JSON to the given file"));
 
         // BOILERPLATE TO COPY
         final Option option;
@@ -201,7 +203,8 @@ public class ConsoleCheckCLDR {
         UOption.create("subtype_filter", 'y', UOption.REQUIRES_ARG),
         UOption.create("source_all", 'S', UOption.OPTIONAL_ARG).setDefault("common,seed,exemplars"),
         UOption.create("bailey", 'b', UOption.NO_ARG),
-        UOption.create("exemplarError", 'E', UOption.NO_ARG)
+        UOption.create("exemplarError", 'E', UOption.NO_ARG),
+        UOption.create("metrics", 'M', UOption.REQUIRES_ARG)
         // UOption.create("vote resolution2", 'w', UOption.OPTIONAL_ARG).setDefault(Utility.BASE_DIRECTORY +
         // "incoming/vetted/main/votes/"),
     };
@@ -303,6 +306,12 @@ public class ConsoleCheckCLDR {
         }
         boolean checkOnSubmit = options[CHECK_ON_SUBMIT].doesOccur;
         boolean noaliases = options[NO_ALIASES].doesOccur;
+        String metricsFile = MyOptions.metrics.option.doesOccur() ? MyOptions.metrics.option.getValue() : null;
+        if (metricsFile != null) {
+            CheckMetrics.reset();
+            CheckMetrics.setEnabled(true);
+            CheckMetrics.setCountingAllocations(true);
+        }
 
         Level coverageLevel = null;
         String coverageLevelInput = options[COVERAGE].value;
@@ -556,7 +565,10 @@ public class ConsoleCheckCLDR {
                     parent = new CLDRFile.TestUser(parent, user, isLanguageLocale);
                 }
             }
-            checkCldr.setCldrFileToCheck(file, options, result);
+            // The options are the same for every path of the locale, so make them (and the result list) once.
+            Options checkOptions = Options.getInstance(options);
+            checkCldr.setCldrFileToCheck(file, checkOptions, result);
+            CheckCLDR.CheckLoop checkLoop = new CheckCLDR.CheckLoop(checkCldr, checkOptions);
 
             subtotalCount.clear();
 
@@ -675,14 +687,12 @@ public class ConsoleCheckCLDR {
 
                 int limit = 1;
                 for (int jj = 0; jj < limit; ++jj) {
-                    if (jj == 0) {
-                        checkCldr.check(path, fullPath, value, new Options(options), result);
-                    } else {
-                        checkCldr.getExamples(path, fullPath, value, new Options(options), result);
-                    }
+                    // only valid until the next call on checkLoop
+                    List<CheckStatus> pathResult = jj == 0 ? checkLoop.check(path, fullPath, value)
+                        : checkLoop.getExamples(path, fullPath, value);
 
                     boolean showedOne = false;
-                    for (Iterator<CheckStatus> it3 = result.iterator(); it3.hasNext();) {
+                    for (Iterator<CheckStatus> it3 = pathResult.iterator(); it3.hasNext();) {
                         CheckStatus status = it3.next();
                         String statusString = status.toString(); // com.ibm.icu.impl.Utility.escape(
                         CheckStatus.Type statusType = status.getType();
@@ -828,6 +838,13 @@ public class ConsoleCheckCLDR {
 
         System.out.println();
         System.out.println("# Total elapsed time: " + totalTimer);
+        if (metricsFile != null) {
+            File file = new File(metricsFile);
+            try (PrintWriter metricsOut = FileUtilities.openUTF8Writer(file.getAbsoluteFile().getParent(), file.getName())) {
+                CheckMetrics.writeJson(metricsOut);
+            }
+            System.out.println("# Check metrics: " + file.getCanonicalPath());
+        }
         if (fatalErrors.size() != 0) {
             System.out.println("# FATAL ERRORS:");
         }
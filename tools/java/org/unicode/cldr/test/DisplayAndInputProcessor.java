@@ -29,6 +29,9 @@ import org.unicode.cldr.util.XPathParts;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.myanmartools.ZawgyiDetector;
 import com.ibm.icu.lang.UCharacter;
 import com.ibm.icu.text.Collator;
@@ -46,6 +49,11 @@ import com.ibm.icu.util.ULocale;
 /**
  * Class for processing the input and output of CLDR data for use in the
  * Survey Tool and other tools.
+ * <p>
+ * Instances are immutable and thread-safe, so one instance per locale can be shared by
+ * all the threads that process values for that locale. The locale-specific normalization
+ * is chosen once, in the constructor, and the facts about each path that decide which
+ * normalizations apply are computed once per path and cached (see {@link PathInfo}).
  */
 public class DisplayAndInputProcessor {
 
@@ -143,14 +151,22 @@ public class DisplayAndInputProcessor {
     private static final Transliterator zawgyiUnicodeTransliterator =
         Transliterator.getInstance("Zawgyi-my");
 
-    private Collator col;
+    /**
+     * The locale-specific normalization done by processInput, if any.
+     */
+    private enum LocaleFix {
+        NONE, MALAYALAM, ROMANIAN, CATALAN, NGOMBA, KWASIO, HEBREW, SWISS_GERMAN, MYANMAR, KYRGYZ, URDU_PLUS, ADLAM
+    }
 
-    private Collator spaceCol;
+    // frozen, so that they can be shared by the pretty printers
+    private final Collator col;
 
-    private UnicodeSetPrettyPrinter pp = null;
+    private final Collator spaceCol;
 
     final private CLDRLocale locale;
-    private boolean isPosix;
+    private final boolean isPosix;
+    private final LocaleFix localeFix;
+    private final boolean usesModifierApostrophe;
 
     /**
      * Constructor, taking cldrFile.
@@ -158,47 +174,26 @@ public class DisplayAndInputProcessor {
      * @param cldrFileToCheck
      */
     public DisplayAndInputProcessor(CLDRFile cldrFileToCheck, boolean needsCollator) {
-        init(this.locale = CLDRLocale.getInstance(cldrFileToCheck.getLocaleID()), needsCollator);
+        this(CLDRLocale.getInstance(cldrFileToCheck.getLocaleID()), needsCollator);
     }
 
     public DisplayAndInputProcessor(CLDRFile cldrFileToCheck) {
-        init(this.locale = CLDRLocale.getInstance(cldrFileToCheck.getLocaleID()), true);
-    }
-
-    void init(CLDRLocale locale, boolean needsCollator) {
-        isPosix = locale.toString().indexOf("POSIX") >= 0;
-        if (needsCollator) {
-            ICUServiceBuilder isb = null;
-            try {
-                isb = ICUServiceBuilder.forLocale(locale);
-            } catch (Exception e) {
-            }
-
-            if (isb != null) {
-                try {
-                    col = isb.getRuleBasedCollator();
-                } catch (Exception e) {
-                    col = Collator.getInstance(ULocale.ROOT);
-                }
-            } else {
-                col = Collator.getInstance(ULocale.ROOT);
-            }
-
-            spaceCol = Collator.getInstance(locale.toULocale());
-            if (spaceCol instanceof RuleBasedCollator) {
-                ((RuleBasedCollator) spaceCol).setAlternateHandlingShifted(false);
-            }
-            pp = new UnicodeSetPrettyPrinter().setOrdering(Collator.getInstance(ULocale.ROOT))
-                .setSpaceComparator(Collator.getInstance(ULocale.ROOT).setStrength2(Collator.PRIMARY))
-                .setCompressRanges(true)
-                .setToQuote(new UnicodeSet(TO_QUOTE))
-                .setOrdering(col)
-                .setSpaceComparator(spaceCol);
-        }
+        this(CLDRLocale.getInstance(cldrFileToCheck.getLocaleID()), true);
     }
 
+    /**
+     * Get a pretty printer for UnicodeSets in this locale, or null if the processor was made without a collator.
+     * A UnicodeSetPrettyPrinter has state, so a new one is returned each time.
+     */
     public UnicodeSetPrettyPrinter getPrettyPrinter() {
-        return pp;
+        if (col == null) {
+            return null;
+        }
+        return new UnicodeSetPrettyPrinter()
+            .setCompressRanges(true)
+            .setToQuote(TO_QUOTE)
+            .setOrdering(col)
+            .setSpaceComparator(spaceCol);
     }
 
     /**
@@ -210,7 +205,7 @@ public class DisplayAndInputProcessor {
      * Called by getProcessor, with locale = SurveyMain.TRANS_HINT_LOCALE
      */
     public DisplayAndInputProcessor(ULocale locale, boolean needsCollator) {
-        init(this.locale = CLDRLocale.getInstance(locale), needsCollator);
+        this(CLDRLocale.getInstance(locale), needsCollator);
     }
 
     /**
@@ -219,7 +214,7 @@ public class DisplayAndInputProcessor {
      * @param locale the ULocale
      */
     public DisplayAndInputProcessor(ULocale locale) {
-        init(this.locale = CLDRLocale.getInstance(locale), true /* needsCollator */);
+        this(CLDRLocale.getInstance(locale), true /* needsCollator */);
     }
 
     /**
@@ -229,7 +224,65 @@ public class DisplayAndInputProcessor {
      * @param needsCollator true or false
      */
     public DisplayAndInputProcessor(CLDRLocale locale, boolean needsCollator) {
-        init(this.locale = locale, needsCollator);
+        this.locale = locale;
+        isPosix = locale.toString().indexOf("POSIX") >= 0;
+        localeFix = getLocaleFix(locale);
+        usesModifierApostrophe = LANGUAGES_USING_MODIFIER_APOSTROPHE.contains(locale.getLanguage());
+        if (needsCollator) {
+            ICUServiceBuilder isb = null;
+            try {
+                isb = ICUServiceBuilder.forLocale(locale);
+            } catch (Exception e) {
+            }
+
+            Collator collator;
+            if (isb != null) {
+                try {
+                    collator = isb.getRuleBasedCollator();
+                } catch (Exception e) {
+                    collator = Collator.getInstance(ULocale.ROOT);
+                }
+            } else {
+                collator = Collator.getInstance(ULocale.ROOT);
+            }
+            col = collator.freeze();
+
+            Collator spaceCollator = Collator.getInstance(locale.toULocale());
+            if (spaceCollator instanceof RuleBasedCollator) {
+                ((RuleBasedCollator) spaceCollator).setAlternateHandlingShifted(false);
+            }
+            spaceCol = spaceCollator.freeze();
+        } else {
+            col = null;
+            spaceCol = null;
+        }
+    }
+
+    private static LocaleFix getLocaleFix(CLDRLocale locale) {
+        if (locale.childOf(MALAYALAM)) {
+            return LocaleFix.MALAYALAM;
+        } else if (locale.childOf(ROMANIAN)) {
+            return LocaleFix.ROMANIAN;
+        } else if (locale.childOf(CATALAN)) {
+            return LocaleFix.CATALAN;
+        } else if (locale.childOf(NGOMBA)) {
+            return LocaleFix.NGOMBA;
+        } else if (locale.childOf(KWASIO)) {
+            return LocaleFix.KWASIO;
+        } else if (locale.childOf(HEBREW)) {
+            return LocaleFix.HEBREW;
+        } else if (locale.childOf(SWISS_GERMAN) || locale.childOf(GERMAN_SWITZERLAND)) {
+            return LocaleFix.SWISS_GERMAN;
+        } else if (locale.childOf(MYANMAR)) {
+            return LocaleFix.MYANMAR;
+        } else if (locale.childOf(KYRGYZ)) {
+            return LocaleFix.KYRGYZ;
+        } else if (locale.childOf(URDU) || locale.childOf(PASHTO) || locale.childOf(FARSI)) {
+            return LocaleFix.URDU_PLUS;
+        } else if (locale.childOf(FF_ADLAM)) {
+            return LocaleFix.ADLAM;
+        }
+        return LocaleFix.NONE;
     }
 
     /**
@@ -238,7 +291,7 @@ public class DisplayAndInputProcessor {
      * @param locale
      */
     public DisplayAndInputProcessor(CLDRLocale locale) {
-        init(this.locale = locale, true);
+        this(locale, true);
     }
 
     /**
@@ -250,14 +303,15 @@ public class DisplayAndInputProcessor {
      * @param fullPath
      * @return
      */
-    public synchronized String processForDisplay(String path, String value) {
+    public String processForDisplay(String path, String value) {
+        PathInfo pathInfo = getPathInfo(path);
         value = Normalizer.compose(value, false); // Always normalize all text to NFC.
-        if (hasUnicodeSetValue(path)) {
+        if (pathInfo.isUnicodeSet) {
             value = displayUnicodeSet(value);
-        } else if (path.contains("stopword")) {
+        } else if (pathInfo.isStopword) {
             return value.trim().isEmpty() ? "NONE" : value;
         } else {
-            NumericType numericType = NumericType.getNumericType(path);
+            NumericType numericType = pathInfo.getNumericType(path);
             if (numericType != NumericType.NOT_NUMERIC) {
                 // Canonicalize existing values that aren't canonicalized yet.
                 // New values will be canonicalized on input using processInput().
@@ -272,15 +326,15 @@ public class DisplayAndInputProcessor {
             }
         }
         // Fix up any apostrophes in number symbols
-        if (NUMBER_SEPARATOR_PATTERN.matcher(path).matches()) {
+        if (pathInfo.isNumberSeparator) {
             value = value.replace('\'', '\u2019');
         }
         // Fix up any apostrophes as appropriate (Don't do so for things like date patterns...
-        if (!APOSTROPHE_SKIP_PATHS.matcher(path).matches()) {
+        if (!pathInfo.skipApostrophes) {
             value = normalizeApostrophes(value);
         }
         // Fix up hyphens, replacing with N-dash as appropriate
-        if (INTERVAL_FORMAT_PATHS.matcher(path).matches()) {
+        if (pathInfo.isIntervalFormat) {
             value = normalizeIntervalHyphens(value);
         } else {
             value = normalizeHyphens(value);
@@ -288,10 +342,128 @@ public class DisplayAndInputProcessor {
         return value;
     }
 
-    private boolean hasUnicodeSetValue(String path) {
+    private static boolean hasUnicodeSetValue(String path) {
         return path.startsWith("//ldml/characters/exemplarCharacters") || path.startsWith("//ldml/characters/parseLenients");
     }
 
+    // Bounded, since processInput is also called with paths that aren't in any locale. This is
+    // well above the number of distinct paths in the locales, so in practice nothing is evicted.
+    private static final int PATH_INFO_LIMIT = 100_000;
+
+    private static final LoadingCache<String, PathInfo> PATH_INFO = CacheBuilder.newBuilder()
+        .maximumSize(PATH_INFO_LIMIT)
+        .build(
+            new CacheLoader<String, PathInfo>() {
+                @Override
+                public PathInfo load(String path) {
+                    return new PathInfo(path);
+                }
+            });
+
+    private static PathInfo getPathInfo(String path) {
+        return PATH_INFO.getUnchecked(path);
+    }
+
+    /**
+     * The facts about a path that decide which normalizations processInput and processForDisplay do.
+     * They don't depend on the locale, so they are computed once per path, instead of matching the
+     * path against the same patterns for each value.
+     */
+    private static final class PathInfo {
+        final boolean isUnicodeSet;
+        final boolean isAuxiliaryExemplars;
+        final boolean isStopword;
+        final boolean isAnnotations;
+        final boolean skipApostrophes;
+        final boolean isNumberSeparator;
+        final boolean isIntervalFormat;
+        final Pattern whitespace;
+        final String whitespaceReplacement;
+        final boolean trim;
+        final boolean isNumberSymbol;
+        final DateTimePatternType dateTimePatternType; // null if the pattern isn't canonicalized
+        final boolean isCurrencyDisplayName;
+        final NumericType numericType; // null if NumericType.getNumericType fails
+        final boolean replaceBrackets;
+        final boolean isUnits;
+        final boolean isEllipsis;
+        final boolean isAnnotation;
+        final boolean isTtsAnnotation;
+
+        PathInfo(String path) {
+            isUnicodeSet = hasUnicodeSetValue(path);
+            isAuxiliaryExemplars = path.contains("/exemplarCharacters[@type=\"auxiliary\"]");
+            isStopword = path.contains("stopword");
+            isAnnotations = path.contains("/annotations");
+            skipApostrophes = APOSTROPHE_SKIP_PATHS.matcher(path).matches();
+            isNumberSeparator = NUMBER_SEPARATOR_PATTERN.matcher(path).matches();
+            isIntervalFormat = INTERVAL_FORMAT_PATHS.matcher(path).matches();
+
+            // turn all whitespace sequences (including tab and newline, and NBSP for certain paths)
+            // into a single space or a single NBSP depending on path.
+            if ((path.contains("/dateFormatLength") && path.contains("/pattern")) ||
+                path.contains("/availableFormats/dateFormatItem") ||
+                (path.startsWith("//ldml/dates/timeZoneNames/metazone") && path.contains("/long")) ||
+                path.startsWith("//ldml/dates/timeZoneNames/regionFormat") ||
+                path.startsWith("//ldml/localeDisplayNames/codePatterns/codePattern") ||
+                path.startsWith("//ldml/localeDisplayNames/languages/language") ||
+                path.startsWith("//ldml/localeDisplayNames/territories/territory") ||
+                path.startsWith("//ldml/localeDisplayNames/types/type") ||
+                (path.startsWith("//ldml/numbers/currencies/currency") && path.contains("/displayName")) ||
+                (path.contains("/decimalFormatLength[@type=\"long\"]") && path.contains("/pattern")) ||
+                path.startsWith("//ldml/posix/messages") ||
+                (path.startsWith("//ldml/units/uni") && path.contains("/unitPattern "))) {
+                whitespace = WHITESPACE_AND_NBSP_TO_NORMALIZE;
+                whitespaceReplacement = " "; // replace with regular space
+            } else if ((path.contains("/currencies/currency") && (path.contains("/group") || path.contains("/pattern")))
+                ||
+                (path.contains("/currencyFormatLength") && path.contains("/pattern")) ||
+                (path.contains("/currencySpacing") && path.contains("/insertBetween")) ||
+                (path.contains("/decimalFormatLength") && path.contains("/pattern")) || // i.e. the non-long ones
+                (path.contains("/percentFormatLength") && path.contains("/pattern")) ||
+                (path.startsWith("//ldml/numbers/symbols") && (path.contains("/group") || path.contains("/nan")))) {
+                whitespace = WHITESPACE_AND_NBSP_TO_NORMALIZE;
+                whitespaceReplacement = "\u00A0"; // replace with NBSP
+            } else {
+                // in this case don't normalize away NBSP
+                whitespace = WHITESPACE_NO_NBSP_TO_NORMALIZE;
+                whitespaceReplacement = " "; // replace with regular space
+            }
+
+            // all of our values should not have leading or trailing spaces, except insertBetween
+            trim = !path.contains("/insertBetween") && !isUnicodeSet;
+            isNumberSymbol = path.startsWith("//ldml/numbers/symbols") && !path.contains("/alias");
+            DateTimePatternType type = DateTimePatternType.fromPath(path);
+            dateTimePatternType = DateTimePatternType.STOCK_AVAILABLE_INTERVAL_PATTERNS.contains(type) ? type : null;
+            isCurrencyDisplayName = path.startsWith("//ldml/numbers/currencies/currency") && path.contains("displayName");
+            NumericType numeric;
+            try {
+                numeric = NumericType.getNumericType(path);
+            } catch (IllegalArgumentException e) {
+                numeric = null;
+            }
+            numericType = numeric;
+            replaceBrackets = path.startsWith("//ldml/localeDisplayNames/languages/language")
+                || path.startsWith("//ldml/localeDisplayNames/scripts/script")
+                || path.startsWith("//ldml/localeDisplayNames/territories/territory")
+                || path.startsWith("//ldml/localeDisplayNames/variants/variant")
+                || path.startsWith("//ldml/localeDisplayNames/keys/key")
+                || path.startsWith("//ldml/localeDisplayNames/types/type");
+            isUnits = path.contains("/units");
+            isEllipsis = path.startsWith("//ldml/characters/ellipsis");
+            isAnnotation = path.startsWith("//ldml/annotations/annotation");
+            isTtsAnnotation = isAnnotation && path.contains(Emoji.TYPE_TTS);
+        }
+
+        /**
+         * Get the numeric type. If it couldn't be determined, call getNumericType again so that
+         * it throws the same exception.
+         */
+        NumericType getNumericType(String path) {
+            return numericType != null ? numericType : NumericType.getNumericType(path);
+        }
+    }
+
     static final UnicodeSet WHITESPACE = new UnicodeSet("[:whitespace:]").freeze();
     static final DateTimeCanonicalizer dtc = new DateTimeCanonicalizer(FIX_YEARS);
 
@@ -312,7 +484,7 @@ public class DisplayAndInputProcessor {
      * @param fullPath
      * @return
      */
-    public synchronized String processInput(String path, String value, Exception[] internalException) {
+    public String processInput(String path, String value, Exception[] internalException) {
         String original = value;
         value = stripProblematicControlCharacters(value);
         value = Normalizer.compose(value, false); // Always normalize all input to NFC.
@@ -323,51 +495,82 @@ public class DisplayAndInputProcessor {
         if (CldrUtility.INHERITANCE_MARKER.equals(value)) {
             return value; // Reference: https://unicode.org/cldr/trac/ticket/11261
         }
+        PathInfo pathInfo = getPathInfo(path);
         // for root annotations
-        if (CLDRLocale.ROOT.equals(locale) && path.contains("/annotations")) {
+        if (CLDRLocale.ROOT.equals(locale) && pathInfo.isAnnotations) {
             return value; // Reference: https://unicode.org/cldr/trac/ticket/11261
         }
 
         try {
-            // Normalise Malayalam characters.
-            boolean isUnicodeSet = hasUnicodeSetValue(path);
-            if (locale.childOf(MALAYALAM)) {
+            boolean isUnicodeSet = pathInfo.isUnicodeSet;
+            switch (localeFix) {
+            case MALAYALAM:
+                // Normalise Malayalam characters.
                 String newvalue = normalizeMalayalam(value);
                 if (DEBUG_DAIP) System.out.println("DAIP: Normalized Malayalam '" + value + "' to '" + newvalue + "'");
                 value = newvalue;
-            } else if (locale.childOf(ROMANIAN) && !isUnicodeSet) {
-                value = standardizeRomanian(value);
-            } else if (locale.childOf(CATALAN) && !isUnicodeSet) {
-                value = standardizeCatalan(value);
-            } else if (locale.childOf(NGOMBA) && !isUnicodeSet) {
-                value = standardizeNgomba(value);
-            } else if (locale.childOf(KWASIO) && !isUnicodeSet) {
-                value = standardizeKwasio(value);
-            } else if (locale.childOf(HEBREW) && !APOSTROPHE_SKIP_PATHS.matcher(path).matches()) {
-                value = replaceChars(path, value, HEBREW_CONVERSIONS, false);
-            } else if ((locale.childOf(SWISS_GERMAN) || locale.childOf(GERMAN_SWITZERLAND)) && !isUnicodeSet) {
-                value = standardizeSwissGerman(value);
-            } else if (locale.childOf(MYANMAR) && !isUnicodeSet) {
-                value = standardizeMyanmar(value);
-            } else if (locale.childOf(KYRGYZ)) {
-                value = replaceChars(path, value, KYRGYZ_CONVERSIONS, false);
-            } else if (locale.childOf(URDU) || locale.childOf(PASHTO) || locale.childOf(FARSI)) {
-                value = replaceChars(path, value, URDU_PLUS_CONVERSIONS, true);
-            } else if (locale.childOf(FF_ADLAM) && !isUnicodeSet) {
-                value = fixAdlamNasalization(value);
+                break;
+            case ROMANIAN:
+                if (!isUnicodeSet) {
+                    value = standardizeRomanian(value);
+                }
+                break;
+            case CATALAN:
+                if (!isUnicodeSet) {
+                    value = standardizeCatalan(value);
+                }
+                break;
+            case NGOMBA:
+                if (!isUnicodeSet) {
+                    value = standardizeNgomba(value);
+                }
+                break;
+            case KWASIO:
+                if (!isUnicodeSet) {
+                    value = standardizeKwasio(value);
+                }
+                break;
+            case HEBREW:
+                if (!pathInfo.skipApostrophes) {
+                    value = replaceChars(pathInfo, value, HEBREW_CONVERSIONS, false);
+                }
+                break;
+            case SWISS_GERMAN:
+                if (!isUnicodeSet) {
+                    value = standardizeSwissGerman(value);
+                }
+                break;
+            case MYANMAR:
+                if (!isUnicodeSet) {
+                    value = standardizeMyanmar(value);
+                }
+                break;
+            case KYRGYZ:
+                value = replaceChars(pathInfo, value, KYRGYZ_CONVERSIONS, false);
+                break;
+            case URDU_PLUS:
+                value = replaceChars(pathInfo, value, URDU_PLUS_CONVERSIONS, true);
+                break;
+            case ADLAM:
+                if (!isUnicodeSet) {
+                    value = fixAdlamNasalization(value);
+                }
+                break;
+            case NONE:
+                break;
             }
 
             if (UNICODE_WHITESPACE.containsSome(value)) {
-                value = normalizeWhitespace(path, value);
+                value = pathInfo.whitespace.matcher(value).replaceAll(pathInfo.whitespaceReplacement);
             }
 
             // all of our values should not have leading or trailing spaces, except insertBetween
-            if (!path.contains("/insertBetween") && !isUnicodeSet) {
+            if (pathInfo.trim) {
                 value = value.trim();
             }
 
             // fix grouping separator if space
-            if (path.startsWith("//ldml/numbers/symbols") && !path.contains("/alias")) {
+            if (pathInfo.isNumberSymbol) {
                 if (value.isEmpty()) {
                     value = "\u00A0";
                 }
@@ -375,19 +578,21 @@ public class DisplayAndInputProcessor {
             }
 
             // fix date patterns
-            DateTimePatternType datetimePatternType = DateTimePatternType.fromPath(path);
-            if (DateTimePatternType.STOCK_AVAILABLE_INTERVAL_PATTERNS.contains(datetimePatternType)) {
+            if (pathInfo.dateTimePatternType != null) {
                 try {
-                    value = dtc.getCanonicalDatePattern(path, value, datetimePatternType);
+                    // the canonicalizer has state
+                    synchronized (dtc) {
+                        value = dtc.getCanonicalDatePattern(path, value, pathInfo.dateTimePatternType);
+                    }
                 } catch (IllegalArgumentException ex) {
                     return value;
                 }
             }
 
-            if (path.startsWith("//ldml/numbers/currencies/currency") && path.contains("displayName")) {
+            if (pathInfo.isCurrencyDisplayName) {
                 value = normalizeCurrencyDisplayName(value);
             }
-            NumericType numericType = NumericType.getNumericType(path);
+            NumericType numericType = pathInfo.getNumericType(path);
             if (numericType != NumericType.NOT_NUMERIC) {
                 if (numericType == NumericType.CURRENCY) {
                     value = value.replaceAll(" ", "\u00A0");
@@ -406,31 +611,26 @@ public class DisplayAndInputProcessor {
             }
 
             // fix [,]
-            if (path.startsWith("//ldml/localeDisplayNames/languages/language")
-                || path.startsWith("//ldml/localeDisplayNames/scripts/script")
-                || path.startsWith("//ldml/localeDisplayNames/territories/territory")
-                || path.startsWith("//ldml/localeDisplayNames/variants/variant")
-                || path.startsWith("//ldml/localeDisplayNames/keys/key")
-                || path.startsWith("//ldml/localeDisplayNames/types/type")) {
+            if (pathInfo.replaceBrackets) {
                 value = value.replace('[', '(').replace(']', ')').replace('［', '（').replace('］', '）');
             }
 
             // Normalize two single quotes for the inches symbol.
-            if (path.contains("/units")) {
+            if (pathInfo.isUnits) {
                 value = value.replace("''", "″");
             }
 
             // check specific cases
             if (isUnicodeSet) {
                 value = inputUnicodeSet(path, value);
-            } else if (path.contains("stopword")) {
+            } else if (pathInfo.isStopword) {
                 if (value.equals("NONE")) {
                     value = "";
                 }
             }
 
             // Normalize ellipsis data.
-            if (path.startsWith("//ldml/characters/ellipsis")) {
+            if (pathInfo.isEllipsis) {
                 value = value.replace("...", "…");
             }
 
@@ -438,22 +638,22 @@ public class DisplayAndInputProcessor {
             value = replaceArabicPresentationForms(value);
 
             // Fix up any apostrophes as appropriate (Don't do so for things like date patterns...
-            if (!APOSTROPHE_SKIP_PATHS.matcher(path).matches()) {
+            if (!pathInfo.skipApostrophes) {
                 value = normalizeApostrophes(value);
             }
             // Fix up any apostrophes in number symbols
-            if (NUMBER_SEPARATOR_PATTERN.matcher(path).matches()) {
+            if (pathInfo.isNumberSeparator) {
                 value = value.replace('\'', '\u2019');
             }
             // Fix up hyphens, replacing with N-dash as appropriate
-            if (INTERVAL_FORMAT_PATHS.matcher(path).matches()) {
+            if (pathInfo.isIntervalFormat) {
                 value = normalizeIntervalHyphens(value);
             } else if (!isUnicodeSet) {
                 value = normalizeHyphens(value);
             }
 
-            if (path.startsWith("//ldml/annotations/annotation")) {
-                if (path.contains(Emoji.TYPE_TTS)) {
+            if (pathInfo.isAnnotation) {
+                if (pathInfo.isTtsAnnotation) {
                     // The row has something like "🦓 -name" in the first column. Cf. namePath, getNamePaths.
                     // Normally the value is like "zebra" or "unicorn face", without "|".
                     // If the user enters a value with "|",  discard anything after "|"; e.g., change "a | b | c" to "a".
@@ -577,38 +777,7 @@ public class DisplayAndInputProcessor {
         }
         final String type = parts.getAttributeValue(-1, "type");
         ExemplarType exemplarType = type == null ? ExemplarType.main : ExemplarType.valueOf(type);
-        value = getCleanedUnicodeSet(exemplar, pp, exemplarType);
-        return value;
-    }
-
-    private String normalizeWhitespace(String path, String value) {
-        // turn all whitespace sequences (including tab and newline, and NBSP for certain paths)
-        // into a single space or a single NBSP depending on path.
-        if ((path.contains("/dateFormatLength") && path.contains("/pattern")) ||
-            path.contains("/availableFormats/dateFormatItem") ||
-            (path.startsWith("//ldml/dates/timeZoneNames/metazone") && path.contains("/long")) ||
-            path.startsWith("//ldml/dates/timeZoneNames/regionFormat") ||
-            path.startsWith("//ldml/localeDisplayNames/codePatterns/codePattern") ||
-            path.startsWith("//ldml/localeDisplayNames/languages/language") ||
-            path.startsWith("//ldml/localeDisplayNames/territories/territory") ||
-            path.startsWith("//ldml/localeDisplayNames/types/type") ||
-            (path.startsWith("//ldml/numbers/currencies/currency") && path.contains("/displayName")) ||
-            (path.contains("/decimalFormatLength[@type=\"long\"]") && path.contains("/pattern")) ||
-            path.startsWith("//ldml/posix/messages") ||
-            (path.startsWith("//ldml/units/uni") && path.contains("/unitPattern "))) {
-            value = WHITESPACE_AND_NBSP_TO_NORMALIZE.matcher(value).replaceAll(" "); // replace with regular space
-        } else if ((path.contains("/currencies/currency") && (path.contains("/group") || path.contains("/pattern")))
-            ||
-            (path.contains("/currencyFormatLength") && path.contains("/pattern")) ||
-            (path.contains("/currencySpacing") && path.contains("/insertBetween")) ||
-            (path.contains("/decimalFormatLength") && path.contains("/pattern")) || // i.e. the non-long ones
-            (path.contains("/percentFormatLength") && path.contains("/pattern")) ||
-            (path.startsWith("//ldml/numbers/symbols") && (path.contains("/group") || path.contains("/nan")))) {
-            value = WHITESPACE_AND_NBSP_TO_NORMALIZE.matcher(value).replaceAll("\u00A0"); // replace with NBSP
-        } else {
-            // in this case don't normalize away NBSP
-            value = WHITESPACE_NO_NBSP_TO_NORMALIZE.matcher(value).replaceAll(" "); // replace with regular space
-        }
+        value = getCleanedUnicodeSet(exemplar, getPrettyPrinter(), exemplarType);
         return value;
     }
 
@@ -633,7 +802,7 @@ public class DisplayAndInputProcessor {
     private String normalizeApostrophes(String value) {
         // If our DAIP always had a CLDRFile to work with, then we could just check the exemplar set in it to see.
         // But since we don't, we just maintain the list internally and use it.
-        if (LANGUAGES_USING_MODIFIER_APOSTROPHE.contains(locale.getLanguage())) {
+        if (usesModifierApostrophe) {
             return value.replace('\'', '\u02bc');
         } else {
             char prev = 0;
@@ -751,8 +920,8 @@ public class DisplayAndInputProcessor {
         return builder.toString();
     }
 
-    private String replaceChars(String path, String value, char[][] charsToReplace, boolean skipAuxExemplars) {
-        if (skipAuxExemplars && path.contains("/exemplarCharacters[@type=\"auxiliary\"]")) {
+    private String replaceChars(PathInfo pathInfo, String value, char[][] charsToReplace, boolean skipAuxExemplars) {
+        if (skipAuxExemplars && pathInfo.isAuxiliaryExemplars) {
             return value;
         }
         StringBuilder builder = new StringBuilder();
@@ -29,6 +29,10 @@ import org.unicode.cldr.util.PathStarrer;
  *
  * Unlike TestCache.exampleGeneratorCache, this cache doesn't get cleared to conserve memory,
  * only to adapt to changed winning values.
+ *
+ * The cache is thread-safe. An ExampleCacheItem holds on to the maps it looked in, so an example
+ * made while its maps are being removed by update (with a winning value that may be out of date)
+ * goes into the removed maps, and not into the cache.
  */
 class ExampleCache {
     /**
@@ -78,31 +82,21 @@ class ExampleCache {
             if (!cachingIsEnabled) {
                 return null;
             }
-            String result = null;
-            starredPath = pathStarrer.set(xpath);
-            pathMap = cache.get(starredPath);
-            if (pathMap != null) {
-                valueMap = pathMap.get(xpath);
-                if (valueMap != null) {
-                    result = valueMap.get(value);
-                }
-            }
+            starredPath = new PathStarrer().setSubstitutionPattern("*").set(xpath);
+            pathMap = cache.computeIfAbsent(starredPath, k -> new ConcurrentHashMap<>());
+            valueMap = pathMap.computeIfAbsent(xpath, k -> new ConcurrentHashMap<>());
+            String result = valueMap.get(value);
             if (cacheOnly && result == NONE) {
                 throw new InternalError("getExampleHtml cacheOnly not found: " + xpath + ", " + value);
             }
             return (result == NONE) ? null : result;
         }
 
+        /**
+         * Put the example html for this item, after getExample returned null
+         */
         void putExample(String result) {
-            if (cachingIsEnabled) {
-                if (pathMap == null) {
-                    pathMap = new ConcurrentHashMap<>();
-                    cache.put(starredPath, pathMap);
-                }
-                if (valueMap == null) {
-                    valueMap = new ConcurrentHashMap<>();
-                    pathMap.put(xpath, valueMap);
-                }
+            if (valueMap != null) {
                 valueMap.put(value, (result == null) ? NONE : result);
             }
         }
@@ -134,16 +128,16 @@ class ExampleCache {
     private final Map<String, Map<String, Map<String, String>>> cache = new ConcurrentHashMap<>();
 
     /**
-     * The PathStarrer is for getting starredPath from an ordinary (starless) path.
-     * Inclusion of starred paths enables performance improvement with AVOID_CLEARING_CACHE.
+     * A PathStarrer (which isn't thread-safe, so one is made per use) is for getting starredPath
+     * from an ordinary (starless) path. Inclusion of starred paths enables performance improvement
+     * with AVOID_CLEARING_CACHE.
      */
-    private final PathStarrer pathStarrer = new PathStarrer().setSubstitutionPattern("*");
 
     /**
      * For testing, caching can be disabled for some ExampleCaches while still
      * enabled for others.
      */
-    private boolean cachingIsEnabled = true;
+    private volatile boolean cachingIsEnabled = true;
 
     void setCachingEnabled(boolean enabled) {
         cachingIsEnabled = enabled;
@@ -154,7 +148,7 @@ class ExampleCache {
      * mode, where they will throw an exception if queried for a path+value that isn't
      * already in the cache. See TestExampleGeneratorDependencies.
      */
-    private boolean cacheOnly = false;
+    private volatile boolean cacheOnly = false;
 
     void setCacheOnly(boolean only) {
         this.cacheOnly = only;
@@ -176,7 +170,7 @@ class ExampleCache {
      */
     void update(String xpath) {
         if (AVOID_CLEARING_CACHE) {
-            String starredA = pathStarrer.set(xpath);
+            String starredA = new PathStarrer().setSubstitutionPattern("*").set(xpath);
             for (String starredB : ExampleDependencies.dependencies.get(starredA)) {
                 cache.remove(starredB);
             }
@@ -7,14 +7,20 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -90,8 +96,8 @@ public class ExampleGenerator {
 
     final static boolean DEBUG_SHOW_HELP = false;
 
-    private static SupplementalDataInfo supplementalDataInfo;
-    private PathDescription pathDescription;
+    private static volatile SupplementalDataInfo supplementalDataInfo;
+    private volatile PathDescription pathDescription;
 
     public void setCachingEnabled(boolean enabled) {
         exCache.setCachingEnabled(enabled);
@@ -113,8 +119,8 @@ public class ExampleGenerator {
     private final static Date DATE_SAMPLE3;
     private final static Date DATE_SAMPLE4;
 
-    private String backgroundStart = "<span class='cldr_substituted'>";
-    private String backgroundEnd = "</span>";
+    private volatile String backgroundStart = "<span class='cldr_substituted'>";
+    private volatile String backgroundEnd = "</span>";
 
     private static final String exampleStart = "<div class='cldr_example'>";
     private static final String exampleEnd = "</div>";
@@ -138,9 +144,7 @@ public class ExampleGenerator {
      * can be used to modify it. It must be initialized here to false, otherwise
      * cldr-unittest TestAll.java fails. Reference: https://unicode.org/cldr/trac/ticket/12025
      */
-    private boolean verboseErrors = false;
-
-    private Calendar calendar = Calendar.getInstance(ZONE_SAMPLE, ULocale.ENGLISH);
+    private volatile boolean verboseErrors = false;
 
     static {
         Calendar calendar = Calendar.getInstance(ZONE_SAMPLE, ULocale.ENGLISH);
@@ -155,16 +159,15 @@ public class ExampleGenerator {
         DATE_SAMPLE4 = calendar.getTime();
     }
 
-    private CLDRFile cldrFile;
+    private final CLDRFile cldrFile;
 
     public CLDRFile getCldrFile() {
         return cldrFile;
     }
 
-    private CLDRFile englishFile;
-    Matcher URLMatcher = URL_PATTERN.matcher("");
+    private final CLDRFile englishFile;
 
-    private ExampleCache exCache = new ExampleCache();
+    private final ExampleCache exCache = new ExampleCache();
 
     /**
      * For this (locale-specific) ExampleGenerator, clear the cached examples for
@@ -179,13 +182,74 @@ public class ExampleGenerator {
         exCache.update(xpath);
     }
 
-    private ICUServiceBuilder icuServiceBuilder = new ICUServiceBuilder();
+    /**
+     * The formatting objects for one example at a time. ICU formats aren't thread-safe, and ICUServiceBuilder
+     * caches the formats it returns (which callers then modify), so each thread making an example takes its own
+     * from the generator's pool, and gives them back when done.
+     */
+    private static final class Formatters {
+        final CLDRFile cldrFile;
+        final ICUServiceBuilder icuServiceBuilder;
+        final Calendar calendar = Calendar.getInstance(ZONE_SAMPLE, ULocale.ENGLISH);
+
+        Formatters(CLDRFile cldrFile) {
+            this.cldrFile = cldrFile;
+            this.icuServiceBuilder = new ICUServiceBuilder().setCldrFile(cldrFile);
+        }
+    }
 
-    private PluralInfo pluralInfo;
+    private static final int MAX_POOLED_FORMATTERS = Math.max(2, Runtime.getRuntime().availableProcessors());
 
-    private PluralSamples patternExamples;
+    private final BlockingQueue<Formatters> formattersPool = new ArrayBlockingQueue<>(MAX_POOLED_FORMATTERS);
 
-    private Map<String, String> subdivisionIdToName;
+    /**
+     * The formatters taken by the current thread, while it is in withFormatters. The value is removed
+     * afterwards, so that the thread doesn't keep the generator (and its CLDRFile) reachable.
+     */
+    private static final ThreadLocal<Formatters> CURRENT_FORMATTERS = new ThreadLocal<>();
+
+    /**
+     * Do the work with formatters from the pool, unless this thread already has this generator's formatters.
+     */
+    private <T> T withFormatters(Supplier<T> work) {
+        final Formatters current = CURRENT_FORMATTERS.get();
+        if (current != null && current.cldrFile == cldrFile) {
+            return work.get();
+        }
+        Formatters mine = formattersPool.poll();
+        if (mine == null) {
+            mine = new Formatters(cldrFile);
+        }
+        CURRENT_FORMATTERS.set(mine);
+        try {
+            return work.get();
+        } finally {
+            if (current == null) {
+                CURRENT_FORMATTERS.remove();
+            } else {
+                CURRENT_FORMATTERS.set(current);
+            }
+            formattersPool.offer(mine); // dropped if the pool is full
+        }
+    }
+
+    private Formatters formatters() {
+        final Formatters current = CURRENT_FORMATTERS.get();
+        if (current != null && current.cldrFile == cldrFile) {
+            return current;
+        }
+        return new Formatters(cldrFile); // called outside withFormatters: correct, but not reused
+    }
+
+    private ICUServiceBuilder icuServiceBuilder() {
+        return formatters().icuServiceBuilder;
+    }
+
+    private final PluralInfo pluralInfo;
+
+    private volatile PluralSamples patternExamples;
+
+    private final Map<String, String> subdivisionIdToName;
 
     /**
      * For getting the end of the "background" style. Default is "</span>". It is
@@ -247,10 +311,10 @@ public class ExampleGenerator {
      * True if this ExampleGenerator is especially for generating "English" examples,
      * false if it is for generating "native" examples.
      */
-    private boolean typeIsEnglish;
+    private final boolean typeIsEnglish;
 
     /**
-     * Create an Example Generator. If this is shared across threads, it must be synchronized.
+     * Create an Example Generator. It may be shared across threads.
      *
      * @param resolvedCldrFile
      * @param englishFile
@@ -267,13 +331,13 @@ public class ExampleGenerator {
         this.subdivisionIdToName = EmojiSubdivisionNames.getSubdivisionIdToName(cldrFile.getLocaleID());
         this.englishFile = englishFile;
         this.typeIsEnglish = (resolvedCldrFile == englishFile);
-        synchronized (ExampleGenerator.class) {
-            if (supplementalDataInfo == null) {
-                supplementalDataInfo = SupplementalDataInfo.getInstance(supplementalDataDirectory);
+        if (supplementalDataInfo == null) {
+            synchronized (ExampleGenerator.class) {
+                if (supplementalDataInfo == null) {
+                    supplementalDataInfo = SupplementalDataInfo.getInstance(supplementalDataDirectory);
+                }
             }
         }
-        icuServiceBuilder.setCldrFile(cldrFile);
-
         pluralInfo = supplementalDataInfo.getPlurals(PluralType.cardinal, cldrFile.getLocaleID());
 
         if (DEBUG_EXAMPLE_GENERATOR) {
@@ -318,7 +382,8 @@ public class ExampleGenerator {
             if (result != null) {
                 return result;
             }
-            result = constructExampleHtml(xpath, value);
+            final String valueToUse = value;
+            result = withFormatters(() -> constructExampleHtml(xpath, valueToUse));
             cacheItem.putExample(result);
         } catch (RuntimeException e) {
             e.printStackTrace();
@@ -328,6 +393,50 @@ public class ExampleGenerator {
         return result;
     }
 
+    /**
+     * Get the examples for the current values of many paths, as by getExampleHtml.
+     *
+     * @param xpaths the paths
+     * @return a map from each path to its example HTML, or null if it has none
+     */
+    public Map<String, String> getExamples(Collection<String> xpaths) {
+        Map<String, Collection<String>> valuesByPath = new LinkedHashMap<>();
+        for (String xpath : xpaths) {
+            valuesByPath.put(xpath, Collections.singleton(cldrFile.getStringValue(xpath)));
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        for (Entry<String, Map<String, String>> entry : getExamples(valuesByPath).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().values().iterator().next());
+        }
+        return result;
+    }
+
+    /**
+     * Get the examples for many paths and values, such as all the candidate values on a Survey Tool page,
+     * as by getExampleHtml. The examples are made on the calling thread, with one set of formatters.
+     *
+     * @param valuesByPath for each path, the values to get examples for
+     * @return for each path, a map from each value to its example HTML, or null if it has none
+     */
+    public Map<String, Map<String, String>> getExamples(Map<String, ? extends Collection<String>> valuesByPath) {
+        List<String> paths = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (Entry<String, ? extends Collection<String>> entry : valuesByPath.entrySet()) {
+            for (String value : entry.getValue()) {
+                paths.add(entry.getKey());
+                values.add(value);
+            }
+        }
+        return withFormatters(() -> {
+            Map<String, Map<String, String>> result = new LinkedHashMap<>();
+            for (int i = 0; i < paths.size(); ++i) {
+                result.computeIfAbsent(paths.get(i), k -> new LinkedHashMap<>())
+                    .put(values.get(i), getExampleHtml(paths.get(i), values.get(i)));
+            }
+            return result;
+        });
+    }
+
     /**
      * Do the main work of getExampleHtml given that the result was not
      * found in the cache.
@@ -584,7 +693,7 @@ public class ExampleGenerator {
             R3<Integer, Integer, Boolean> info = dayPeriodInfo.getFirstDayPeriodInfo(dayPeriod);
             int time = (((info.get0() + info.get1()) % DayPeriodInfo.DAY_LIMIT) / 2);
             //String calendar = parts.getAttributeValue(3, "type");
-            String timeFormatString = icuServiceBuilder.formatDayPeriod(time, backgroundStartSymbol + value + backgroundEndSymbol);
+            String timeFormatString = icuServiceBuilder().formatDayPeriod(time, backgroundStartSymbol + value + backgroundEndSymbol);
             examples.add(invertBackground(timeFormatString));
         }
         return formatExampleList(examples.toArray(new String[examples.size()]));
@@ -604,7 +713,7 @@ public class ExampleGenerator {
         @SuppressWarnings("deprecation")
         FixedDecimal amount = getBest(Count.valueOf(count));
         if (amount != null) {
-            DecimalFormat numberFormat = icuServiceBuilder.getNumberFormat(1);
+            DecimalFormat numberFormat = icuServiceBuilder().getNumberFormat(1);
             examples.add(format(value, backgroundStartSymbol + numberFormat.format(amount) + backgroundEndSymbol));
         }
         if (parts.getElement(-2).equals("unit")) {
@@ -637,7 +746,7 @@ public class ExampleGenerator {
     }
 
     private String handleFormatPerUnit(XPathParts parts, String value) {
-        DecimalFormat numberFormat = icuServiceBuilder.getNumberFormat(1);
+        DecimalFormat numberFormat = icuServiceBuilder().getNumberFormat(1);
         return format(value, backgroundStartSymbol + numberFormat.format(1) + backgroundEndSymbol);
     }
 
@@ -648,8 +757,12 @@ public class ExampleGenerator {
         return handleCompoundUnit(unitLength, compoundType, count);
     }
 
-    @SuppressWarnings("deprecation")
     public String handleCompoundUnit(UnitLength unitLength, String compoundType, Count count) {
+        return withFormatters(() -> handleCompoundUnitInternal(unitLength, compoundType, count));
+    }
+
+    @SuppressWarnings("deprecation")
+    private String handleCompoundUnitInternal(UnitLength unitLength, String compoundType, Count count) {
         /**
          *  <units>
         <unitLength type="long">
@@ -688,7 +801,7 @@ public class ExampleGenerator {
             unit2mid = getFormattedUnit("duration-second", unitLength, oneValue, "");
             break;
         case "times":
-            unit1mid = getFormattedUnit("force-newton", unitLength, oneValue, icuServiceBuilder.getNumberFormat(1).format(amount));
+            unit1mid = getFormattedUnit("force-newton", unitLength, oneValue, icuServiceBuilder().getNumberFormat(1).format(amount));
             unit2mid = getFormattedUnit("length-meter", unitLength, amount, "");
             break;
         }
@@ -722,6 +835,10 @@ public class ExampleGenerator {
     }
 
     public String handleCompoundUnit1(UnitLength unitLength, Count count, String compoundPattern) {
+        return withFormatters(() -> handleCompoundUnit1Internal(unitLength, count, compoundPattern));
+    }
+
+    private String handleCompoundUnit1Internal(UnitLength unitLength, Count count, String compoundPattern) {
 
         // we want to get a number that works for the count passed in.
         @SuppressWarnings("deprecation")
@@ -729,7 +846,7 @@ public class ExampleGenerator {
         if (amount == null) {
             return "n/a";
         }
-        DecimalFormat numberFormat = icuServiceBuilder.getNumberFormat(1);
+        DecimalFormat numberFormat = icuServiceBuilder().getNumberFormat(1);
 
         @SuppressWarnings("deprecation")
         String form1 = this.pluralInfo.getPluralRules().select(amount);
@@ -783,7 +900,7 @@ public class ExampleGenerator {
     }
 
     private String handleMiscPatterns(XPathParts parts, String value) {
-        DecimalFormat numberFormat = icuServiceBuilder.getNumberFormat(0);
+        DecimalFormat numberFormat = icuServiceBuilder().getNumberFormat(0);
         String start = backgroundStartSymbol + numberFormat.format(99) + backgroundEndSymbol;
         if ("range".equals(parts.getAttributeValue(-1, "type"))) {
             String end = backgroundStartSymbol + numberFormat.format(144) + backgroundEndSymbol;
@@ -793,16 +910,13 @@ public class ExampleGenerator {
         }
     }
 
-    private IntervalFormat intervalFormat = new IntervalFormat();
-
-    private static Calendar generatingCalendar = Calendar.getInstance(ULocale.US);
-
+    /**
+     * Only used to initialize static dates, so a new Calendar each time is fine
+     */
     private static Date getDate(int year, int month, int date, int hour, int minute, int second) {
-        synchronized (generatingCalendar) {
-            generatingCalendar.setTimeZone(GMT_ZONE_SAMPLE);
-            generatingCalendar.set(year, month, date, hour, minute, second);
-            return generatingCalendar.getTime();
-        }
+        Calendar calendar = Calendar.getInstance(GMT_ZONE_SAMPLE, ULocale.US);
+        calendar.set(year, month, date, hour, minute, second);
+        return calendar.getTime();
     }
 
     private static Date FIRST_INTERVAL = getDate(2008, 1, 13, 5, 7, 9);
@@ -841,6 +955,7 @@ public class ExampleGenerator {
         // intervalFormatFallback
         // //ldml/dates/calendars/calendar[@type="gregorian"]/dateTimeFormats/intervalFormats/intervalFormatItem[@id="yMd"]/greatestDifference[@id="y"]
         // find where to split the value
+        IntervalFormat intervalFormat = new IntervalFormat();
         intervalFormat.setPattern(parts, value);
         Date later = SECOND_INTERVAL.get(greatestDifference);
         if (later == null) {
@@ -945,7 +1060,7 @@ public class ExampleGenerator {
 
     @SuppressWarnings("deprecation")
     private String getFormattedUnit(String unitType, UnitLength unitWidth, FixedDecimal unitAmount) {
-        DecimalFormat numberFormat = icuServiceBuilder.getNumberFormat(1);
+        DecimalFormat numberFormat = icuServiceBuilder().getNumberFormat(1);
         return getFormattedUnit(unitType, unitWidth, unitAmount, numberFormat.format(unitAmount));
     }
 
@@ -1061,7 +1176,7 @@ public class ExampleGenerator {
         }
         String calendar = parts.getAttributeValue(3, "type");
 
-        SimpleDateFormat sdf = icuServiceBuilder.getDateFormat(calendar, 0, DateFormat.MEDIUM, null);
+        SimpleDateFormat sdf = icuServiceBuilder().getDateFormat(calendar, 0, DateFormat.MEDIUM, null);
         String zone = cldrFile.getStringValue("//ldml/dates/timeZoneNames/gmtZeroFormat");
         String result = format(value, setBackground(sdf.format(DATE_SAMPLE)), setBackground(zone));
         return result;
@@ -1134,17 +1249,17 @@ public class ExampleGenerator {
                 }
             }
             String calendar = parts.findAttributeValue("calendar", "type");
-            firstFormat = icuServiceBuilder.getDateFormat(calendar, first.toString());
+            firstFormat = icuServiceBuilder().getDateFormat(calendar, first.toString());
             firstFormat.setTimeZone(GMT_ZONE_SAMPLE);
 
-            secondFormat = icuServiceBuilder.getDateFormat(calendar, second.toString());
+            secondFormat = icuServiceBuilder().getDateFormat(calendar, second.toString());
             secondFormat.setTimeZone(GMT_ZONE_SAMPLE);
             return this;
         }
     }
 
     private String handleDurationUnit(String value) {
-        DateFormat df = this.icuServiceBuilder.getDateFormat("gregorian", value.replace('h', 'H'));
+        DateFormat df = icuServiceBuilder().getDateFormat("gregorian", value.replace('h', 'H'));
         df.setTimeZone(TimeZone.GMT_ZONE);
         long time = ((5 * 60 + 37) * 60 + 23) * 1000;
         return df.format(new Date(time));
@@ -1194,7 +1309,7 @@ public class ExampleGenerator {
         getStartEndSamples(pluralRules.getDecimalSamples(countString, SampleType.DECIMAL), exampleCount);
 
         String result = "";
-        DecimalFormat currencyFormat = icuServiceBuilder.getCurrencyFormat(unitType);
+        DecimalFormat currencyFormat = icuServiceBuilder().getCurrencyFormat(unitType);
         int decimalCount = currencyFormat.getMinimumFractionDigits();
 
         // we will cycle until we have (at most) two examples.
@@ -1291,7 +1406,7 @@ public class ExampleGenerator {
             // get the format for the currency
             // TODO fix this for special currency overrides
 
-            DecimalFormat unitDecimalFormat = icuServiceBuilder.getNumberFormat(1); // decimal
+            DecimalFormat unitDecimalFormat = icuServiceBuilder().getNumberFormat(1); // decimal
             unitDecimalFormat.setMaximumFractionDigits(example.getVisibleDecimalDigitCount());
             unitDecimalFormat.setMinimumFractionDigits(example.getVisibleDecimalDigitCount());
 
@@ -1366,7 +1481,7 @@ public class ExampleGenerator {
             // We don't have an example for the list symbol either.
             return null;
         }
-        DecimalFormat x = icuServiceBuilder.getNumberFormat(index, numberSystem);
+        DecimalFormat x = icuServiceBuilder().getNumberFormat(index, numberSystem);
         String example;
         String formattedValue;
         if (isSuperscripting) {
@@ -1392,7 +1507,7 @@ public class ExampleGenerator {
     }
 
     private String handleNumberingSystem(String value) {
-        NumberFormat x = icuServiceBuilder.getGenericNumberFormat(value);
+        NumberFormat x = icuServiceBuilder().getGenericNumberFormat(value);
         x.setGroupingUsed(false);
         return x.format(NUMBER_SAMPLE_WHOLE);
     }
@@ -1522,13 +1637,13 @@ public class ExampleGenerator {
             String dateNumbersOverride = parts.findAttributeValue("pattern", "numbers");
             parts = XPathParts.getFrozenInstance(cldrFile.getFullXPath(timeFormatXPath));
             String timeNumbersOverride = parts.findAttributeValue("pattern", "numbers");
-            SimpleDateFormat df = icuServiceBuilder.getDateFormat(calendar, dateFormatValue, dateNumbersOverride);
-            SimpleDateFormat tf = icuServiceBuilder.getDateFormat(calendar, timeFormatValue, timeNumbersOverride);
+            SimpleDateFormat df = icuServiceBuilder().getDateFormat(calendar, dateFormatValue, dateNumbersOverride);
+            SimpleDateFormat tf = icuServiceBuilder().getDateFormat(calendar, timeFormatValue, timeNumbersOverride);
             df.setTimeZone(ZONE_SAMPLE);
             tf.setTimeZone(ZONE_SAMPLE);
             String dfResult = "'" + df.format(DATE_SAMPLE) + "'";
             String tfResult = "'" + tf.format(DATE_SAMPLE) + "'";
-            SimpleDateFormat dtf = icuServiceBuilder.getDateFormat(calendar,
+            SimpleDateFormat dtf = icuServiceBuilder().getDateFormat(calendar,
                 MessageFormat.format(value, (Object[]) new String[] { setBackground(tfResult), setBackground(dfResult) }));
             return dtf.format(DATE_SAMPLE);
         } else {
@@ -1537,7 +1652,7 @@ public class ExampleGenerator {
                 return startItalicSymbol + "n/a" + endItalicSymbol;
             } else {
                 String numbersOverride = parts.findAttributeValue("pattern", "numbers");
-                SimpleDateFormat sdf = icuServiceBuilder.getDateFormat(calendar, value, numbersOverride);
+                SimpleDateFormat sdf = icuServiceBuilder().getDateFormat(calendar, value, numbersOverride);
                 sdf.setTimeZone(ZONE_SAMPLE);
                 String defaultNumberingSystem = cldrFile.getWinningValue("//ldml/numbers/defaultNumberingSystem");
                 String timeSeparator = cldrFile.getWinningValue("//ldml/numbers/symbols[@numberSystem='" + defaultNumberingSystem + "']/timeSeparator");
@@ -1572,7 +1687,7 @@ public class ExampleGenerator {
         String currencySymbol = cldrFile.getWinningValue(checkPath);
         String numberSystem = parts.getAttributeValue(2, "numberSystem"); // null if not present
 
-        DecimalFormat df = icuServiceBuilder.getCurrencyFormat(currency, currencySymbol, numberSystem);
+        DecimalFormat df = icuServiceBuilder().getCurrencyFormat(currency, currencySymbol, numberSystem);
         df.applyPattern(value);
 
         String countValue = parts.getAttributeValue(-1, "count");
@@ -1615,7 +1730,7 @@ public class ExampleGenerator {
      */
     private String handleDecimalFormat(XPathParts parts, String value) {
         String numberSystem = parts.getAttributeValue(2, "numberSystem"); // null if not present
-        DecimalFormat numberFormat = icuServiceBuilder.getNumberFormat(value, numberSystem);
+        DecimalFormat numberFormat = icuServiceBuilder().getNumberFormat(value, numberSystem);
         String countValue = parts.getAttributeValue(-1, "count");
         if (countValue != null) {
             return formatCountDecimal(numberFormat, countValue);
@@ -1674,8 +1789,9 @@ public class ExampleGenerator {
      * @return
      */
     private Double getExampleForPattern(DecimalFormat format, Count count) {
+        PluralSamples patternExamples = this.patternExamples;
         if (patternExamples == null) {
-            patternExamples = PluralSamples.getInstance(cldrFile.getLocaleID());
+            this.patternExamples = patternExamples = PluralSamples.getInstance(cldrFile.getLocaleID());
         }
         int numDigits = format.getMinimumIntegerDigits();
         Map<Count, Double> samples = patternExamples.getSamples(numDigits);
@@ -1691,7 +1807,7 @@ public class ExampleGenerator {
                 value = cf.format(NUMBER_SAMPLE);
             }
             String result;
-            DecimalFormat x = icuServiceBuilder.getCurrencyFormat(currency, value);
+            DecimalFormat x = icuServiceBuilder().getCurrencyFormat(currency, value);
             result = x.format(NUMBER_SAMPLE);
             result = setBackground(result).replace(value, backgroundEndSymbol + value + backgroundStartSymbol);
             return result;
@@ -1703,7 +1819,7 @@ public class ExampleGenerator {
 
     private String handleDateRangePattern(String value) {
         String result;
-        SimpleDateFormat dateFormat = icuServiceBuilder.getDateFormat("gregorian", 2, 0);
+        SimpleDateFormat dateFormat = icuServiceBuilder().getDateFormat("gregorian", 2, 0);
         result = format(value, setBackground(dateFormat.format(DATE_SAMPLE)),
             setBackground(dateFormat.format(DATE_SAMPLE2)));
         return result;
@@ -2038,8 +2154,9 @@ public class ExampleGenerator {
         }
         String[] plusMinus = gmtHourString.split(";");
 
-        SimpleDateFormat dateFormat = icuServiceBuilder.getDateFormat("gregorian", plusMinus[hours >= 0 ? 0 : 1]);
+        SimpleDateFormat dateFormat = icuServiceBuilder().getDateFormat("gregorian", plusMinus[hours >= 0 ? 0 : 1]);
         dateFormat.setTimeZone(ZONE_SAMPLE);
+        Calendar calendar = formatters().calendar;
         calendar.set(1999, 9, 27, Math.abs(hours), minutes, 0); // 1999-09-13 13:25:59
         Date sample = calendar.getTime();
         String hourString = dateFormat.format(sample);
@@ -2058,8 +2175,9 @@ public class ExampleGenerator {
             timeFormat = "HH:mm";
         }
         // the following is <= because the TZDB inverts the hours
-        SimpleDateFormat dateFormat = icuServiceBuilder.getDateFormat("gregorian", timeFormat);
+        SimpleDateFormat dateFormat = icuServiceBuilder().getDateFormat("gregorian", timeFormat);
         dateFormat.setTimeZone(ZONE_SAMPLE);
+        Calendar calendar = formatters().calendar;
         calendar.set(1999, 9, 13, 13, 25, 59); // 1999-09-13 13:25:59
         Date sample = calendar.getTime();
         String result = dateFormat.format(sample);
@@ -2080,33 +2198,46 @@ public class ExampleGenerator {
      *
      * @return null if none available.
      */
-    public synchronized String getHelpHtml(String xpath, String value, boolean listPlaceholders) {
+    public String getHelpHtml(String xpath, String value, boolean listPlaceholders) {
 
         // lazy initialization
 
+        PathDescription pathDescription = this.pathDescription;
         if (pathDescription == null) {
-            Map<String, List<Set<String>>> starredPaths = new HashMap<>();
-            Map<String, String> extras = new HashMap<>();
-
-            this.pathDescription = new PathDescription(supplementalDataInfo, englishFile, extras, starredPaths,
-                PathDescription.ErrorHandling.CONTINUE);
-
-            if (helpMessages == null) {
-                helpMessages = new HelpMessages("test_help_messages.html");
+            synchronized (this) {
+                pathDescription = this.pathDescription;
+                if (pathDescription == null) {
+                    Map<String, List<Set<String>>> starredPaths = new HashMap<>();
+                    Map<String, String> extras = new HashMap<>();
+
+                    if (helpMessages == null) {
+                        helpMessages = new HelpMessages("test_help_messages.html");
+                    }
+                    this.pathDescription = pathDescription = new PathDescription(supplementalDataInfo, englishFile, extras, starredPaths,
+                        PathDescription.ErrorHandling.CONTINUE);
+                }
             }
         }
 
         // now get the description
 
         Level level = CONFIG.getCoverageInfo().getCoverageLevel(xpath, cldrFile.getLocaleID());
-        String description = pathDescription.getDescription(xpath, value, level, null);
+        String description;
+        String placeholderDescription = null;
+        synchronized (pathDescription) { // PathDescription isn't thread-safe
+            description = pathDescription.getDescription(xpath, value, level, null);
+            if (listPlaceholders) {
+                placeholderDescription = pathDescription.getPlaceholderDescription(xpath);
+            }
+        }
         if (description == null || description.equals("SKIP")) {
             return null;
         }
         // http://cldr.org/translation/timezones
         int start = 0;
         StringBuilder buffer = new StringBuilder();
-        while (URLMatcher.reset(description).find(start)) {
+        Matcher URLMatcher = URL_PATTERN.matcher(description);
+        while (URLMatcher.find(start)) {
             final String url = URLMatcher.group();
             buffer
             .append(TransliteratorUtilities.toHTML.transliterate(description.substring(start, URLMatcher.start())))
@@ -2120,7 +2251,7 @@ public class ExampleGenerator {
         buffer.append(TransliteratorUtilities.toHTML.transliterate(description.substring(start)));
 
         if (listPlaceholders) {
-            buffer.append(pathDescription.getPlaceholderDescription(xpath));
+            buffer.append(placeholderDescription);
         }
         if (xpath.startsWith("//ldml/annotations/annotation")) {
             XPathParts emoji = XPathParts.getFrozenInstance(xpath);
@@ -2132,7 +2263,7 @@ public class ExampleGenerator {
         return buffer.toString();
     }
 
-    public synchronized String getHelpHtml(String xpath, String value) {
+    public String getHelpHtml(String xpath, String value) {
         return getHelpHtml(xpath, value, false);
     }
 
@@ -2152,5 +2283,5 @@ public class ExampleGenerator {
             .replace("</span>", "❭");
     }
 
-    HelpMessages helpMessages;
+    HelpMessages helpMessages; // guarded by this
 }
@@ -43,7 +43,11 @@ abstract class FactoryCheckCLDR extends CheckCLDR {
 
     public CLDRFile getResolvedCldrFileToCheck() {
         if (resolvedCldrFileToCheck == null) {
-            resolvedCldrFileToCheck = factory.make(getCldrFileToCheck().getLocaleID(), true);
+            // Use the file to check itself if it is already resolved, so that reads go through it
+            // (see CheckCLDR.check with pathsRead)
+            resolvedCldrFileToCheck = getCldrFileToCheck().isResolved()
+                ? getCldrFileToCheck()
+                : factory.make(getCldrFileToCheck().getLocaleID(), true);
         }
         return resolvedCldrFileToCheck;
     }
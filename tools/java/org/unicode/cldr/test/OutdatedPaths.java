@@ -1,29 +1,44 @@
 package org.unicode.cldr.test;
 
-import java.io.DataInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
-import java.util.Collections;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 
 import org.unicode.cldr.tool.CldrVersion;
 import org.unicode.cldr.util.CLDRConfig;
 import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CldrUtility;
 import org.unicode.cldr.util.Factory;
-import org.unicode.cldr.util.InputStreamFactory;
 import org.unicode.cldr.util.Pair;
 import org.unicode.cldr.util.PathHeader;
 import org.unicode.cldr.util.RegexLookup;
 import org.unicode.cldr.util.StringId;
 
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Longs;
 import com.ibm.icu.util.ICUUncheckedIOException;
 
 /**
@@ -40,20 +55,32 @@ import com.ibm.icu.util.ICUUncheckedIOException;
  * <li>Otherwise, include this path in the set of outdated items.
  * </ol>
  * <p>
- * To update the data file, use GenerateBirth.java.
+ * The data files are memory-mapped (or just read, if they are in a jar), and searched in place:
+ * nothing is unpacked into collections. Both are big-endian, and strings are an int byte count
+ * followed by UTF-8.
+ * <ul>
+ * <li>outdated.data: the FORMAT_KEY, the number of locales, the name and number of path IDs of each locale,
+ * then the sorted path IDs (longs) of each locale, then "$END$".
+ * <li>outdatedEnglish.data: the FORMAT_KEY, the birth versions, the number of paths and the size of the string
+ * pool, then the sorted path IDs (longs), the string pool offset (int) of the previous value of each path, the
+ * index of the birth version (byte) of each path, the string pool (each distinct previous value once), and "$END$".
+ * </ul>
+ * To update the data files, use GenerateBirth.java.
  */
 public class OutdatedPaths {
-    public static String FORMAT_KEY = "odp-1";
+    public static String FORMAT_KEY = "odp-2";
     public static final String NO_VALUE = "�";
 
     public static final String OUTDATED_DIR = "births/";
     public static final String OUTDATED_ENGLISH_DATA = "outdatedEnglish.data";
     public static final String OUTDATED_DATA = "outdated.data";
 
+    private static final String END = "$END$";
+
     private static final boolean DEBUG = CldrUtility.getProperty("OutdatedPathsDebug", false);
 
-    private final Map<String, Set<Long>> localeToData = new HashMap<>();
-    private final Map<Long, Pair<CldrVersion,String>> pathToBirthNPrevious = new HashMap<>();
+    private final Map<String, LongBuffer> localeToData = new HashMap<>();
+    private final EnglishData english;
 
     /**
      * Creates a new OutdatedPaths, using the data file "outdated.data" in the same directory as this class.
@@ -76,40 +103,38 @@ public class OutdatedPaths {
 
         // now previous English
 
-        readBirthValues(directory, id2header, pathToBirthNPrevious);
+        english = readEnglishData(directory);
     }
 
     private void readLocaleToPaths(String directory, Map<Long, PathHeader> id2header) {
         try {
-            DataInputStream dataIn = openDataInput(directory, OUTDATED_DATA);
-            String key = dataIn.readUTF();
-            if (!OutdatedPaths.FORMAT_KEY.equals(key)) {
-                throw new IllegalArgumentException("Mismatch in FORMAT_KEY: expected=" + OutdatedPaths.FORMAT_KEY + ", read=" + key);
-            }
+            ByteBuffer data = openData(directory, OUTDATED_DATA);
+            checkFormatKey(data, OUTDATED_DATA);
             if (DEBUG) {
                 Factory factory = CLDRConfig.getInstance().getMainAndAnnotationsFactory();
                 id2header = getIdToPath(factory);
             }
-            while (true) {
-                String locale = dataIn.readUTF();
-                if (locale.equals("$END$")) {
-                    break;
-                }
+            int localeCount = data.getInt();
+            Map<String, Integer> localeToSize = new LinkedHashMap<>();
+            for (int i = 0; i < localeCount; ++i) {
+                localeToSize.put(getString(data), data.getInt());
+            }
+            for (Entry<String, Integer> entry : localeToSize.entrySet()) {
+                String locale = entry.getKey();
                 if (DEBUG) {
                     System.out.println("OutdatedPaths: Locale: " + locale);
                 }
-                final HashSet<Long> data = new HashSet<>();
-                int size = dataIn.readInt();
-                for (int i = 0; i < size; ++i) {
-                    long item = dataIn.readLong();
-                    data.add(item);
-                    if (DEBUG) {
-                        System.out.println(locale + "\t" + id2header.get(item));
+                LongBuffer ids = data.slice().asLongBuffer();
+                ids.limit(entry.getValue());
+                data.position(data.position() + Long.BYTES * entry.getValue());
+                if (DEBUG) {
+                    for (int i = 0; i < ids.limit(); ++i) {
+                        System.out.println(locale + "\t" + id2header.get(ids.get(i)));
                     }
                 }
-                localeToData.put(locale, Collections.unmodifiableSet(data));
+                localeToData.put(locale, ids);
             }
-            dataIn.close();
+            checkEnd(data, OUTDATED_DATA);
         } catch (IOException e) {
             throw new ICUUncheckedIOException("Data Not Available", e);
         }
@@ -117,35 +142,148 @@ public class OutdatedPaths {
 
     public static void readBirthValues(String outdatedDirectory, Map<Long, PathHeader> id2header,
         Map<Long, Pair<CldrVersion, String>> pathToBirthNPrevious2) {
-        try {
-            DataInputStream dataIn = openDataInput(outdatedDirectory, OUTDATED_ENGLISH_DATA);
-            String key = dataIn.readUTF();
-            if (!OutdatedPaths.FORMAT_KEY.equals(key)) {
-                throw new IllegalArgumentException("Mismatch in FORMAT_KEY: expected=" + OutdatedPaths.FORMAT_KEY + ", read=" + key);
+        EnglishData english = readEnglishData(outdatedDirectory);
+        if (DEBUG) {
+            System.out.println("English Data");
+        }
+        for (int i = 0; i < english.ids.limit(); ++i) {
+            long pathId = english.ids.get(i);
+            String previous = english.getPrevious(i);
+            if (DEBUG) {
+                System.out.println("en\t(" + previous + ")"
+                    + (id2header == null ? "" : "\t" + id2header.get(pathId)));
             }
+            pathToBirthNPrevious2.put(pathId, Pair.of(english.getBirth(i), previous).freeze());
+        }
+    }
 
-            int size = dataIn.readInt();
-            if (DEBUG) {
-                System.out.println("English Data");
+    private static EnglishData readEnglishData(String directory) {
+        try {
+            return new EnglishData(openData(directory, OUTDATED_ENGLISH_DATA));
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException("Data Not Available", e);
+        }
+    }
+
+    /**
+     * The English path IDs, with the birth and previous value of each.
+     */
+    private static final class EnglishData {
+        private final CldrVersion[] versions;
+        private final LongBuffer ids;
+        private final IntBuffer previousOffsets;
+        private final ByteBuffer births;
+        private final ByteBuffer strings;
+
+        EnglishData(ByteBuffer data) {
+            checkFormatKey(data, OUTDATED_ENGLISH_DATA);
+            versions = new CldrVersion[data.getInt()];
+            for (int i = 0; i < versions.length; ++i) {
+                versions[i] = CldrVersion.from(getString(data));
             }
-            for (int i = 0; i < size; ++i) {
-                long pathId = dataIn.readLong();
-                String previous = dataIn.readUTF();
-                CldrVersion birth = CldrVersion.from(dataIn.readUTF());
+            int size = data.getInt();
+            int stringsSize = data.getInt();
+            ids = data.slice().asLongBuffer();
+            ids.limit(size);
+            data.position(data.position() + Long.BYTES * size);
+            previousOffsets = data.slice().asIntBuffer();
+            previousOffsets.limit(size);
+            data.position(data.position() + Integer.BYTES * size);
+            births = slice(data, size);
+            strings = slice(data, stringsSize);
+            checkEnd(data, OUTDATED_ENGLISH_DATA);
+        }
 
-                if (DEBUG) {
-                    System.out.println("en\t(" + previous + ")"
-                        + (id2header == null ? "" : "\t" + id2header.get(pathId)));
+        /**
+         * Get the index of the path ID, or -1 if it is not there.
+         */
+        int indexOf(long id) {
+            return binarySearch(ids, id);
+        }
+
+        CldrVersion getBirth(int index) {
+            return versions[births.get(index)];
+        }
+
+        String getPrevious(int index) {
+            ByteBuffer string = strings.duplicate();
+            string.position(previousOffsets.get(index));
+            return getString(string);
+        }
+    }
+
+    /**
+     * Write the data file of outdated paths for each locale.
+     *
+     * @param localeToIds the path IDs of each locale
+     */
+    public static void writeLocaleToPaths(File file, Map<String, ? extends Collection<Long>> localeToIds) throws IOException {
+        Map<String, long[]> sorted = new TreeMap<>();
+        for (Entry<String, ? extends Collection<Long>> entry : localeToIds.entrySet()) {
+            long[] ids = Longs.toArray(entry.getValue());
+            Arrays.sort(ids);
+            sorted.put(entry.getKey(), ids);
+        }
+        try (DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            putString(dataOut, FORMAT_KEY);
+            dataOut.writeInt(sorted.size());
+            for (Entry<String, long[]> entry : sorted.entrySet()) {
+                putString(dataOut, entry.getKey());
+                dataOut.writeInt(entry.getValue().length);
+            }
+            for (long[] ids : sorted.values()) {
+                for (long id : ids) {
+                    dataOut.writeLong(id);
                 }
-                pathToBirthNPrevious2.put(pathId, Pair.of(birth,previous).freeze());
             }
-            String finalCheck = dataIn.readUTF();
-            if (!finalCheck.equals("$END$")) {
-                throw new IllegalArgumentException("Corrupted " + OUTDATED_ENGLISH_DATA);
+            putString(dataOut, END);
+        }
+    }
+
+    /**
+     * Write the data file of the birth version and previous value of each English path.
+     *
+     * @param pathToBirthNPrevious the birth and previous value for each path ID
+     */
+    public static void writeBirthValues(File file, Map<Long, Pair<CldrVersion, String>> pathToBirthNPrevious) throws IOException {
+        Map<Long, Pair<CldrVersion, String>> sorted = new TreeMap<>(pathToBirthNPrevious);
+        List<CldrVersion> versions = new ArrayList<>();
+        Map<String, Integer> stringToOffset = new LinkedHashMap<>();
+        int stringsSize = 0;
+        for (Pair<CldrVersion, String> birthNPrevious : sorted.values()) {
+            if (!versions.contains(birthNPrevious.getFirst())) {
+                versions.add(birthNPrevious.getFirst());
             }
-            dataIn.close();
-        } catch (IOException e) {
-            throw new ICUUncheckedIOException("Data Not Available", e);
+            String previous = birthNPrevious.getSecond();
+            if (!stringToOffset.containsKey(previous)) {
+                stringToOffset.put(previous, stringsSize);
+                stringsSize += Integer.BYTES + previous.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+        if (versions.size() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many versions: " + versions.size());
+        }
+        try (DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            putString(dataOut, FORMAT_KEY);
+            dataOut.writeInt(versions.size());
+            for (CldrVersion version : versions) {
+                putString(dataOut, version.toString());
+            }
+            dataOut.writeInt(sorted.size());
+            dataOut.writeInt(stringsSize);
+            for (long id : sorted.keySet()) {
+                dataOut.writeLong(id);
+            }
+            for (Pair<CldrVersion, String> birthNPrevious : sorted.values()) {
+                dataOut.writeInt(stringToOffset.get(birthNPrevious.getSecond()));
+            }
+            for (Pair<CldrVersion, String> birthNPrevious : sorted.values()) {
+                dataOut.writeByte(versions.indexOf(birthNPrevious.getFirst()));
+            }
+            for (String previous : stringToOffset.keySet()) {
+                putString(dataOut, previous);
+            }
+            putString(dataOut, END);
         }
     }
 
@@ -161,14 +299,88 @@ public class OutdatedPaths {
         return result;
     }
 
-    private static DataInputStream openDataInput(String directory, String filename) throws FileNotFoundException {
-        String dataFileName = filename;
-        InputStream fileInputStream = directory == null
-            ? CldrUtility.getInputStream(OUTDATED_DIR + dataFileName) :
-                //: new FileInputStream(new File(directory, dataFileName));
-                InputStreamFactory.createInputStream(new File(directory, dataFileName));
-            DataInputStream dataIn = new DataInputStream(fileInputStream);
-            return dataIn;
+    /**
+     * Map the data file, or read it into memory if it isn't a file.
+     */
+    private static ByteBuffer openData(String directory, String filename) throws IOException {
+        File file;
+        if (directory != null) {
+            file = new File(directory, filename);
+        } else {
+            URL url = CldrUtility.class.getResource("data/" + OUTDATED_DIR + filename);
+            if (url == null) {
+                throw new FileNotFoundException(OUTDATED_DIR + filename);
+            }
+            if (!"file".equals(url.getProtocol())) { // eg in a jar
+                try (InputStream in = url.openStream()) {
+                    return ByteBuffer.wrap(ByteStreams.toByteArray(in));
+                }
+            }
+            try {
+                file = new File(url.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException(url.toString(), e);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static void checkFormatKey(ByteBuffer data, String filename) {
+        int length = data.getInt(0);
+        String key = length >= 0 && length <= FORMAT_KEY.length() * 4 ? getString(data) : "?";
+        if (!FORMAT_KEY.equals(key)) {
+            throw new IllegalArgumentException("Mismatch in FORMAT_KEY of " + filename + ": expected=" + FORMAT_KEY + ", read=" + key);
+        }
+    }
+
+    private static void checkEnd(ByteBuffer data, String filename) {
+        if (!END.equals(getString(data)) || data.hasRemaining()) {
+            throw new IllegalArgumentException("Corrupted " + filename);
+        }
+    }
+
+    /**
+     * Read a string at the buffer's position, advancing it.
+     */
+    private static String getString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getInt()];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putString(DataOutputStream dataOut, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        dataOut.writeInt(bytes.length);
+        dataOut.write(bytes);
+    }
+
+    private static ByteBuffer slice(ByteBuffer data, int length) {
+        ByteBuffer result = data.slice();
+        result.limit(length);
+        data.position(data.position() + length);
+        return result;
+    }
+
+    /**
+     * Get the index of the id in the sorted ids, or -1 if it is not there.
+     */
+    private static int binarySearch(LongBuffer ids, long id) {
+        int low = 0;
+        int high = ids.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = ids.get(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -179,12 +391,12 @@ public class OutdatedPaths {
      * @return true if the string is outdated
      */
     public boolean isOutdated(String locale, String distinguishedPath) {
-        Set<Long> data = localeToData.get(locale);
+        LongBuffer data = localeToData.get(locale);
         if (data == null) {
             return false;
         }
         long id = StringId.getId(distinguishedPath);
-        boolean result = data.contains(id);
+        boolean result = binarySearch(data, id) >= 0;
         if (result == false) {
             return false;
         }
@@ -203,12 +415,12 @@ public class OutdatedPaths {
      * @return
      */
     public boolean isRawOutdated(String locale, String distinguishedPath) {
-        Set<Long> data = localeToData.get(locale);
+        LongBuffer data = localeToData.get(locale);
         if (data == null) {
             return false;
         }
         long id = StringId.getId(distinguishedPath);
-        return data.contains(id);
+        return binarySearch(data, id) >= 0;
     }
 
     /**
@@ -229,15 +441,13 @@ public class OutdatedPaths {
      * @return true if the string is outdated
      */
     public String getPreviousEnglish(String distinguishedPath) {
-        long id = StringId.getId(distinguishedPath);
-        Pair<CldrVersion, String> value = pathToBirthNPrevious.get(id);
-        return value == null ? null : value.getSecond();
+        int index = english.indexOf(StringId.getId(distinguishedPath));
+        return index < 0 ? null : english.getPrevious(index);
     }
 
     public CldrVersion getEnglishBirth(String distinguishedPath) {
-        long id = StringId.getId(distinguishedPath);
-        Pair<CldrVersion, String> value = pathToBirthNPrevious.get(id);
-        return value == null ? null : value.getFirst();
+        int index = english.indexOf(StringId.getId(distinguishedPath));
+        return index < 0 ? null : english.getBirth(index);
     }
 
     static RegexLookup<Boolean> SKIP_PATHS = new RegexLookup<Boolean>()
@@ -260,8 +470,8 @@ public class OutdatedPaths {
      * @return number of outdated paths.
      */
     public int countOutdated(String locale) {
-        Set<Long> data = localeToData.get(locale);
-        return data == null ? 0 : data.size();
+        LongBuffer data = localeToData.get(locale);
+        return data == null ? 0 : data.limit();
     }
 
     public static OutdatedPaths getInstance() {
@@ -1,9 +1,15 @@
 package org.unicode.cldr.test;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.unicode.cldr.test.CheckCLDR.CheckStatus;
 import org.unicode.cldr.test.CheckCLDR.Options;
@@ -12,12 +18,14 @@ import org.unicode.cldr.util.CLDRFile;
 import org.unicode.cldr.util.CLDRLocale;
 import org.unicode.cldr.util.CLDRLocale.SublocaleProvider;
 import org.unicode.cldr.util.Factory;
-import org.unicode.cldr.util.Pair;
+import org.unicode.cldr.util.RecordingCLDRFile;
 import org.unicode.cldr.util.XMLSource;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.ibm.icu.util.ICUException;
 
 /**
  * Caches tests and examples
@@ -28,17 +36,78 @@ import com.google.common.collect.ImmutableList;
  */
 public class TestCache implements XMLSource.Listener {
     public class TestResultBundle {
-        final private CheckCLDR cc = CheckCLDR.getCheckAll(getFactory(), nameMatcher);
+        /**
+         * The checks keep state (such as Matchers) while checking, so each check call borrows its own
+         * CheckCLDR, set up on the same file. The first one is set up in the constructor; others are
+         * made as needed when checks run concurrently, and up to MAX_IDLE_CHECKS are kept for reuse.
+         */
+        final private BlockingQueue<CheckCLDR> idleChecks = new ArrayBlockingQueue<>(MAX_IDLE_CHECKS);
         final CLDRFile file;
+        final private RecordingCLDRFile recordingFile;
         final private CheckCLDR.Options options;
-        final private ConcurrentHashMap<Pair<String, String>, List<CheckStatus>> pathCache;
+        /**
+         * Cached results, by path and then by value
+         */
+        final private ConcurrentHashMap<String, ConcurrentHashMap<String, List<CheckStatus>>> pathCache;
         final protected List<CheckStatus> possibleProblems = new ArrayList<>();
+        /**
+         * For each path that was read while checking, the checked paths whose cached results depend on it
+         */
+        final private ConcurrentHashMap<String, Set<String>> dependentPaths = new ConcurrentHashMap<>();
+        /**
+         * For each prefix whose paths were queried as a whole while checking, the checked paths
+         * whose cached results depend on it. Listing all the paths (the prefix "") is kept in
+         * listingDependents instead.
+         */
+        final private ConcurrentHashMap<String, Set<String>> dependentPrefixes = new ConcurrentHashMap<>();
+        /**
+         * The checked paths whose cached results depend on the list of all paths, but not on their values
+         */
+        final private Set<String> listingDependents = ConcurrentHashMap.newKeySet();
+        /**
+         * For each checked path with cached results, what it read, so that it can be removed from
+         * dependentPaths and dependentPrefixes along with its results
+         */
+        final private ConcurrentHashMap<String, Dependencies> dependencies = new ConcurrentHashMap<>();
+        /**
+         * The paths and prefixes read in setCldrFileToCheck; if any of these change, the bundle is stale.
+         */
+        final private Set<String> setupPaths;
+        final private Set<String> setupPrefixes;
+        final private boolean setupListedPaths;
+        /**
+         * The paths of the file when the bundle was made. A change to one of these doesn't change the
+         * list of paths, since its value was either read (and so is a dependency itself) or not used.
+         */
+        final private Set<String> listedPaths;
+        /**
+         * Counts the calls to invalidate, so that a check can tell whether a value changed while it ran.
+         */
+        final private AtomicLong invalidations = new AtomicLong();
+        /**
+         * The path where the value of each path read while checking was found, if different, so that
+         * it is only looked up once. Replaced when a value changes, since that can change where values are found.
+         */
+        private volatile ConcurrentHashMap<String, String> pathsWhereFound = new ConcurrentHashMap<>();
 
         protected TestResultBundle(CheckCLDR.Options cldrOptions) {
             options = cldrOptions;
             pathCache = new ConcurrentHashMap<>();
-            file = getFactory().make(options.getLocale().getBaseName(), true);
+            recordingFile = new RecordingCLDRFile(getFactory().make(options.getLocale().getBaseName(), true))
+                .setRecordPathWhereFound(true);
+            file = recordingFile;
+            CheckCLDR cc = CheckCLDR.getCheckAll(getFactory(), nameMatcher);
             cc.setCldrFileToCheck(file, options, possibleProblems);
+            idleChecks.offer(cc);
+            Set<String> paths = new HashSet<>(recordingFile.getRecordedPaths());
+            addPathsWhereFound(paths, pathsWhereFound);
+            setupPaths = ImmutableSet.copyOf(paths);
+            Set<String> prefixes = new HashSet<>(recordingFile.getRecordedPrefixes());
+            setupListedPaths = prefixes.remove("");
+            setupPrefixes = ImmutableSet.copyOf(prefixes);
+            listedPaths = ImmutableSet.copyOf(file);
+            // From now on only the reads of each check are recorded, not those of getExamples.
+            recordingFile.setRecordAll(false).clearRecordedPaths();
         }
 
         /**
@@ -58,28 +127,195 @@ public class TestCache implements XMLSource.Listener {
               * currently redundant here. Clear it here unconditionally to be sure.
               */
              result.clear();
-             Pair<String, String> key = new Pair<>(path, value);
-             List<CheckStatus> cachedResult = pathCache.get(key);
+             String valueKey = value == null ? NULL_VALUE : value;
+             ConcurrentHashMap<String, List<CheckStatus>> valueCache = pathCache.get(path);
+             List<CheckStatus> cachedResult = valueCache == null ? null : valueCache.get(valueKey);
              if (cachedResult != null) {
                  result.addAll(cachedResult);
              }
              else {
-                 cc.check(path, file.getFullXPath(path), value, options, result);
-                 pathCache.put(key, ImmutableList.copyOf(result));
+                 Set<String> pathsRead = new HashSet<>();
+                 Set<String> prefixesRead = new HashSet<>();
+                 long before = invalidations.get();
+                 ConcurrentHashMap<String, String> whereFound = pathsWhereFound;
+                 CheckCLDR cc = borrowCheck();
+                 try {
+                     cc.check(path, file.getFullXPath(path), value, options, result, pathsRead, prefixesRead);
+                 } finally {
+                     idleChecks.offer(cc);
+                 }
+                 addPathsWhereFound(pathsRead, whereFound);
+                 // The dependencies are recorded before the result, so that invalidate finds any result it must remove.
+                 addDependencies(path, pathsRead, prefixesRead);
+                 pathCache.computeIfAbsent(path, k -> new ConcurrentHashMap<>()).put(valueKey, ImmutableList.copyOf(result));
+                 if (invalidations.get() != before) {
+                     // A value changed while checking, perhaps after it was read.
+                     removeResults(path);
+                 }
+             }
+         }
+
+         /**
+          * Get an idle CheckCLDR, or set up a new one if all are in use. The setup reads aren't recorded,
+          * since they are the same as those of the first one.
+          */
+         private CheckCLDR borrowCheck() {
+             CheckCLDR cc = idleChecks.poll();
+             if (cc == null) {
+                 cc = CheckCLDR.getCheckAll(getFactory(), nameMatcher);
+                 cc.setCldrFileToCheck(file, options, new ArrayList<>());
+             }
+             return cc;
+         }
+
+         /**
+          * Add to the paths the paths where their values were found, where different.
+          */
+         private void addPathsWhereFound(Set<String> paths, ConcurrentHashMap<String, String> whereFound) {
+             List<String> found = new ArrayList<>();
+             for (String path : paths) {
+                 found.add(whereFound.computeIfAbsent(path, recordingFile::getPathWhereFound));
+             }
+             paths.addAll(found);
+         }
+
+         private void addDependencies(String path, Set<String> pathsRead, Set<String> prefixesRead) {
+             Dependencies d = dependencies.computeIfAbsent(path, k -> new Dependencies());
+             for (String pathRead : pathsRead) {
+                 d.paths.add(pathRead);
+                 dependentPaths.compute(pathRead, (k, v) -> add(v, path));
+             }
+             for (String prefixRead : prefixesRead) {
+                 if (prefixRead.isEmpty()) {
+                     listingDependents.add(path);
+                 } else {
+                     d.prefixes.add(prefixRead);
+                     dependentPrefixes.compute(prefixRead, (k, v) -> add(v, path));
+                 }
+             }
+         }
+
+         /**
+          * Remove the cached results for the path, and what they depended on.
+          */
+         private void removeResults(String path) {
+             pathCache.remove(path);
+             listingDependents.remove(path);
+             Dependencies d = dependencies.remove(path);
+             if (d != null) {
+                 for (String pathRead : d.paths) {
+                     dependentPaths.computeIfPresent(pathRead, (k, v) -> remove(v, path));
+                 }
+                 for (String prefixRead : d.prefixes) {
+                     dependentPrefixes.computeIfPresent(prefixRead, (k, v) -> remove(v, path));
+                 }
              }
          }
 
          public void getExamples(String path, String value, List<CheckStatus> result) {
-             cc.getExamples(path, file.getFullXPath(path), value, options, result);
+             CheckCLDR cc = borrowCheck();
+             try {
+                 cc.getExamples(path, file.getFullXPath(path), value, options, result);
+             } finally {
+                 idleChecks.offer(cc);
+             }
          }
 
          public List<CheckStatus> getPossibleProblems() {
              return possibleProblems;
          }
+
+         /**
+          * @return the number of paths with cached results
+          */
+         public int getCachedPathCount() {
+             return pathCache.size();
+         }
+
+         /**
+          * @return the number of paths and prefixes that cached results depend on
+          */
+         public int getDependencyCount() {
+             return dependentPaths.size() + dependentPrefixes.size();
+         }
+
+         /**
+          * Remove the cached results that depend on the given path, given that its value has changed.
+          *
+          * @param xpath the path whose value has changed
+          * @return false if the setup of the checks depends on the path, so that the whole bundle is stale
+          */
+         synchronized boolean invalidate(String xpath) {
+             invalidations.incrementAndGet();
+             pathsWhereFound = new ConcurrentHashMap<>();
+             boolean listed = listedPaths.contains(xpath);
+             if (setupPaths.contains(xpath) || startsWithAny(xpath, setupPrefixes)
+                 || (!listed && setupListedPaths)) {
+                 return false;
+             }
+             removeResults(xpath);
+             removeDependents(dependentPaths.get(xpath));
+             for (Entry<String, Set<String>> entry : dependentPrefixes.entrySet()) {
+                 if (xpath.startsWith(entry.getKey())) {
+                     removeDependents(entry.getValue());
+                 }
+             }
+             if (!listed) {
+                 removeDependents(listingDependents);
+             }
+             return true;
+         }
+
+         private void removeDependents(Set<String> dependents) {
+             if (dependents != null) {
+                 // a copy, since removing the results also removes them from the set
+                 for (String dependent : ImmutableList.copyOf(dependents)) {
+                     removeResults(dependent);
+                 }
+             }
+         }
+    }
+
+    /**
+     * What the cached results for one path depend on
+     */
+    private static final class Dependencies {
+        final Set<String> paths = ConcurrentHashMap.newKeySet();
+        final Set<String> prefixes = ConcurrentHashMap.newKeySet();
+    }
+
+    private static Set<String> add(Set<String> dependents, String path) {
+        Set<String> result = dependents == null ? ConcurrentHashMap.newKeySet() : dependents;
+        result.add(path);
+        return result;
+    }
+
+    private static Set<String> remove(Set<String> dependents, String path) {
+        dependents.remove(path);
+        return dependents.isEmpty() ? null : dependents;
+    }
+
+    /**
+     * Key used in the pathCache for a null value, since ConcurrentHashMap doesn't allow null keys
+     */
+    private static final String NULL_VALUE = "\uFFFF<null>";
+
+    private static boolean startsWithAny(String xpath, Set<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (xpath.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static final boolean DEBUG = false;
 
+    /**
+     * The most CheckCLDR instances kept for reuse per TestResultBundle
+     */
+    private static final int MAX_IDLE_CHECKS = Runtime.getRuntime().availableProcessors();
+
     /*
      * TODO: document whether CLDR_TESTCACHE_SIZE is set on production server, and if so to what, and why;
      * evaluate why the fallback 12 for CLDR_TESTCACHE_SIZE is appropriate or too small. Consider not
@@ -96,6 +332,7 @@ public class TestCache implements XMLSource.Listener {
      * Get the bundle for this test
      */
     public TestResultBundle getBundle(CheckCLDR.Options options) {
+        options = CheckCLDR.Options.intern(options);
         TestResultBundle b = testResultCache.getIfPresent(options);
         if (DEBUG) {
              if (b != null) {
@@ -206,12 +443,15 @@ public class TestCache implements XMLSource.Listener {
      *
      * Called by valueChangedInvalidateRecursively
      */
-    private void updateTestResultCache(@SuppressWarnings("unused") String xpath, CLDRLocale locale) {
+    private void updateTestResultCache(String xpath, CLDRLocale locale) {
         if (!testResultCache.asMap().isEmpty()) {
-            // Filter the testResultCache to only remove the items where the locale matches
+            // Filter the testResultCache to only remove the items where the locale matches,
+            // and whose checks depended on the xpath during setup. Otherwise only the cached
+            // results that depend on the xpath are removed from the bundle.
             List<Options> toRemove = new ArrayList<>();
-            for (Options k : testResultCache.asMap().keySet()) {
-                if (k.getLocale().equals(locale)) {
+            for (Entry<Options, TestResultBundle> entry : testResultCache.asMap().entrySet()) {
+                Options k = entry.getKey();
+                if (k.getLocale().equals(locale) && !entry.getValue().invalidate(xpath)) {
                     toRemove.add(k);
                 }
             }
@@ -271,20 +511,15 @@ public class TestCache implements XMLSource.Listener {
             return new ExampleGenerator(ourSrc, translationHintsFile, englishPath);
         }
         /*
-         * TODO: consider get(locString, Callable) instead of getIfPresent and put.
+         * The cache loads each locale at most once at a time, without blocking other locales.
+         * ExampleGenerator is thread-safe, so the result can be shared.
          */
-        String locString = locale.toString();
-        ExampleGenerator eg = exampleGeneratorCache.getIfPresent(locString);
-        if (eg == null) {
-            synchronized(exampleGeneratorCache) {
-                eg = exampleGeneratorCache.getIfPresent(locString);
-                if (eg == null) {
-                    eg = new ExampleGenerator(ourSrc, translationHintsFile, englishPath);
-                    exampleGeneratorCache.put(locString, eg);
-                }
-            }
+        try {
+            return exampleGeneratorCache.get(locale.toString(),
+                () -> new ExampleGenerator(ourSrc, translationHintsFile, englishPath));
+        } catch (ExecutionException e) {
+            throw new ICUException(e.getCause());
         }
-        return eg;
     }
 
     /**
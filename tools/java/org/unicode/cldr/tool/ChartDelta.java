@@ -15,6 +15,8 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -108,8 +110,20 @@ public class ChartDelta extends Chart {
     private final String DIR;
     private final Level minimumPathCoverage;
     private final boolean verbose;
+    /**
+     * The pool for the per-locale work, or null to make one for each chart
+     */
+    private final ChartExecutor executor;
 
     public static void main(String[] args) {
+        main(args, null);
+    }
+
+    /**
+     * Run with the given pool for the per-locale work, as GenerateAllCharts does, instead of
+     * starting another one inside it.
+     */
+    static void main(String[] args, ChartExecutor executor) {
         System.out.println("use -DCHART_VERSION=36.0 -DPREV_CHART_VERSION=34.0 to generate the differences between v36 and v34.");
         MyOptions.parse(args);
         Matcher fileFilter = !MyOptions.fileFilter.option.doesOccur() ? null : PatternCache.get(MyOptions.fileFilter.option.getValue()).matcher("");
@@ -125,7 +139,7 @@ public class ChartDelta extends Chart {
         Level coverage = !MyOptions.coverageFilter.option.doesOccur() ? null : Level.fromString(MyOptions.coverageFilter.option.getValue());
         boolean verbose = MyOptions.verbose.option.doesOccur();
         String DIR = CLDRPaths.CHART_DIRECTORY + MyOptions.directory.option.getValue();
-        ChartDelta temp = new ChartDelta(fileFilter, coverage, DIR, verbose);
+        ChartDelta temp = new ChartDelta(fileFilter, coverage, DIR, verbose, executor);
         temp.writeChart(null);
         temp.showTotals();
         System.out.println("Finished. Files may have been created in these directories:");
@@ -133,11 +147,23 @@ public class ChartDelta extends Chart {
         System.out.println(getTsvDir(DIR, DIR_NAME));
     }
 
-    private ChartDelta(Matcher fileFilter, Level coverage, String dir, boolean verbose) {
+    private ChartDelta(Matcher fileFilter, Level coverage, String dir, boolean verbose, ChartExecutor executor) {
         this.fileFilter = fileFilter;
         this.verbose = verbose;
         this.DIR = dir;
         this.minimumPathCoverage = coverage;
+        this.executor = executor;
+    }
+
+    /**
+     * Write the charts for the files matching fileFilter (such as ^main/(de|fr)$) into dir, which
+     * must end with /delta/, and the TSV files into the sibling tsv directory, using the given number
+     * of threads. Used to test that the output doesn't depend on the number of threads.
+     */
+    public static void writeCharts(String dir, String fileFilter, int threads) {
+        try (ChartExecutor executor = new ChartExecutor(Integer.MAX_VALUE, threads)) {
+            new ChartDelta(PatternCache.get(fileFilter).matcher(""), null, dir, false, executor).writeChart(null);
+        }
     }
 
     private static final String SEP = "\u0001";
@@ -175,8 +201,7 @@ public class ChartDelta extends Chart {
         FormattedFileWriter.Anchors anchors = new FormattedFileWriter.Anchors();
         FileUtilities.copyFile(ChartDelta.class, "index.css", getDirectory());
         FormattedFileWriter.copyIncludeHtmls(getDirectory(), true);
-        counter.clear();
-        fileCounters.clear();
+        totals.clear();
         writeNonLdmlPlain(anchors);
         writeLdml(anchors);
         pw.setIndex("Main Chart Index", "../index.html");
@@ -209,17 +234,45 @@ public class ChartDelta extends Chart {
         }
     }
 
-    private Counter<ChangeType> counter = new Counter<>();
-    private Map<String, Counter<ChangeType>> fileCounters = new TreeMap<>();
-    private Set<String> badHeaders = new TreeSet<>();
+    /**
+     * Change counts, and the paths with bad PathHeaders. Each locale task has its own,
+     * which are merged into the totals afterwards.
+     */
+    private static class ChangeCounts {
+        private final Counter<ChangeType> counter = new Counter<>();
+        private final Map<String, Counter<ChangeType>> fileCounters = new TreeMap<>();
+        private final Set<String> badHeaders = new TreeSet<>();
+
+        private void addChange(String file, ChangeType changeType, long count) {
+            counter.add(changeType, count); // unified add
+            Counter<ChangeType> fileCounter = fileCounters.get(file);
+            if (fileCounter == null) {
+                fileCounters.put(file, fileCounter = new Counter<>());
+            }
+            fileCounter.add(changeType, count);
+        }
 
-    private void addChange(String file, ChangeType changeType, int count) {
-        counter.add(changeType, count); // unified add
-        Counter<ChangeType> fileCounter = fileCounters.get(file);
-        if (fileCounter == null) {
-            fileCounters.put(file, fileCounter = new Counter<>());
+        private void addAll(ChangeCounts other) {
+            for (Entry<String, Counter<ChangeType>> entry : other.fileCounters.entrySet()) {
+                Counter<ChangeType> fileCounter = entry.getValue();
+                for (ChangeType changeType : fileCounter) {
+                    addChange(entry.getKey(), changeType, fileCounter.getCount(changeType));
+                }
+            }
+            badHeaders.addAll(other.badHeaders);
+        }
+
+        private void clear() {
+            counter.clear();
+            fileCounters.clear();
+            badHeaders.clear();
         }
-        fileCounter.add(changeType, count);
+    }
+
+    private final ChangeCounts totals = new ChangeCounts();
+
+    private void addChange(String file, ChangeType changeType, int count) {
+        totals.addChange(file, changeType, count);
     }
 
     private void showTotals() {
@@ -230,12 +283,12 @@ public class ChartDelta extends Chart {
                 pw.print("\t" + (item == ChangeType.same ? "total" : item.toString()));
             }
             pw.println();
-            showTotal(pw, "TOTAL/", counter);
+            showTotal(pw, "TOTAL/", totals.counter);
 
-            for (Entry<String, Counter<ChangeType>> entry : fileCounters.entrySet()) {
+            for (Entry<String, Counter<ChangeType>> entry : totals.fileCounters.entrySet()) {
                 showTotal(pw, entry.getKey(), entry.getValue());
             }
-            for (String s : badHeaders) {
+            for (String s : totals.badHeaders) {
                 pw.println(s);
             }
             pw.println("# EOF");
@@ -329,114 +382,54 @@ public class ChartDelta extends Chart {
 
             // do keyboards later
 
-            Status currentStatus = new Status();
-            Status oldStatus = new Status();
-            Set<PathDiff> diff = new TreeSet<>();
-            Set<String> paths = new HashSet<>();
-
-            Relation<PathHeader, String> diffAll = Relation.of(new TreeMap<PathHeader, Set<String>>(), TreeSet.class);
-            for (Entry<String, Set<String>> baseNLocale : baseToLocales.keyValuesSet()) {
-                String base = baseNLocale.getKey();
-                for (int i = 0; i < factories.size(); ++i) {
-                    Factory factory = factories.get(i);
-                    Factory oldFactory = oldFactories.get(i);
-                    List<File> sourceDirs = Arrays.asList(factory.getSourceDirectories());
-                    if (sourceDirs.size() != 1) {
-                        throw new IllegalArgumentException("Internal error: expect single source dir");
-                    }
-                    File sourceDir = sourceDirs.get(0);
-                    String sourceDirLeaf = sourceDir.getName();
-                    boolean resolving = !sourceDirLeaf.contains("subdivisions")
-                        && !sourceDirLeaf.contains("transforms");
-
-                    for (String locale : baseNLocale.getValue()) {
-                        String nameAndLocale = sourceDirLeaf + "/" + locale;
-                        if (fileFilter != null && !fileFilter.reset(nameAndLocale).find()) {
-                            if (verbose && verbose_skipping) {
-                                System.out.println("SKIPPING: " + nameAndLocale);
-                            }
-                            continue;
-                        }
-                        if (verbose) {
-                            System.out.println(nameAndLocale);
-                        }
-                        CLDRFile current = makeWithFallback(factory, locale, resolving);
-                        CLDRFile old = makeWithFallback(oldFactory, locale, resolving);
-                        if (!locale.equals("root") && current.getLocaleID().equals("root") && old.getLocaleID().equals("root")) {
-                            continue;
+            // Compute the differences for each locale on the worker threads, then write them out
+            // base by base, in order. The results are sorted sets and counts, so the output
+            // is the same however the tasks are scheduled.
+            Map<String, List<Future<LocaleDiff>>> baseToDiffs = new TreeMap<>();
+            try (ChartExecutor ownExecutor = this.executor == null ? new ChartExecutor(Integer.MAX_VALUE) : null) {
+                ChartExecutor executor = ownExecutor == null ? this.executor : ownExecutor;
+                for (Entry<String, Set<String>> baseNLocale : baseToLocales.keyValuesSet()) {
+                    List<Future<LocaleDiff>> localeDiffs = new ArrayList<>();
+                    for (int i = 0; i < factories.size(); ++i) {
+                        Factory factory = factories.get(i);
+                        Factory oldFactory = oldFactories.get(i);
+                        List<File> sourceDirs = Arrays.asList(factory.getSourceDirectories());
+                        if (sourceDirs.size() != 1) {
+                            throw new IllegalArgumentException("Internal error: expect single source dir");
                         }
-                        if (old == EMPTY_CLDR && current == EMPTY_CLDR) {
-                            continue;
-                        }
-                        paths.clear();
-                        for (String path : current.fullIterable()) {
-                            if (allowPath(locale, path)) {
-                                paths.add(path);
-                            }
-                        }
-                        for (String path : old.fullIterable()) {
-                            if (!paths.contains(path) && allowPath(locale, path)) {
-                                paths.add(path);
-                            }
-                        }
-
-                        Output<String> reformattedValue = new Output<>();
-                        Output<Boolean> hasReformattedValue = new Output<>();
-
-                        for (String path : paths) {
-                            if (DO_CHURN && !pathIsHighLevel(path)) {
-                                continue;
-                            }
-                            if (path.startsWith("//ldml/identity")
-                                || path.endsWith("/alias")
-                                || path.startsWith("//ldml/segmentations") // do later
-                                || path.startsWith("//ldml/rbnf") // do later
-                                ) {
-                                continue;
-                            }
-                            PathHeader ph = getPathHeader(path);
-                            if (ph == null) {
-                                continue;
-                            }
-
-                            String oldValue = null;
-                            String currentValue = null;
-
-                            {
-                                String sourceLocaleCurrent = current.getSourceLocaleID(path, currentStatus);
-                                String sourceLocaleOld = getReformattedPath(oldStatus, old, path, reformattedValue, hasReformattedValue);
-
-                                // filter out stuff that differs at a higher level
-                                if (!sourceLocaleCurrent.equals(locale)
-                                    && !sourceLocaleOld.equals(locale)) {
-                                    continue;
-                                }
-                                if (!path.equals(currentStatus.pathWhereFound)
-                                    && !path.equals(oldStatus.pathWhereFound)) {
-                                    continue;
-                                }
-                                // fix some incorrect cases?
-
-                                currentValue = current.getStringValue(path);
-                                if (CldrUtility.INHERITANCE_MARKER.equals(currentValue)) {
-                                    currentValue = current.getConstructedBaileyValue(path, null, null);
-                                }
-                                oldValue = hasReformattedValue.value ? reformattedValue.value : old.getStringValue(path);
-                                if (CldrUtility.INHERITANCE_MARKER.equals(oldValue)) {
-                                    oldValue = old.getConstructedBaileyValue(path, null, null);
+                        File sourceDir = sourceDirs.get(0);
+                        String sourceDirLeaf = sourceDir.getName();
+                        boolean resolving = !sourceDirLeaf.contains("subdivisions")
+                            && !sourceDirLeaf.contains("transforms");
+
+                        for (String locale : baseNLocale.getValue()) {
+                            String nameAndLocale = sourceDirLeaf + "/" + locale;
+                            if (fileFilter != null && !fileFilter.reset(nameAndLocale).find()) {
+                                if (verbose && verbose_skipping) {
+                                    System.out.println("SKIPPING: " + nameAndLocale);
                                 }
+                                continue;
                             }
-                            // handle non-distinguishing attributes
-                            addPathDiff(sourceDir, old, current, locale, ph, diff);
-
-                            addValueDiff(sourceDir, oldValue, currentValue, locale, ph, diff, diffAll);
+                            localeDiffs.add(executor.submit(new LocaleDiff(factory, oldFactory, sourceDir, resolving, locale)));
                         }
                     }
+                    baseToDiffs.put(baseNLocale.getKey(), localeDiffs);
+                }
+
+                Set<PathDiff> diff = new TreeSet<>();
+                Relation<PathHeader, String> diffAll = Relation.of(new TreeMap<PathHeader, Set<String>>(), TreeSet.class);
+                for (Entry<String, List<Future<LocaleDiff>>> baseAndDiffs : baseToDiffs.entrySet()) {
+                    for (Future<LocaleDiff> future : baseAndDiffs.getValue()) {
+                        LocaleDiff localeDiff = ChartExecutor.get(future);
+                        diff.addAll(localeDiff.diff);
+                        diffAll.putAll(localeDiff.diffAll);
+                        totals.addAll(localeDiff.counts);
+                    }
+                    writeDiffs(anchors, baseAndDiffs.getKey(), diff, tsvFile, counts);
+                    diff.clear();
                 }
-                writeDiffs(anchors, base, diff, tsvFile, counts);
-                diff.clear();
+                writeDiffs(diffAll);
             }
-            writeDiffs(diffAll);
 
             writeCounter(tsvCountFile, "Count", counts);
             tsvFile.println("# EOF");
@@ -551,25 +544,6 @@ public class ChartDelta extends Chart {
         return old.getSourceLocaleID(oldStylePath, oldStatus);
     }
 
-    PathStarrer starrer = new PathStarrer().setSubstitutionPattern("%A");
-
-    private PathHeader getPathHeader(String path) {
-        try {
-            PathHeader ph = phf.fromPath(path);
-            if (ph.getPageId() == PageId.Unknown) {
-                String star = starrer.set(path);
-                badHeaders.add(star);
-                return null;
-            }
-            return ph;
-        } catch (Exception e) {
-            String star = starrer.set(path);
-            badHeaders.add(star);
-            // System.err.println("Skipping path with bad PathHeader: " + path);
-            return null;
-        }
-    }
-
     private CLDRFile makeWithFallback(Factory oldFactory, String locale, boolean resolving) {
         if (oldFactory == null) {
             return EMPTY_CLDR;
@@ -590,94 +564,221 @@ public class ChartDelta extends Chart {
         return old;
     }
 
-    private void addPathDiff(File sourceDir, CLDRFile old, CLDRFile current, String locale, PathHeader ph, Set<PathDiff> diff2) {
-        String path = ph.getOriginalPath();
-        String fullPathCurrent = current.getFullXPath(path);
-        String fullPathOld = old.getFullXPath(path);
-        if (Objects.equals(fullPathCurrent, fullPathOld)) {
-            return;
+    /**
+     * Compute the differences for one locale in one directory. The factories are shared between
+     * the tasks, but each task has its own state and results, which are merged afterwards.
+     */
+    private class LocaleDiff implements Callable<LocaleDiff> {
+        private final Factory factory;
+        private final Factory oldFactory;
+        private final File sourceDir;
+        private final boolean resolving;
+        private final String locale;
+
+        private final Set<PathDiff> diff = new TreeSet<>();
+        private final Relation<PathHeader, String> diffAll = Relation.of(new TreeMap<PathHeader, Set<String>>(), TreeSet.class);
+        private final ChangeCounts counts = new ChangeCounts();
+        private final PathStarrer starrer = new PathStarrer().setSubstitutionPattern("%A");
+
+        private LocaleDiff(Factory factory, Factory oldFactory, File sourceDir, boolean resolving, String locale) {
+            this.factory = factory;
+            this.oldFactory = oldFactory;
+            this.sourceDir = sourceDir;
+            this.resolving = resolving;
+            this.locale = locale;
         }
-        XPathParts pathPlain = XPathParts.getFrozenInstance(path);
-        XPathParts pathCurrent = fullPathCurrent == null ? pathPlain : XPathParts.getFrozenInstance(fullPathCurrent);
-        XPathParts pathOld = fullPathOld == null ? pathPlain : XPathParts.getFrozenInstance(fullPathOld);
-        TreeSet<String> fullAttributes = null;
-        int size = pathCurrent.size();
-        String parentAndName = parentAndName(sourceDir, locale);
-        for (int elementIndex = 0; elementIndex < size; ++elementIndex) { // will have same size
-            Collection<String> distinguishing = pathPlain.getAttributeKeys(elementIndex);
-            Collection<String> attributesCurrent = pathCurrent.getAttributeKeys(elementIndex);
-            Collection<String> attributesOld = pathCurrent.getAttributeKeys(elementIndex);
-            if (attributesCurrent.isEmpty() && attributesOld.isEmpty()) {
-                continue;
+
+        @Override
+        public LocaleDiff call() {
+            if (verbose) {
+                System.out.println(sourceDir.getName() + "/" + locale);
             }
-            if (fullAttributes == null) {
-                fullAttributes = new TreeSet<>();
-            } else {
-                fullAttributes.clear();
+            CLDRFile current = makeWithFallback(factory, locale, resolving);
+            CLDRFile old = makeWithFallback(oldFactory, locale, resolving);
+            if (!locale.equals("root") && current.getLocaleID().equals("root") && old.getLocaleID().equals("root")) {
+                return this;
             }
-            fullAttributes.addAll(attributesCurrent);
-            fullAttributes.addAll(attributesOld);
-            fullAttributes.removeAll(distinguishing);
-            fullAttributes.removeAll(DONT_CARE);
-
-            // at this point we only have non-distinguishing
-            for (String attribute : fullAttributes) {
-                String attributeValueOld = pathOld.getAttributeValue(elementIndex, attribute);
-                String attributeValueCurrent = pathCurrent.getAttributeValue(elementIndex, attribute);
-                if (Objects.equals(attributeValueOld, attributeValueCurrent)) {
-                    addChange(parentAndName, ChangeType.same, 1);
+            if (old == EMPTY_CLDR && current == EMPTY_CLDR) {
+                return this;
+            }
+            Set<String> paths = new HashSet<>();
+            for (String path : current.fullIterable()) {
+                if (allowPath(locale, path)) {
+                    paths.add(path);
+                }
+            }
+            for (String path : old.fullIterable()) {
+                if (!paths.contains(path) && allowPath(locale, path)) {
+                    paths.add(path);
+                }
+            }
+
+            Status currentStatus = new Status();
+            Status oldStatus = new Status();
+            Output<String> reformattedValue = new Output<>();
+            Output<Boolean> hasReformattedValue = new Output<>();
+
+            for (String path : paths) {
+                if (DO_CHURN && !pathIsHighLevel(path)) {
+                    continue;
+                }
+                if (path.startsWith("//ldml/identity")
+                    || path.endsWith("/alias")
+                    || path.startsWith("//ldml/segmentations") // do later
+                    || path.startsWith("//ldml/rbnf") // do later
+                    ) {
                     continue;
                 }
-                addChange(parentAndName, ChangeType.get(attributeValueOld, attributeValueCurrent), 1);
-
-                PathDiff row = new PathDiff(
-                    locale,
-                    new PathHeaderSegment(ph, size - elementIndex - 1, attribute),
-                    attributeValueOld,
-                    attributeValueCurrent);
-                if (DEBUG) {
-                    System.out.println(row);
+                PathHeader ph = getPathHeader(path);
+                if (ph == null) {
+                    continue;
+                }
+
+                String oldValue = null;
+                String currentValue = null;
+
+                {
+                    String sourceLocaleCurrent = current.getSourceLocaleID(path, currentStatus);
+                    String sourceLocaleOld = getReformattedPath(oldStatus, old, path, reformattedValue, hasReformattedValue);
+
+                    // filter out stuff that differs at a higher level
+                    if (!sourceLocaleCurrent.equals(locale)
+                        && !sourceLocaleOld.equals(locale)) {
+                        continue;
+                    }
+                    if (!path.equals(currentStatus.pathWhereFound)
+                        && !path.equals(oldStatus.pathWhereFound)) {
+                        continue;
+                    }
+                    // fix some incorrect cases?
+
+                    currentValue = current.getStringValue(path);
+                    if (CldrUtility.INHERITANCE_MARKER.equals(currentValue)) {
+                        currentValue = current.getConstructedBaileyValue(path, null, null);
+                    }
+                    oldValue = hasReformattedValue.value ? reformattedValue.value : old.getStringValue(path);
+                    if (CldrUtility.INHERITANCE_MARKER.equals(oldValue)) {
+                        oldValue = old.getConstructedBaileyValue(path, null, null);
+                    }
                 }
-                diff2.add(row);
+                // handle non-distinguishing attributes
+                addPathDiff(sourceDir, old, current, locale, ph, diff);
+
+                addValueDiff(sourceDir, oldValue, currentValue, locale, ph, diff, diffAll);
             }
+            return this;
         }
-    }
 
-    private String parentAndName(File sourceDir, String locale) {
-        return sourceDir.getName() + "/" + locale + ".xml";
-    }
+        private void addChange(String file, ChangeType changeType, int count) {
+            counts.addChange(file, changeType, count);
+        }
 
-    private void addValueDiff(File sourceDir, String valueOld, String valueCurrent, String locale, PathHeader ph, Set<PathDiff> diff,
-        Relation<PathHeader, String> diffAll) {
-        // handle stuff that can be split specially
-        Splitter splitter = getSplitter(ph.getOriginalPath(), valueOld, valueCurrent);
-        int count = 1;
-        String parentAndName = parentAndName(sourceDir, locale);
-        if (Objects.equals(valueCurrent, valueOld)) {
-            if (splitter != null && valueCurrent != null) {
-                count = splitHandlingNull(splitter, valueCurrent).size();
+        private PathHeader getPathHeader(String path) {
+            try {
+                PathHeader ph = phf.fromPath(path);
+                if (ph.getPageId() == PageId.Unknown) {
+                    String star = starrer.set(path);
+                    counts.badHeaders.add(star);
+                    return null;
+                }
+                return ph;
+            } catch (Exception e) {
+                String star = starrer.set(path);
+                counts.badHeaders.add(star);
+                // System.err.println("Skipping path with bad PathHeader: " + path);
+                return null;
             }
-            addChange(parentAndName, ChangeType.same, count);
-        } else {
-            if (splitter != null) {
-                List<String> setOld = splitHandlingNull(splitter, valueOld);
-                List<String> setNew = splitHandlingNull(splitter, valueCurrent);
-                int[] sameAndNotInSecond = new int[2];
-                valueOld = getFilteredValue(setOld, setNew, sameAndNotInSecond);
-                addChange(parentAndName, ChangeType.same, sameAndNotInSecond[0]);
-                addChange(parentAndName, ChangeType.deleted, sameAndNotInSecond[1]);
-                sameAndNotInSecond[0] = sameAndNotInSecond[1] = 0;
-                valueCurrent = getFilteredValue(setNew, setOld, sameAndNotInSecond);
-                addChange(parentAndName, ChangeType.added, sameAndNotInSecond[1]);
+        }
+
+        private void addPathDiff(File sourceDir, CLDRFile old, CLDRFile current, String locale, PathHeader ph, Set<PathDiff> diff2) {
+            String path = ph.getOriginalPath();
+            String fullPathCurrent = current.getFullXPath(path);
+            String fullPathOld = old.getFullXPath(path);
+            if (Objects.equals(fullPathCurrent, fullPathOld)) {
+                return;
+            }
+            XPathParts pathPlain = XPathParts.getFrozenInstance(path);
+            XPathParts pathCurrent = fullPathCurrent == null ? pathPlain : XPathParts.getFrozenInstance(fullPathCurrent);
+            XPathParts pathOld = fullPathOld == null ? pathPlain : XPathParts.getFrozenInstance(fullPathOld);
+            TreeSet<String> fullAttributes = null;
+            int size = pathCurrent.size();
+            String parentAndName = parentAndName(sourceDir, locale);
+            for (int elementIndex = 0; elementIndex < size; ++elementIndex) { // will have same size
+                Collection<String> distinguishing = pathPlain.getAttributeKeys(elementIndex);
+                Collection<String> attributesCurrent = pathCurrent.getAttributeKeys(elementIndex);
+                Collection<String> attributesOld = pathCurrent.getAttributeKeys(elementIndex);
+                if (attributesCurrent.isEmpty() && attributesOld.isEmpty()) {
+                    continue;
+                }
+                if (fullAttributes == null) {
+                    fullAttributes = new TreeSet<>();
+                } else {
+                    fullAttributes.clear();
+                }
+                fullAttributes.addAll(attributesCurrent);
+                fullAttributes.addAll(attributesOld);
+                fullAttributes.removeAll(distinguishing);
+                fullAttributes.removeAll(DONT_CARE);
+
+                // at this point we only have non-distinguishing
+                for (String attribute : fullAttributes) {
+                    String attributeValueOld = pathOld.getAttributeValue(elementIndex, attribute);
+                    String attributeValueCurrent = pathCurrent.getAttributeValue(elementIndex, attribute);
+                    if (Objects.equals(attributeValueOld, attributeValueCurrent)) {
+                        addChange(parentAndName, ChangeType.same, 1);
+                        continue;
+                    }
+                    addChange(parentAndName, ChangeType.get(attributeValueOld, attributeValueCurrent), 1);
+
+                    PathDiff row = new PathDiff(
+                        locale,
+                        new PathHeaderSegment(ph, size - elementIndex - 1, attribute),
+                        attributeValueOld,
+                        attributeValueCurrent);
+                    if (DEBUG) {
+                        System.out.println(row);
+                    }
+                    diff2.add(row);
+                }
+            }
+        }
+
+        private void addValueDiff(File sourceDir, String valueOld, String valueCurrent, String locale, PathHeader ph, Set<PathDiff> diff,
+            Relation<PathHeader, String> diffAll) {
+            // handle stuff that can be split specially
+            Splitter splitter = getSplitter(ph.getOriginalPath(), valueOld, valueCurrent);
+            int count = 1;
+            String parentAndName = parentAndName(sourceDir, locale);
+            if (Objects.equals(valueCurrent, valueOld)) {
+                if (splitter != null && valueCurrent != null) {
+                    count = splitHandlingNull(splitter, valueCurrent).size();
+                }
+                addChange(parentAndName, ChangeType.same, count);
             } else {
-                addChange(parentAndName, ChangeType.get(valueOld, valueCurrent), count);
+                if (splitter != null) {
+                    List<String> setOld = splitHandlingNull(splitter, valueOld);
+                    List<String> setNew = splitHandlingNull(splitter, valueCurrent);
+                    int[] sameAndNotInSecond = new int[2];
+                    valueOld = getFilteredValue(setOld, setNew, sameAndNotInSecond);
+                    addChange(parentAndName, ChangeType.same, sameAndNotInSecond[0]);
+                    addChange(parentAndName, ChangeType.deleted, sameAndNotInSecond[1]);
+                    sameAndNotInSecond[0] = sameAndNotInSecond[1] = 0;
+                    valueCurrent = getFilteredValue(setNew, setOld, sameAndNotInSecond);
+                    addChange(parentAndName, ChangeType.added, sameAndNotInSecond[1]);
+                } else {
+                    addChange(parentAndName, ChangeType.get(valueOld, valueCurrent), count);
+                }
+                PathDiff row = new PathDiff(locale, new PathHeaderSegment(ph, -1, ""), valueOld, valueCurrent);
+                diff.add(row);
+                diffAll.put(ph, locale);
             }
-            PathDiff row = new PathDiff(locale, new PathHeaderSegment(ph, -1, ""), valueOld, valueCurrent);
-            diff.add(row);
-            diffAll.put(ph, locale);
         }
     }
 
+    private String parentAndName(File sourceDir, String locale) {
+        return sourceDir.getName() + "/" + locale + ".xml";
+    }
+
     private List<String> splitHandlingNull(Splitter splitter, String value) {
         return value == null ? null : splitter.splitToList(value);
     }
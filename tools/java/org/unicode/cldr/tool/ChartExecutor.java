@@ -0,0 +1,80 @@
+package org.unicode.cldr.tool;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.ibm.icu.util.ICUException;
+
+/**
+ * Runs independent pieces of chart work on a pool of {@link ToolConstants#CHART_THREADS} threads.
+ * <p>
+ * Callers keep the returned Futures and read them in submission order, so the generated
+ * files don't depend on scheduling. With a single thread, each task is run on the
+ * calling thread when it is submitted, which gives the old serial behavior.
+ * <p>
+ * A task may submit tasks of its own to the same ChartExecutor (as ChartDelta does under
+ * GenerateAllCharts) and wait for them: the pool is a ForkJoinPool, so a waiting task's
+ * thread runs queued tasks instead of blocking, and one pool serves the whole run.
+ */
+final class ChartExecutor implements AutoCloseable {
+    private final ForkJoinPool executor;
+
+    /**
+     * @param maxTasks the expected number of tasks; no more threads than this are started.
+     */
+    ChartExecutor(int maxTasks) {
+        this(maxTasks, ToolConstants.CHART_THREADS);
+    }
+
+    /**
+     * @param maxTasks the expected number of tasks; no more threads than this are started.
+     * @param threads the number of threads; 1 to run each task when it is submitted
+     */
+    ChartExecutor(int maxTasks, int threads) {
+        threads = Math.min(threads, maxTasks);
+        executor = threads <= 1 ? null : new ForkJoinPool(threads);
+    }
+
+    <T> Future<T> submit(Callable<T> task) {
+        if (executor != null) {
+            return executor.submit(task);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            result.complete(task.call());
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Wait for the result of a task, rethrowing any unchecked exception that it threw.
+     */
+    static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ICUException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ICUException(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package org.unicode.cldr.tool;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
 import org.unicode.cldr.util.CLDRPaths;
 import org.unicode.cldr.util.DateTimeFormats;
 import org.unicode.cldr.util.FileCopier;
 import org.unicode.cldr.util.VerifyCompactNumbers;
 import org.unicode.cldr.util.VerifyZones;
 
+/**
+ * Generate all the charts. The generators write to separate directories (except the verify
+ * charts, which are run one after another), so after the shared files and the supplemental
+ * charts are written, the rest are run concurrently (see ToolConstants.CHART_THREADS).
+ */
 public class GenerateAllCharts {
     public static void main(String[] args) throws Exception {
         FileCopier.copy(GenerateAllCharts.class, "index.css", CLDRPaths.CHART_DIRECTORY);
@@ -14,18 +25,61 @@ public class GenerateAllCharts {
 
         ShowLanguages.main(args);
 
-        new ChartAnnotations().writeChart(null);
-        new ChartSubdivisionNames().writeChart(null);
-        GenerateBcp47Text.main(args);
-        GenerateSidewaysView.main(args);
-        ShowData.main(args);
-        //GenerateTransformCharts.main(args);
-        ShowKeyboards.main(args);
-        ChartDelta.main(args);
-        ChartCollation.main(args);
+        // One pool for the generators and for the work that they split up (in ChartDelta), rather than nested pools.
+        try (ChartExecutor executor = new ChartExecutor(Integer.MAX_VALUE)) {
+            runAll(args, executor);
+        }
+    }
+
+    private static void runAll(String[] args, ChartExecutor executor) throws Exception {
+        List<Callable<Void>> generators = Arrays.asList(
+            () -> {
+                new ChartAnnotations().writeChart(null);
+                return null;
+            },
+            () -> {
+                new ChartSubdivisionNames().writeChart(null);
+                return null;
+            },
+            () -> {
+                GenerateBcp47Text.main(args);
+                return null;
+            },
+            () -> {
+                GenerateSidewaysView.main(args);
+                return null;
+            },
+            () -> {
+                ShowData.main(args);
+                return null;
+            },
+            //GenerateTransformCharts.main(args);
+            () -> {
+                ShowKeyboards.main(args);
+                return null;
+            },
+            () -> {
+                ChartDelta.main(args, executor);
+                return null;
+            },
+            () -> {
+                ChartCollation.main(args);
+                return null;
+            },
+            () -> {
+                // These all write to the verify directory (and its index), so they take turns.
+                VerifyCompactNumbers.main(args);
+                VerifyZones.main(args);
+                DateTimeFormats.main(args);
+                return null;
+            });
 
-        VerifyCompactNumbers.main(args);
-        VerifyZones.main(args);
-        DateTimeFormats.main(args);
+        List<Future<Void>> results = new ArrayList<>();
+        for (Callable<Void> generator : generators) {
+            results.add(executor.submit(generator));
+        }
+        for (Future<Void> result : results) {
+            ChartExecutor.get(result);
+        }
     }
 }
@@ -1,8 +1,6 @@
 package org.unicode.cldr.tool;
 
-import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
@@ -139,12 +137,11 @@ public class GenerateBirth {
         File file = new File(dataDirectory + "/" + OutdatedPaths.OUTDATED_DATA);
         final String outputDataFile = file.getCanonicalPath();
         System.out.println("Writing data: " + outputDataFile);
-        DataOutputStream dataOut = new DataOutputStream(new FileOutputStream(file));
-        dataOut.writeUTF(OutdatedPaths.FORMAT_KEY);
 
         // Load and process all the locales
 
         TreeMap<String, Set<String>> localeToNewer = new TreeMap<>();
+        Map<String, Set<Long>> localeToIds = new TreeMap<>();
         LanguageTagParser ltp = new LanguageTagParser();
         for (String fileName : factories[0].getAvailable()) {
             if (fileName.equals("en")) {
@@ -158,19 +155,18 @@ public class GenerateBirth {
             Births other = new Births(fileName);
             Set<String> newer = other.writeBirth(logDirectory, fileName, english);
 
-            dataOut.writeUTF(fileName);
-            dataOut.writeInt(newer.size());
+            Set<Long> ids = new TreeSet<>();
             for (String item : newer) {
                 long id = StringId.getId(item);
-                dataOut.writeLong(id);
+                ids.add(id);
                 if (DEBUG) {
                     System.out.println(id + "\t" + item);
                 }
             }
+            localeToIds.put(fileName, ids);
             localeToNewer.put(fileName, newer);
         }
-        dataOut.writeUTF("$END$");
-        dataOut.close();
+        OutdatedPaths.writeLocaleToPaths(file, localeToIds);
 
         // Doublecheck the data
 
@@ -275,10 +271,8 @@ public class GenerateBirth {
         }
 
         public void writeBirthValues(String file) throws IOException {
-            DataOutputStream dataOut = new DataOutputStream(new FileOutputStream(file));
-            dataOut.writeUTF(OutdatedPaths.FORMAT_KEY);
             System.out.println("Writing data: " + new File(file).getCanonicalPath());
-            dataOut.writeInt(pathToBirthCurrentPrevious.size());
+            Map<Long, Pair<CldrVersion, String>> pathToBirthNPrevious = new HashMap<>();
 
             // Load and process all the locales
 
@@ -290,19 +284,16 @@ public class GenerateBirth {
                 String current = birthCurrentPrevious.get1();
                 String previous = birthCurrentPrevious.get2();
                 long id = StringId.getId(path);
-                dataOut.writeLong(id);
                 final String previousString = previous == null ? OutdatedPaths.NO_VALUE : previous;
-                dataOut.writeUTF(previousString);
+                pathToBirthNPrevious.put(id, Pair.of(birth, previousString));
                 if (previous == null) {
                     emptyPrevious.add(path);
                 }
-                dataOut.writeUTF(birth.toString());
                 if (true) {
                     System.out.println(id + "\t" + birth + "\t«" + current + "⇐" + previous + "»");
                 }
             }
-            dataOut.writeUTF("$END$");
-            dataOut.close();
+            OutdatedPaths.writeBirthValues(new File(file), pathToBirthNPrevious);
             emptyPrevious = Collections.unmodifiableSet(emptyPrevious);
         }
 
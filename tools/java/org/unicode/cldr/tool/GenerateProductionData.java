@@ -5,17 +5,27 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.regex.Matcher;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.unicode.cldr.tool.Option.Options;
 import org.unicode.cldr.tool.Option.Params;
@@ -44,7 +54,7 @@ import com.ibm.icu.util.Output;
 public class GenerateProductionData {
     static boolean DEBUG = false;
     static boolean VERBOSE = false;
-    static Matcher FILE_MATCH = null;
+    static Pattern FILE_MATCH = null;
 
     static String SOURCE_COMMON_DIR = null;
     static String DEST_COMMON_DIR = null;
@@ -60,6 +70,10 @@ public class GenerateProductionData {
     static final Set<String> COPY_ANYWAY = ImmutableSet.of("casing", "collation"); // don't want to "clean up", makes format difficult to use
     static final SupplementalDataInfo SDI = CLDRConfig.getInstance().getSupplementalDataInfo();
 
+    /**
+     * Subdivision names moved out of main files, to be added to the subdivision files.
+     * Only modified on the main thread, between directories.
+     */
     static final Multimap<String, Pair<String, String>> localeToSubdivisionsToMigrate = TreeMultimap.create();
 
     enum MyOptions {
@@ -102,6 +116,11 @@ public class GenerateProductionData {
         fileMatch(new Params()
             .setHelp("regex to match patterns")
             .setMatch(".*")),
+        threads(new Params()
+            .setHelp("number of threads for processing the files of a directory")
+            .setFlag('j')
+            .setDefault(String.valueOf(Runtime.getRuntime().availableProcessors()))
+            .setMatch("[1-9][0-9]*")),
         ;
 
         // BOILERPLATE TO COPY
@@ -135,7 +154,7 @@ public class GenerateProductionData {
         DEBUG = MyOptions.Debug.option.doesOccur();
         String fileMatch = MyOptions.fileMatch.option.getValue();
         if (fileMatch != null) {
-            FILE_MATCH = Pattern.compile(fileMatch).matcher("");
+            FILE_MATCH = Pattern.compile(fileMatch);
         }
 
         // controls for minimization
@@ -148,21 +167,43 @@ public class GenerateProductionData {
         INCLUDE_COMPREHENSIVE = "true".equalsIgnoreCase(MyOptions.includeComprehensive.option.getValue());
         CONSTRAINED_RESTORATION = "true".equalsIgnoreCase(MyOptions.constrainedRestoration.option.getValue());
 
-        // get directories
+        // The files are written to a temporary directory next to the destination. Each generated
+        // directory then replaces its counterpart in the destination, so a failed run leaves the old
+        // data in place, and anything else in the destination is left alone.
+        File destinationRoot = new File(DEST_COMMON_DIR).getAbsoluteFile();
+        File tempRoot = makeTempDirectory(destinationRoot);
+        ExecutorService executor = Executors.newFixedThreadPool(Integer.parseInt(MyOptions.threads.option.getValue()));
+        Stats total = new Stats();
+        Set<String> generated = new TreeSet<>();
+        boolean success = false;
+        try {
+            // get directories
 
-        for (DtdType type : DtdType.values()) {
-            boolean isLdmlDtdType = type == DtdType.ldml;
+            for (DtdType type : DtdType.values()) {
+                boolean isLdmlDtdType = type == DtdType.ldml;
 
-            // bit of a hack, using the ldmlICU — otherwise unused! — to get the nonXML files.
-            Set<String> directories = (type == DtdType.ldmlICU) ? NON_XML : type.directories;
+                // bit of a hack, using the ldmlICU — otherwise unused! — to get the nonXML files.
+                Set<String> directories = (type == DtdType.ldmlICU) ? NON_XML : type.directories;
 
-            for (String dir : directories) {
-                File sourceDir = new File(SOURCE_COMMON_DIR, dir);
-                File destinationDir = new File(DEST_COMMON_DIR, dir);
-                Stats stats = new Stats();
-                copyFilesAndReturnIsEmpty(sourceDir, destinationDir, null, isLdmlDtdType, stats);
+                for (String dir : directories) {
+                    File sourceDir = new File(SOURCE_COMMON_DIR, dir);
+                    File destinationDir = new File(tempRoot, dir);
+                    copyFilesAndReturnIsEmpty(sourceDir, destinationDir, null, isLdmlDtdType, total, executor);
+                    // directories outside the root, like ../keyboards, are written in place
+                    if (destinationDir.toPath().normalize().startsWith(tempRoot.toPath())) {
+                        generated.add(dir);
+                    }
+                }
+            }
+            success = true;
+        } finally {
+            executor.shutdownNow();
+            if (!success) {
+                deleteRecursively(tempRoot);
             }
         }
+        replaceDirectories(tempRoot, generated, destinationRoot);
+        System.out.println("TOTAL:\t" + total);
         if (!localeToSubdivisionsToMigrate.isEmpty()) {
             System.err.println("WARNING: Subdivision files not written");
             for (Entry<String, Pair<String, String>> entry : localeToSubdivisionsToMigrate.entries()) {
@@ -180,6 +221,13 @@ public class GenerateProductionData {
             files = removed = retained = remaining = 0;
             return this;
         }
+        Stats add(Stats other) {
+            files += other.files;
+            removed += other.removed;
+            retained += other.retained;
+            remaining += other.remaining;
+            return this;
+        }
         @Override
         public String toString() {
             return
@@ -202,12 +250,12 @@ public class GenerateProductionData {
      * @param destinationFile
      * @param factory
      * @param isLdmlDtdType
-     * @param stats
-     * @param hasChildren
+     * @param stats the stats to add the counts for a directory to
+     * @param executor for processing the files of a directory in parallel
      * @return true if the file is an ldml file with empty content.
      */
     private static boolean copyFilesAndReturnIsEmpty(File sourceFile, File destinationFile,
-        Factory factory, boolean isLdmlDtdType, Stats stats) {
+        Factory factory, boolean isLdmlDtdType, Stats stats, ExecutorService executor) {
         if (sourceFile.isDirectory()) {
 
             System.out.println(sourceFile + " => " + destinationFile);
@@ -232,7 +280,10 @@ public class GenerateProductionData {
             boolean isRbnfDir = factory != null && sourceFile.getName().contentEquals("rbnf");
 
             Set<String> emptyLocales = new HashSet<>();
-            stats = new Stats();
+            Stats directoryStats = new Stats();
+            // The files in a directory are independent: each task makes its own CLDRFiles from the shared
+            // factory, whose cached parent sources are frozen. The results are merged in sorted order.
+            List<Future<FileTask>> tasks = new ArrayList<>();
             for (String file : sorted) {
                 File sourceFile2 = new File(sourceFile, file);
                 File destinationFile2 = new File(destinationFile, file);
@@ -249,12 +300,28 @@ public class GenerateProductionData {
                 }
 
                 // when the currFactory is null, we just copy files as-is
-                boolean isEmpty = copyFilesAndReturnIsEmpty(sourceFile2, destinationFile2, currFactory, isLdmlDtdType, stats);
-                if (isEmpty) { // only happens for ldml
+                if (sourceFile2.isDirectory()) {
+                    copyFilesAndReturnIsEmpty(sourceFile2, destinationFile2, currFactory, isLdmlDtdType, directoryStats, executor);
+                } else {
+                    tasks.add(executor.submit(new FileTask(sourceFile2, destinationFile2, currFactory)));
+                }
+            }
+            Multimap<String, Pair<String, String>> subdivisionsToMigrate = TreeMultimap.create();
+            for (Future<FileTask> future : tasks) {
+                FileTask task = getResult(future);
+                directoryStats.add(task.stats);
+                if (task.isEmpty) { // only happens for ldml
+                    String file = task.sourceFile.getName();
                     emptyLocales.add(file.substring(0,file.length()-4)); // remove .xml for localeId
                 }
+                subdivisionsToMigrate.putAll(task.subdivisionsToMigrate);
+                if (task.migratedSubdivisions) {
+                    localeToSubdivisionsToMigrate.removeAll(task.localeId);
+                }
             }
-            stats.showNonZero("\tTOTAL:\t");
+            localeToSubdivisionsToMigrate.putAll(subdivisionsToMigrate);
+            directoryStats.showNonZero("\tTOTAL:\t");
+            stats.add(directoryStats);
             // if there are empty ldml files, AND we aren't in /main/,
             // then remove any without children
             if (!emptyLocales.isEmpty() && !sourceFile.getName().equals("main")) {
@@ -265,221 +332,259 @@ public class GenerateProductionData {
                 }
             }
             return false;
-        } else if (factory != null) {
-            String file = sourceFile.getName();
-            if (!file.endsWith(".xml")) {
-                return false;
-            }
-            String localeId = file.substring(0, file.length()-4);
-            if (FILE_MATCH != null) {
-                if (!FILE_MATCH.reset(localeId).matches()) {
-                    return false;
-                }
-            }
-            boolean isRoot = localeId.equals("root");
-            String directoryName = sourceFile.getParentFile().getName();
-            boolean isSubdivisionDirectory = "subdivisions".equals(directoryName);
-
-            CLDRFile cldrFileUnresolved = factory.make(localeId, false);
-            CLDRFile cldrFileResolved = factory.make(localeId, true);
-            boolean gotOne = false;
-            Set<String> toRemove = new TreeSet<>(); // TreeSet just makes debugging easier
-            Set<String> toRetain = new TreeSet<>();
-            Output<String> pathWhereFound = new Output<>();
-            Output<String> localeWhereFound = new Output<>();
+        }
+        FileTask task = new FileTask(sourceFile, destinationFile, factory).call();
+        stats.add(task.stats);
+        return task.isEmpty;
+    }
 
-            boolean isArabicSpecial = localeId.equals("ar") || localeId.startsWith("ar_");
+    /**
+     * Copy a single file, minimizing it if there is a factory. These run in parallel, so they
+     * only read shared state; the stats and subdivisions are merged by the caller.
+     */
+    private static class FileTask implements Callable<FileTask> {
+        private final File sourceFile;
+        private final File destinationFile;
+        private final Factory factory;
+        private final String localeId;
+        private final Stats stats = new Stats();
+        private final Multimap<String, Pair<String, String>> subdivisionsToMigrate = TreeMultimap.create();
+        private boolean migratedSubdivisions = false;
+        private boolean isEmpty = false;
+
+        private FileTask(File sourceFile, File destinationFile, Factory factory) {
+            this.sourceFile = sourceFile;
+            this.destinationFile = destinationFile;
+            this.factory = factory;
+            String file = sourceFile.getName();
+            this.localeId = file.endsWith(".xml") ? file.substring(0, file.length()-4) : null;
+        }
 
-            String debugPath = null; // "//ldml/units/unitLength[@type=\"short\"]/unit[@type=\"power-kilowatt\"]/displayName";
-            String debugLocale = "af";
+        @Override
+        public FileTask call() {
+            isEmpty = copyAndReturnIsEmpty();
+            return this;
+        }
 
-            for (String xpath : cldrFileUnresolved) {
-                if (xpath.startsWith("//ldml/identity")) {
-                    continue;
+        /**
+         * @return true if the file is an ldml file with empty content.
+         */
+        private boolean copyAndReturnIsEmpty() {
+            if (factory != null) {
+                String file = sourceFile.getName();
+                if (!file.endsWith(".xml")) {
+                    return false;
                 }
-                if (debugPath != null && localeId.equals(debugLocale) && xpath.equals(debugPath)) {
-                    int debug = 0;
+                if (FILE_MATCH != null) {
+                    if (!FILE_MATCH.matcher(localeId).matches()) {
+                        return false;
+                    }
                 }
+                boolean isRoot = localeId.equals("root");
+                String directoryName = sourceFile.getParentFile().getName();
+                boolean isSubdivisionDirectory = "subdivisions".equals(directoryName);
 
-                String value = cldrFileUnresolved.getStringValue(xpath);
-                if (value == null || CldrUtility.INHERITANCE_MARKER.equals(value)) {
-                    toRemove.add(xpath);
-                    continue;
-                }
+                CLDRFile cldrFileUnresolved = factory.make(localeId, false);
+                CLDRFile cldrFileResolved = factory.make(localeId, true);
+                boolean gotOne = false;
+                Set<String> toRemove = new TreeSet<>(); // TreeSet just makes debugging easier
+                Set<String> toRetain = new TreeSet<>();
+                Output<String> pathWhereFound = new Output<>();
+                Output<String> localeWhereFound = new Output<>();
+
+                boolean isArabicSpecial = localeId.equals("ar") || localeId.startsWith("ar_");
 
-                // special-case the root values that are only for Survey Tool use
+                String debugPath = null; // "//ldml/units/unitLength[@type=\"short\"]/unit[@type=\"power-kilowatt\"]/displayName";
+                String debugLocale = "af";
+
+                for (String xpath : cldrFileUnresolved) {
+                    if (xpath.startsWith("//ldml/identity")) {
+                        continue;
+                    }
+                    if (debugPath != null && localeId.equals(debugLocale) && xpath.equals(debugPath)) {
+                        int debug = 0;
+                    }
 
-                if (isRoot) {
-                    if (xpath.startsWith("//ldml/annotations/annotation")) {
+                    String value = cldrFileUnresolved.getStringValue(xpath);
+                    if (value == null || CldrUtility.INHERITANCE_MARKER.equals(value)) {
                         toRemove.add(xpath);
                         continue;
                     }
-                }
 
-                // special case for Arabic defaultNumberingSystem
-                if (isArabicSpecial && xpath.contains("/defaultNumberingSystem")) {
-                    toRetain.add(xpath);
-                }
+                    // special-case the root values that are only for Survey Tool use
 
-                // remove items that are the same as their bailey values. This also catches Inheritance Marker
+                    if (isRoot) {
+                        if (xpath.startsWith("//ldml/annotations/annotation")) {
+                            toRemove.add(xpath);
+                            continue;
+                        }
+                    }
 
-                String bailey = cldrFileResolved.getConstructedBaileyValue(xpath, pathWhereFound, localeWhereFound);
-                if (value.equals(bailey)
-                    && (!ADD_SIDEWAYS
-                        || pathEqualsOrIsAltVariantOf(xpath, pathWhereFound.value))
-                    && (!ADD_ROOT
-                        || (!Objects.equals(XMLSource.ROOT_ID, localeWhereFound.value)
-                            && !Objects.equals(XMLSource.CODE_FALLBACK_ID, localeWhereFound.value)))) {
-                    toRemove.add(xpath);
-                    continue;
-                }
+                    // special case for Arabic defaultNumberingSystem
+                    if (isArabicSpecial && xpath.contains("/defaultNumberingSystem")) {
+                        toRetain.add(xpath);
+                    }
 
-                // Move subdivisions elsewhere
-                if (!isSubdivisionDirectory && xpath.startsWith("//ldml/localeDisplayNames/subdivisions/subdivision")) {
-                    localeToSubdivisionsToMigrate.put(localeId, Pair.of(xpath, value));
-                    toRemove.add(xpath);
-                    continue;
-                }
-                // remove level=comprehensive (under setting)
+                    // remove items that are the same as their bailey values. This also catches Inheritance Marker
 
-                if (!INCLUDE_COMPREHENSIVE) {
-                    Level coverage = SDI.getCoverageLevel(xpath, localeId);
-                    if (coverage == Level.COMPREHENSIVE) {
+                    String bailey = cldrFileResolved.getConstructedBaileyValue(xpath, pathWhereFound, localeWhereFound);
+                    if (value.equals(bailey)
+                        && (!ADD_SIDEWAYS
+                            || pathEqualsOrIsAltVariantOf(xpath, pathWhereFound.value))
+                        && (!ADD_ROOT
+                            || (!Objects.equals(XMLSource.ROOT_ID, localeWhereFound.value)
+                                && !Objects.equals(XMLSource.CODE_FALLBACK_ID, localeWhereFound.value)))) {
                         toRemove.add(xpath);
                         continue;
                     }
-                }
 
-                // if we got all the way to here, we have a non-empty result
-
-                // check to see if we might need to flesh out logical groups
-                // TODO Should be done in the converter tool!!
-                if (ADD_LOGICAL_GROUPS && !LogicalGrouping.isOptional(cldrFileResolved, xpath)) {
-                    Set<String> paths = LogicalGrouping.getPaths(cldrFileResolved, xpath);
-                    if (paths != null && paths.size() > 1) {
-                        for (String possiblePath : paths) {
-                            // Unclear from API whether we need to do this filtering
-                            if (!LogicalGrouping.isOptional(cldrFileResolved, possiblePath)) {
-                                toRetain.add(possiblePath);
+                    // Move subdivisions elsewhere
+                    if (!isSubdivisionDirectory && xpath.startsWith("//ldml/localeDisplayNames/subdivisions/subdivision")) {
+                        subdivisionsToMigrate.put(localeId, Pair.of(xpath, value));
+                        toRemove.add(xpath);
+                        continue;
+                    }
+                    // remove level=comprehensive (under setting)
+
+                    if (!INCLUDE_COMPREHENSIVE) {
+                        Level coverage = SDI.getCoverageLevel(xpath, localeId);
+                        if (coverage == Level.COMPREHENSIVE) {
+                            toRemove.add(xpath);
+                            continue;
+                        }
+                    }
+
+                    // if we got all the way to here, we have a non-empty result
+
+                    // check to see if we might need to flesh out logical groups
+                    // TODO Should be done in the converter tool!!
+                    if (ADD_LOGICAL_GROUPS && !LogicalGrouping.isOptional(cldrFileResolved, xpath)) {
+                        Set<String> paths = LogicalGrouping.getPaths(cldrFileResolved, xpath);
+                        if (paths != null && paths.size() > 1) {
+                            for (String possiblePath : paths) {
+                                // Unclear from API whether we need to do this filtering
+                                if (!LogicalGrouping.isOptional(cldrFileResolved, possiblePath)) {
+                                    toRetain.add(possiblePath);
+                                }
                             }
                         }
                     }
-                }
 
-                // check to see if we might need to flesh out datetime.
-                // TODO Should be done in the converter tool!!
-                if (ADD_DATETIME && isDateTimePath(xpath)) {
-                    toRetain.addAll(dateTimePaths(xpath));
-                }
+                    // check to see if we might need to flesh out datetime.
+                    // TODO Should be done in the converter tool!!
+                    if (ADD_DATETIME && isDateTimePath(xpath)) {
+                        toRetain.addAll(dateTimePaths(xpath));
+                    }
 
-                // past the gauntlet
-                gotOne = true;
-            }
+                    // past the gauntlet
+                    gotOne = true;
+                }
 
-            // we even add empty files, but can delete them back on the directory level.
-            try (PrintWriter pw = new PrintWriter(destinationFile)) {
-                CLDRFile outCldrFile = cldrFileUnresolved.cloneAsThawed();
-                if (isSubdivisionDirectory) {
-                    Collection<Pair<String, String>> path_values = localeToSubdivisionsToMigrate.get(localeId);
-                    if (path_values != null) {
-                        for (Pair<String, String>path_value : path_values) {
-                            outCldrFile.add(path_value.getFirst(), path_value.getSecond());
+                // we even add empty files, but can delete them back on the directory level.
+                try (PrintWriter pw = new PrintWriter(destinationFile)) {
+                    CLDRFile outCldrFile = cldrFileUnresolved.cloneAsThawed();
+                    if (isSubdivisionDirectory) {
+                        Collection<Pair<String, String>> path_values = localeToSubdivisionsToMigrate.get(localeId);
+                        if (path_values != null) {
+                            for (Pair<String, String>path_value : path_values) {
+                                outCldrFile.add(path_value.getFirst(), path_value.getSecond());
+                            }
+                            migratedSubdivisions = true;
                         }
-                        localeToSubdivisionsToMigrate.removeAll(localeId);
                     }
-                }
-
-                // Remove paths, but pull out the ones to retain
-                // example:
-                // toRemove == {a b c} // c may have ^^^ value
-                // toRetain == {b c d} // d may have ^^^ value
 
-                if (DEBUG) {
-                    showIfNonZero(localeId, "removing", toRemove);
-                    showIfNonZero(localeId, "retaining", toRetain);
+                    // Remove paths, but pull out the ones to retain
+                    // example:
+                    // toRemove == {a b c} // c may have ^^^ value
+                    // toRetain == {b c d} // d may have ^^^ value
 
-                }
-                if (CONSTRAINED_RESTORATION) {
-                    toRetain.retainAll(toRemove); // only add paths that were there already
-                    // toRetain == {b c}
                     if (DEBUG) {
-                        showIfNonZero(localeId, "constrained retaining", toRetain);
-                    }
-                }
+                        showIfNonZero(localeId, "removing", toRemove);
+                        showIfNonZero(localeId, "retaining", toRetain);
 
-                boolean changed0 = toRemove.removeAll(toRetain);
-                // toRemove == {a}
-                if (DEBUG && changed0) {
-                    showIfNonZero(localeId, "final removing", toRemove);
-                }
+                    }
+                    if (CONSTRAINED_RESTORATION) {
+                        toRetain.retainAll(toRemove); // only add paths that were there already
+                        // toRetain == {b c}
+                        if (DEBUG) {
+                            showIfNonZero(localeId, "constrained retaining", toRetain);
+                        }
+                    }
 
-                boolean changed = toRetain.removeAll(toRemove);
-                // toRetain = {b c d} or if constrained, {b c}
-                if (DEBUG && changed) {
-                    showIfNonZero(localeId, "final retaining", toRetain);
-                }
+                    boolean changed0 = toRemove.removeAll(toRetain);
+                    // toRemove == {a}
+                    if (DEBUG && changed0) {
+                        showIfNonZero(localeId, "final removing", toRemove);
+                    }
 
-                outCldrFile.removeAll(toRemove, false);
-                if (DEBUG) {
-                    for (String xpath : toRemove) {
-                        System.out.println(localeId + ": removing: «"
-                            + cldrFileUnresolved.getStringValue(xpath)
-                            + "», " + xpath);
+                    boolean changed = toRetain.removeAll(toRemove);
+                    // toRetain = {b c d} or if constrained, {b c}
+                    if (DEBUG && changed) {
+                        showIfNonZero(localeId, "final retaining", toRetain);
                     }
-                }
 
-                // now set any null values to bailey values if not present
-                for (String xpath : toRetain) {
-                    if (debugPath != null && localeId.equals(debugLocale) && xpath.equals(debugPath)) {
-                        int debug = 0;
+                    outCldrFile.removeAll(toRemove, false);
+                    if (DEBUG) {
+                        for (String xpath : toRemove) {
+                            System.out.println(localeId + ": removing: «"
+                                + cldrFileUnresolved.getStringValue(xpath)
+                                + "», " + xpath);
+                        }
                     }
-                    String value = cldrFileResolved.getStringValue(xpath);
-                    if (value == null || value.equals(CldrUtility.INHERITANCE_MARKER)) {
-                        throw new IllegalArgumentException(localeId + ": " + value + " in value for " + xpath);
-                    } else {
-                        if (DEBUG) {
-                            String oldValue = cldrFileUnresolved.getStringValue(xpath);
-                            System.out.println("Restoring: «" + oldValue + "» ⇒ «" + value
-                                + "»\t" + xpath);
+
+                    // now set any null values to bailey values if not present
+                    for (String xpath : toRetain) {
+                        if (debugPath != null && localeId.equals(debugLocale) && xpath.equals(debugPath)) {
+                            int debug = 0;
+                        }
+                        String value = cldrFileResolved.getStringValue(xpath);
+                        if (value == null || value.equals(CldrUtility.INHERITANCE_MARKER)) {
+                            throw new IllegalArgumentException(localeId + ": " + value + " in value for " + xpath);
+                        } else {
+                            if (DEBUG) {
+                                String oldValue = cldrFileUnresolved.getStringValue(xpath);
+                                System.out.println("Restoring: «" + oldValue + "» ⇒ «" + value
+                                    + "»\t" + xpath);
+                            }
+                            outCldrFile.add(xpath, value);
                         }
-                        outCldrFile.add(xpath, value);
                     }
-                }
 
-                // double-check results
-                int count = 0;
-                for (String xpath : outCldrFile) {
-                    if (debugPath != null && localeId.equals(debugLocale) && xpath.equals(debugPath)) {
-                        int debug = 0;
+                    // double-check results
+                    int count = 0;
+                    for (String xpath : outCldrFile) {
+                        if (debugPath != null && localeId.equals(debugLocale) && xpath.equals(debugPath)) {
+                            int debug = 0;
+                        }
+                        String value = outCldrFile.getStringValue(xpath);
+                        if (value == null || value.equals(CldrUtility.INHERITANCE_MARKER)) {
+                            throw new IllegalArgumentException(localeId + ": " + value + " in value for " + xpath);
+                        }
                     }
-                    String value = outCldrFile.getStringValue(xpath);
-                    if (value == null || value.equals(CldrUtility.INHERITANCE_MARKER)) {
-                        throw new IllegalArgumentException(localeId + ": " + value + " in value for " + xpath);
+
+                    outCldrFile.write(pw);
+                    ++stats.files;
+                    stats.removed += toRemove.size();
+                    stats.retained += toRetain.size();
+                    stats.remaining += count;
+                } catch (FileNotFoundException e) {
+                    throw new UncheckedIOException("Can't copy " + sourceFile + " to " + destinationFile + " — ", e);
+                }
+                return !gotOne;
+            } else {
+                if (FILE_MATCH != null) {
+                    String file = sourceFile.getName();
+                    int dotPos = file.lastIndexOf('.');
+                    String baseName = dotPos >= 0 ? file.substring(0, file.length()-dotPos) : file;
+                    if (!FILE_MATCH.matcher(baseName).matches()) {
+                        return false;
                     }
                 }
-
-                outCldrFile.write(pw);
+                // for now, just copy
                 ++stats.files;
-                stats.removed += toRemove.size();
-                stats.retained += toRetain.size();
-                stats.remaining += count;
-            } catch (FileNotFoundException e) {
-                throw new UncheckedIOException("Can't copy " + sourceFile + " to " + destinationFile + " — ", e);
-            }
-            return !gotOne;
-        } else {
-            if (FILE_MATCH != null) {
-                String file = sourceFile.getName();
-                int dotPos = file.lastIndexOf('.');
-                String baseName = dotPos >= 0 ? file.substring(0, file.length()-dotPos) : file;
-                if (!FILE_MATCH.reset(baseName).matches()) {
-                    return false;
-                }
+                copyFiles(sourceFile, destinationFile);
+                return false;
             }
-            // for now, just copy
-            ++stats.files;
-            copyFiles(sourceFile, destinationFile);
-            return false;
         }
     }
 
@@ -606,4 +711,68 @@ public class GenerateProductionData {
             System.err.println("Can't copy " + sourceFile + " to " + destinationFile + " — " + e);
         }
     }
+
+    private static <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Make an empty directory next to the destination, so that it can be renamed to the destination.
+     */
+    private static File makeTempDirectory(File destination) {
+        try {
+            Path parent = destination.getParentFile().toPath();
+            java.nio.file.Files.createDirectories(parent);
+            return java.nio.file.Files.createTempDirectory(parent, destination.getName() + "-tmp-").toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't create temporary directory for " + destination, e);
+        }
+    }
+
+    /**
+     * Replace each generated subdirectory of the destination by its counterpart in the temporary
+     * directory, leaving other contents of the destination (such as directories not regenerated
+     * because of -fileMatch) alone. Both steps for a subdirectory are renames within the same
+     * filesystem, so it never has a partial tree: there is only a brief window where it doesn't exist.
+     * The old subdirectories are moved into the temporary directory, which is then deleted.
+     */
+    private static void replaceDirectories(File tempRoot, Set<String> generated, File destination) {
+        Path oldRoot = tempRoot.toPath().resolve(".old");
+        try {
+            java.nio.file.Files.createDirectories(destination.toPath());
+            java.nio.file.Files.createDirectories(oldRoot);
+            for (String dir : generated) {
+                Path newPath = tempRoot.toPath().resolve(dir);
+                if (!java.nio.file.Files.exists(newPath)) {
+                    continue;
+                }
+                Path destinationPath = destination.toPath().resolve(dir);
+                if (java.nio.file.Files.exists(destinationPath)) {
+                    java.nio.file.Files.move(destinationPath, oldRoot.resolve(dir), StandardCopyOption.ATOMIC_MOVE);
+                }
+                java.nio.file.Files.move(newPath, destinationPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't replace directories in " + destination + " by those in " + tempRoot, e);
+        }
+        deleteRecursively(tempRoot);
+    }
+
+    private static void deleteRecursively(File directory) {
+        try (Stream<Path> paths = java.nio.file.Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            System.err.println("Can't delete " + directory + " — " + e);
+        }
+    }
 }
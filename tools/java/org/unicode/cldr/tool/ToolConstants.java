@@ -100,6 +100,10 @@ public class ToolConstants {
             : "beta"));
     public static final boolean BETA = CHART_STATUS == ChartStatus.beta;
 
+    // number of worker threads for generating charts; -DCHART_THREADS=1 for serial generation
+    public static final int CHART_THREADS = Integer.parseInt(CldrUtility.getProperty("CHART_THREADS",
+        String.valueOf(Runtime.getRuntime().availableProcessors())));
+
     // DON'T CHANGE ANY OF THE FOLLOWING DEFINITIONS; THEY ARE DRIVEN BY THE ABOVE
 
     public static final String CHART_DISPLAY_VERSION = CHART_VI.getVersionString(2, 2) + (BETA ? "β" : "");
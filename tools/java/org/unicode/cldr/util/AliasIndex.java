@@ -0,0 +1,285 @@
+package org.unicode.cldr.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable index over the root aliases of an XMLSource, used during resolution.
+ * <p>
+ * Alias source paths are stored in a trie keyed by path segments (element plus attributes),
+ * so that the longest alias prefix of a path can be found in a single walk, without
+ * allocating. A second trie over the alias target paths is used to find the paths that
+ * depend on a given path, for cache invalidation.
+ * <p>
+ * Since only root has aliases, a single instance is built per root XMLSource and shared by
+ * all the ResolvingSources built on it.
+ */
+public final class AliasIndex {
+
+    private static final String[] NO_KEYS = new String[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    /**
+     * Trie node. The children are sorted by segment, for binary search.
+     */
+    private static final class Node {
+        private String[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        /** The aliased path, if a root alias has its source at this node (forward trie) */
+        private String target;
+        /** The alias sources that point to this node (reverse trie) */
+        private List<String> sources;
+
+        // only used while building
+        private TreeMap<String, Node> building;
+
+        private Node getOrAdd(String segment) {
+            if (building == null) {
+                building = new TreeMap<>();
+            }
+            Node result = building.get(segment);
+            if (result == null) {
+                building.put(segment, result = new Node());
+            }
+            return result;
+        }
+
+        private void freeze() {
+            if (building != null) {
+                keys = building.keySet().toArray(new String[building.size()]);
+                children = building.values().toArray(new Node[building.size()]);
+                building = null;
+                for (Node child : children) {
+                    child.freeze();
+                }
+            }
+            if (sources != null) {
+                sources = Collections.unmodifiableList(sources);
+            }
+        }
+
+        /**
+         * Return the child for path.substring(start, end), without allocating the substring.
+         */
+        private Node get(String path, int start, int end) {
+            int low = 0;
+            int high = keys.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int diff = compareSegment(keys[mid], path, start, end);
+                if (diff < 0) {
+                    low = mid + 1;
+                } else if (diff > 0) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Map<String, String> aliases;
+    private final Map<String, List<String>> reverseAliases;
+    private final Node forward = new Node();
+    private final Node reverse = new Node();
+
+    /**
+     * Build an index from a map of alias source paths to alias target paths, as found in root.
+     */
+    public AliasIndex(Map<String, String> aliasMap) {
+        TreeMap<String, String> sortedAliases = new TreeMap<>(aliasMap);
+        TreeMap<String, List<String>> sortedReverse = new TreeMap<>();
+        for (Entry<String, String> entry : sortedAliases.entrySet()) {
+            String source = entry.getKey();
+            String target = entry.getValue();
+            add(forward, source).target = target;
+
+            Node reverseNode = add(reverse, target);
+            if (reverseNode.sources == null) {
+                reverseNode.sources = new ArrayList<>();
+            }
+            reverseNode.sources.add(source);
+
+            List<String> list = sortedReverse.get(target);
+            if (list == null) {
+                sortedReverse.put(target, list = new ArrayList<>());
+            }
+            list.add(source);
+        }
+        forward.freeze();
+        reverse.freeze();
+
+        LinkedHashMap<String, List<String>> reverseMap = new LinkedHashMap<>();
+        for (Entry<String, List<String>> entry : sortedReverse.entrySet()) {
+            reverseMap.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        aliases = Collections.unmodifiableMap(sortedAliases);
+        reverseAliases = Collections.unmodifiableMap(reverseMap);
+    }
+
+    /**
+     * @return the alias source paths mapped to their target paths, sorted by source path
+     */
+    public Map<String, String> getAliases() {
+        return aliases;
+    }
+
+    /**
+     * @return the alias target paths mapped to the list of their source paths, sorted by target path
+     */
+    public Map<String, List<String>> getReverseAliases() {
+        return reverseAliases;
+    }
+
+    public int size() {
+        return aliases.size();
+    }
+
+    /**
+     * Get the path that the given path is aliased to, using the alias with the longest matching
+     * prefix. Only whole path segments are matched, so //ldml/a/b matches //ldml/a/b/c
+     * but not //ldml/a/bc, nor //ldml/a/b[@alt="short"].
+     * <p>
+     * The earlier lookup (TreeMap.lowerKey, then startsWith) could also match an alias source followed
+     * by more attributes, but only when no other alias source sorted between the two. Matching that
+     * case always would make root loop: //ldml/numbers/symbols is aliased to
+     * //ldml/numbers/symbols[@numberSystem="latn"], which would then be aliased to itself.
+     *
+     * @param xpath the distinguishing path
+     * @return the aliased path, or null if no alias applies.
+     */
+    public String getAliasedPath(String xpath) {
+        Node node = forward;
+        String target = null;
+        int matchEnd = 0;
+        int length = xpath.length();
+        int start = 0;
+        while (true) {
+            int end = segmentEnd(xpath, start);
+            node = node.get(xpath, start, end);
+            if (node == null) {
+                break;
+            }
+            if (node.target != null) {
+                target = node.target;
+                matchEnd = end;
+            }
+            if (end >= length) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (target == null) {
+            return null;
+        }
+        return matchEnd == length ? target : target + xpath.substring(matchEnd);
+    }
+
+    /**
+     * Get the paths whose resolution may depend on the given path through aliases, directly
+     * or indirectly. That is, the paths that are aliased to the given path, and then
+     * the paths aliased to those, and so on.
+     *
+     * @param xpath the distinguishing path
+     * @return the set of dependent paths, empty if there are none.
+     */
+    public Set<String> getDependentPaths(String xpath) {
+        Set<String> result = null;
+        List<String> pending = null;
+        String current = xpath;
+        int pendingIndex = 0;
+        while (true) {
+            Node node = reverse;
+            int length = current.length();
+            int start = 0;
+            while (true) {
+                int end = segmentEnd(current, start);
+                node = node.get(current, start, end);
+                if (node == null) {
+                    break;
+                }
+                if (node.sources != null) {
+                    String suffix = current.substring(end);
+                    for (String source : node.sources) {
+                        String dependent = source + suffix;
+                        if (result == null) {
+                            result = new LinkedHashSet<>();
+                            pending = new ArrayList<>();
+                        }
+                        if (!dependent.equals(xpath) && result.add(dependent)) {
+                            pending.add(dependent);
+                        }
+                    }
+                }
+                if (end >= length) {
+                    break;
+                }
+                start = end + 1;
+            }
+            if (pending == null || pendingIndex >= pending.size()) {
+                break;
+            }
+            current = pending.get(pendingIndex++);
+        }
+        return result == null ? Collections.emptySet() : result;
+    }
+
+    private static Node add(Node root, String path) {
+        Node node = root;
+        int length = path.length();
+        int start = 0;
+        while (true) {
+            int end = segmentEnd(path, start);
+            node = node.getOrAdd(path.substring(start, end));
+            if (end >= length) {
+                return node;
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Return the end of the path segment starting at start: the offset of the next '/' that is not
+     * within a quoted attribute value, or the length of the path.
+     */
+    static int segmentEnd(String path, int start) {
+        char quote = 0;
+        for (int i = start; i < path.length(); ++i) {
+            char ch = path.charAt(i);
+            if (quote != 0) {
+                if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '"' || ch == '\'') {
+                quote = ch;
+            } else if (ch == '/') {
+                return i;
+            }
+        }
+        return path.length();
+    }
+
+    /**
+     * Compare key to path.substring(start, end), with the same ordering as String.compareTo
+     */
+    private static int compareSegment(String key, String path, int start, int end) {
+        int keyLength = key.length();
+        int segmentLength = end - start;
+        int limit = Math.min(keyLength, segmentLength);
+        for (int i = 0; i < limit; ++i) {
+            int diff = key.charAt(i) - path.charAt(start + i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return keyLength - segmentLength;
+    }
+}
@@ -152,7 +152,7 @@ public class CLDRConfig extends Properties {
     }
 
     private CoverageInfo coverageInfo = null;
-    private SupplementalDataInfo supplementalDataInfo;
+    private volatile SupplementalDataInfo supplementalDataInfo;
     private StandardCodes sc;
     private Factory cldrFactory;
     private Factory fullFactory;
@@ -212,12 +212,16 @@ public class CLDRConfig extends Properties {
     }
 
     public SupplementalDataInfo getSupplementalDataInfo() {
-        synchronized (SUPPLEMENTAL_DATA_SYNC) {
-            if (supplementalDataInfo == null) {
-                supplementalDataInfo = SupplementalDataInfo.getInstance(CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY);
+        SupplementalDataInfo result = supplementalDataInfo;
+        if (result == null) {
+            synchronized (SUPPLEMENTAL_DATA_SYNC) {
+                result = supplementalDataInfo;
+                if (result == null) {
+                    supplementalDataInfo = result = SupplementalDataInfo.getInstance(CLDRPaths.DEFAULT_SUPPLEMENTAL_DIRECTORY);
+                }
             }
         }
-        return supplementalDataInfo;
+        return result;
     }
 
     public StandardCodes getStandardCodes() {
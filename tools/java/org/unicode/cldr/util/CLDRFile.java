@@ -392,8 +392,7 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String>, LocaleSt
      * TODO: shorten this method (over 170 lines) using subroutines.
      */
     public boolean write(PrintWriter pw, Map<String, ?> options) {
-        Set<String> orderedSet = new TreeSet<>(getComparator());
-        dataSource.forEach(orderedSet::add);
+        Collection<String> orderedSet = sortPaths(dataSource.iterator(), getComparator());
 
         String firstPath = null;
         String firstFullPath = null;
@@ -1247,9 +1246,19 @@ public class CLDRFile implements Freezable<CLDRFile>, Iterable<String>, LocaleSt
             ? dataSource.iterator()
             : dataSource.iterator(prefix);
         if (comparator == null) return it;
+        return sortPaths(it, comparator).iterator();
+    }
+
+    /**
+     * Sort the paths, which must be distinct. A DtdComparator sorts them with precomputed keys.
+     */
+    private static Collection<String> sortPaths(Iterator<String> it, Comparator<String> comparator) {
+        if (comparator instanceof DtdData.DtdComparator) {
+            return ((DtdData.DtdComparator) comparator).sort(it);
+        }
         Set<String> orderedSet = new TreeSet<>(comparator);
         it.forEachRemaining(orderedSet::add);
-        return orderedSet.iterator();
+        return orderedSet;
     }
 
     public Iterable<String> fullIterable() {
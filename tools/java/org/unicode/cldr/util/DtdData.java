@@ -25,6 +25,8 @@ import java.util.regex.Pattern;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.ImmutableSetMultimap;
@@ -44,6 +46,11 @@ public class DtdData extends XMLFileReader.SimpleHandler {
 
     private static final boolean DEBUG = false;
     private static final Pattern FILLER = PatternCache.get("[^-a-zA-Z0-9#_:]");
+    // Enough for the paths of the largest resolved locale (de has about 21,000), so that sorting one file
+    // with the DtdComparator makes each key once. A key takes about 800 bytes, so a full cache is about
+    // 20 MB per DtdData; the values are soft, so that the memory can be reclaimed when it is needed.
+    private static final int SORT_KEY_CACHE_LIMIT = 25_000;
+    private static final int ELEMENT_CACHE_LIMIT = 2_000;
 
     private final Relation<String, Attribute> nameToAttributes = Relation.of(new TreeMap<String, Set<Attribute>>(), LinkedHashSet.class);
     private Map<String, Element> nameToElement = new HashMap<>();
@@ -59,6 +66,8 @@ public class DtdData extends XMLFileReader.SimpleHandler {
     private Attribute lastAttribute;
     private Set<String> preCommentCache;
     private DtdComparator dtdComparator;
+    private final Cache<String, SortKey> sortKeyCache = CacheBuilder.newBuilder().maximumSize(SORT_KEY_CACHE_LIMIT).softValues().build();
+    private final Cache<Element, Attribute[]> elementToAttributeArray = CacheBuilder.newBuilder().maximumSize(ELEMENT_CACHE_LIMIT).build();
 
     public enum AttributeStatus {
         distinguished ("§d"),
@@ -799,9 +808,24 @@ public class DtdData extends XMLFileReader.SimpleHandler {
     public class DtdComparator implements Comparator<String> {
         @Override
         public int compare(String path1, String path2) {
-            XPathParts a = XPathParts.getFrozenInstance(path1);
-            XPathParts b = XPathParts.getFrozenInstance(path2);
-            return xpathComparator(a, b);
+            return getSortKey(path1).compareTo(getSortKey(path2));
+        }
+
+        /**
+         * Return the paths sorted in DTD order. This is faster than adding them to a TreeSet with
+         * this comparator, since each path is only looked up once.
+         */
+        public List<String> sort(Iterator<String> paths) {
+            List<SortKey> keys = new ArrayList<>();
+            while (paths.hasNext()) {
+                keys.add(getSortKey(paths.next()));
+            }
+            Collections.sort(keys);
+            List<String> result = new ArrayList<>(keys.size());
+            for (SortKey key : keys) {
+                result.add(key.path);
+            }
+            return result;
         }
 
         public int xpathComparator(XPathParts a, XPathParts b) {
@@ -890,6 +914,181 @@ public class DtdData extends XMLFileReader.SimpleHandler {
         }
     }
 
+    /**
+     * Get the sort key for a path, which orders paths the same way as the DtdComparator does.
+     * Recently used keys are cached, so that a path is normally only parsed once.
+     */
+    public SortKey getSortKey(String path) {
+        SortKey result = sortKeyCache.getIfPresent(path);
+        if (result == null) {
+            result = new SortKey(path);
+            sortKeyCache.put(path, result);
+        }
+        return result;
+    }
+
+    /**
+     * The parts of a path that the DtdComparator uses, looked up once: for each element, its DTD Element
+     * and position in its parent, and its attribute values in DTD order. Comparing two keys gives the same
+     * result as DtdComparator.xpathComparator on the paths, without XPathParts or map lookups.
+     * Paths that the comparator can't handle normally (such as those with elements not in the DTD)
+     * are compared with xpathComparator itself, to get the same results or exceptions.
+     */
+    public final class SortKey implements Comparable<SortKey> {
+        private final String path;
+        private final int size;
+        private final ElementKey[] elements;
+
+        private SortKey(String path) {
+            this.path = path;
+            XPathParts parts = XPathParts.getFrozenInstance(path);
+            size = parts.size();
+            elements = makeElementKeys(parts);
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return null if the path needs to be compared with the xpathComparator.
+         */
+        private ElementKey[] makeElementKeys(XPathParts parts) {
+            if (size == 0 || !ROOT.name.equals(parts.getElement(0))) {
+                return null;
+            }
+            ElementKey[] result = new ElementKey[size];
+            Element parent = ROOT;
+            for (int i = 1; i < size; ++i) {
+                String rawName = parts.getElement(i);
+                if (rawName.startsWith("_")) {
+                    // "fake" elements, used in diffing. The comparison always stops here.
+                    result[i] = new ElementKey(rawName, null, -1, 0, null, null);
+                    break;
+                }
+                Element element = nameToElement.get(rawName);
+                if (element == null) {
+                    return null;
+                }
+                Integer childIndex = parent.children.get(element);
+                Attribute[] attributes = getAttributeArray(element);
+                String[] values = new String[attributes.length];
+                for (int j = 0; j < attributes.length; ++j) {
+                    values[j] = parts.getAttributeValue(i, attributes[j].name);
+                }
+                result[i] = new ElementKey(rawName, element, childIndex == null ? -1 : childIndex,
+                    parts.getAttributeCount(i), parts.getAttributeValue(i, "_q"), values);
+                parent = element;
+            }
+            return result;
+        }
+
+        @Override
+        public int compareTo(SortKey other) {
+            if (this == other) {
+                return 0;
+            }
+            if (elements == null || other.elements == null) {
+                return compareParts(other);
+            }
+            int min = Math.min(size, other.size);
+            for (int i = 1; i < min; ++i) {
+                ElementKey a = elements[i];
+                ElementKey b = other.elements[i];
+                if (a.element == null) {
+                    return b.element == null ? a.rawName.compareTo(b.rawName) : -1;
+                } else if (b.element == null) {
+                    return 1;
+                }
+                if (a.element != b.element) {
+                    if (a.childIndex < 0 || b.childIndex < 0) {
+                        return compareParts(other);
+                    }
+                    return a.childIndex - b.childIndex;
+                }
+                int countA = a.attributeCount;
+                int countB = b.attributeCount;
+                if (countA == 0 && countB == 0) {
+                    continue;
+                }
+                if (a.q != null) {
+                    if (!a.q.equals(b.q)) {
+                        return Integer.parseInt(a.q) - Integer.parseInt(b.q);
+                    }
+                    --countA;
+                    --countB;
+                }
+                Attribute[] attributes = getAttributeArray(a.element);
+                for (int j = 0; j < attributes.length; ++j) {
+                    String valueA = a.values[j];
+                    String valueB = b.values[j];
+                    if (valueA == null) {
+                        if (valueB != null) {
+                            return -1;
+                        }
+                    } else if (valueB == null) {
+                        return 1;
+                    } else if (valueA.equals(valueB)) {
+                        --countA;
+                        --countB;
+                        if (countA == 0 && countB == 0) {
+                            break;
+                        }
+                    } else {
+                        Attribute main = attributes[j];
+                        if (main.attributeValueComparator != null) {
+                            return main.attributeValueComparator.compare(valueA, valueB);
+                        } else if (main.values.size() != 0) {
+                            return main.values.get(valueA) - main.values.get(valueB);
+                        } else {
+                            return valueA.compareTo(valueB);
+                        }
+                    }
+                }
+                if (countA != 0 || countB != 0) {
+                    throw new IllegalArgumentException();
+                }
+            }
+            return size - other.size;
+        }
+
+        private int compareParts(SortKey other) {
+            return dtdComparator.xpathComparator(XPathParts.getFrozenInstance(path), XPathParts.getFrozenInstance(other.path));
+        }
+
+        @Override
+        public String toString() {
+            return path;
+        }
+    }
+
+    private static final class ElementKey {
+        private final String rawName;
+        private final Element element; // null for fake elements
+        private final int childIndex; // -1 if not a child of the parent element
+        private final int attributeCount;
+        private final String q;
+        private final String[] values;
+
+        private ElementKey(String rawName, Element element, int childIndex, int attributeCount, String q, String[] values) {
+            this.rawName = rawName;
+            this.element = element;
+            this.childIndex = childIndex;
+            this.attributeCount = attributeCount;
+            this.q = q;
+            this.values = values;
+        }
+    }
+
+    private Attribute[] getAttributeArray(Element element) {
+        Attribute[] result = elementToAttributeArray.getIfPresent(element);
+        if (result == null) {
+            result = element.attributes.keySet().toArray(new Attribute[element.attributes.size()]);
+            elementToAttributeArray.put(element, result);
+        }
+        return result;
+    }
+
     public MapComparator<String> getAttributeComparator() {
         return attributeComparator;
     }
@@ -297,14 +297,34 @@ public abstract class Factory implements SublocaleProvider {
      */
     public Set<CLDRLocale> calculateSubLocalesOf(CLDRLocale locale, Set<CLDRLocale> available) {
         Set<CLDRLocale> sub = new TreeSet<>();
-        for (CLDRLocale l : available) {
-            if (l.getParent() == locale) {
+        for (String child : getLocaleInheritance().getChildren(locale.getBaseName())) {
+            CLDRLocale l = CLDRLocale.getInstance(child);
+            if (available.contains(l)) {
                 sub.add(l);
             }
         }
         return sub;
     }
 
+    private volatile LocaleInheritance localeInheritance = null;
+
+    /**
+     * Get the locale inheritance graph of the default SupplementalDataInfo, extended
+     * with the available locales of this factory. The graph is rebuilt only if locales
+     * have been added since the last call.
+     */
+    public LocaleInheritance getLocaleInheritance() {
+        LocaleInheritance result = localeInheritance;
+        if (result == null) {
+            result = SupplementalDataInfo.getInstance().getLocaleInheritance();
+        }
+        LocaleInheritance extended = result.withLocales(handleGetAvailable());
+        if (extended != localeInheritance) {
+            localeInheritance = extended;
+        }
+        return extended;
+    }
+
     /**
      * Get all of the files in the source directories that match localeName (which is really xml file name).
      * @param localeName
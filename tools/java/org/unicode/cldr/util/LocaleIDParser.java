@@ -117,29 +117,14 @@ public class LocaleIDParser {
      * TODO: explain "__VETTING", somehow related to SUMMARY_LOCALE. Note that
      * CLDRLocale.process() changes "__" to "_" before this function is called.
      * Reference: https://unicode-org.atlassian.net/browse/CLDR-13133
+     *
+     * The parent locales and default scripts come from the precomputed
+     * {@link SupplementalDataInfo#getLocaleInheritance()} of the default SupplementalDataInfo.
      */
     public static String getParent(String localeName) {
         int pos = localeName.lastIndexOf('_');
         if (pos >= 0) {
-            SupplementalDataInfo sdi = SupplementalDataInfo.getInstance();
-            String explicitParent = sdi.getExplicitParentLocale(localeName);
-            if (explicitParent != null) {
-                return explicitParent;
-            }
-            String truncated = localeName.substring(0, pos);
-            // if the final item is a script, and it is not the default content, then go directly to root
-            int pos2 = getScriptPosition(localeName);
-            if (pos2 > 0) {
-                String script = localeName.substring(pos + 1);
-                String defaultScript = sdi.getDefaultScript(truncated);
-                if (!script.equals(defaultScript)) {
-                    return "root";
-                }
-            }
-            if (truncated.length() == 0) {
-                return "root";
-            }
-            return truncated;
+            return SupplementalDataInfo.getInstance().getLocaleInheritance().getParent(localeName);
         }
         if (localeName.equals("root")) {
             return null;
@@ -0,0 +1,278 @@
+package org.unicode.cldr.util;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An immutable graph of the locale inheritance defined by one SupplementalDataInfo:
+ * the parent locales, the default scripts from the likely subtags, and the default contents.
+ * <p>
+ * The graph is computed once (see {@link SupplementalDataInfo#getLocaleInheritance()}) and
+ * holds the parent, ancestor chain, children and default content of each locale as arrays
+ * indexed by locale number, so lookups need neither locking nor string manipulation.
+ * Locales that are not in the graph get their parent and ancestors from the same rules,
+ * computed on each call. Use {@link #withLocales(Collection)} to get a graph that also has
+ * the children of a particular set of locales, such as the ones available from a Factory.
+ */
+public final class LocaleInheritance {
+    private static final String ROOT = "root";
+    private static final String UNKNOWN_SCRIPT = "Zzzz";
+    private static final int NONE = -1;
+
+    // the rules, shared with graphs made by withLocales
+    private final Map<String, String> explicitParents;
+    private final Map<String, String> defaultScripts;
+    private final Set<String> defaultContentLocales;
+
+    private final String[] ids;
+    private final Map<String, Integer> index;
+    private final int[] parents;
+    private final int[][] ancestors;
+    private final int[][] children;
+    private final int[] defaultContents;
+
+    /**
+     * Build the graph for the data in a SupplementalDataInfo.
+     *
+     * @param explicitParents the parentLocales data, from child to parent
+     * @param likelySubtags the likely subtags, used for the default script of each language
+     * @param defaultContentLocales the default content locales
+     */
+    static LocaleInheritance make(Map<String, String> explicitParents, Map<String, String> likelySubtags,
+        Set<String> defaultContentLocales) {
+        Map<String, String> defaultScripts = new HashMap<>();
+        for (Entry<String, String> entry : likelySubtags.entrySet()) {
+            String language = entry.getKey();
+            if (language.indexOf('_') >= 0) {
+                continue; // only the base languages are looked up
+            }
+            String script = new LocaleIDParser().set(entry.getValue()).getScript();
+            defaultScripts.put(language, script.isEmpty() ? UNKNOWN_SCRIPT : script);
+        }
+        Set<String> locales = new HashSet<>();
+        locales.addAll(explicitParents.keySet());
+        locales.addAll(explicitParents.values());
+        locales.addAll(defaultContentLocales);
+        return new LocaleInheritance(ImmutableMap.copyOf(explicitParents), ImmutableMap.copyOf(defaultScripts),
+            ImmutableSet.copyOf(defaultContentLocales), locales);
+    }
+
+    private LocaleInheritance(Map<String, String> explicitParents, Map<String, String> defaultScripts,
+        Set<String> defaultContentLocales, Collection<String> locales) {
+        this.explicitParents = explicitParents;
+        this.defaultScripts = defaultScripts;
+        this.defaultContentLocales = defaultContentLocales;
+
+        // close the locales under the parent relation
+        Set<String> closure = new HashSet<>();
+        closure.add(ROOT);
+        Deque<String> pending = new ArrayDeque<>(locales);
+        while (!pending.isEmpty()) {
+            String locale = pending.pop();
+            if (closure.add(locale)) {
+                pending.push(computeParent(locale));
+            }
+        }
+        ids = closure.toArray(new String[closure.size()]);
+        Arrays.sort(ids);
+        ImmutableMap.Builder<String, Integer> indexBuilder = ImmutableMap.builder();
+        for (int i = 0; i < ids.length; ++i) {
+            indexBuilder.put(ids[i], i);
+        }
+        index = indexBuilder.build();
+
+        parents = new int[ids.length];
+        int[] childCounts = new int[ids.length];
+        for (int i = 0; i < ids.length; ++i) {
+            String parent = computeParent(ids[i]);
+            parents[i] = parent == null ? NONE : index.get(parent);
+            if (parent != null) {
+                ++childCounts[parents[i]];
+            }
+        }
+
+        // the ids are sorted, so the children of each locale are too
+        children = new int[ids.length][];
+        for (int i = 0; i < ids.length; ++i) {
+            children[i] = new int[childCounts[i]];
+            childCounts[i] = 0;
+        }
+        for (int i = 0; i < ids.length; ++i) {
+            int parent = parents[i];
+            if (parent != NONE) {
+                children[parent][childCounts[parent]++] = i;
+            }
+        }
+
+        ancestors = new int[ids.length][];
+        for (int i = 0; i < ids.length; ++i) {
+            ancestors[i] = computeAncestors(i);
+        }
+
+        defaultContents = new int[ids.length];
+        Arrays.fill(defaultContents, NONE);
+        for (String locale : defaultContentLocales) {
+            int i = index.get(locale);
+            if (parents[i] != NONE) {
+                defaultContents[parents[i]] = i;
+            }
+        }
+    }
+
+    private int[] computeAncestors(int locale) {
+        int[] result = new int[8];
+        int count = 0;
+        for (int current = parents[locale]; current != NONE; current = parents[current]) {
+            if (count == ids.length) {
+                throw new IllegalArgumentException("Cycle in the parent locales of " + ids[locale]);
+            }
+            if (count == result.length) {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = current;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * The parent rules: an explicit parent if there is one; root for a language plus a script
+     * that isn't its default script; otherwise the locale minus its last field.
+     */
+    private String computeParent(String localeName) {
+        int pos = localeName.lastIndexOf('_');
+        if (pos < 0) {
+            return localeName.equals(ROOT) ? null : ROOT;
+        }
+        String explicitParent = explicitParents.get(localeName);
+        if (explicitParent != null) {
+            return explicitParent;
+        }
+        String truncated = localeName.substring(0, pos);
+        // if the final item is a script, and it is not the default content, then go directly to root
+        if (LocaleIDParser.getScriptPosition(localeName) > 0) {
+            String script = localeName.substring(pos + 1);
+            String defaultScript = defaultScripts.getOrDefault(truncated, UNKNOWN_SCRIPT);
+            if (!script.equals(defaultScript)) {
+                return ROOT;
+            }
+        }
+        if (truncated.isEmpty()) {
+            return ROOT;
+        }
+        return truncated;
+    }
+
+    /**
+     * Return a graph with the same rules that also contains the given locales (and their ancestors).
+     * Returns this graph if it already contains them all.
+     */
+    public LocaleInheritance withLocales(Collection<String> locales) {
+        if (index.keySet().containsAll(locales)) {
+            return this;
+        }
+        List<String> all = new ArrayList<>(index.keySet());
+        all.addAll(locales);
+        return new LocaleInheritance(explicitParents, defaultScripts, defaultContentLocales, all);
+    }
+
+    /**
+     * Does the graph contain the locale? The children of a locale are only known if they are in the graph.
+     */
+    public boolean contains(String locale) {
+        return index.containsKey(locale);
+    }
+
+    /**
+     * Get the locales in the graph, sorted.
+     */
+    public List<String> getLocales() {
+        return Collections.unmodifiableList(Arrays.asList(ids));
+    }
+
+    /**
+     * Get the parent of a locale, as for LocaleIDParser.getParent: null for root.
+     */
+    public String getParent(String locale) {
+        Integer i = index.get(locale);
+        if (i == null) {
+            return computeParent(locale);
+        }
+        int parent = parents[i];
+        return parent == NONE ? null : ids[parent];
+    }
+
+    /**
+     * Get the ancestors of a locale: its parent, grandparent, and so on, ending with root.
+     * The list is empty for root.
+     */
+    public List<String> getAncestors(String locale) {
+        Integer i = index.get(locale);
+        if (i != null) {
+            return new IdList(ancestors[i]);
+        }
+        List<String> result = new ArrayList<>();
+        for (String current = computeParent(locale); current != null; current = getParent(current)) {
+            result.add(current);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Get the children of a locale in the graph, sorted. Empty if the locale isn't in the graph.
+     */
+    public List<String> getChildren(String locale) {
+        Integer i = index.get(locale);
+        return i == null ? Collections.<String> emptyList() : new IdList(children[i]);
+    }
+
+    /**
+     * Get the child of a locale that is its default content, such as fr_FR for fr, or null if there is none.
+     */
+    public String getDefaultContent(String locale) {
+        Integer i = index.get(locale);
+        return i == null || defaultContents[i] == NONE ? null : ids[defaultContents[i]];
+    }
+
+    /**
+     * Is the locale the default content of its parent?
+     */
+    public boolean isDefaultContent(String locale) {
+        return defaultContentLocales.contains(locale);
+    }
+
+    /**
+     * A read-only view of some of the ids, by their indices.
+     */
+    private final class IdList extends AbstractList<String> implements RandomAccess {
+        private final int[] indices;
+
+        private IdList(int[] indices) {
+            this.indices = indices;
+        }
+
+        @Override
+        public String get(int i) {
+            return ids[indices[i]];
+        }
+
+        @Override
+        public int size() {
+            return indices.length;
+        }
+    }
+}
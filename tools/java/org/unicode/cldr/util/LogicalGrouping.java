@@ -2,8 +2,10 @@ package org.unicode.cldr.util;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,10 +19,12 @@ import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralInfo.Count;
 import org.unicode.cldr.util.SupplementalDataInfo.PluralType;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableSortedSet;
 import com.ibm.icu.text.PluralRules;
 import com.ibm.icu.util.Output;
 
@@ -55,12 +59,19 @@ public class LogicalGrouping {
     /**
      * Cache from path (String) to logical group (Set<String>)
      */
-    private static Multimap<String, String> cachePathToLogicalGroup = ArrayListMultimap.create();
+    private static final ConcurrentHashMap<String, ImmutableSortedSet<String>> cachePathToLogicalGroup = new ConcurrentHashMap<>();
 
     /**
      * Cache from locale and path (<Pair<String, String>), to logical group (Set<String>)
      */
-    private static ConcurrentHashMap<Pair<String, String>, Set<String>> cacheLocaleAndPathToLogicalGroup = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Pair<String, String>, ImmutableSortedSet<String>> cacheLocaleAndPathToLogicalGroup = new ConcurrentHashMap<>();
+
+    /**
+     * The group indexes of the CLDRFiles, filled in as their paths are looked up.
+     */
+    private static final LoadingCache<CLDRFile, GroupIndex> groupIndexes = CacheBuilder.newBuilder()
+        .weakKeys()
+        .build(CacheLoader.from(cldrFile -> new GroupIndex()));
 
     /**
      * Statistics on occurrences of types of logical groups, for performance testing, debugging.
@@ -100,6 +111,29 @@ public class LogicalGrouping {
      * Reference: https://unicode.org/cldr/trac/ticket/11854
      */
     public static Set<String> getPaths(CLDRFile cldrFile, String path, Output<PathType> pathTypeOut) {
+        Set<String> set = computeGroup(cldrFile, path, pathTypeOut);
+        return set == null ? null : new TreeSet<>(set);
+    }
+
+    /**
+     * Return the sorted set of paths in the same logical group as the given path, as from getPaths,
+     * but immutable. The set comes from the file's GroupIndex, so once the path has been looked up
+     * in the file this doesn't allocate.
+     */
+    public static ImmutableSortedSet<String> getGroup(CLDRFile cldrFile, String path, Output<PathType> pathTypeOut) {
+        if (path == null) {
+            return null;
+        }
+        if (pathTypeOut != null) {
+            pathTypeOut.value = PathType.getPathTypeFromPath(path);
+        }
+        return getGroupIndex(cldrFile).getGroup(cldrFile, path);
+    }
+
+    /**
+     * Like getPaths, but returns the cached (and immutable) set.
+     */
+    private static ImmutableSortedSet<String> computeGroup(CLDRFile cldrFile, String path, Output<PathType> pathTypeOut) {
         if (path == null) {
             return null; // return null for null path
             // return new TreeSet<String>(); // return empty set for null path
@@ -128,9 +162,7 @@ public class LogicalGrouping {
              * Skip cache for PathType.SINGLETON and simply return a set of one.
              * TODO: should we ever return null instead of singleton here?
              */
-            Set<String> set = new TreeSet<>();
-            set.add(path);
-            return set;
+            return ImmutableSortedSet.of(path);
         }
 
         if (!GET_TYPE_FROM_PARTS) {
@@ -142,24 +174,28 @@ public class LogicalGrouping {
         if (PathType.isLocaleDependent(pathType)) {
             String locale = cldrFile.getLocaleID();
             Pair<String, String> key = new Pair<>(locale, path);
-            if (cacheLocaleAndPathToLogicalGroup.containsKey(key)) {
-                return new TreeSet<>(cacheLocaleAndPathToLogicalGroup.get(key));
+            ImmutableSortedSet<String> cached = cacheLocaleAndPathToLogicalGroup.get(key);
+            if (cached != null) {
+                return cached;
             }
             Set<String> set = new TreeSet<>();
             pathType.addPaths(set, cldrFile, path, parts);
-            cacheLocaleAndPathToLogicalGroup.put(key, set);
-            return set;
+            cached = ImmutableSortedSet.copyOfSorted((TreeSet<String>) set);
+            cacheLocaleAndPathToLogicalGroup.put(key, cached);
+            return cached;
         } else {
             /*
              * All other paths are locale-independent.
              */
-            if (cachePathToLogicalGroup.containsKey(path)) {
-                return new TreeSet<>(cachePathToLogicalGroup.get(path));
+            ImmutableSortedSet<String> cached = cachePathToLogicalGroup.get(path);
+            if (cached != null) {
+                return cached;
             }
             Set<String> set = new TreeSet<>();
             pathType.addPaths(set, cldrFile, path, parts);
-            cachePathToLogicalGroup.putAll(path, set);
-            return set;
+            cached = ImmutableSortedSet.copyOfSorted((TreeSet<String>) set);
+            cachePathToLogicalGroup.put(path, cached);
+            return cached;
         }
     }
 
@@ -167,6 +203,79 @@ public class LogicalGrouping {
         return getPaths(cldrFile, path, null);
     }
 
+    /**
+     * Returns the logical group index of a CLDRFile, which starts out empty.
+     */
+    public static GroupIndex getGroupIndex(CLDRFile cldrFile) {
+        return groupIndexes.getUnchecked(cldrFile);
+    }
+
+    /**
+     * The logical groups of the paths of one CLDRFile. Each path that has been looked up has a dense group ID
+     * (the same for paths with the same group), and each group is an immutable sorted set, so repeated lookups
+     * don't allocate. The index is filled in lazily, one path at a time, so there is no up-front cost for a
+     * file that only has a few of its groups looked up; it is safe for concurrent use.
+     * <p>
+     * The groups depend only on the locale and path, not on the values in the file. The index doesn't refer
+     * to the file, so that it can be dropped with it.
+     */
+    public static final class GroupIndex {
+        private static final class Group {
+            final int id;
+            final ImmutableSortedSet<String> paths;
+
+            Group(int id, ImmutableSortedSet<String> paths) {
+                this.id = id;
+                this.paths = paths;
+            }
+        }
+
+        private final ConcurrentHashMap<String, Group> groupsByPath = new ConcurrentHashMap<>();
+        // guarded by this
+        private final Map<ImmutableSortedSet<String>, Group> groupsBySet = new HashMap<>();
+
+        private GroupIndex() {
+        }
+
+        /**
+         * @return the paths in the same group as the path in the given file (which must be the file
+         * of this index), in sorted order
+         */
+        public ImmutableSortedSet<String> getGroup(CLDRFile cldrFile, String path) {
+            return lookup(cldrFile, path).paths;
+        }
+
+        /**
+         * @return the group ID of the path in the given file (which must be the file of this index)
+         */
+        public int getGroupId(CLDRFile cldrFile, String path) {
+            return lookup(cldrFile, path).id;
+        }
+
+        private Group lookup(CLDRFile cldrFile, String path) {
+            Group group = groupsByPath.get(path);
+            if (group == null) {
+                // computed outside the lock: computeGroup has its own caches
+                ImmutableSortedSet<String> paths = computeGroup(cldrFile, path, null);
+                synchronized (this) {
+                    group = groupsBySet.computeIfAbsent(paths, k -> new Group(groupsBySet.size(), k));
+                }
+                Group old = groupsByPath.putIfAbsent(path, group);
+                if (old != null) {
+                    group = old;
+                }
+            }
+            return group;
+        }
+
+        /**
+         * @return the number of groups so far
+         */
+        public synchronized int getGroupCount() {
+            return groupsBySet.size();
+        }
+    }
+
     /**
      * Returns the plural info for a given locale.
      */
@@ -465,9 +574,10 @@ public class LogicalGrouping {
          */
         private static boolean isLocaleDependent(PathType pathType) {
             /*
-             * The paths that are locale-dependent are @count and /dayPeriods.
+             * The paths that are locale-dependent are @count (including decimalFormatLength) and /dayPeriods.
              */
-            return (pathType == COUNT || pathType == DAY_PERIODS || pathType.equals(COUNT_CASE) || pathType.equals(COUNT_CASE_GENDER));
+            return (pathType == COUNT || pathType == DAY_PERIODS || pathType == DECIMAL_FORMAT_LENGTH
+                || pathType.equals(COUNT_CASE) || pathType.equals(COUNT_CASE_GENDER));
         }
 
         /**
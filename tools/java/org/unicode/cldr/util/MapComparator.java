@@ -27,6 +27,8 @@ public class MapComparator<K> implements Comparator<K>, Freezable<MapComparator<
     private RuleBasedCollator uca = (RuleBasedCollator) Collator.getInstance(ULocale.ROOT);
     {
         uca.setNumericCollation(true);
+        // Values may be compared by several threads at once, which an unfrozen collator can't do.
+        uca.freeze();
     }
     private Map<K, Integer> ordering = new TreeMap<>(); // maps from name to rank
     private List<K> rankToName = new ArrayList<>();
@@ -1,6 +1,12 @@
 package org.unicode.cldr.util;
 
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+import com.ibm.icu.util.Output;
 
 /**
  * Like CLDRFile, with an added feature for recording the paths for which
@@ -10,9 +16,35 @@ import java.util.HashSet;
  * which a given example depends. Before calling ExampleGenerator.getExampleHtml, TestExampleDependencies
  * calls clearRecordedPaths. After getting each example, TestExampleDependencies calls getRecordedPaths
  * to get the set of all paths in this file that were accessed to generate the example.
+ *
+ * It is also used by TestCache, to find the paths on which the results of CheckCLDR depend.
+ * Calls that depend on the set of paths under a prefix, such as iterator(prefix) and getPathsWithValue,
+ * are recorded as prefixes. The path where a value was found can differ from the requested path
+ * (for aliases and for alt/count fallbacks); resolving it costs another lookup, so only the requested
+ * paths are recorded, and callers that need the others get them afterwards with getPathWhereFound.
+ * Paths can be recorded from several threads at once, as when a CompoundCheckCLDR sets up its checks.
+ * A thread can also record just its own reads, between startRecording and stopRecording, so that
+ * concurrent calls (such as checks of different paths) each get their own dependencies.
  */
 public class RecordingCLDRFile extends CLDRFile {
-    private HashSet<String> recordedPaths = new HashSet<>();
+    private final HashSet<String> recordedPaths = new HashSet<>();
+    private final HashSet<String> recordedPrefixes = new HashSet<>();
+    private boolean recordPathWhereFound = false;
+    private volatile boolean recordAll = true;
+    private final ThreadLocal<Recording> threadRecording = new ThreadLocal<>();
+
+    /**
+     * The paths and prefixes recorded for one thread.
+     */
+    private static final class Recording {
+        final Set<String> paths;
+        final Set<String> prefixes;
+
+        Recording(Set<String> paths, Set<String> prefixes) {
+            this.paths = paths;
+            this.prefixes = prefixes;
+        }
+    }
 
     public RecordingCLDRFile(XMLSource dataSource) {
         super(dataSource);
@@ -22,33 +54,166 @@ public class RecordingCLDRFile extends CLDRFile {
         super(dataSource, resolvingParents);
     }
 
+    /**
+     * Make a RecordingCLDRFile that shares the data source of the given file,
+     * which may be resolved.
+     *
+     * @param cldrFile the file to wrap
+     */
+    public RecordingCLDRFile(CLDRFile cldrFile) {
+        super(cldrFile.dataSource);
+    }
+
+    /**
+     * If true, getBaileyValue also records the path where the value was found, if different from
+     * the requested path, since it has that path anyway. Only has an effect on resolved files.
+     */
+    public RecordingCLDRFile setRecordPathWhereFound(boolean recordPathWhereFound) {
+        this.recordPathWhereFound = recordPathWhereFound;
+        return this;
+    }
+
+    /**
+     * If false, reads are only recorded for threads between startRecording and stopRecording,
+     * and not in getRecordedPaths. Defaults to true.
+     */
+    public RecordingCLDRFile setRecordAll(boolean recordAll) {
+        this.recordAll = recordAll;
+        return this;
+    }
+
+    /**
+     * Record the paths and prefixes read by the current thread in the given sets, instead of in
+     * getRecordedPaths and getRecordedPrefixes, until stopRecording is called.
+     */
+    public void startRecording(Set<String> paths, Set<String> prefixes) {
+        threadRecording.set(new Recording(paths, prefixes));
+    }
+
+    public void stopRecording() {
+        threadRecording.remove();
+    }
+
     public void clearRecordedPaths() {
-        recordedPaths.clear();
+        synchronized (recordedPaths) {
+            recordedPaths.clear();
+            recordedPrefixes.clear();
+        }
     }
 
     public HashSet<String> getRecordedPaths() {
         return recordedPaths;
     }
 
+    /**
+     * Get the prefixes for which the set of paths (or their values) were queried as a whole.
+     * The empty string means that all the paths were listed, which depends on which paths there
+     * are but not on their values; a query of the values of all paths is recorded as "//".
+     */
+    public Set<String> getRecordedPrefixes() {
+        return recordedPrefixes;
+    }
+
     @Override
     public String getStringValue(String xpath) {
-        recordPath(xpath);
+        addPath(xpath);
         return super.getStringValue(xpath);
     }
 
     @Override
     public String getWinningValue(String xpath) {
-        recordPath(xpath);
+        addPath(xpath);
         return super.getWinningValue(xpath);
     }
 
     @Override
     public String getConstructedValue(String xpath) {
-        recordPath(xpath);
+        addPath(xpath);
         return super.getConstructedValue(xpath);
     }
 
-    private void recordPath(String xpath) {
-        recordedPaths.add(xpath);
+    @Override
+    public String getBaileyValue(String xpath, Output<String> pathWhereFound, Output<String> localeWhereFound) {
+        addPath(xpath);
+        if (!recordPathWhereFound) {
+            return super.getBaileyValue(xpath, pathWhereFound, localeWhereFound);
+        }
+        if (pathWhereFound == null) {
+            pathWhereFound = new Output<>();
+        }
+        String result = super.getBaileyValue(xpath, pathWhereFound, localeWhereFound);
+        if (pathWhereFound.value != null) {
+            addPath(pathWhereFound.value);
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> getPathsWithValue(String valueToMatch, String pathPrefix, Matcher pathMatcher, Set<String> result) {
+        recordPrefix(pathPrefix == null || pathPrefix.isEmpty() ? "//" : pathPrefix);
+        return super.getPathsWithValue(valueToMatch, pathPrefix, pathMatcher, result);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        recordPrefix(null);
+        return super.iterator();
+    }
+
+    @Override
+    public Iterator<String> iterator(String prefix) {
+        recordPrefix(prefix);
+        return super.iterator(prefix);
+    }
+
+    @Override
+    public Iterator<String> iterator(Matcher pathFilter) {
+        recordPrefix(null);
+        return super.iterator(pathFilter);
+    }
+
+    @Override
+    public Iterator<String> iterator(String prefix, Comparator<String> comparator) {
+        recordPrefix(prefix);
+        return super.iterator(prefix, comparator);
+    }
+
+    /**
+     * Get the path where the value for the given path is found, which differs from the path for
+     * aliases and for alt/count fallbacks. This is not recorded.
+     *
+     * @return the path where the value is found, or the given path if the file isn't resolved
+     */
+    public String getPathWhereFound(String xpath) {
+        if (!isResolved()) {
+            return xpath;
+        }
+        Status status = new Status();
+        getSourceLocaleID(xpath, status);
+        return status.pathWhereFound == null ? xpath : status.pathWhereFound;
+    }
+
+    private boolean addPath(String xpath) {
+        Recording recording = threadRecording.get();
+        if (recording != null) {
+            return recording.paths.add(xpath);
+        } else if (!recordAll) {
+            return false;
+        }
+        synchronized (recordedPaths) {
+            return recordedPaths.add(xpath);
+        }
+    }
+
+    private void recordPrefix(String prefix) {
+        String key = prefix == null ? "" : prefix;
+        Recording recording = threadRecording.get();
+        if (recording != null) {
+            recording.prefixes.add(key);
+        } else if (recordAll) {
+            synchronized (recordedPaths) {
+                recordedPrefixes.add(key);
+            }
+        }
     }
 }
@@ -35,6 +35,20 @@ public final class StringId {
      * @return a value from 0 to 0x7FFFFFFFFFFFFFFFL.
      */
     public static long getId(CharSequence charSequence) {
+        return getId(charSequence, true);
+    }
+
+    /**
+     * Get the ID for a string, optionally without remembering it. An ID that isn't remembered
+     * can't be looked up with getStringFromId, unless it was remembered by another call.
+     *
+     * @param charSequence
+     *            input string.
+     * @param cache
+     *            whether to remember the string and its ID
+     * @return a value from 0 to 0x7FFFFFFFFFFFFFFFL.
+     */
+    public static long getId(CharSequence charSequence, boolean cache) {
         String string = charSequence.toString();
         Long resultLong = STRING_TO_ID.get(string);
         if (resultLong != null) {
@@ -52,8 +66,10 @@ public final class StringId {
                     }
                     // mash the top bit to make things easier
                     result &= 0x7FFFFFFFFFFFFFFFL;
-                    STRING_TO_ID.put(string, result);
-                    ID_TO_STRING.put(result, string);
+                    if (cache) {
+                        STRING_TO_ID.put(string, result);
+                        ID_TO_STRING.put(result, string);
+                    }
                     return result;
                 }
             } catch (RuntimeException e) {
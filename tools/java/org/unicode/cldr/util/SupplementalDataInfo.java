@@ -718,8 +718,10 @@ public class SupplementalDataInfo {
             ParseException e2 = null;
             for (int i = 0; i < simpleFormats.length; ++i) {
                 try {
-                    Date result = simpleFormats[i].parse(dateString);
-                    return result;
+                    synchronized (simpleFormats[i]) {
+                        Date result = simpleFormats[i].parse(dateString);
+                        return result;
+                    }
                 } catch (ParseException e) {
                     if (i == 0) {
                         errors += dateString + " ";
@@ -913,6 +915,7 @@ public class SupplementalDataInfo {
         HashSet.class);
 
     static Map<String, SupplementalDataInfo> directory_instance = new HashMap<>();
+    private static final Map<String, Object> DIRECTORY_LOCKS = new ConcurrentHashMap<>();
 
     public Map<String, Map<String, Row.R2<List<String>, String>>> typeToTagToReplacement = new TreeMap<>();
 
@@ -982,7 +985,15 @@ public class SupplementalDataInfo {
         }
     }
 
-    static private SupplementalDataInfo defaultInstance = null;
+    static private volatile SupplementalDataInfo defaultInstance = null;
+
+    /**
+     * Where the parsed supplemental files are cached with -DSUPPLEMENTAL_CACHE (with no value). Use
+     * -DSUPPLEMENTAL_CACHE=dir for another directory. Without the property there is no cache.
+     * -DSUPPLEMENTAL_VALIDATE=false turns off the DTD validation of the files that are not cached.
+     */
+    private static final String DEFAULT_CACHE_DIRECTORY = new File(System.getProperty("java.io.tmpdir"),
+        "cldr-supplemental-cache").getPath();
     /**
      * Which directory did we come from?
      */
@@ -1010,77 +1021,101 @@ public class SupplementalDataInfo {
     }
 
     public static SupplementalDataInfo getInstance(String supplementalDirectory) {
+        // Sanity checks - not null, not empty
+        if (supplementalDirectory == null) {
+            throw new IllegalArgumentException("Error: null supplemental directory.");
+        }
+        if (supplementalDirectory.isEmpty()) {
+            throw new IllegalArgumentException("Error: The string passed as a parameter resolves to the empty string.");
+        }
+        // canonicalize path
+        String canonicalpath = null;
+        try {
+            canonicalpath = new File(supplementalDirectory).getCanonicalPath();
+        } catch (IOException e) {
+            throw new ICUUncheckedIOException(e);
+        }
+        SupplementalDataInfo instance;
         synchronized (SupplementalDataInfo.class) {
-            // Sanity checks - not null, not empty
-            if (supplementalDirectory == null) {
-                throw new IllegalArgumentException("Error: null supplemental directory.");
-            }
-            if (supplementalDirectory.isEmpty()) {
-                throw new IllegalArgumentException("Error: The string passed as a parameter resolves to the empty string.");
+            instance = directory_instance.get(canonicalpath);
+        }
+        if (instance != null) {
+            return instance;
+        }
+        // The class is only locked while the map is used, not during the (concurrent) parse.
+        // Loading the same directory on several threads still only parses it once.
+        synchronized (DIRECTORY_LOCKS.computeIfAbsent(canonicalpath, k -> new Object())) {
+            synchronized (SupplementalDataInfo.class) {
+                instance = directory_instance.get(canonicalpath);
             }
-            // canonicalize path
-            String canonicalpath = null;
-            try {
-                canonicalpath = new File(supplementalDirectory).getCanonicalPath();
-            } catch (IOException e) {
-                throw new ICUUncheckedIOException(e);
-            }
-            SupplementalDataInfo instance = directory_instance.get(canonicalpath);
-            if (instance != null) {
-                return instance;
-            }
-            // reaching here means we have not cached the entry
-            File directory = new File(canonicalpath);
-            instance = new SupplementalDataInfo(directory);
-            MyHandler myHandler = instance.new MyHandler();
-            XMLFileReader xfr = new XMLFileReader().setHandler(myHandler);
-            File files1[] = directory.listFiles();
-            if (files1 == null || files1.length == 0) {
-                throw new ICUUncheckedIOException("Error: Supplemental files missing from " + directory.getAbsolutePath());
-            }
-            // get bcp47 files also
-            File bcp47dir = instance.getBcp47Directory();
-            if (!bcp47dir.isDirectory()) {
-                throw new ICUUncheckedIOException("Error: BCP47 dir is not a directory: " + bcp47dir.getAbsolutePath());
-            }
-            File files2[] = bcp47dir.listFiles();
-            if (files2 == null || files2.length == 0) {
-                throw new ICUUncheckedIOException("Error: BCP47 files missing from " + bcp47dir.getAbsolutePath());
-            }
-
-            CBuilder<File, ArrayList<File>> builder = Builder.with(new ArrayList<File>());
-            builder.addAll(files1);
-            builder.addAll(files2);
-            for (File file : builder.get()) {
-                if (DEBUG) {
-                    try {
-                        System.out.println(file.getCanonicalPath());
-                    } catch (IOException e) {
-                    }
+            if (instance == null) {
+                instance = load(canonicalpath);
+                synchronized (SupplementalDataInfo.class) {
+                    directory_instance.put(canonicalpath, instance);
                 }
-                String name = file.toString();
-                String shortName = file.getName();
-                if (!shortName.endsWith(".xml") || // skip non-XML
-                    shortName.startsWith("#") || // skip other junk files
-                    shortName.startsWith(".")) continue; // skip dot files (backups, etc)
-                xfr.read(name, -1, true);
-                myHandler.cleanup();
-            }
-
-            // xfr = new XMLFileReader().setHandler(instance.new MyHandler());
-            // .xfr.read(canonicalpath + "/supplementalMetadata.xml", -1, true);
-
-            instance.makeStuffSafe();
-            // cache
-            //            directory_instance.put(supplementalDirectory, instance);
-            directory_instance.put(canonicalpath, instance);
-            //            if (!canonicalpath.equals(supplementalDirectory)) {
-            //                directory_instance.put(canonicalpath, instance);
-            //            }
+            }
             return instance;
         }
     }
 
+    private static SupplementalDataInfo load(String canonicalpath) {
+        // reaching here means we have not cached the entry
+        File directory = new File(canonicalpath);
+        SupplementalDataInfo instance = new SupplementalDataInfo(directory);
+        MyHandler myHandler = instance.new MyHandler();
+        File files1[] = directory.listFiles();
+        if (files1 == null || files1.length == 0) {
+            throw new ICUUncheckedIOException("Error: Supplemental files missing from " + directory.getAbsolutePath());
+        }
+        // get bcp47 files also
+        File bcp47dir = instance.getBcp47Directory();
+        if (!bcp47dir.isDirectory()) {
+            throw new ICUUncheckedIOException("Error: BCP47 dir is not a directory: " + bcp47dir.getAbsolutePath());
+        }
+        File files2[] = bcp47dir.listFiles();
+        if (files2 == null || files2.length == 0) {
+            throw new ICUUncheckedIOException("Error: BCP47 files missing from " + bcp47dir.getAbsolutePath());
+        }
+
+        CBuilder<File, ArrayList<File>> builder = Builder.with(new ArrayList<File>());
+        builder.addAll(files1);
+        builder.addAll(files2);
+        List<File> xmlFiles = new ArrayList<>();
+        for (File file : builder.get()) {
+            if (DEBUG) {
+                try {
+                    System.out.println(file.getCanonicalPath());
+                } catch (IOException e) {
+                }
+            }
+            String shortName = file.getName();
+            if (!shortName.endsWith(".xml") || // skip non-XML
+                shortName.startsWith("#") || // skip other junk files
+                shortName.startsWith(".")) continue; // skip dot files (backups, etc)
+            xmlFiles.add(file);
+        }
+
+        // The files are parsed (or read from the cache) concurrently, then handled in order,
+        // since the handler accumulates its data across files.
+        String cacheDirectory = CldrUtility.getProperty("SUPPLEMENTAL_CACHE", "", DEFAULT_CACHE_DIRECTORY);
+        SupplementalFileParser parser = new SupplementalFileParser(
+            CldrUtility.getProperty("SUPPLEMENTAL_VALIDATE", true),
+            cacheDirectory.isEmpty() ? null : new File(cacheDirectory),
+            new File(directory.getParentFile(), "dtd"));
+        for (List<String> pathsAndValues : parser.parse(xmlFiles)) {
+            for (int i = 0; i < pathsAndValues.size(); i += 2) {
+                myHandler.handlePathValue(pathsAndValues.get(i), pathsAndValues.get(i + 1));
+            }
+            myHandler.cleanup();
+        }
+
+        // xfr = new XMLFileReader().setHandler(instance.new MyHandler());
+        // .xfr.read(canonicalpath + "/supplementalMetadata.xml", -1, true);
+
+        instance.makeStuffSafe();
+        return instance;
+    }
+
     private File getBcp47Directory() {
         return new File(getDirectory().getParent(), "bcp47");
     }
@@ -2785,6 +2820,26 @@ public class SupplementalDataInfo {
         return parentLocales.get(loc);
     }
 
+    private volatile LocaleInheritance localeInheritance;
+
+    /**
+     * Get the locale inheritance graph for this data: parents, ancestors, children and default contents.
+     * It is built on first use, and is immutable.
+     */
+    public LocaleInheritance getLocaleInheritance() {
+        LocaleInheritance result = localeInheritance;
+        if (result == null) {
+            synchronized (this) {
+                result = localeInheritance;
+                if (result == null) {
+                    localeInheritance = result = LocaleInheritance.make(parentLocales, likelySubtags,
+                        defaultContentLocales == null ? Collections.<String> emptySet() : defaultContentLocales);
+                }
+            }
+        }
+        return result;
+    }
+
     public Set<String> getExplicitChildren() {
         return parentLocales.keySet();
     }
@@ -3136,8 +3191,8 @@ public class SupplementalDataInfo {
         }
     }
 
-    static String lastPluralRangesLocales = null;
-    static PluralRanges lastPluralRanges = null;
+    private transient String lastPluralRangesLocales = null;
+    private transient PluralRanges lastPluralRanges = null;
 
     private boolean addPluralPath(XPathParts path, String value) {
         /*
@@ -0,0 +1,237 @@
+package org.unicode.cldr.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+import com.ibm.icu.util.ICUException;
+import com.ibm.icu.util.ICUUncheckedIOException;
+
+/**
+ * Reads the supplemental and bcp47 XML files for SupplementalDataInfo as lists of path/value pairs.
+ * <p>
+ * The files are independent, so they are parsed concurrently; the results are returned in
+ * file order so that the (order-dependent) handler can be fed serially, with the same
+ * result as a serial read. If there is a cache directory, the pairs for each file are saved
+ * there under a hash of the file and DTD contents, and later runs read them back instead of
+ * parsing the XML. Cache files that haven't been used for a while are deleted.
+ */
+final class SupplementalFileParser {
+    private static final boolean DEBUG = false;
+
+    // change when the format of the cache files changes
+    private static final int CACHE_VERSION = 1;
+
+    // Cache files not used for this long are deleted, as are the least recently used ones past the limit.
+    // The limit leaves room for several CLDR versions, each with about 60 files.
+    private static final long CACHE_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30);
+    private static final int CACHE_MAX_FILES = 500;
+
+    private final boolean validating;
+    private final File cacheDirectory;
+    private final HashCode dtdHash;
+
+    /**
+     * @param validating whether to validate the XML files against their DTDs (cached files have already been validated)
+     * @param cacheDirectory where to cache the path/value pairs, or null for no caching
+     * @param dtdDirectory the directory with the DTDs, whose contents are part of each cache key
+     */
+    SupplementalFileParser(boolean validating, File cacheDirectory, File dtdDirectory) {
+        this.validating = validating;
+        this.cacheDirectory = cacheDirectory;
+        this.dtdHash = cacheDirectory == null ? null : hashDtds(dtdDirectory);
+    }
+
+    /**
+     * Parse the files, returning the alternating paths and values of each, in the same order as the files.
+     */
+    List<List<String>> parse(List<File> files) {
+        int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (File file : files) {
+                futures.add(executor.submit(() -> parse(file)));
+            }
+            List<List<String>> result = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                result.add(future.get());
+            }
+            if (cacheDirectory != null) {
+                evict(cacheDirectory);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ICUException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ICUException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<String> parse(File file) throws IOException {
+        File cacheFile = null;
+        if (cacheDirectory != null) {
+            Hasher hasher = Hashing.sha256().newHasher()
+                .putInt(CACHE_VERSION)
+                .putBytes(dtdHash.asBytes())
+                .putBytes(Files.toByteArray(file));
+            cacheFile = new File(cacheDirectory, hasher.hash() + ".bin");
+            List<String> cached = readCache(cacheFile);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final List<String> pathsAndValues = new ArrayList<>();
+        new XMLFileReader().setHandler(new XMLFileReader.SimpleHandler() {
+            @Override
+            public void handlePathValue(String path, String value) {
+                pathsAndValues.add(path);
+                pathsAndValues.add(value);
+            }
+        }).read(file.toString(), -1, validating);
+        // only cache validated files, so that a cached file never needs validating
+        if (cacheFile != null && validating) {
+            writeCache(cacheFile, pathsAndValues);
+        }
+        return pathsAndValues;
+    }
+
+    /**
+     * Hash the DTDs, since they supply default attribute values.
+     */
+    private static HashCode hashDtds(File dtdDirectory) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        File[] dtds = dtdDirectory.listFiles((dir, name) -> name.endsWith(".dtd"));
+        if (dtds != null) {
+            Arrays.sort(dtds);
+            for (File dtd : dtds) {
+                try {
+                    hasher.putString(dtd.getName(), StandardCharsets.UTF_8)
+                        .putBytes(Files.toByteArray(dtd));
+                } catch (IOException e) {
+                    throw new ICUUncheckedIOException(e);
+                }
+            }
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Read the cached pairs, or return null if there are none (or they can't be read).
+     */
+    private static List<String> readCache(File cacheFile) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            int count = in.readInt();
+            List<String> result = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                result.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            // the modification time records when the file was last used, for evict
+            cacheFile.setLastModified(System.currentTimeMillis());
+            return result;
+        } catch (IOException | RuntimeException e) { // eg a truncated or corrupt file
+            if (DEBUG) {
+                System.err.println("Can't read " + cacheFile + ": " + e);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Write the pairs to a temporary file, then move it into place, so that other processes
+     * never see a partial file. Failures just mean that there is no cache.
+     */
+    private static void writeCache(File cacheFile, List<String> pathsAndValues) {
+        File tempFile = null;
+        try {
+            if (!cacheFile.getParentFile().mkdirs() && !cacheFile.getParentFile().isDirectory()) {
+                return;
+            }
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getParentFile());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                out.writeInt(pathsAndValues.size());
+                for (String s : pathsAndValues) {
+                    byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+            }
+            java.nio.file.Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (DEBUG) {
+                System.err.println("Can't write " + cacheFile + ": " + e);
+            }
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Delete the cache files that haven't been used recently, and the least recently used ones
+     * past the limit, so that old versions of the files don't pile up. Also delete any temporary
+     * files left by a process that stopped while writing.
+     */
+    private static void evict(File cacheDirectory) {
+        File[] cacheFiles = cacheDirectory.listFiles((dir, name) -> name.endsWith(".bin") || name.endsWith(".tmp"));
+        if (cacheFiles == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<File> recent = new ArrayList<>();
+        for (File cacheFile : cacheFiles) {
+            long lastModified = cacheFile.lastModified();
+            if (cacheFile.getName().endsWith(".tmp")) {
+                // another process may still be writing a recent one
+                if (now - lastModified > TimeUnit.DAYS.toMillis(1)) {
+                    cacheFile.delete();
+                }
+            } else if (now - lastModified > CACHE_MAX_AGE_MILLIS) {
+                cacheFile.delete();
+            } else {
+                recent.add(cacheFile);
+            }
+        }
+        if (recent.size() > CACHE_MAX_FILES) {
+            recent.sort(Comparator.comparingLong(File::lastModified).reversed());
+            for (File cacheFile : recent.subList(CACHE_MAX_FILES, recent.size())) {
+                cacheFile.delete();
+            }
+        }
+    }
+}
@@ -332,6 +332,7 @@ public class VettingViewer<T> {
 
         private CheckCLDR checkCldr;
         private HashMap<String, String> options = new HashMap<>();
+        private CheckCLDR.Options checkOptions = CheckCLDR.Options.getInstance(options);
         private ArrayList<CheckStatus> result = new ArrayList<>();
         private CLDRFile cldrFile;
         private Factory factory;
@@ -346,7 +347,8 @@ public class VettingViewer<T> {
             options = new HashMap<>();
             result = new ArrayList<>();
             checkCldr = CheckCLDR.getCheckAll(factory, ".*");
-            checkCldr.setCldrFileToCheck(cldrFile, options, result);
+            checkOptions = CheckCLDR.Options.getInstance(options);
+            checkCldr.setCldrFileToCheck(cldrFile, checkOptions, result);
             return Status.ok;
         }
 
@@ -354,7 +356,7 @@ public class VettingViewer<T> {
         public List<CheckStatus> getErrorCheckStatus(String path, String value) {
             String fullPath = cldrFile.getFullXPath(path);
             ArrayList<CheckStatus> result2 = new ArrayList<>();
-            checkCldr.check(path, fullPath, value, new CheckCLDR.Options(options), result2);
+            checkCldr.check(path, fullPath, value, checkOptions, result2);
             return result2;
         }
 
@@ -369,7 +371,7 @@ public class VettingViewer<T> {
             Status result0 = Status.ok;
             StringBuilder errorMessage = new StringBuilder();
             String fullPath = cldrFile.getFullXPath(path);
-            checkCldr.check(path, fullPath, value, new CheckCLDR.Options(options), result);
+            checkCldr.check(path, fullPath, value, checkOptions, result);
             for (CheckStatus checkStatus : result) {
                 final CheckCLDR cause = checkStatus.getCause();
                 /*
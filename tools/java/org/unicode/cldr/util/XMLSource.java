@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,13 +49,13 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
     private String localeID;
     private boolean nonInheriting;
     private TreeMap<String, String> aliasCache;
-    private LinkedHashMap<String, List<String>> reverseAliasCache;
+    private volatile AliasIndex aliasIndex;
     protected boolean locked;
     transient String[] fixedPath = new String[1];
 
     /*
      * For testing, make it possible to disable multiple caches:
-     * getFullPathAtDPathCache, getSourceLocaleIDCache, aliasCache, reverseAliasCache
+     * getFullPathAtDPathCache, getSourceLocaleIDCache, aliasCache, aliasIndex
      */
     protected boolean cachingIsEnabled = true;
 
@@ -440,29 +441,27 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
     }
 
     /**
-     * @return a reverse mapping of aliases
+     * Get the immutable index of the aliases in this XMLSource, for lookups during resolution.
+     * The index is built once and shared by all the ResolvingSources that use this XMLSource as root;
+     * reading it does not lock.
+     *
+     * @return the alias index. Note that since root is the only locale to have aliases,
+     *         the index for all other locales will be empty.
      */
-    private LinkedHashMap<String, List<String>> getReverseAliases() {
-        if (cachingIsEnabled && reverseAliasCache != null) {
-            return reverseAliasCache;
-        }
-        // Aliases are only ever found in root.
-        Map<String, String> aliases = getAliases();
-        Map<String, List<String>> reverse = new HashMap<>();
-        for (Map.Entry<String, String> entry : aliases.entrySet()) {
-            List<String> list = reverse.get(entry.getValue());
-            if (list == null) {
-                list = new ArrayList<>();
-                reverse.put(entry.getValue(), list);
+    protected AliasIndex getAliasIndex() {
+        if (!cachingIsEnabled) {
+            return new AliasIndex(loadAliases());
+        }
+        AliasIndex result = aliasIndex;
+        if (result == null) {
+            synchronized (this) {
+                result = aliasIndex;
+                if (result == null) {
+                    aliasIndex = result = new AliasIndex(getAliases());
+                }
             }
-            list.add(entry.getKey());
         }
-        // Sort map.
-        LinkedHashMap<String, List<String>> reverseAliasMap = new LinkedHashMap<>(new TreeMap<>(reverse));
-        if (cachingIsEnabled) {
-            reverseAliasCache = reverseAliasMap;
-        }
-        return reverseAliasMap;
+        return result;
     }
 
     /**
@@ -472,13 +471,13 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
      */
     private void clearCache() {
         aliasCache = null;
+        aliasIndex = null;
 
         /*
-         * TODO: what about the other caches: reverseAliasCache, getFullPathAtDPathCache, getSourceLocaleIDCache?
+         * TODO: what about the other caches: getFullPathAtDPathCache, getSourceLocaleIDCache?
          * Reference: https://unicode-org.atlassian.net/browse/CLDR-12020
          */
         if (false) {
-            reverseAliasCache = null;
             if (false && isResolving()) {
                 ((XMLSource.ResolvingSource) this).getFullPathAtDPathCache = null;
                 ((XMLSource.ResolvingSource) this).getSourceLocaleIDCache = null;
@@ -792,7 +791,8 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
         // }
         // }
 
-        Map<String, String> getFullPathAtDPathCache = new HashMap<>();
+        // concurrent, since resolved files may be shared between threads (e.g. in ChartDelta)
+        Map<String, String> getFullPathAtDPathCache = new ConcurrentHashMap<>();
 
         @Override
         public String getFullPathAtDPath(String xpath) {
@@ -1018,21 +1018,9 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
                     return new AliasLocation(xpath, source.getLocaleID());
                 }
             }
-            // Path not found, check if an alias exists
-            TreeMap<String, String> aliases = sources.get("root").getAliases();
-            String aliasedPath = aliases.get(xpath);
-
-            if (aliasedPath == null) {
-                // Check if there is an alias for a subset xpath.
-                // If there are one or more matching aliases, lowerKey() will
-                // return the alias with the longest matching prefix since the
-                // hashmap is sorted according to xpath.
-                String possibleSubpath = aliases.lowerKey(xpath);
-                if (possibleSubpath != null && xpath.startsWith(possibleSubpath)) {
-                    aliasedPath = aliases.get(possibleSubpath) +
-                        xpath.substring(possibleSubpath.length());
-                }
-            }
+            // Path not found, check if an alias exists, either for the xpath itself
+            // or for the longest prefix of it.
+            String aliasedPath = getAliasIndex().getAliasedPath(xpath);
 
             // alts are special; they act like there is a root alias to the path without the alt.
             if (aliasedPath == null && xpath.contains("[@alt=")) {
@@ -1145,7 +1133,7 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             // Keep track of the current path index: since it's sorted, we
             // never have to backtrack.
             int pathIndex = 0;
-            LinkedHashMap<String, List<String>> reverseAliases = getReverseAliases();
+            Map<String, List<String>> reverseAliases = getAliasIndex().getReverseAliases();
             for (String subpath : reverseAliases.keySet()) {
                 // Find the first path that matches the current alias.
                 while (pathIndex < paths.length &&
@@ -1175,8 +1163,12 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
             return newPaths;
         }
 
-        private LinkedHashMap<String, List<String>> getReverseAliases() {
-            return sources.get("root").getReverseAliases();
+        /**
+         * Aliases are only ever found in root, so use its index.
+         */
+        @Override
+        protected AliasIndex getAliasIndex() {
+            return sources.get("root").getAliasIndex();
         }
 
         private transient Set<String> cachedKeySet = null;
@@ -1241,13 +1233,8 @@ public abstract class XMLSource implements Freezable<XMLSource>, Iterable<String
                 }
                 // Paths aliasing to this path (directly or indirectly) may be affected,
                 // so clear them as well.
-                // There's probably a more elegant way to fix the paths than simply
-                // throwing everything out.
-                Set<String> dependentPaths = getDirectAliases(new String[] { xpath });
-                if (dependentPaths.size() > 0) {
-                    for (String path : dependentPaths) {
-                        getSourceLocaleIDCache.remove(path);
-                    }
+                for (String path : getAliasIndex().getDependentPaths(xpath)) {
+                    getSourceLocaleIDCache.remove(path);
                 }
             }
         }